@@ -27,6 +27,46 @@ public class Config {
      */
     public static final ModConfigSpec.ConfigValue<Boolean> ENABLE_MAGICAL_ARMOR;
 
+    /**
+     * When true, set definitions in config/zauberei/set_armor/{major}/{year}/ are only
+     * indexed on reload and read the first time a player with that major needs them.
+     * Wildcard folders and datapack sets are always loaded up front.
+     */
+    public static final ModConfigSpec.ConfigValue<Boolean> LAZY_SET_LOADING;
+
+    /**
+     * Minutes after which a lazily loaded major nobody has used is dropped again.
+     * 0 keeps loaded majors until the next reload.
+     */
+    public static final ModConfigSpec.IntValue LAZY_SET_IDLE_MINUTES;
+
+    /**
+     * When true, set effects listed in {@link #SILENT_SET_EFFECT_IDS} are applied as
+     * transient attribute modifiers instead of refreshed MobEffectInstances.
+     */
+    public static final ModConfigSpec.ConfigValue<Boolean> SILENT_SET_EFFECTS;
+
+    /**
+     * Effects whose whole behaviour is an attribute modifier and which may therefore
+     * be applied silently. Effects with hard-coded logic (resistance, haste, ...) do not belong here.
+     */
+    public static final ModConfigSpec.ConfigValue<List<? extends String>> SILENT_SET_EFFECT_IDS;
+
+    /**
+     * When true, mobs and armor stands wearing set pieces get set bonuses too.
+     * They have no major, so only all_majors sets of {@link #MOB_SET_YEAR} apply.
+     */
+    public static final ModConfigSpec.ConfigValue<Boolean> MOB_SET_BONUSES;
+
+    /** Year used to look up set definitions for non-player entities. */
+    public static final ModConfigSpec.IntValue MOB_SET_YEAR;
+
+    /**
+     * Equipment slot providers whose stacks count as set pieces,
+     * see {@link com.gilfort.zauberei.item.armor.EquipmentSlotProviders}.
+     */
+    public static final ModConfigSpec.ConfigValue<List<? extends String>> SET_SLOT_PROVIDERS;
+
     static {
         LETTER_ITEMS = BUILDER
                 .comment("\nItems, the player can get when using the Introduction Letter\n")
@@ -73,6 +113,64 @@ public class Config {
                         + "Requires a game restart to take effect.\n")
                 .define("enable_magical_armor", true);
 
+        LAZY_SET_LOADING = BUILDER
+                .comment("\nWhether set definitions of specific majors are loaded on demand.\n"
+                        + "When true, the files of config/zauberei/set_armor/{major}/{year}/ are only indexed on reload\n"
+                        + "and not read; a major's sets are read and loaded in the background when a player with that major logs in\n"
+                        + "or is given it. Until then the all_majors sets apply to that player.\n"
+                        + "Wildcard folders (all_majors, all_majors_all_years) and datapack sets are always loaded.\n"
+                        + "Useful for packs with many majors. Takes effect on the next reload.\n")
+                .define("lazy_set_loading", false);
+
+        LAZY_SET_IDLE_MINUTES = BUILDER
+                .comment("\nMinutes after which the set definitions of a major that nobody used are unloaded again.\n"
+                        + "Only used with lazy_set_loading. 0 keeps them until the next reload.\n")
+                .defineInRange("lazy_set_idle_minutes", 30, 0, 10080);
+
+        SILENT_SET_EFFECTS = BUILDER
+                .comment("\nWhether set effects listed in silent_set_effect_ids are applied as attribute modifiers\n"
+                        + "instead of potion effects. The bonus is the same, but no effect icon is shown and no\n"
+                        + "effect updates are sent to the client every few seconds. Other effects stay real effects.\n")
+                .define("silent_set_effects", false);
+
+        SILENT_SET_EFFECT_IDS = BUILDER
+                .comment("\nEffects that silent_set_effects may turn into attribute modifiers.\n"
+                        + "Only list effects that do nothing but change attributes; effects like resistance or haste\n"
+                        + "have hard-coded behaviour that an attribute modifier cannot reproduce.\n")
+                .defineListAllowEmpty(
+                        List.of("silent_set_effect_ids"),
+                        List.of(
+                                "minecraft:speed",
+                                "minecraft:slowness",
+                                "minecraft:strength",
+                                "minecraft:weakness",
+                                "minecraft:luck",
+                                "minecraft:unluck"
+                        ),
+                        o -> o instanceof String
+                );
+
+        MOB_SET_BONUSES = BUILDER
+                .comment("\nWhether mobs and armor stands wearing set pieces receive set bonuses.\n"
+                        + "Mobs have no major, so the sets in all_majors/{mob_set_year}/ and all_majors_all_years/ apply.\n"
+                        + "Mobs are evaluated when their armor changes and then less often the farther they are\n"
+                        + "from the nearest player; mobs in chunks that are not ticking are skipped.\n")
+                .define("mob_set_bonuses", false);
+
+        MOB_SET_YEAR = BUILDER
+                .comment("\nYear whose all_majors sets apply to mobs when mob_set_bonuses is enabled.\n")
+                .defineInRange("mob_set_year", 1, 1, 100);
+
+        SET_SLOT_PROVIDERS = BUILDER
+                .comment("\nSlots whose items count as set pieces.\n"
+                        + "armor: the four armor slots, offhand: the offhand slot,\n"
+                        + "curios: all equipped Curios slots (only if Curios is installed).\n")
+                .defineListAllowEmpty(
+                        List.of("set_slot_providers"),
+                        List.of("armor"),
+                        o -> o instanceof String
+                );
+
     }
 
     static final ModConfigSpec SPEC = BUILDER.build();
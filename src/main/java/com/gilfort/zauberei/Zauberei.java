@@ -4,10 +4,11 @@ import com.gilfort.zauberei.component.ComponentRegistry;
 import com.gilfort.zauberei.creativetab.ZaubereiCreativeModeTabs;
 import com.gilfort.zauberei.item.armor.ArmorEffects;
 import com.gilfort.zauberei.item.ZaubereiItems;
+import com.gilfort.zauberei.guis.ItemTagIndex;
 import com.gilfort.zauberei.item.armor.ArmorSetTooltipHandler;
 import com.gilfort.zauberei.item.armor.ZaubereiArmorMaterials;
 import com.gilfort.zauberei.commands.CommandsService;
-import com.gilfort.zauberei.item.armorbonus.ZaubereiReloadListener;
+import com.gilfort.zauberei.item.armorbonus.SetDefinitionReloadListener;
 import com.gilfort.zauberei.structure.ZaubereiStructures;
 import com.gilfort.zauberei.util.ZaubereiPlayerData;
 import net.minecraft.resources.ResourceLocation;
@@ -80,6 +81,10 @@ public class Zauberei
             LOGGER.info("[Zauberei] Ars Nouveau not found, skipping compatibility setup.");
         }
 
+        if (ModList.get().isLoaded("curios")) {
+            com.gilfort.zauberei.compat.CuriosCompat.init();
+        }
+
 
         // Register ourselves for server and other game events we are interested in.
         // Note that this is necessary if and only if we want *this* class (ExampleMod) to respond directly to events.
@@ -112,9 +117,7 @@ public class Zauberei
         // Do something when the server starts
         LOGGER.info("HELLO from server starting");
 
-        //Loads all set_effect files from config/zauberei/set_effects and applies effects
-        ZaubereiReloadListener.loadAllEffects();
-
+        // Set definitions are loaded by SetDefinitionReloadListener together with the server resources
     }
     public static ResourceLocation id(@NotNull String path) {
         return ResourceLocation.fromNamespaceAndPath(Zauberei.MODID, path);
@@ -124,8 +127,8 @@ public class Zauberei
 
     @SubscribeEvent
     public void onAddReloadListenerEvent(AddReloadListenerEvent event) {
-        // Hier deinen Listener hinzufügen
-
+        // Set definitions from datapacks (data/<ns>/zauberei_sets/) and config/zauberei/set_armor/
+        event.addListener(new SetDefinitionReloadListener());
     }
 
     // You can use EventBusSubscriber to automatically register all static methods in the class annotated with @SubscribeEvent
@@ -140,6 +143,7 @@ public class Zauberei
             LOGGER.info("MINECRAFT NAME >> {}", Minecraft.getInstance().getUser().getName());
 
             ArmorSetTooltipHandler.register();
+            ItemTagIndex.register();
         }
     }
 }
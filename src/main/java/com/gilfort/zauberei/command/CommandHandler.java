@@ -1,24 +1,34 @@
 package com.gilfort.zauberei.command;
 
 
+import com.gilfort.zauberei.Config;
 import com.gilfort.zauberei.helpers.PlayerDataHelper;
+import com.gilfort.zauberei.item.armor.EquipmentSlotProviders;
+import com.gilfort.zauberei.item.armor.SetEvaluationTrace;
 import com.gilfort.zauberei.item.armorbonus.ArmorSetData;
 import com.gilfort.zauberei.item.armorbonus.ArmorSetDataRegistry;
+import com.gilfort.zauberei.item.armorbonus.LazySetCache;
+import com.gilfort.zauberei.item.armorbonus.SetBulkEdit;
 import com.gilfort.zauberei.item.armorbonus.ZaubereiReloadListener;
 import com.gilfort.zauberei.network.OpenSetsGuiPayload;
+import com.gilfort.zauberei.network.SetDeltaPayload;
+import com.gilfort.zauberei.util.ZaubereiIO;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.mojang.brigadier.Command;
 import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.arguments.DoubleArgumentType;
 import com.mojang.brigadier.arguments.IntegerArgumentType;
 import com.mojang.brigadier.arguments.StringArgumentType;
+import com.mojang.brigadier.builder.ArgumentBuilder;
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
 import com.mojang.brigadier.context.CommandContext;
 import com.mojang.brigadier.suggestion.SuggestionProvider;
 import net.minecraft.ChatFormatting;
 import net.minecraft.commands.CommandSourceStack;
 import net.minecraft.commands.Commands;
 import net.minecraft.commands.SharedSuggestionProvider;
-import net.minecraft.core.Holder;
+import net.minecraft.commands.arguments.ResourceLocationArgument;
 import net.minecraft.core.registries.BuiltInRegistries;
 import net.minecraft.core.registries.Registries;
 import net.minecraft.network.chat.ClickEvent;
@@ -34,9 +44,13 @@ import net.neoforged.fml.loading.FMLPaths;
 import net.neoforged.neoforge.network.PacketDistributor;
 
 import java.io.File;
-import java.io.FileWriter;
-import java.io.IOException;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 /**
@@ -49,14 +63,20 @@ import java.util.stream.Collectors;
  *   ├── checkmajor &lt;player&gt;                        Check a player's major
  *   ├── setyear &lt;year&gt;                             Set your own year
  *   ├── checkyear &lt;player&gt;                         Check a player's year
+ *   ├── tag_items &lt;namespace&gt; &lt;tagpath&gt; [page]     List the items of an item tag
+ *   ├── list_tags [filter] [--page &lt;n&gt;]              List item tags, clickable
  *   ├── debug
  *   │   ├── tag &lt;namespace&gt; &lt;tagpath&gt;             Debug: check if worn armor matches a tag
  *   │   ├── sets                                    Debug: show loaded sets for your major/year
+ *   │   ├── explain &lt;player&gt; [ticks]               Debug: trace how a player's set bonuses are evaluated
  *   │   └── reload                                  Reload all set definitions from config
  *   └── sets
  *       ├── list                                    List all loaded set definitions
  *       ├── info &lt;namespace&gt; &lt;tagpath&gt;             Show full details of a set definition
  *       ├── validate                                Check all JSON files for errors
+ *       ├── bulk &lt;dry_run|apply&gt; scale &lt;factor&gt; [filters]          Scale attribute values
+ *       ├── bulk &lt;dry_run|apply&gt; replace_effect &lt;from&gt; &lt;to&gt; [filters]  Swap an effect id
+ *       ├── bulk &lt;dry_run|apply&gt; clamp &lt;min&gt; &lt;max&gt; [filters]       Clamp effect amplifiers
  *       ├── create &lt;ns&gt; &lt;tagpath&gt; universal        Template: all majors + all years
  *       ├── create &lt;ns&gt; &lt;tagpath&gt; all_majors &lt;y&gt;  Template: all majors + specific year
  *       └── create &lt;ns&gt; &lt;tagpath&gt; &lt;major&gt; &lt;year&gt;  Template: specific major + year
@@ -77,21 +97,20 @@ public class CommandHandler {
 
     /** Suggests all real major names from the registry (excludes wildcard). */
     public static final SuggestionProvider<CommandSourceStack> MAJOR_SUGGESTIONS = (ctx, builder) ->
-            SharedSuggestionProvider.suggest(ArmorSetDataRegistry.getMajors(), builder);
+            SuggestionIndex.suggestMajors(builder);
+
+    /** Suggests all registered mob effect ids. */
+    public static final SuggestionProvider<CommandSourceStack> EFFECT_SUGGESTIONS = (ctx, builder) ->
+            SharedSuggestionProvider.suggestResource(BuiltInRegistries.MOB_EFFECT.keySet(), builder);
 
     /**
      * Suggests all unique namespaces from item tags currently loaded in the game.
-     * Reads directly from the item tag registry, so only tags that exist in the
-     * current modpack are shown.
+     * Only tags that exist in the current modpack are shown.
      *
      * Examples: "c", "minecraft", "zauberei", "ars_nouveau", "forge"
      */
-    public static final SuggestionProvider<CommandSourceStack> TAG_NAMESPACE_SUGGESTIONS = (ctx, builder) -> {
-        Set<String> namespaces = BuiltInRegistries.ITEM.getTagNames()
-                .map(tagKey -> tagKey.location().getNamespace())
-                .collect(Collectors.toSet());
-        return SharedSuggestionProvider.suggest(namespaces, builder);
-    };
+    public static final SuggestionProvider<CommandSourceStack> TAG_NAMESPACE_SUGGESTIONS = (ctx, builder) ->
+            SuggestionIndex.suggestNamespaces(builder);
 
     /**
      * Suggests tag paths filtered by the namespace already entered.
@@ -99,43 +118,22 @@ public class CommandHandler {
      *
      * Example: namespace="c" → suggests "armors", "iron_armors", "gold_ingots", ...
      */
-    public static final SuggestionProvider<CommandSourceStack> TAG_PATH_SUGGESTIONS = (ctx, builder) -> {
-        String namespace = StringArgumentType.getString(ctx, "namespace");
-        List<String> paths = BuiltInRegistries.ITEM.getTagNames()
-                .filter(tagKey -> tagKey.location().getNamespace().equals(namespace))
-                .map(tagKey -> tagKey.location().getPath())
-                .sorted()
-                .toList();
-        return SharedSuggestionProvider.suggest(paths, builder);
-    };
+    public static final SuggestionProvider<CommandSourceStack> TAG_PATH_SUGGESTIONS = tagPathSuggestions("namespace");
 
-    /**
-     * Suggests tag paths filtered by namespace, for the "info" context.
-     * Uses "info_namespace" argument name to avoid collision.
-     */
-    public static final SuggestionProvider<CommandSourceStack> INFO_TAG_PATH_SUGGESTIONS = (ctx, builder) -> {
-        String namespace = StringArgumentType.getString(ctx, "info_namespace");
-        List<String> paths = BuiltInRegistries.ITEM.getTagNames()
-                .filter(tagKey -> tagKey.location().getNamespace().equals(namespace))
-                .map(tagKey -> tagKey.location().getPath())
-                .sorted()
-                .toList();
-        return SharedSuggestionProvider.suggest(paths, builder);
-    };
+    /** Tag paths for the "info" context ("info_namespace" argument, to avoid collision). */
+    public static final SuggestionProvider<CommandSourceStack> INFO_TAG_PATH_SUGGESTIONS = tagPathSuggestions("info_namespace");
 
-    /**
-     * Suggests tag paths filtered by namespace, for the "debug tag" context.
-     * Uses "debug_namespace" argument name to avoid collision.
-     */
-    public static final SuggestionProvider<CommandSourceStack> DEBUG_TAG_PATH_SUGGESTIONS = (ctx, builder) -> {
-        String namespace = StringArgumentType.getString(ctx, "debug_namespace");
-        List<String> paths = BuiltInRegistries.ITEM.getTagNames()
-                .filter(tagKey -> tagKey.location().getNamespace().equals(namespace))
-                .map(tagKey -> tagKey.location().getPath())
-                .sorted()
-                .toList();
-        return SharedSuggestionProvider.suggest(paths, builder);
-    };
+    /** Tag paths for the "debug tag" context ("debug_namespace" argument). */
+    public static final SuggestionProvider<CommandSourceStack> DEBUG_TAG_PATH_SUGGESTIONS = tagPathSuggestions("debug_namespace");
+
+    /** Tag paths for "tag_items" ("tag_namespace" argument). */
+    public static final SuggestionProvider<CommandSourceStack> TAG_ITEMS_PATH_SUGGESTIONS = tagPathSuggestions("tag_namespace");
+
+    /** Tag paths in the namespace held by the given argument, from {@link SuggestionIndex}. */
+    private static SuggestionProvider<CommandSourceStack> tagPathSuggestions(String namespaceArgument) {
+        return (ctx, builder) -> SuggestionIndex.suggestPaths(
+                StringArgumentType.getString(ctx, namespaceArgument), builder);
+    }
 
     // ═══════════════════════════════════════════════════════════════════════
     //  COMMAND REGISTRATION
@@ -159,7 +157,7 @@ public class CommandHandler {
                         .then(Commands.literal("checkyear")
                                 .then(Commands.argument("player", StringArgumentType.word())
                                         .executes(CommandHandler::checkYearCommand)))
-                        // /zauberei tag_items <namespace> <tagpath>
+                        // /zauberei tag_items <namespace> <tagpath> [page]
                         .then(Commands.literal("tag_items")
                                 .requires(src -> src.hasPermission(2))
                                 .then(Commands.argument("tag_namespace", StringArgumentType.word())
@@ -168,8 +166,13 @@ public class CommandHandler {
                                                 .suggests(TAG_ITEMS_PATH_SUGGESTIONS)
                                                 .executes(ctx -> tagItems(ctx.getSource(),
                                                         StringArgumentType.getString(ctx, "tag_namespace"),
-                                                        StringArgumentType.getString(ctx, "tag_path"))))))
-                        // /zauberei list_tags [filter]
+                                                        StringArgumentType.getString(ctx, "tag_path"), 1))
+                                                .then(Commands.argument("page", IntegerArgumentType.integer(1))
+                                                        .executes(ctx -> tagItems(ctx.getSource(),
+                                                                StringArgumentType.getString(ctx, "tag_namespace"),
+                                                                StringArgumentType.getString(ctx, "tag_path"),
+                                                                IntegerArgumentType.getInteger(ctx, "page")))))))
+                        // /zauberei list_tags [filter] [--page <n>]
                         .then(Commands.literal("list_tags")
                                 .requires(src -> src.hasPermission(2))
                                 .executes(ctx -> listTags(ctx.getSource(), ""))
@@ -191,6 +194,20 @@ public class CommandHandler {
                                                                 StringArgumentType.getString(ctx, "debug_tagpath"))))))
                                 .then(Commands.literal("sets")
                                         .executes(ctx -> debugSets(ctx.getSource())))
+                                .then(Commands.literal("lazy")
+                                        .executes(ctx -> debugLazy(ctx.getSource())))
+                                // /zauberei debug explain <player> [ticks]
+                                .then(Commands.literal("explain")
+                                        .then(Commands.argument("player", StringArgumentType.word())
+                                                .suggests((ctx, builder) -> SharedSuggestionProvider.suggest(
+                                                        ctx.getSource().getOnlinePlayerNames(), builder))
+                                                .executes(ctx -> debugExplain(ctx.getSource(),
+                                                        StringArgumentType.getString(ctx, "player"), 0))
+                                                .then(Commands.argument("ticks",
+                                                                IntegerArgumentType.integer(1, SetEvaluationTrace.MAX_TICKS))
+                                                        .executes(ctx -> debugExplain(ctx.getSource(),
+                                                                StringArgumentType.getString(ctx, "player"),
+                                                                IntegerArgumentType.getInteger(ctx, "ticks"))))))
                                 .then(Commands.literal("reload")
                                         .executes(ctx -> reloadArmorEffects(ctx.getSource()))))
 
@@ -218,6 +235,11 @@ public class CommandHandler {
                                 .then(Commands.literal("validate")
                                         .executes(ctx -> setsValidate(ctx.getSource())))
 
+                                // /zauberei sets bulk <dry_run|apply> <operation> ... [filters]
+                                .then(Commands.literal("bulk")
+                                        .then(bulkCommand("dry_run", true))
+                                        .then(bulkCommand("apply", false)))
+
                                 // /zauberei sets create <namespace> <tagpath> ...
                                 .then(Commands.literal("create")
                                         .then(Commands.argument("namespace", StringArgumentType.word())
@@ -258,18 +280,28 @@ public class CommandHandler {
     //  PLAYER COMMANDS
     // ═══════════════════════════════════════════════════════════════════════
 
+    /** Lines per page of {@code list_tags} and {@code tag_items}. */
+    private static final int PAGE_SIZE = 20;
+
     /**
-     * Lists all items registered under a given item tag.
-     * Each item is shown with its registry name and a hover tooltip.
+     * Trailing page option of {@code list_tags}, e.g. {@code armor --page 2}.
+     * Part of the greedy filter argument, so every filter string still parses.
      */
-    private static int tagItems(CommandSourceStack source, String namespace, String tagPath) {
-        ResourceLocation tagLoc = ResourceLocation.fromNamespaceAndPath(namespace, tagPath);
-        TagKey<Item> tagKey = TagKey.create(Registries.ITEM, tagLoc);
+    private static final Pattern PAGE_OPTION = Pattern.compile("(?:^|\\s)--page\\s+(\\S+)\\s*$");
 
-        List<Item> items = BuiltInRegistries.ITEM.getOrCreateTag(tagKey)
-                .stream()
-                .map(Holder::value)
-                .toList();
+    /**
+     * Lists the items registered under a given item tag, one page at a time.
+     * Each item is shown with its name and registry id; names and item lists
+     * come from {@link ServerTagIndex}.
+     */
+    private static int tagItems(CommandSourceStack source, String namespace, String tagPath, int page) {
+        ResourceLocation tagLoc = ResourceLocation.tryParse(namespace + ":" + tagPath);
+        if (tagLoc == null) {
+            source.sendFailure(Component.literal("Invalid tag: " + namespace + ":" + tagPath));
+            return 0;
+        }
+        TagKey<Item> tagKey = TagKey.create(Registries.ITEM, tagLoc);
+        List<Item> items = ServerTagIndex.get().itemsOf(tagKey);
 
         if (items.isEmpty()) {
             source.sendSystemMessage(Component.literal("[Zauberei] ")
@@ -283,6 +315,9 @@ public class CommandHandler {
             return 1;
         }
 
+        int pages = pageCount(items.size());
+        page = Math.min(page, pages);
+
         // Header
         source.sendSystemMessage(Component.literal("[Zauberei] ")
                 .withStyle(ChatFormatting.AQUA)
@@ -293,14 +328,15 @@ public class CommandHandler {
                 .append(Component.literal(" (" + items.size() + " items):")
                         .withStyle(ChatFormatting.WHITE)));
 
-        // Each item
-        for (Item item : items) {
+        // Each item of this page
+        int end = Math.min(items.size(), page * PAGE_SIZE);
+        for (int i = (page - 1) * PAGE_SIZE; i < end; i++) {
+            Item item = items.get(i);
             ResourceLocation itemId = BuiltInRegistries.ITEM.getKey(item);
-            String displayName = new ItemStack(item).getHoverName().getString();
 
             MutableComponent line = Component.literal("  \u25B8 ")
                     .withStyle(ChatFormatting.GRAY)
-                    .append(Component.literal(displayName)
+                    .append(ServerTagIndex.nameOf(item).copy()
                             .withStyle(ChatFormatting.GREEN))
                     .append(Component.literal(" (" + itemId + ")")
                             .withStyle(ChatFormatting.DARK_GRAY));
@@ -313,23 +349,35 @@ public class CommandHandler {
             source.sendSystemMessage(line);
         }
 
+        String base = "/zauberei tag_items " + tagLoc.getNamespace() + " " + tagLoc.getPath() + " ";
+        sendPageNavigation(source, page, pages, p -> base + p);
         return 1;
     }
 
     /**
-     * Lists all registered item tags, optionally filtered by a search string.
-     * Each tag is clickable and runs /zauberei tag_items for that tag.
+     * Lists all registered item tags, optionally filtered by a search string,
+     * one page at a time. Each tag is clickable and runs /zauberei tag_items
+     * for that tag. {@code input} is the filter, optionally followed by
+     * {@code --page <n>}.
      */
-    private static int listTags(CommandSourceStack source, String filter) {
-        List<TagKey<Item>> allTags = BuiltInRegistries.ITEM.getTagNames()
-                .sorted(Comparator.comparing(t -> t.location().toString()))
-                .toList();
+    private static int listTags(CommandSourceStack source, String input) {
+        String filter = input.trim();
+        int page = 1;
+        Matcher pageOption = PAGE_OPTION.matcher(filter);
+        if (pageOption.find()) {
+            try {
+                page = Integer.parseInt(pageOption.group(1));
+            } catch (NumberFormatException e) {
+                page = 0;
+            }
+            if (page < 1) {
+                source.sendFailure(Component.literal("Invalid page: " + pageOption.group(1)));
+                return 0;
+            }
+            filter = filter.substring(0, pageOption.start()).trim();
+        }
 
-        List<TagKey<Item>> filtered = filter.isEmpty()
-                ? allTags
-                : allTags.stream()
-                .filter(t -> t.location().toString().contains(filter.toLowerCase()))
-                .toList();
+        List<TagKey<Item>> filtered = ServerTagIndex.get().filter(filter);
 
         if (filtered.isEmpty()) {
             source.sendSystemMessage(Component.literal("[Zauberei] ")
@@ -340,6 +388,9 @@ public class CommandHandler {
             return 1;
         }
 
+        int pages = pageCount(filtered.size());
+        page = Math.min(page, pages);
+
         // Header
         source.sendSystemMessage(Component.literal("[Zauberei] ")
                 .withStyle(ChatFormatting.AQUA)
@@ -347,9 +398,8 @@ public class CommandHandler {
                                 + (filter.isEmpty() ? ":" : " matching \"" + filter + "\":"))
                         .withStyle(ChatFormatting.WHITE)));
 
-        // Max 50 anzeigen, sonst wird der Chat überflutet
-        int limit = Math.min(filtered.size(), 50);
-        for (int i = 0; i < limit; i++) {
+        int end = Math.min(filtered.size(), page * PAGE_SIZE);
+        for (int i = (page - 1) * PAGE_SIZE; i < end; i++) {
             ResourceLocation loc = filtered.get(i).location();
             String cmd = "/zauberei tag_items " + loc.getNamespace() + " " + loc.getPath();
 
@@ -363,14 +413,39 @@ public class CommandHandler {
             source.sendSystemMessage(line);
         }
 
-        if (filtered.size() > limit) {
-            source.sendSystemMessage(Component.literal("  ... and " + (filtered.size() - limit) + " more. Use a filter to narrow down.")
-                    .withStyle(ChatFormatting.GRAY));
-        }
-
+        String prefix = "/zauberei list_tags " + (filter.isEmpty() ? "" : filter + " ");
+        sendPageNavigation(source, page, pages, p -> prefix + "--page " + p);
         return 1;
     }
 
+    private static int pageCount(int lines) {
+        return Math.max(1, (lines + PAGE_SIZE - 1) / PAGE_SIZE);
+    }
+
+    /** "« Prev  Page N of M  Next »", with the arrows running the command for that page. */
+    private static void sendPageNavigation(CommandSourceStack source, int page, int pages,
+                                           Function<Integer, String> commandForPage) {
+        if (pages <= 1) return;
+        MutableComponent nav = Component.literal("  ");
+        nav.append(pageLink("\u00AB Prev", page > 1 ? commandForPage.apply(page - 1) : null));
+        nav.append(Component.literal("  Page " + page + " of " + pages + "  ")
+                .withStyle(ChatFormatting.GRAY));
+        nav.append(pageLink("Next \u00BB", page < pages ? commandForPage.apply(page + 1) : null));
+        source.sendSystemMessage(nav);
+    }
+
+    private static MutableComponent pageLink(String label, String command) {
+        if (command == null) {
+            return Component.literal(label).withStyle(ChatFormatting.DARK_GRAY);
+        }
+        return Component.literal(label)
+                .withStyle(ChatFormatting.AQUA)
+                .withStyle(style -> style
+                        .withClickEvent(new ClickEvent(ClickEvent.Action.RUN_COMMAND, command))
+                        .withHoverEvent(new HoverEvent(HoverEvent.Action.SHOW_TEXT,
+                                Component.literal(command))));
+    }
+
 
     private static int setMajorCommand(CommandContext<CommandSourceStack> context) {
         String major = StringArgumentType.getString(context, "major");
@@ -472,6 +547,30 @@ public class CommandHandler {
         return 1;
     }
 
+    /**
+     * /zauberei debug lazy
+     * Shows the state and counters of lazy set loading.
+     */
+    private static int debugLazy(CommandSourceStack source) {
+        LazySetCache.Stats stats = ArmorSetDataRegistry.getLazyStats();
+        source.sendSystemMessage(Component.literal("[Zauberei Debug] ")
+                .withStyle(ChatFormatting.AQUA)
+                .append(Component.literal("Lazy set loading: " + (Config.LAZY_SET_LOADING.get() ? "on" : "off"))));
+        if (stats.indexedMajors() == 0) {
+            source.sendSystemMessage(Component.literal("No deferred majors (all sets are loaded up front).")
+                    .withStyle(ChatFormatting.GRAY));
+            return 1;
+        }
+        source.sendSystemMessage(Component.literal("Indexed: " + stats.indexedFiles() + " file(s) in "
+                + stats.indexedMajors() + " major(s)").withStyle(ChatFormatting.GRAY));
+        source.sendSystemMessage(Component.literal("Loaded: " + (stats.loadedMajors().isEmpty() ? "-"
+                : String.join(", ", stats.loadedMajors()))).withStyle(ChatFormatting.GRAY));
+        source.sendSystemMessage(Component.literal("Hits: " + stats.hits() + "  Loads: " + stats.loads()
+                + " (" + stats.loadMillis() + " ms)  Evictions: " + stats.evictions())
+                .withStyle(ChatFormatting.GRAY));
+        return 1;
+    }
+
     /**
      * /zauberei debug tag &lt;namespace&gt; &lt;tagpath&gt;
      * Example: /zauberei debug tag zauberei magiccloth_armor
@@ -506,7 +605,9 @@ public class CommandHandler {
                 .append(Component.literal("Tag ").withStyle(ChatFormatting.GRAY))
                 .append(Component.literal(tagString).withStyle(ChatFormatting.GOLD)));
 
-        for (ItemStack armorStack : player.getArmorSlots()) {
+        List<ItemStack> stacks = new ArrayList<>();
+        EquipmentSlotProviders.forEachStack(player, stacks::add);
+        for (ItemStack armorStack : stacks) {
             boolean matches = !armorStack.isEmpty() && armorStack.is(tagKey);
             if (matches) count++;
 
@@ -522,7 +623,7 @@ public class CommandHandler {
                             .withStyle(matches ? ChatFormatting.GREEN : ChatFormatting.RED)));
         }
 
-        source.sendSystemMessage(Component.literal(" => wornParts=" + count + "/4")
+        source.sendSystemMessage(Component.literal(" => wornParts=" + count + "/" + stacks.size())
                 .withStyle(ChatFormatting.AQUA));
 
         ArmorSetData data = ArmorSetDataRegistry.getData(major.toLowerCase(), year, tagString);
@@ -535,6 +636,197 @@ public class CommandHandler {
         }
     }
 
+    // ─── /zauberei debug explain ─────────────────────────────────────────
+
+    private static final File TRACE_DIR = new File(
+            FMLPaths.GAMEDIR.get().toFile(),
+            "logs" + File.separator + "zauberei"
+    );
+    private static final DateTimeFormatter TRACE_STAMP =
+            DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneId.systemDefault());
+    /** Earlier evaluations of a multi-tick trace that get a summary line in chat. */
+    private static final int TRACE_SUMMARY_LINES = 10;
+
+    /**
+     * /zauberei debug explain &lt;player&gt; [ticks]
+     * Traces how a player's set bonuses are evaluated: once right now, or
+     * every evaluation during the next {@code ticks} ticks. The last
+     * evaluation is shown in full, the whole trace is written to
+     * {@code logs/zauberei/<player>-<time>.json}.
+     */
+    private static int debugExplain(CommandSourceStack source, String playerName, int ticks) {
+        ServerPlayer target = source.getServer().getPlayerList().getPlayerByName(playerName);
+        if (target == null) {
+            source.sendFailure(Component.literal("Player " + playerName + " not found."));
+            return 0;
+        }
+        if (ticks > 0) {
+            source.sendSystemMessage(Component.literal("[Zauberei Debug] ")
+                    .withStyle(ChatFormatting.AQUA)
+                    .append(Component.literal("Tracing " + playerName + " for " + ticks + " ticks...")
+                            .withStyle(ChatFormatting.WHITE)));
+        }
+        SetEvaluationTrace.start(target, ticks, trace -> sendTraceReport(source, trace));
+        return 1;
+    }
+
+    private static void sendTraceReport(CommandSourceStack source, SetEvaluationTrace trace) {
+        String name = trace.player().getGameProfile().getName();
+        List<SetEvaluationTrace.Evaluation> evaluations = trace.evaluations();
+
+        source.sendSystemMessage(Component.literal("[Zauberei Debug] ")
+                .withStyle(ChatFormatting.AQUA)
+                .append(Component.literal("Set evaluation of ").withStyle(ChatFormatting.WHITE))
+                .append(Component.literal(name).withStyle(ChatFormatting.GOLD))
+                .append(Component.literal(" – " + trace.evaluationsSeen() + " evaluation(s), " + trace.endedBy())
+                        .withStyle(ChatFormatting.GRAY)));
+        if (evaluations.isEmpty()) {
+            return;
+        }
+
+        int last = evaluations.size() - 1;
+        if (last > TRACE_SUMMARY_LINES) {
+            source.sendSystemMessage(Component.literal("  … " + (last - TRACE_SUMMARY_LINES)
+                    + " earlier evaluation(s) in the trace file").withStyle(ChatFormatting.DARK_GRAY));
+        }
+        for (int i = Math.max(0, last - TRACE_SUMMARY_LINES); i < last; i++) {
+            sendEvaluationSummary(source, evaluations.get(i));
+        }
+        sendEvaluationDetails(source, evaluations.get(last));
+        writeTrace(source, trace);
+    }
+
+    /** One line per evaluation: what changed and how long it took. */
+    private static void sendEvaluationSummary(CommandSourceStack source, SetEvaluationTrace.Evaluation eval) {
+        long active = eval.tags().stream().filter(t -> t.part() != null).count();
+        int added = 0, replaced = 0, removed = 0;
+        for (SetEvaluationTrace.ModifierChange change : eval.modifiers()) {
+            switch (change.change()) {
+                case ADDED -> added++;
+                case REPLACED -> replaced++;
+                case REMOVED -> removed++;
+                default -> {}
+            }
+        }
+        long applied = eval.effects().stream()
+                .filter(e -> e.action() != SetEvaluationTrace.EffectAction.KEPT).count();
+        source.sendSystemMessage(Component.literal("  tick " + eval.tick() + ": " + active + " set(s) active, modifiers +"
+                + added + " ~" + replaced + " -" + removed + ", " + applied + " effect(s) sent, "
+                + micros(eval.totalNanos())).withStyle(ChatFormatting.GRAY));
+    }
+
+    private static void sendEvaluationDetails(CommandSourceStack source, SetEvaluationTrace.Evaluation eval) {
+        source.sendSystemMessage(Component.literal("Tick " + eval.tick() + " – major=" + eval.major()
+                + ", year=" + eval.year()).withStyle(ChatFormatting.AQUA));
+
+        // Tags: worn pieces → winning scope → chosen part
+        source.sendSystemMessage(Component.literal(" Tags:").withStyle(ChatFormatting.GRAY));
+        if (eval.tags().isEmpty()) {
+            source.sendSystemMessage(Component.literal("  none registered for this major/year")
+                    .withStyle(ChatFormatting.YELLOW));
+        }
+        for (SetEvaluationTrace.TagStep step : eval.tags()) {
+            MutableComponent line = Component.literal("  ▸ ")
+                    .withStyle(ChatFormatting.DARK_GRAY)
+                    .append(Component.literal(step.tag()).withStyle(ChatFormatting.GOLD))
+                    .append(Component.literal("  worn " + step.worn()).withStyle(ChatFormatting.WHITE));
+            if (step.scope() == null) {
+                line.append(Component.literal(" → no definition").withStyle(ChatFormatting.RED));
+            } else {
+                line.append(Component.literal(" → " + step.scope()).withStyle(ChatFormatting.AQUA));
+                if (step.part() != null) {
+                    line.append(Component.literal(" → " + step.part() + " (≥" + step.threshold() + ")")
+                            .withStyle(ChatFormatting.GREEN));
+                } else {
+                    line.append(Component.literal(" → below first threshold (" + step.firstThreshold() + ")")
+                            .withStyle(ChatFormatting.YELLOW));
+                }
+                if (step.blockedPart() != null) {
+                    line.append(Component.literal(" [" + step.blockedPart() + " blocked by conditions]")
+                            .withStyle(ChatFormatting.RED));
+                }
+                if (step.origin() != null) {
+                    line.withStyle(style -> style.withHoverEvent(new HoverEvent(HoverEvent.Action.SHOW_TEXT,
+                            Component.literal("Defined in " + step.origin()))));
+                }
+            }
+            source.sendSystemMessage(line);
+        }
+
+        // Modifier diff
+        if (!eval.modifiers().isEmpty()) {
+            source.sendSystemMessage(Component.literal(" Modifiers:").withStyle(ChatFormatting.GRAY));
+        }
+        for (SetEvaluationTrace.ModifierChange change : eval.modifiers()) {
+            String text = switch (change.change()) {
+                case ADDED -> "  + " + change.attribute() + " " + change.operation() + " " + change.after();
+                case REPLACED -> "  ~ " + change.attribute() + " " + change.operation() + " "
+                        + change.before() + " → " + change.after();
+                case UNCHANGED -> "  = " + change.attribute() + " " + change.operation() + " " + change.after();
+                case REMOVED -> "  - " + change.attribute()
+                        + (change.before() != null ? " " + change.operation() + " " + change.before() : "");
+                case NO_ATTRIBUTE -> "  ! " + change.attribute() + " " + change.after() + " (entity has no such attribute)";
+            };
+            ChatFormatting color = switch (change.change()) {
+                case ADDED -> ChatFormatting.GREEN;
+                case REPLACED -> ChatFormatting.YELLOW;
+                case UNCHANGED -> ChatFormatting.DARK_GRAY;
+                case REMOVED, NO_ATTRIBUTE -> ChatFormatting.RED;
+            };
+            source.sendSystemMessage(Component.literal(text).withStyle(color));
+        }
+
+        // Effects
+        if (!eval.effects().isEmpty()) {
+            source.sendSystemMessage(Component.literal(" Effects:").withStyle(ChatFormatting.GRAY));
+        }
+        for (SetEvaluationTrace.EffectChange effect : eval.effects()) {
+            String state = switch (effect.action()) {
+                case APPLIED -> "applied";
+                case CHANGED -> "amplifier changed";
+                case REFRESHED -> "refreshed (" + effect.remaining() + " ticks left)";
+                case KEPT -> "kept (" + effect.remaining() + " ticks left)";
+            };
+            source.sendSystemMessage(Component.literal("  " + effect.effect() + " " + (effect.amplifier() + 1)
+                    + ": " + state).withStyle(effect.action() == SetEvaluationTrace.EffectAction.KEPT
+                    ? ChatFormatting.DARK_GRAY : ChatFormatting.GREEN));
+        }
+        if (!eval.silenced().isEmpty()) {
+            source.sendSystemMessage(Component.literal(" Silenced: " + String.join(", ", eval.silenced()))
+                    .withStyle(ChatFormatting.GRAY));
+        }
+        if (eval.procs() > 0) {
+            source.sendSystemMessage(Component.literal(" Procs: " + eval.procs()).withStyle(ChatFormatting.GRAY));
+        }
+
+        source.sendSystemMessage(Component.literal(" Time: collect " + micros(eval.collectNanos())
+                + " · attributes " + micros(eval.attributeNanos())
+                + " · effects " + micros(eval.effectNanos())
+                + " · total " + micros(eval.totalNanos())).withStyle(ChatFormatting.GRAY));
+    }
+
+    private static String micros(long nanos) {
+        return String.format(Locale.ROOT, "%.1f µs", nanos / 1000.0);
+    }
+
+    private static void writeTrace(CommandSourceStack source, SetEvaluationTrace trace) {
+        String fileName = trace.player().getGameProfile().getName() + "-"
+                + TRACE_STAMP.format(trace.started()) + ".json";
+        File file = new File(TRACE_DIR, fileName);
+
+        // Write file off-thread; feedback is sent back on the server thread
+        ZaubereiIO.writeAtomic(file.toPath(), GSON.toJson(trace.report())).whenCompleteAsync((v, e) -> {
+            if (e != null) {
+                source.sendFailure(Component.literal("Failed to write trace: " + ZaubereiIO.describe(e)));
+            } else {
+                source.sendSystemMessage(Component.literal(" Full trace: ")
+                        .withStyle(ChatFormatting.GRAY)
+                        .append(Component.literal("logs/zauberei/" + fileName)
+                                .withStyle(ChatFormatting.YELLOW)));
+            }
+        }, source.getServer());
+    }
+
     // ═══════════════════════════════════════════════════════════════════════
     //  SETS COMMANDS — list / info / validate / create
     // ═══════════════════════════════════════════════════════════════════════
@@ -569,7 +861,27 @@ public class CommandHandler {
 
 
 
+    /**
+     * Runs {@code action} on the server thread once every lazily loaded major
+     * is in, so listing commands see all sets without the server waiting for
+     * the files to be read.
+     */
+    private static int withAllSets(CommandSourceStack source, Runnable action) {
+        ArmorSetDataRegistry.loadAllDeferred().whenCompleteAsync((v, e) -> {
+            if (e != null) {
+                source.sendFailure(Component.literal("Some set definitions could not be loaded: "
+                        + ZaubereiIO.describe(e)));
+            }
+            action.run();
+        }, source.getServer());
+        return 1;
+    }
+
     private static int setsList(CommandSourceStack source) {
+        return withAllSets(source, () -> sendSetList(source));
+    }
+
+    private static void sendSetList(CommandSourceStack source) {
         List<ArmorSetDataRegistry.SetEntry> entries = ArmorSetDataRegistry.getAllEntries();
 
         if (entries.isEmpty()) {
@@ -577,7 +889,7 @@ public class CommandHandler {
                     .withStyle(ChatFormatting.YELLOW));
             source.sendSystemMessage(Component.literal("  Use /zauberei sets create <namespace> <tagpath> to get started!")
                     .withStyle(ChatFormatting.GRAY));
-            return 1;
+            return;
         }
 
         source.sendSystemMessage(Component.literal("[Zauberei] ")
@@ -629,8 +941,6 @@ public class CommandHandler {
                 .append(Component.literal("all_majors  ").withStyle(ChatFormatting.GRAY))
                 .append(Component.literal("● ").withStyle(ChatFormatting.LIGHT_PURPLE))
                 .append(Component.literal("universal").withStyle(ChatFormatting.GRAY)));
-
-        return 1;
     }
 
     // ─── /zauberei sets info <namespace> <tagpath> ───────────────────────
@@ -641,8 +951,10 @@ public class CommandHandler {
      * Searches across all scopes and shows every match.
      */
     private static int setsInfo(CommandSourceStack source, String namespace, String tagpath) {
-        String tagString = namespace + ":" + tagpath;
+        return withAllSets(source, () -> sendSetInfo(source, namespace + ":" + tagpath));
+    }
 
+    private static void sendSetInfo(CommandSourceStack source, String tagString) {
         // Find ALL entries for this tag (across scopes)
         List<ArmorSetDataRegistry.SetEntry> matches = ArmorSetDataRegistry.getAllEntries().stream()
                 .filter(e -> e.tag().equals(tagString))
@@ -652,7 +964,7 @@ public class CommandHandler {
         if (matches.isEmpty()) {
             source.sendSystemMessage(Component.literal("[Zauberei] No set definition found for tag: " + tagString)
                     .withStyle(ChatFormatting.RED));
-            return 0;
+            return;
         }
 
         for (ArmorSetDataRegistry.SetEntry entry : matches) {
@@ -731,7 +1043,6 @@ public class CommandHandler {
                 }
             }
         }
-        return 1;
     }
 
     // ─── /zauberei sets validate ─────────────────────────────────────────
@@ -791,6 +1102,142 @@ public class CommandHandler {
         return 1;
     }
 
+    // ─── /zauberei sets bulk <dry_run|apply> <operation> ... [filters] ──
+
+    private static LiteralArgumentBuilder<CommandSourceStack> bulkCommand(String mode, boolean dryRun) {
+        return Commands.literal(mode)
+                .then(Commands.literal("scale")
+                        .then(withBulkFilters(Commands.argument("factor", DoubleArgumentType.doubleArg(0.0001)),
+                                dryRun, ctx -> SetBulkEdit.Action.scale(DoubleArgumentType.getDouble(ctx, "factor")))))
+                .then(Commands.literal("replace_effect")
+                        .then(Commands.argument("from", ResourceLocationArgument.id())
+                                .suggests(EFFECT_SUGGESTIONS)
+                                .then(withBulkFilters(Commands.argument("to", ResourceLocationArgument.id())
+                                        .suggests(EFFECT_SUGGESTIONS), dryRun, ctx -> SetBulkEdit.Action.replaceEffect(
+                                                ResourceLocationArgument.getId(ctx, "from").toString(),
+                                                ResourceLocationArgument.getId(ctx, "to").toString())))))
+                .then(Commands.literal("clamp")
+                        .then(Commands.argument("min", IntegerArgumentType.integer(0, 255))
+                                .then(withBulkFilters(Commands.argument("max", IntegerArgumentType.integer(0, 255)),
+                                        dryRun, ctx -> SetBulkEdit.Action.clamp(
+                                                IntegerArgumentType.getInteger(ctx, "min"),
+                                                IntegerArgumentType.getInteger(ctx, "max"))))));
+    }
+
+    /** Makes the last operation argument executable, with and without trailing filters. */
+    private static <T extends ArgumentBuilder<CommandSourceStack, T>> T withBulkFilters(
+            T last, boolean dryRun,
+            Function<CommandContext<CommandSourceStack>, SetBulkEdit.Action> action) {
+        return last
+                .executes(ctx -> setsBulk(ctx, action.apply(ctx), "", dryRun))
+                .then(Commands.argument("filters", StringArgumentType.greedyString())
+                        .executes(ctx -> setsBulk(ctx, action.apply(ctx),
+                                StringArgumentType.getString(ctx, "filters"), dryRun)));
+    }
+
+    /**
+     * Plans a bulk edit and either reports the diff (dry run) or writes all
+     * changed files as one batch and updates the registry once.
+     */
+    private static int setsBulk(CommandContext<CommandSourceStack> ctx, SetBulkEdit.Action action,
+                                String filterText, boolean dryRun) {
+        CommandSourceStack source = ctx.getSource();
+        String input = ctx.getInput();
+        CompletableFuture<SetBulkEdit.Plan> planned;
+        try {
+            planned = SetBulkEdit.plan(action, SetBulkEdit.Filter.parse(filterText), source.getServer());
+        } catch (IllegalArgumentException e) {
+            source.sendFailure(Component.literal(e.getMessage()));
+            return 0;
+        }
+        // Lazily loaded majors are read in the background first; the result is reported on the server thread
+        planned.whenCompleteAsync((plan, e) -> {
+            if (e != null) {
+                ZaubereiIO.logFailure("Bulk set edit", e);
+                source.sendFailure(Component.literal("Bulk edit failed: " + ZaubereiIO.describe(e)));
+                return;
+            }
+            reportBulk(source, input, plan, dryRun);
+        }, source.getServer());
+        return 1;
+    }
+
+    /** Shows the plan and, unless it is a dry run, writes it. */
+    private static void reportBulk(CommandSourceStack source, String input, SetBulkEdit.Plan plan, boolean dryRun) {
+        SetBulkEdit.Action action = plan.action();
+        source.sendSystemMessage(Component.literal("[Zauberei] ")
+                .withStyle(ChatFormatting.AQUA)
+                .append(Component.literal("Bulk " + action.describe() + " on " + plan.filter().describe()
+                                + (dryRun ? " (dry run)" : ""))
+                        .withStyle(ChatFormatting.WHITE)));
+        source.sendSystemMessage(Component.literal("  " + plan.selected() + " set(s) selected, "
+                        + plan.changes().size() + (dryRun ? " would change" : " to change")
+                        + ", " + plan.skipped().size() + " skipped")
+                .withStyle(ChatFormatting.GRAY));
+
+        // Max 20 Sets mit Diff anzeigen, sonst wird der Chat überflutet
+        int shown = Math.min(plan.changes().size(), 20);
+        for (int i = 0; i < shown; i++) {
+            SetBulkEdit.SetChange change = plan.changes().get(i);
+            source.sendSystemMessage(Component.literal("  \u25B8 " + change.relativePath())
+                    .withStyle(ChatFormatting.YELLOW));
+            int lines = Math.min(change.diff().size(), 8);
+            for (int j = 0; j < lines; j++) {
+                source.sendSystemMessage(Component.literal("     " + change.diff().get(j))
+                        .withStyle(ChatFormatting.GRAY));
+            }
+            if (change.diff().size() > lines) {
+                source.sendSystemMessage(Component.literal("     ... and " + (change.diff().size() - lines) + " more")
+                        .withStyle(ChatFormatting.DARK_GRAY));
+            }
+        }
+        if (plan.changes().size() > shown) {
+            source.sendSystemMessage(Component.literal("  ... and " + (plan.changes().size() - shown) + " more set(s)")
+                    .withStyle(ChatFormatting.DARK_GRAY));
+        }
+        int skippedShown = Math.min(plan.skipped().size(), 10);
+        for (int i = 0; i < skippedShown; i++) {
+            SetBulkEdit.Skipped skipped = plan.skipped().get(i);
+            source.sendSystemMessage(Component.literal("  ⚠ " + skipped.where() + " – " + skipped.reason())
+                    .withStyle(ChatFormatting.YELLOW));
+        }
+
+        if (plan.changes().isEmpty()) {
+            source.sendSystemMessage(Component.literal("  Nothing to change.").withStyle(ChatFormatting.GRAY));
+            return;
+        }
+        if (dryRun) {
+            String applyCmd = "/" + input.replaceFirst(" dry_run ", " apply ");
+            source.sendSystemMessage(Component.literal("  [Apply]")
+                    .withStyle(ChatFormatting.GREEN)
+                    .withStyle(style -> style
+                            .withClickEvent(new ClickEvent(ClickEvent.Action.SUGGEST_COMMAND, applyCmd))
+                            .withHoverEvent(new HoverEvent(HoverEvent.Action.SHOW_TEXT,
+                                    Component.literal("Click to put the apply command into chat")))));
+            return;
+        }
+
+        // Alle Dateien in einem Batch schreiben, danach ein einziges Registry-Update
+        String author = source.getTextName();
+        SetBulkEdit.write(plan).whenCompleteAsync((v, e) -> {
+            if (e != null) {
+                SetBulkEdit.forget(plan);
+                ZaubereiIO.logFailure("Bulk set edit", e);
+                source.sendFailure(Component.literal("Bulk write failed, no file was changed: "
+                        + ZaubereiIO.describe(e)));
+                return;
+            }
+            SetBulkEdit.publish(plan);
+            for (SetBulkEdit.SetChange change : plan.changes()) {
+                ArmorSetDataRegistry.SetEntry entry = change.entry();
+                PacketDistributor.sendToAllPlayers(new SetDeltaPayload(entry.major(), entry.year(),
+                        entry.tag(), change.deltas(), author));
+            }
+            source.sendSuccess(() -> Component.literal("[Zauberei] Bulk edit saved " + plan.changes().size()
+                    + " set file(s)").withStyle(ChatFormatting.GREEN), true);
+        }, source.getServer());
+    }
+
     // ─── /zauberei sets create <namespace> <tagpath> <scope> [year] ─────
 
     /**
@@ -813,15 +1260,6 @@ public class CommandHandler {
         boolean tagExists = BuiltInRegistries.ITEM.getTagNames()
                 .anyMatch(t -> t.equals(tagKey));
 
-        if (!tagExists) {
-            source.sendSystemMessage(Component.literal("[Zauberei] ⚠ Tag '" + tagString + "' does not exist in the current pack.")
-                    .withStyle(ChatFormatting.YELLOW));
-            source.sendSystemMessage(Component.literal("  The file will be created, but no items will match this tag.")
-                    .withStyle(ChatFormatting.GRAY));
-            source.sendSystemMessage(Component.literal("  Use [TAB] to see available tags.")
-                    .withStyle(ChatFormatting.GRAY));
-        }
-
         // Build file path
         String filename = namespace + "__" + tagpath + ".json";
         File targetFile;
@@ -842,24 +1280,6 @@ public class CommandHandler {
                     major.toLowerCase() + File.separator + year + File.separator + filename);
         }
 
-        // Check if file already exists
-        if (targetFile.exists()) {
-            String infoCmd = buildInfoCommand(tagString);
-            source.sendFailure(Component.literal("File already exists: "
-                    + SET_ARMOR_DIR.toPath().relativize(targetFile.toPath())));
-            source.sendSystemMessage(Component.literal("  ")
-                    .append(Component.literal(infoCmd)
-                            .withStyle(ChatFormatting.AQUA)
-                            .withStyle(style -> style
-                                    .withClickEvent(new ClickEvent(ClickEvent.Action.RUN_COMMAND, infoCmd))
-                                    .withHoverEvent(new HoverEvent(HoverEvent.Action.SHOW_TEXT,
-                                            Component.literal("Click to view"))))));
-            return 0;
-        }
-
-        // Create directories
-        targetFile.getParentFile().mkdirs();
-
         // Build template JSON
         String template = """
                 {
@@ -887,20 +1307,47 @@ public class CommandHandler {
                 }
                 """.formatted(autoDisplayName(tagpath));
 
-        // Write file
-        try (FileWriter writer = new FileWriter(targetFile)) {
-            writer.write(template);
-        } catch (IOException e) {
-            source.sendFailure(Component.literal("Failed to write file: " + e.getMessage()));
-            return 0;
-        }
-
-        // Success feedback
         String scope = isUniversal ? "universal"
                 : isAllMajors ? "all_majors / year " + year
                 : major + " / year " + year;
         String relativePath = SET_ARMOR_DIR.toPath().relativize(targetFile.toPath()).toString();
 
+        // Create the file off-thread, never over an existing one; all feedback
+        // is sent back on the server thread once the outcome is known
+        ZaubereiIO.writeIfAbsent(targetFile.toPath(), template).whenCompleteAsync((created, e) -> {
+            if (e != null) {
+                source.sendFailure(Component.literal("Failed to write file: " + ZaubereiIO.describe(e)));
+            } else if (!created) {
+                sendAlreadyExists(source, tagString, relativePath);
+            } else {
+                if (!tagExists) {
+                    source.sendSystemMessage(Component.literal("[Zauberei] ⚠ Tag '" + tagString + "' does not exist in the current pack.")
+                            .withStyle(ChatFormatting.YELLOW));
+                    source.sendSystemMessage(Component.literal("  The file was created, but no items will match this tag.")
+                            .withStyle(ChatFormatting.GRAY));
+                    source.sendSystemMessage(Component.literal("  Use [TAB] to see available tags.")
+                            .withStyle(ChatFormatting.GRAY));
+                }
+                sendCreateFeedback(source, tagString, tagKey, tagExists, scope, relativePath);
+            }
+        }, source.getServer());
+        return 1;
+    }
+
+    private static void sendAlreadyExists(CommandSourceStack source, String tagString, String relativePath) {
+        String infoCmd = buildInfoCommand(tagString);
+        source.sendFailure(Component.literal("File already exists: " + relativePath));
+        source.sendSystemMessage(Component.literal("  ")
+                .append(Component.literal(infoCmd)
+                        .withStyle(ChatFormatting.AQUA)
+                        .withStyle(style -> style
+                                .withClickEvent(new ClickEvent(ClickEvent.Action.RUN_COMMAND, infoCmd))
+                                .withHoverEvent(new HoverEvent(HoverEvent.Action.SHOW_TEXT,
+                                        Component.literal("Click to view"))))));
+    }
+
+    private static void sendCreateFeedback(CommandSourceStack source, String tagString, TagKey<Item> tagKey,
+                                           boolean tagExists, String scope, String relativePath) {
         source.sendSystemMessage(Component.literal(""));
         source.sendSystemMessage(Component.literal("[Zauberei] ✔ Template created!")
                 .withStyle(ChatFormatting.GREEN));
@@ -940,8 +1387,6 @@ public class CommandHandler {
                                 .withHoverEvent(new HoverEvent(
                                         HoverEvent.Action.SHOW_TEXT,
                                         Component.literal("Click to reload"))))));
-
-        return 1;
     }
 
     // ═══════════════════════════════════════════════════════════════════════
@@ -956,16 +1401,6 @@ public class CommandHandler {
         return 2;
     }
 
-    public static final SuggestionProvider<CommandSourceStack> TAG_ITEMS_PATH_SUGGESTIONS = (ctx, builder) -> {
-        String namespace = StringArgumentType.getString(ctx, "tag_namespace");
-        List<String> paths = BuiltInRegistries.ITEM.getTagNames()
-                .filter(tagKey -> tagKey.location().getNamespace().equals(namespace))
-                .map(tagKey -> tagKey.location().getPath())
-                .sorted()
-                .toList();
-        return SharedSuggestionProvider.suggest(paths, builder);
-    };
-
 
     /** Human-readable scope label. */
     private static String formatScope(ArmorSetDataRegistry.SetEntry entry) {
@@ -0,0 +1,135 @@
+package com.gilfort.zauberei.command;
+
+import com.gilfort.zauberei.Zauberei;
+import net.minecraft.core.Holder;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.network.chat.Component;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.tags.TagKey;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.event.TagsUpdatedEvent;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Server-side index of all item tags for the {@code list_tags} and
+ * {@code tag_items} commands: the sorted tag list, filter results, the items
+ * per tag and the item names are computed once and reused by every page
+ * until the next tag reload.
+ *
+ * <p>The same build carries the namespace and path completions that
+ * {@link SuggestionIndex} answers tag arguments from.</p>
+ *
+ * <p>Dropped on {@link TagsUpdatedEvent} and rebuilt on next use. Item names
+ * are kept as the item's translatable hover name, so each client shows them
+ * in its own language and a language change needs no rebuild.</p>
+ */
+@EventBusSubscriber()
+public final class ServerTagIndex {
+
+    /** Filters remembered per snapshot, so paging through a result does not re-filter. */
+    private static final int MAX_FILTERS = 16;
+
+    /**
+     * One build of the index.
+     *
+     * @param tags       all item tags, sorted by id
+     * @param searchKeys lowercased {@code namespace:path} per tag, same order as {@code tags}
+     * @param namespaces all tag namespaces, for completion
+     * @param paths      tag paths per namespace, for completion
+     */
+    public record Snapshot(List<TagKey<Item>> tags, String[] searchKeys,
+                           SuggestionIndex.Completions namespaces, Map<String, SuggestionIndex.Completions> paths,
+                           Map<String, List<TagKey<Item>>> filters,
+                           Map<TagKey<Item>, List<Item>> items) {
+
+        /** Tags whose id contains {@code filter} (case-insensitive), cached per filter. */
+        public List<TagKey<Item>> filter(String filter) {
+            String lower = filter.toLowerCase().trim();
+            if (lower.isEmpty()) return tags;
+            synchronized (filters) {
+                List<TagKey<Item>> cached = filters.get(lower);
+                if (cached != null) return cached;
+            }
+            List<TagKey<Item>> result = new ArrayList<>();
+            for (int i = 0; i < searchKeys.length; i++) {
+                if (searchKeys[i].contains(lower)) result.add(tags.get(i));
+            }
+            result = List.copyOf(result);
+            synchronized (filters) {
+                filters.put(lower, result);
+            }
+            return result;
+        }
+
+        /** Items in a tag, in registry tag order; empty for unknown tags. */
+        public List<Item> itemsOf(TagKey<Item> tag) {
+            return items.computeIfAbsent(tag, t -> BuiltInRegistries.ITEM.getTag(t)
+                    .map(set -> set.stream().map(Holder::value).toList())
+                    .orElse(List.of()));
+        }
+    }
+
+    private static final Map<Item, Component> NAMES = new ConcurrentHashMap<>();
+    private static volatile Snapshot current;
+
+    private ServerTagIndex() {}
+
+    @SubscribeEvent
+    public static void onTagsUpdated(TagsUpdatedEvent event) {
+        current = null;
+        NAMES.clear();
+    }
+
+    /** The current index, built on first use after a tag reload. */
+    public static Snapshot get() {
+        Snapshot snapshot = current;
+        if (snapshot == null) {
+            snapshot = build();
+            current = snapshot;
+        }
+        return snapshot;
+    }
+
+    /** Hover name of an item's default stack, created once per item. */
+    public static Component nameOf(Item item) {
+        return NAMES.computeIfAbsent(item, it -> new ItemStack(it).getHoverName());
+    }
+
+    private static Snapshot build() {
+        long start = System.nanoTime();
+        List<TagKey<Item>> tags = BuiltInRegistries.ITEM.getTagNames()
+                .sorted(Comparator.comparing(t -> t.location().toString()))
+                .toList();
+        String[] searchKeys = new String[tags.size()];
+        Map<String, List<String>> pathLists = new TreeMap<>();
+        for (int i = 0; i < tags.size(); i++) {
+            ResourceLocation loc = tags.get(i).location();
+            searchKeys[i] = loc.toString().toLowerCase();
+            pathLists.computeIfAbsent(loc.getNamespace(), ns -> new ArrayList<>()).add(loc.getPath());
+        }
+        Map<String, SuggestionIndex.Completions> paths = new HashMap<>();
+        pathLists.forEach((ns, list) -> paths.put(ns, SuggestionIndex.Completions.of(list.toArray(String[]::new))));
+        SuggestionIndex.Completions namespaces =
+                SuggestionIndex.Completions.of(pathLists.keySet().toArray(String[]::new));
+        Map<String, List<TagKey<Item>>> filters = new LinkedHashMap<>(MAX_FILTERS, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, List<TagKey<Item>>> eldest) {
+                return size() > MAX_FILTERS;
+            }
+        };
+        Zauberei.LOGGER.debug("[Zauberei] Indexed {} item tag(s) for commands in {} ms",
+                tags.size(), (System.nanoTime() - start) / 1_000_000);
+        return new Snapshot(tags, searchKeys, namespaces, Map.copyOf(paths), filters, new ConcurrentHashMap<>());
+    }
+}
@@ -0,0 +1,104 @@
+package com.gilfort.zauberei.command;
+
+import com.gilfort.zauberei.item.armorbonus.ArmorSetDataRegistry;
+import com.mojang.brigadier.suggestion.Suggestions;
+import com.mojang.brigadier.suggestion.SuggestionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Tab completion for the Zauberei commands, answered from sorted arrays so
+ * a keystroke costs a binary search for the typed prefix instead of a walk
+ * over all item tags.
+ *
+ * <p>Matching follows {@code SharedSuggestionProvider.matchesSubStr}: what
+ * has been typed may start the entry or any word after an {@code _}
+ * ({@code armors} offers {@code iron_armors}), ignoring case. Each entry is
+ * indexed once per word start to keep that a prefix search.</p>
+ *
+ * <p>Tag namespaces and paths come from {@link ServerTagIndex} and follow
+ * its rebuild on tag reload; majors are taken from
+ * {@link ArmorSetDataRegistry} again only when its generation changed.</p>
+ */
+public final class SuggestionIndex {
+
+    /**
+     * Entries indexed by word start.
+     *
+     * @param keys    lowercased entry suffixes starting at a word, sorted
+     * @param entries the entry each key belongs to, same order as {@code keys}
+     */
+    public record Completions(String[] keys, String[] entries) {
+
+        public static final Completions EMPTY = new Completions(new String[0], new String[0]);
+
+        public static Completions of(String[] entries) {
+            List<String[]> pairs = new ArrayList<>(entries.length);
+            for (String entry : entries) {
+                String lower = entry.toLowerCase(Locale.ROOT);
+                int start = 0;
+                while (true) {
+                    pairs.add(new String[]{lower.substring(start), entry});
+                    int underscore = lower.indexOf('_', start);
+                    if (underscore < 0) break;
+                    start = underscore + 1;
+                }
+            }
+            pairs.sort(Comparator.comparing(pair -> pair[0]));
+            String[] keys = new String[pairs.size()];
+            String[] values = new String[pairs.size()];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = pairs.get(i)[0];
+                values[i] = pairs.get(i)[1];
+            }
+            return new Completions(keys, values);
+        }
+    }
+
+    private record Majors(int generation, Completions completions) {}
+
+    private static volatile Majors majors = new Majors(-1, Completions.EMPTY);
+
+    private SuggestionIndex() {}
+
+    public static CompletableFuture<Suggestions> suggestNamespaces(SuggestionsBuilder builder) {
+        return suggestPrefix(ServerTagIndex.get().namespaces(), builder);
+    }
+
+    /** Paths of the tags in {@code namespace}; nothing for unknown namespaces. */
+    public static CompletableFuture<Suggestions> suggestPaths(String namespace, SuggestionsBuilder builder) {
+        Completions paths = ServerTagIndex.get().paths().get(namespace);
+        return paths == null ? builder.buildFuture() : suggestPrefix(paths, builder);
+    }
+
+    public static CompletableFuture<Suggestions> suggestMajors(SuggestionsBuilder builder) {
+        Majors cached = majors;
+        int generation = ArmorSetDataRegistry.getGeneration();
+        if (cached.generation() != generation) {
+            cached = new Majors(generation, Completions.of(ArmorSetDataRegistry.getMajors().toArray(String[]::new)));
+            majors = cached;
+        }
+        return suggestPrefix(cached.completions(), builder);
+    }
+
+    /**
+     * Suggests every entry in which what has been typed so far starts a word.
+     * An entry matching at more than one word is suggested once; the builder
+     * drops duplicates.
+     */
+    static CompletableFuture<Suggestions> suggestPrefix(Completions completions, SuggestionsBuilder builder) {
+        String prefix = builder.getRemaining().toLowerCase(Locale.ROOT);
+        String[] keys = completions.keys();
+        int i = Arrays.binarySearch(keys, prefix);
+        if (i < 0) i = -i - 1;
+        for (; i < keys.length && keys[i].startsWith(prefix); i++) {
+            builder.suggest(completions.entries()[i]);
+        }
+        return builder.buildFuture();
+    }
+}
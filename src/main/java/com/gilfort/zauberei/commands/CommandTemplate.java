@@ -0,0 +1,202 @@
+package com.gilfort.zauberei.commands;
+
+import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.ParseResults;
+import com.mojang.brigadier.context.ContextChain;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.commands.Commands;
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerPlayer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A gateway command split once into literal text and placeholder slots.
+ *
+ * <p>Supported placeholders: {@code {player} {x} {y} {z} {dim}}.
+ * Commands without any placeholder produce the same string for every player,
+ * so their Brigadier {@link ParseResults} are cached and only the command
+ * source is swapped per dispatch.</p>
+ *
+ * <p>The cache is tied to the dispatcher it was parsed against. A datapack
+ * {@code /reload} replaces the server's dispatcher, in which case the
+ * command is parsed again on its next use.</p>
+ */
+public class CommandTemplate {
+
+    private enum Slot {
+        PLAYER("{player}"), X("{x}"), Y("{y}"), Z("{z}"), DIM("{dim}");
+
+        final String token;
+
+        Slot(String token) { this.token = token; }
+    }
+
+    // Values used to validate templated commands at load time
+    private static final String SAMPLE_PLAYER = "Zauberei";
+    private static final String SAMPLE_DIM = "minecraft:overworld";
+
+    private final String raw;
+    /** literals.length == slots.length + 1 */
+    private final String[] literals;
+    private final Slot[] slots;
+
+    private CommandDispatcher<CommandSourceStack> cachedDispatcher;
+    private ParseResults<CommandSourceStack> cachedParse;
+
+    private CommandTemplate(String raw, String[] literals, Slot[] slots) {
+        this.raw = raw;
+        this.literals = literals;
+        this.slots = slots;
+    }
+
+    /**
+     * Tokenizes a command string. A leading slash is dropped, matching
+     * {@code performPrefixedCommand}.
+     */
+    public static CommandTemplate compile(String command) {
+        String cmd = command.startsWith("/") ? command.substring(1) : command;
+        List<String> literals = new ArrayList<>();
+        List<Slot> slots = new ArrayList<>();
+
+        StringBuilder current = new StringBuilder();
+        int i = 0;
+        outer:
+        while (i < cmd.length()) {
+            if (cmd.charAt(i) == '{') {
+                for (Slot slot : Slot.values()) {
+                    if (cmd.startsWith(slot.token, i)) {
+                        literals.add(current.toString());
+                        current.setLength(0);
+                        slots.add(slot);
+                        i += slot.token.length();
+                        continue outer;
+                    }
+                }
+            }
+            current.append(cmd.charAt(i));
+            i++;
+        }
+        literals.add(current.toString());
+
+        return new CommandTemplate(command, literals.toArray(new String[0]), slots.toArray(new Slot[0]));
+    }
+
+    /** The command as written in the config. */
+    public String raw() {
+        return raw;
+    }
+
+    /** True if the command contains no placeholders and can reuse its parse result. */
+    public boolean isStatic() {
+        return slots.length == 0;
+    }
+
+    /** Builds the final command string in a single pass. */
+    public String render(ServerPlayer player, BlockPos pos) {
+        if (isStatic()) {
+            return literals[0];
+        }
+        StringBuilder sb = new StringBuilder(raw.length() + 32);
+        for (int i = 0; i < slots.length; i++) {
+            sb.append(literals[i]);
+            switch (slots[i]) {
+                case PLAYER -> sb.append(player.getGameProfile().getName());
+                case X -> sb.append(pos.getX());
+                case Y -> sb.append(pos.getY());
+                case Z -> sb.append(pos.getZ());
+                case DIM -> sb.append(player.level().dimension().location());
+            }
+        }
+        sb.append(literals[slots.length]);
+        return sb.toString();
+    }
+
+    private String renderSample() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < slots.length; i++) {
+            sb.append(literals[i]);
+            sb.append(switch (slots[i]) {
+                case PLAYER -> SAMPLE_PLAYER;
+                case X, Y, Z -> "0";
+                case DIM -> SAMPLE_DIM;
+            });
+        }
+        sb.append(literals[slots.length]);
+        return sb.toString();
+    }
+
+    /**
+     * Parses the command (with sample values for placeholders) against the
+     * server's current dispatcher. Static commands keep the parse result.
+     * A command that parses but stops before anything runs ({@code give @p})
+     * is rejected as well, as dispatch would only fail with "Unknown or
+     * incomplete command".
+     *
+     * @return {@code null} if the command is valid, otherwise the parse error message
+     */
+    public String validate(MinecraftServer server) {
+        CommandDispatcher<CommandSourceStack> dispatcher = server.getCommands().getDispatcher();
+        String input = renderSample();
+        ParseResults<CommandSourceStack> parse = dispatcher.parse(input, parseSource(server));
+        CommandSyntaxException error = Commands.getParseException(parse);
+        if (error != null) {
+            return error.getMessage();
+        }
+        if (!isComplete(parse, input)) {
+            return "Incomplete command";
+        }
+        if (isStatic()) {
+            cachedDispatcher = dispatcher;
+            cachedParse = parse;
+        }
+        return null;
+    }
+
+    /**
+     * Runs the command for a player. Static commands execute their cached
+     * parse result with the player's source; templated commands are rendered
+     * and go through the normal prefixed-command path.
+     */
+    public void execute(ServerPlayer player, BlockPos pos, CommandSourceStack source) {
+        MinecraftServer server = player.getServer();
+        if (server == null) return;
+        Commands commands = server.getCommands();
+
+        if (!isStatic()) {
+            commands.performPrefixedCommand(source, render(player, pos));
+            return;
+        }
+
+        if (cachedParse == null || cachedDispatcher != commands.getDispatcher()) {
+            CommandDispatcher<CommandSourceStack> dispatcher = commands.getDispatcher();
+            ParseResults<CommandSourceStack> parse = dispatcher.parse(literals[0], parseSource(server));
+            if (Commands.getParseException(parse) != null || !isComplete(parse, literals[0])) {
+                // No longer valid after a /reload: let the normal path report it, and keep nothing
+                cachedParse = null;
+                commands.performPrefixedCommand(source, literals[0]);
+                return;
+            }
+            cachedDispatcher = dispatcher;
+            cachedParse = parse;
+        }
+        ParseResults<CommandSourceStack> parse = new ParseResults<>(
+                cachedParse.getContext().copy().withSource(source),
+                cachedParse.getReader(),
+                cachedParse.getExceptions());
+        commands.performCommand(parse, literals[0]);
+    }
+
+    /** Whether the parse reaches something to run, the same check {@code performCommand} makes. */
+    private static boolean isComplete(ParseResults<CommandSourceStack> parse, String input) {
+        return ContextChain.tryFlatten(parse.getContext().build(input)).isPresent();
+    }
+
+    /** Parsing checks permissions, so the parse source needs the same level as dispatch. */
+    private static CommandSourceStack parseSource(MinecraftServer server) {
+        return server.createCommandSourceStack().withPermission(2).withSuppressedOutput();
+    }
+}
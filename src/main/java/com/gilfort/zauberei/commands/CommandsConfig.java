@@ -1,9 +1,11 @@
 package com.gilfort.zauberei.commands;
 
 import com.gilfort.zauberei.Zauberei;
+import com.gilfort.zauberei.util.ZaubereiIO;
 import com.google.gson.*;
 import com.google.gson.stream.JsonReader;
 import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.MinecraftServer;
 import net.neoforged.fml.loading.FMLPaths;
 
 import java.io.File;
@@ -11,6 +13,7 @@ import java.io.FileReader;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Loads and validates the JSON configuration for the gateway command system.
@@ -25,7 +28,8 @@ import java.util.*;
  *       "when": {"anyTags": ["tag"], "allTags": ["tag"], "minTier": 1},
  *       "pool": ["command without leading slash"],
  *       "position": "onPosition|nearby|away" // optional, defaults to nearby
- *   }]
+ *   }],
+ *   "groupDispatch": {"enabled": false, "windowSeconds": 30, "radius": 16} // optional
  * }
  * </pre>
  */
@@ -35,6 +39,20 @@ public class CommandsConfig {
     public List<TierRule> tierRules = new ArrayList<>();
     public Map<Integer, int[]> tierWindows = new HashMap<>();
     public List<CommandEntry> commands = new ArrayList<>();
+    public GroupDispatch groupDispatch = new GroupDispatch();
+
+    /** Distinct tag names in rule order; persisted player state refers to tags by index. */
+    public transient List<String> tagTable = List.of();
+    public transient Map<String, Integer> tagIndex = Map.of();
+    public transient int tagFingerprint;
+
+    /**
+     * Reads and parses the config on a virtual thread. The result still has to
+     * be {@link #compile compiled} on the server thread before use.
+     */
+    public static CompletableFuture<CommandsConfig> loadAsync() {
+        return ZaubereiIO.supply(CommandsConfig::load);
+    }
 
     public static CommandsConfig load() {
         Path path = FMLPaths.CONFIGDIR.get().resolve("zauberei").resolve("commands.json5");
@@ -66,7 +84,56 @@ public class CommandsConfig {
         }
     }
 
+    /**
+     * Tokenizes every pool command into a {@link CommandTemplate} and parses it
+     * against the server's dispatcher. Commands that fail to parse are logged
+     * and dropped so they never reach dispatch.
+     *
+     * @return number of commands that were dropped
+     */
+    public int compile(MinecraftServer server) {
+        int broken = 0;
+        for (CommandEntry entry : commands) {
+            List<CommandTemplate> compiled = new ArrayList<>(entry.pool.size());
+            for (String cmd : entry.pool) {
+                if (cmd == null || cmd.isBlank()) continue;
+                CommandTemplate template = CommandTemplate.compile(cmd);
+                String error = template.validate(server);
+                if (error != null) {
+                    Zauberei.LOGGER.error("[Zauberei] Dropping gateway command '{}': {}", cmd, error);
+                    broken++;
+                    continue;
+                }
+                compiled.add(template);
+            }
+            entry.compiled = compiled;
+        }
+        if (broken > 0) {
+            Zauberei.LOGGER.warn("[Zauberei] {} gateway command(s) failed to parse and were disabled", broken);
+        }
+        return broken;
+    }
+
     private void postProcess() {
+        if (tagRules == null) tagRules = new ArrayList<>();
+        List<String> table = new ArrayList<>();
+        Map<String, Integer> index = new HashMap<>();
+        for (TagRule rule : tagRules) {
+            if (rule != null && rule.tag != null && !index.containsKey(rule.tag)) {
+                index.put(rule.tag, table.size());
+                table.add(rule.tag);
+            }
+        }
+        tagTable = List.copyOf(table);
+        tagIndex = Map.copyOf(index);
+        tagFingerprint = tagTable.hashCode();
+
+        if (groupDispatch == null) {
+            groupDispatch = new GroupDispatch();
+        }
+        groupDispatch.windowSeconds = Math.max(0, groupDispatch.windowSeconds);
+        groupDispatch.radius = Math.max(0, groupDispatch.radius);
+
         if (tierWindows.isEmpty()) {
             tierWindows.put(1, new int[]{1, 2});
         }
@@ -106,6 +173,19 @@ public class CommandsConfig {
         public When when = new When();
         public List<String> pool = new ArrayList<>();
         public String position = "nearby";
+        /** Parsed form of {@link #pool}, filled by {@link #compile(MinecraftServer)}. */
+        public transient List<CommandTemplate> compiled = List.of();
+    }
+
+    /**
+     * Merges co-located players that fall due together into one dispatch.
+     * Players are grouped when they are within {@code radius} blocks of a due
+     * player, fall due within {@code windowSeconds}, and match the same entries.
+     */
+    public static class GroupDispatch {
+        public boolean enabled = false;
+        public int windowSeconds = 30;
+        public double radius = 16;
     }
 
     public static class When {
@@ -1,12 +1,14 @@
 package com.gilfort.zauberei.commands;
 
 import com.gilfort.zauberei.Zauberei;
+import com.gilfort.zauberei.util.ZaubereiPlayerData;
 import com.mojang.brigadier.CommandDispatcher;
 import com.mojang.brigadier.builder.LiteralArgumentBuilder;
 import net.minecraft.commands.CommandSourceStack;
 import net.minecraft.commands.Commands;
 import net.minecraft.core.BlockPos;
 import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.level.ServerPlayer;
 import net.neoforged.bus.api.SubscribeEvent;
 import net.neoforged.fml.common.EventBusSubscriber;
@@ -24,16 +26,35 @@ public class CommandsService {
     private static final CommandsService INSTANCE = new CommandsService();
 
     private CommandsConfig config = new CommandsConfig();
-    private final Map<UUID, GwState> states = new HashMap<>();
+    private final CommandsStateStore store = new CommandsStateStore();
     private int tickCounter = 0;
 
     public static void init() {
         NeoForge.EVENT_BUS.register(INSTANCE);
     }
 
+    /** The config in use; the state codec needs its tag table when a player is saved. */
+    static CommandsConfig config() {
+        return INSTANCE.config;
+    }
+
     @SubscribeEvent
     public void onServerStart(ServerStartingEvent e) {
-        config = CommandsConfig.load();
+        store.clear();
+        MinecraftServer server = e.getServer();
+        CommandsConfig.loadAsync().thenAcceptAsync(cfg -> applyConfig(server, cfg), server);
+    }
+
+    /** Swaps in a freshly loaded config; must run on the server thread. */
+    private int applyConfig(MinecraftServer server, CommandsConfig cfg) {
+        int broken = cfg.compile(server);
+        config = cfg;
+        // Tags and tiers may have changed with the rules
+        for (ServerPlayer player : server.getPlayerList().getPlayers()) {
+            GwState st = store.get(player.getUUID());
+            if (st != null) updateState(player, st);
+        }
+        return broken;
     }
 
     @SubscribeEvent
@@ -43,8 +64,15 @@ public class CommandsService {
         LiteralArgumentBuilder<CommandSourceStack> cmds = Commands.literal("commands");
 
         cmds.then(Commands.literal("reload").executes(ctx -> {
-            config = CommandsConfig.load();
-            ctx.getSource().sendSuccess(() -> net.minecraft.network.chat.Component.literal("Commands config reloaded"), false);
+            CommandSourceStack src = ctx.getSource();
+            MinecraftServer server = src.getServer();
+            CommandsConfig.loadAsync().thenAcceptAsync(cfg -> {
+                int broken = applyConfig(server, cfg);
+                String msg = broken == 0
+                        ? "Commands config reloaded"
+                        : "Commands config reloaded, " + broken + " command(s) failed to parse (see log)";
+                src.sendSuccess(() -> net.minecraft.network.chat.Component.literal(msg), false);
+            }, server);
             return 1;
         }));
 
@@ -52,21 +80,22 @@ public class CommandsService {
             CommandSourceStack src = ctx.getSource();
             ServerPlayer player = src.getPlayer();
             if (player == null) return 0;
-            GwState st = states.get(player.getUUID());
+            GwState st = store.get(player.getUUID());
             if (st == null) return 0;
             Optional<CommandWithPos> next = findMatchingCommand(player, st);
+            long remaining = st.remainingTicks(gameTime(src.getServer()));
             src.sendSuccess(() -> net.minecraft.network.chat.Component.literal(
-                    "tier=" + st.tier + "/ next=" + st.nextInTicks/1200 +" Minuten /" + " tags=" + st.activeTags +
-                            " nextCmd=" + next.map(c -> c.command).orElse("<none>")), false);
+                    "tier=" + st.tier + "/ next=" + remaining/1200 +" Minuten /" + " tags=" + st.activeTags +
+                            " nextCmd=" + next.map(c -> c.command.raw()).orElse("<none>")), false);
             return 1;
         }));
 
         cmds.then(Commands.literal("now").executes(ctx -> {
             ServerPlayer player = ctx.getSource().getPlayer();
             if (player == null) return 0;
-            GwState st = states.get(player.getUUID());
+            GwState st = store.get(player.getUUID());
             if (st != null) {
-                st.nextInTicks = 0;
+                st.dueTick = 0;
             }
             return 1;
         }));
@@ -78,35 +107,37 @@ public class CommandsService {
     @SubscribeEvent
     public void onPlayerLogin(PlayerEvent.PlayerLoggedInEvent event) {
         if (!(event.getEntity() instanceof ServerPlayer player)) return;
-        GwState state = CommandsStateCodec.load(player);
+        long now = gameTime(player.getServer());
+        GwState state = store.load(player, config, now);
         updateState(player, state);
-        if (state.nextInTicks <= 0) {
-            state.nextInTicks = randomWindow(state.tier);
+        if (state.dueTick <= now) {
+            state.dueTick = now + randomWindow(state.tier);
         }
-        states.put(player.getUUID(), state);
     }
 
     @SubscribeEvent
     public void onPlayerLogout(PlayerEvent.PlayerLoggedOutEvent event) {
         if (!(event.getEntity() instanceof ServerPlayer player)) return;
-        GwState state = states.remove(player.getUUID());
-        if (state != null) {
-            CommandsStateCodec.save(player, state);
-        }
+        store.unload(player);
     }
 
     @SubscribeEvent
     public void onRespawn(PlayerEvent.PlayerRespawnEvent event) {
         if (!(event.getEntity() instanceof ServerPlayer player)) return;
-        GwState state = CommandsStateCodec.load(player);
-        updateState(player, state);
-        states.put(player.getUUID(), state);
+        // The in-memory state survives respawn; the new player entity gets it as its attachment
+        GwState state = store.get(player.getUUID());
+        if (state != null) {
+            player.setData(ZaubereiPlayerData.GATEWAY_STATE, state);
+        } else {
+            state = store.load(player, config, gameTime(player.getServer()));
+            updateState(player, state);
+        }
     }
 
     @SubscribeEvent
     public void onAdvancement(AdvancementEvent.AdvancementEarnEvent event) {
         if (!(event.getEntity() instanceof ServerPlayer player)) return;
-        GwState state = states.get(player.getUUID());
+        GwState state = store.get(player.getUUID());
         if (state == null) return;
         updateState(player, state);
     }
@@ -116,22 +147,91 @@ public class CommandsService {
         tickCounter++;
         if (tickCounter < 20) return;
         tickCounter = 0;
-        if (event.getServer() == null) return;
-        for (ServerPlayer player : event.getServer().getPlayerList().getPlayers()) {
-            GwState st = states.get(player.getUUID());
-            if (st == null) continue;
-            st.nextInTicks -= 20;
-            if (st.nextInTicks <= 0) {
+        MinecraftServer server = event.getServer();
+        if (server == null) return;
+        long now = gameTime(server);
+        if (config.groupDispatch.enabled) {
+            dispatchGrouped(server, now);
+        } else {
+            for (ServerPlayer player : server.getPlayerList().getPlayers()) {
+                GwState st = store.get(player.getUUID());
+                if (st == null || st.dueTick > now) continue;
                 runForPlayer(player, st);
-                st.nextInTicks = randomWindow(st.tier);
-                CommandsStateCodec.save(player, st);
+                reschedule(st, now);
             }
         }
     }
 
+    /**
+     * Group dispatch: a due player pulls every nearby player in the same level
+     * that falls due within the window and matches exactly the same command
+     * entries into one cluster. The cluster gets a single command, run from
+     * the member closest to the cluster's centre, and every member is
+     * rescheduled as if their own command had fired.
+     */
+    private void dispatchGrouped(MinecraftServer server, long now) {
+        CommandsConfig.GroupDispatch gd = config.groupDispatch;
+        long horizon = now + gd.windowSeconds * 20L;
+        double radiusSq = gd.radius * gd.radius;
+        Set<UUID> handled = new HashSet<>();
+
+        for (ServerPlayer player : server.getPlayerList().getPlayers()) {
+            GwState st = store.get(player.getUUID());
+            if (st == null || st.dueTick > now || !handled.add(player.getUUID())) continue;
+
+            List<CommandsConfig.CommandEntry> entries = matchingEntries(st);
+            List<ServerPlayer> cluster = new ArrayList<>();
+            cluster.add(player);
+            if (!entries.isEmpty()) {
+                for (ServerPlayer other : player.serverLevel().players()) {
+                    if (handled.contains(other.getUUID())) continue;
+                    GwState os = store.get(other.getUUID());
+                    if (os == null || os.dueTick > horizon) continue;
+                    if (other.distanceToSqr(player) > radiusSq) continue;
+                    if (!entries.equals(matchingEntries(os))) continue;
+                    handled.add(other.getUUID());
+                    cluster.add(other);
+                }
+            }
+
+            ServerPlayer leader = cluster.size() == 1 ? player : closestToCentre(cluster);
+            pickCommand(entries).ifPresent(c -> runCommand(leader, c));
+            for (ServerPlayer member : cluster) {
+                reschedule(store.get(member.getUUID()), now);
+            }
+        }
+    }
+
+    private static ServerPlayer closestToCentre(List<ServerPlayer> cluster) {
+        double cx = 0, cy = 0, cz = 0;
+        for (ServerPlayer p : cluster) {
+            cx += p.getX(); cy += p.getY(); cz += p.getZ();
+        }
+        cx /= cluster.size(); cy /= cluster.size(); cz /= cluster.size();
+        ServerPlayer best = cluster.get(0);
+        double bestDist = Double.MAX_VALUE;
+        for (ServerPlayer p : cluster) {
+            double d = p.distanceToSqr(cx, cy, cz);
+            if (d < bestDist) { bestDist = d; best = p; }
+        }
+        return best;
+    }
+
+    private void reschedule(GwState st, long now) {
+        st.dueTick = now + randomWindow(st.tier);
+    }
+
+    private static long gameTime(MinecraftServer server) {
+        return server.overworld().getGameTime();
+    }
+
     private void updateState(ServerPlayer player, GwState state) {
-        state.activeTags = computeTags(player);
-        state.tier = computeTier(player, state.activeTags);
+        Set<String> tags = computeTags(player);
+        int tier = computeTier(player, tags);
+        if (tier != state.tier || !tags.equals(state.activeTags)) {
+            state.activeTags = tags;
+            state.tier = tier;
+        }
     }
 
     private Set<String> computeTags(ServerPlayer player) {
@@ -201,30 +301,39 @@ public class CommandsService {
     }
 
     private void runForPlayer(ServerPlayer player, GwState st) {
-        Optional<CommandWithPos> opt = findMatchingCommand(player, st);
-        if (opt.isEmpty()) {
-            return;
-        }
-        CommandWithPos c = opt.get();
+        findMatchingCommand(player, st).ifPresent(c -> runCommand(player, c));
+    }
+
+    private void runCommand(ServerPlayer player, CommandWithPos c) {
         BlockPos pos = computePosition(player, c.position);
-        String cmd = CommandsPlaceholderUtil.apply(c.command, player, pos);
         CommandSourceStack src = player.createCommandSourceStack().withPermission(2).withSuppressedOutput();
         try {
-            player.getServer().getCommands().performPrefixedCommand(src, cmd);
+            c.command.execute(player, pos, src);
         } catch (Exception e) {
             Zauberei.LOGGER.error("Command failed: {}", e.getMessage());
         }
     }
 
     private Optional<CommandWithPos> findMatchingCommand(ServerPlayer player, GwState st) {
-        List<CommandWithPos> pool = new ArrayList<>();
+        return pickCommand(matchingEntries(st));
+    }
+
+    private List<CommandsConfig.CommandEntry> matchingEntries(GwState st) {
+        List<CommandsConfig.CommandEntry> result = new ArrayList<>();
         if (config.commands != null) {
             for (CommandsConfig.CommandEntry entry : config.commands) {
-                if (entry == null || entry.when == null || entry.pool == null) continue;
-                if (!matches(entry.when, st)) continue;
-                for (String cmd : entry.pool) {
-                    pool.add(new CommandWithPos(cmd, entry.position));
-                }
+                if (entry == null || entry.when == null || entry.compiled == null) continue;
+                if (matches(entry.when, st)) result.add(entry);
+            }
+        }
+        return result;
+    }
+
+    private Optional<CommandWithPos> pickCommand(List<CommandsConfig.CommandEntry> entries) {
+        List<CommandWithPos> pool = new ArrayList<>();
+        for (CommandsConfig.CommandEntry entry : entries) {
+            for (CommandTemplate cmd : entry.compiled) {
+                pool.add(new CommandWithPos(cmd, entry.position));
             }
         }
         if (pool.isEmpty()) return Optional.empty();
@@ -273,8 +382,8 @@ public class CommandsService {
     }
 
     private static class CommandWithPos {
-        final String command;
+        final CommandTemplate command;
         final String position;
-        CommandWithPos(String cmd, String pos){ this.command = cmd; this.position = pos; }
+        CommandWithPos(CommandTemplate cmd, String pos){ this.command = cmd; this.position = pos; }
     }
 }
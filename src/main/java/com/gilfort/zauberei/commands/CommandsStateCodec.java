@@ -1,51 +1,113 @@
 package com.gilfort.zauberei.commands;
 
 import com.gilfort.zauberei.Zauberei;
+import com.gilfort.zauberei.util.ZaubereiPlayerData;
+import net.minecraft.core.HolderLookup;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.nbt.ListTag;
-import net.minecraft.nbt.StringTag;
 import net.minecraft.nbt.Tag;
 import net.minecraft.server.level.ServerPlayer;
+import net.neoforged.neoforge.attachment.IAttachmentHolder;
+import net.neoforged.neoforge.attachment.IAttachmentSerializer;
+
+import java.util.Arrays;
+import java.util.List;
 
 /**
- * Handles encoding and decoding of {@link GwState} to the player's persistent data.
+ * Handles encoding and decoding of {@link GwState}, stored in the player's
+ * {@code gateway_state} attachment. The attachment is encoded from the live
+ * state whenever the player is saved (autosave, {@code /save-all}, logout,
+ * shutdown), so a save always holds the current state and nothing is
+ * written in between.
+ *
+ * <p>Compact layout:</p>
+ * <pre>
+ * t: int[]  indices into {@link CommandsConfig#tagTable}
+ * f: int    fingerprint of the tag table the indices refer to
+ * r: int    tier
+ * d: long   absolute due tick (overworld game time)
+ * </pre>
+ * If the tag table changed since the state was written, the stored tags are
+ * ignored; they are recomputed from advancements on login anyway.
+ * State saved before the attachment existed ({@code zauberei.gw} in the
+ * persistent data, also in the older {@code tags}/{@code tier}/{@code next}
+ * layout) is still read once and then moved to the attachment.
  */
 public class CommandsStateCodec {
     private static final String NBT_KEY = "gw";
 
-    public static GwState load(ServerPlayer player) {
-        CompoundTag data = player.getPersistentData();
-        CompoundTag mod = data.getCompound(Zauberei.MODID);
-        if (!mod.contains(NBT_KEY)) {
-            return new GwState();
+    public static final IAttachmentSerializer<CompoundTag, GwState> SERIALIZER = new IAttachmentSerializer<>() {
+        @Override
+        public GwState read(IAttachmentHolder holder, CompoundTag tag, HolderLookup.Provider provider) {
+            GwState state = new GwState();
+            state.saved = tag;
+            return state;
         }
-        CompoundTag tag = mod.getCompound(NBT_KEY);
-        GwState state = new GwState();
-        ListTag tags = tag.getList("tags", Tag.TAG_STRING);
-        for (Tag t : tags) {
-            state.activeTags.add(t.getAsString());
+
+        @Override
+        public CompoundTag write(GwState state, HolderLookup.Provider provider) {
+            // Not decoded yet (player not logged in): keep what was read
+            return state.saved != null ? state.saved.copy() : encode(state, CommandsService.config());
         }
-        if (tag.contains("tier")) {
-            state.tier = tag.getInt("tier");
+    };
+
+    /** Decodes the player's saved state into their attachment and returns it. */
+    public static GwState load(ServerPlayer player, CommandsConfig config, long now) {
+        GwState state = player.getData(ZaubereiPlayerData.GATEWAY_STATE);
+        CompoundTag tag = state.saved;
+        state.saved = null;
+        if (tag == null) {
+            CompoundTag mod = player.getPersistentData().getCompound(Zauberei.MODID);
+            if (!mod.contains(NBT_KEY)) {
+                return state;
+            }
+            tag = mod.getCompound(NBT_KEY);
+            mod.remove(NBT_KEY);
         }
+
         if (tag.contains("next")) {
-            state.nextInTicks = tag.getInt("next");
+            // Legacy layout: string list + countdown
+            ListTag tags = tag.getList("tags", Tag.TAG_STRING);
+            for (Tag t : tags) {
+                state.activeTags.add(t.getAsString());
+            }
+            if (tag.contains("tier")) {
+                state.tier = tag.getInt("tier");
+            }
+            state.dueTick = now + tag.getInt("next");
+            return state;
+        }
+
+        if (tag.getInt("f") == config.tagFingerprint) {
+            List<String> table = config.tagTable;
+            for (int idx : tag.getIntArray("t")) {
+                if (idx >= 0 && idx < table.size()) {
+                    state.activeTags.add(table.get(idx));
+                }
+            }
+        }
+        if (tag.contains("r")) {
+            state.tier = tag.getInt("r");
+        }
+        if (tag.contains("d")) {
+            state.dueTick = tag.getLong("d");
         }
         return state;
     }
 
-    public static void save(ServerPlayer player, GwState state) {
-        CompoundTag data = player.getPersistentData();
-        CompoundTag mod = data.getCompound(Zauberei.MODID);
+    static CompoundTag encode(GwState state, CommandsConfig config) {
         CompoundTag tag = new CompoundTag();
-        ListTag tags = new ListTag();
+
+        int[] ids = new int[state.activeTags.size()];
+        int n = 0;
         for (String s : state.activeTags) {
-            tags.add(StringTag.valueOf(s));
+            Integer idx = config.tagIndex.get(s);
+            if (idx != null) ids[n++] = idx;
         }
-        tag.put("tags", tags);
-        tag.putInt("tier", state.tier);
-        tag.putInt("next", state.nextInTicks);
-        mod.put(NBT_KEY, tag);
-        data.put(Zauberei.MODID, mod);
+        tag.putIntArray("t", n == ids.length ? ids : Arrays.copyOf(ids, n));
+        tag.putInt("f", config.tagFingerprint);
+        tag.putInt("r", state.tier);
+        tag.putLong("d", state.dueTick);
+        return tag;
     }
 }
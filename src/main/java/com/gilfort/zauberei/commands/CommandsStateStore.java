@@ -0,0 +1,37 @@
+package com.gilfort.zauberei.commands;
+
+import net.minecraft.server.level.ServerPlayer;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * In-memory owner of all online players' {@link GwState}.
+ *
+ * <p>The in-memory state is authoritative while a player is online. It is
+ * the player's {@code gateway_state} attachment, so it is encoded exactly
+ * when the player is saved and never in between; see {@link CommandsStateCodec}.</p>
+ */
+public class CommandsStateStore {
+    private final Map<UUID, GwState> states = new HashMap<>();
+
+    public GwState get(UUID id) {
+        return states.get(id);
+    }
+
+    public GwState load(ServerPlayer player, CommandsConfig config, long now) {
+        GwState state = CommandsStateCodec.load(player, config, now);
+        states.put(player.getUUID(), state);
+        return state;
+    }
+
+    /** Drops the player's state; the save that follows the logout writes it. */
+    public void unload(ServerPlayer player) {
+        states.remove(player.getUUID());
+    }
+
+    public void clear() {
+        states.clear();
+    }
+}
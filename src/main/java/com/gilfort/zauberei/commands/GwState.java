@@ -1,5 +1,7 @@
 package com.gilfort.zauberei.commands;
 
+import net.minecraft.nbt.CompoundTag;
+
 import java.util.HashSet;
 import java.util.Set;
 
@@ -9,5 +11,12 @@ import java.util.Set;
 public class GwState {
     public Set<String> activeTags = new HashSet<>();
     public int tier = 1;
-    public int nextInTicks = 20 * 60; // default one minute
+    /** Overworld game time at which the next command fires; {@code -1} if not scheduled yet. */
+    public long dueTick = -1;
+    /** The state as read from the player's save, until it is decoded on login; {@code null} after that. */
+    CompoundTag saved;
+
+    public long remainingTicks(long now) {
+        return dueTick < 0 ? 0 : Math.max(0, dueTick - now);
+    }
 }
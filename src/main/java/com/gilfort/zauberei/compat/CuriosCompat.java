@@ -0,0 +1,45 @@
+package com.gilfort.zauberei.compat;
+
+import com.gilfort.zauberei.item.armor.EquipmentSlotProvider;
+import com.gilfort.zauberei.item.armor.EquipmentSlotProviders;
+import net.minecraft.world.entity.LivingEntity;
+import net.minecraft.world.item.ItemStack;
+import net.neoforged.neoforge.common.NeoForge;
+import net.neoforged.neoforge.items.IItemHandlerModifiable;
+import top.theillusivec4.curios.api.CuriosApi;
+import top.theillusivec4.curios.api.event.CurioChangeEvent;
+
+import java.util.function.Consumer;
+
+/**
+ * Lets items in Curios slots count as set pieces ({@code "curios"} in
+ * {@code set_slot_providers}). Only loaded when Curios is installed.
+ */
+public class CuriosCompat implements EquipmentSlotProvider {
+
+    public static final String ID = "curios";
+
+    public static void init() {
+        EquipmentSlotProviders.register(new CuriosCompat());
+    }
+
+    @Override
+    public String id() {
+        return ID;
+    }
+
+    @Override
+    public void forEachStack(LivingEntity entity, Consumer<ItemStack> action) {
+        CuriosApi.getCuriosInventory(entity).ifPresent(inventory -> {
+            IItemHandlerModifiable equipped = inventory.getEquippedCurios();
+            for (int i = 0; i < equipped.getSlots(); i++) {
+                action.accept(equipped.getStackInSlot(i));
+            }
+        });
+    }
+
+    @Override
+    public void listen(Consumer<LivingEntity> onChange) {
+        NeoForge.EVENT_BUS.addListener(CurioChangeEvent.class, event -> onChange.accept(event.getEntity()));
+    }
+}
@@ -1,6 +1,7 @@
 package com.gilfort.zauberei.helpers;
 
 import com.gilfort.zauberei.Zauberei;
+import com.gilfort.zauberei.item.armorbonus.ArmorSetDataRegistry;
 import com.gilfort.zauberei.util.ZaubereiPlayerData;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.server.level.ServerPlayer;
@@ -19,6 +20,7 @@ public class PlayerDataHelper {
         CompoundTag persistentData = getTag(player);
         persistentData.putString(MAJOR_TAG, major);
         player.setData(ZaubereiPlayerData.PLAYER_DATA.get(), persistentData);
+        ArmorSetDataRegistry.prefetch(major);
         Zauberei.LOGGER.info("MajorTag set to {} for {}", major, player.getName().getString());
     }
 
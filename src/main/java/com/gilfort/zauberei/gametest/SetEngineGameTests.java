@@ -0,0 +1,139 @@
+package com.gilfort.zauberei.gametest;
+
+import com.gilfort.zauberei.Zauberei;
+import net.minecraft.gametest.framework.GameTest;
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.neoforged.neoforge.gametest.GameTestHolder;
+import net.neoforged.neoforge.gametest.PrefixGameTestTemplate;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * GameTests for the set engine: mock players in mixed set pieces across
+ * majors and years, with their armor, major and year changed and the set
+ * definitions reloaded while they are evaluated.
+ *
+ * <p>Run with {@code ./gradlew runGameTestServer}; the server exits with a
+ * failure if a test fails. Sizes and budgets are system properties, so CI
+ * can tighten them, e.g. {@code -Pzauberei.gametest.players=500} (forwarded
+ * by the {@code gameTestServer} run):</p>
+ * <pre>
+ * zauberei.gametest.seed                     random seed                      (1)
+ * zauberei.gametest.correctness_players      players in the correctness test  (48)
+ * zauberei.gametest.players                  players in the load test         (200)
+ * zauberei.gametest.ticks                    measured ticks of the load test  (1200)
+ * zauberei.gametest.budget.avg_micros        average Zauberei time per tick   (500)
+ * zauberei.gametest.budget.p99_micros        99th percentile per tick         (2500)
+ * zauberei.gametest.budget.bytes_per_eval    bytes allocated per evaluation   (16384)
+ * </pre>
+ *
+ * <p>The tests publish their own set definitions and restore the real ones
+ * from the config folder when they end. They assume the default config:
+ * armor slots only and no silent conversion of night vision or haste.</p>
+ */
+@GameTestHolder(Zauberei.MODID)
+@PrefixGameTestTemplate(false)
+public class SetEngineGameTests {
+
+    private static final String PREFIX = "zauberei.gametest.";
+    private static final int WARMUP_TICKS = 600;
+    /** Ticks between two reloads in the load test. */
+    private static final int RELOAD_EVERY = 300;
+    /** Share of players whose armor changes per tick in the load test. */
+    private static final double CHURN_PER_TICK = 0.02;
+
+    /**
+     * Every player must end up with exactly the modifiers and effects of
+     * the sets they wear: after armor changes, after major/year changes,
+     * after reloads that change amounts and remove a set, and after taking
+     * everything off.
+     */
+    @GameTest(template = "empty")
+    public static void setBonusesFollowChurnAndReloads(GameTestHelper helper) {
+        try (SetEngineSimulation sim = new SetEngineSimulation(helper,
+                Integer.getInteger(PREFIX + "correctness_players", 48), Long.getLong(PREFIX + "seed", 1L))) {
+            int revision = 0;
+            for (int round = 1; round <= 8; round++) {
+                String phase;
+                if (round % 3 == 0) {
+                    sim.reload(++revision);
+                    phase = "round " + round + " (reload to revision " + revision + ")";
+                } else {
+                    sim.churnAll();
+                    phase = "round " + round + " (armor, major and year changed)";
+                }
+                sim.clearEffects();
+                sim.runInterval();
+                sim.verify(phase);
+            }
+
+            sim.unequipAll();
+            sim.clearEffects();
+            sim.runInterval();
+            sim.verify("after unequipping");
+        }
+        helper.succeed();
+    }
+
+    /**
+     * Zauberei's time per server tick (average and 99th percentile) and the
+     * bytes it allocates per evaluation must stay within budget with
+     * hundreds of players, while armor keeps changing and sets are reloaded.
+     * The result is checked for correctness afterwards as well.
+     */
+    @GameTest(template = "empty")
+    public static void setEngineStaysWithinBudget(GameTestHelper helper) {
+        int ticks = Integer.getInteger(PREFIX + "ticks", 1200);
+        long avgBudget = Long.getLong(PREFIX + "budget.avg_micros", 500L);
+        long p99Budget = Long.getLong(PREFIX + "budget.p99_micros", 2500L);
+        long bytesBudget = Long.getLong(PREFIX + "budget.bytes_per_eval", 16384L);
+
+        try (SetEngineSimulation sim = new SetEngineSimulation(helper,
+                Integer.getInteger(PREFIX + "players", 200), Long.getLong(PREFIX + "seed", 1L))) {
+            // Let the JIT settle before measuring
+            for (int i = 0; i < WARMUP_TICKS; i++) {
+                sim.churn(CHURN_PER_TICK);
+                sim.tick();
+            }
+
+            sim.resetCounters();
+            long[] tickNanos = new long[ticks];
+            int revision = 0;
+            for (int i = 0; i < ticks; i++) {
+                if (i > 0 && i % RELOAD_EVERY == 0) sim.reload(++revision);
+                sim.churn(CHURN_PER_TICK);
+                tickNanos[i] = sim.tick();
+            }
+
+            Arrays.sort(tickNanos);
+            double avgMicros = Arrays.stream(tickNanos).average().orElse(0) / 1000.0;
+            double p99Micros = tickNanos[Math.max(0, (int) Math.ceil(ticks * 0.99) - 1)] / 1000.0;
+            long allocated = sim.allocatedBytesTotal();
+            long bytesPerEval = allocated < 0 || sim.evaluations() == 0 ? -1 : allocated / sim.evaluations();
+            Zauberei.LOGGER.info(String.format(Locale.ROOT,
+                    "[Zauberei] Set engine load test: %d players, %d ticks, %d evaluations, "
+                            + "avg %.1f µs/tick, p99 %.1f µs/tick, %s bytes/evaluation",
+                    sim.playerCount(), ticks, sim.evaluations(), avgMicros, p99Micros,
+                    bytesPerEval < 0 ? "n/a" : String.valueOf(bytesPerEval)));
+
+            if (avgMicros > avgBudget) {
+                helper.fail(String.format(Locale.ROOT, "Average %.1f µs/tick exceeds the budget of %d µs",
+                        avgMicros, avgBudget));
+            }
+            if (p99Micros > p99Budget) {
+                helper.fail(String.format(Locale.ROOT, "p99 %.1f µs/tick exceeds the budget of %d µs",
+                        p99Micros, p99Budget));
+            }
+            if (bytesPerEval > bytesBudget) {
+                helper.fail("Allocated " + bytesPerEval + " bytes per evaluation, budget is " + bytesBudget);
+            }
+
+            // Nothing may have drifted under load
+            sim.clearEffects();
+            sim.runInterval();
+            sim.verify("after the load test");
+        }
+        helper.succeed();
+    }
+}
@@ -0,0 +1,251 @@
+package com.gilfort.zauberei.gametest;
+
+import com.gilfort.zauberei.Zauberei;
+import com.gilfort.zauberei.helpers.PlayerDataHelper;
+import com.gilfort.zauberei.item.ZaubereiItems;
+import com.gilfort.zauberei.item.armor.ArmorEffects;
+import com.gilfort.zauberei.item.armor.SetBonusAggregate;
+import com.gilfort.zauberei.item.armorbonus.ArmorSetDataRegistry;
+import com.gilfort.zauberei.item.armorbonus.ZaubereiReloadListener;
+import net.minecraft.core.Holder;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.gametest.framework.GameTestHelper;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.effect.MobEffect;
+import net.minecraft.world.effect.MobEffectInstance;
+import net.minecraft.world.entity.EquipmentSlot;
+import net.minecraft.world.entity.ai.attributes.Attribute;
+import net.minecraft.world.entity.ai.attributes.AttributeInstance;
+import net.minecraft.world.entity.ai.attributes.AttributeModifier;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import net.neoforged.neoforge.common.NeoForge;
+import net.neoforged.neoforge.event.entity.living.LivingEquipmentChangeEvent;
+import net.neoforged.neoforge.event.tick.PlayerTickEvent;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+
+/**
+ * Mock players for the set engine GameTests, driven through
+ * {@link ArmorEffects#onPlayerTick} many simulated ticks per game tick.
+ *
+ * <p>Mock players have no network connection that is ticked, so the
+ * simulation stands in for the server: it advances each player's tick
+ * count, posts the equipment change events {@code LivingEntity#tick} would
+ * post, and calls the tick handler with one reused event per player. Only
+ * that call is timed and checked for allocations, so the numbers are
+ * Zauberei's share of a tick.</p>
+ *
+ * <p>{@link #close} removes the players and reloads the real set
+ * definitions; use it in a try-with-resources block.</p>
+ */
+final class SetEngineSimulation implements AutoCloseable {
+
+    private static final EquipmentSlot[] SLOTS =
+            {EquipmentSlot.HEAD, EquipmentSlot.CHEST, EquipmentSlot.LEGS, EquipmentSlot.FEET};
+    private static final double TOLERANCE = 1e-9;
+
+    private final GameTestHelper helper;
+    private final Random random;
+    /** Candidate items per slot (same order as {@link #SLOTS}); {@code null} is an empty slot. */
+    private final Item[][] pool;
+    private final List<ServerPlayer> players = new ArrayList<>();
+    private final List<PlayerTickEvent.Post> events = new ArrayList<>();
+    private final com.sun.management.ThreadMXBean threads;
+    private List<TestSetDefinitions.Definition> definitions;
+
+    private long evaluations;
+    private long allocatedBytes;
+
+    SetEngineSimulation(GameTestHelper helper, int playerCount, long seed) {
+        this.helper = helper;
+        this.random = new Random(seed);
+        this.pool = new Item[][]{
+                {null, ZaubereiItems.MAGICCLOTH_HELMET.get(), Items.GOLDEN_HELMET, Items.IRON_HELMET},
+                {null, ZaubereiItems.MAGICCLOTH_CHESTPLATE.get(), Items.GOLDEN_CHESTPLATE, Items.IRON_CHESTPLATE},
+                {null, ZaubereiItems.MAGICCLOTH_LEGGINGS.get(), Items.GOLDEN_LEGGINGS, Items.IRON_LEGGINGS},
+                {null, ZaubereiItems.MAGICCLOTH_BOOTS.get(), Items.GOLDEN_BOOTS, Items.IRON_BOOTS}};
+        this.threads = ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+                && bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled() ? bean : null;
+
+        reload(0);
+        for (int i = 0; i < playerCount; i++) {
+            ServerPlayer player = helper.makeMockServerPlayerInLevel();
+            // Spread the evaluations over the interval like real players
+            player.tickCount = random.nextInt(ArmorEffects.INTERVAL);
+            players.add(player);
+            events.add(new PlayerTickEvent.Post(player));
+            churnScope(player);
+            churnEquipment(player);
+        }
+    }
+
+    // ─── Changes ─────────────────────────────────────────────────────────
+
+    /** Publishes the definitions of {@code revision}, as a reload would. */
+    void reload(int revision) {
+        definitions = TestSetDefinitions.definitions(revision);
+        List<ArmorSetDataRegistry.SetEntry> entries = TestSetDefinitions.entries(definitions);
+        ArmorSetDataRegistry.publish(entries, Collections.nCopies(entries.size(), "gametest"), Map.of(), Map.of());
+    }
+
+    /** Gives every player new armor, and every other one a new major and year. */
+    void churnAll() {
+        for (int i = 0; i < players.size(); i++) {
+            if (i % 2 == 0) churnScope(players.get(i));
+            churnEquipment(players.get(i));
+        }
+    }
+
+    /** New armor for about {@code fraction} of the players, a new major/year for a tenth of those. */
+    void churn(double fraction) {
+        for (ServerPlayer player : players) {
+            if (random.nextDouble() < fraction) churnEquipment(player);
+            if (random.nextDouble() < fraction / 10) churnScope(player);
+        }
+    }
+
+    void unequipAll() {
+        for (ServerPlayer player : players) {
+            for (EquipmentSlot slot : SLOTS) equip(player, slot, ItemStack.EMPTY);
+        }
+    }
+
+    /** Removes all effects, so the next evaluation has to apply exactly the expected ones. */
+    void clearEffects() {
+        for (ServerPlayer player : players) player.removeAllEffects();
+    }
+
+    private void churnEquipment(ServerPlayer player) {
+        for (int s = 0; s < SLOTS.length; s++) {
+            Item item = pool[s][random.nextInt(pool[s].length)];
+            equip(player, SLOTS[s], item == null ? ItemStack.EMPTY : new ItemStack(item));
+        }
+    }
+
+    private void churnScope(ServerPlayer player) {
+        PlayerDataHelper.setMajor(player, TestSetDefinitions.MAJORS[random.nextInt(TestSetDefinitions.MAJORS.length)]);
+        PlayerDataHelper.setYear(player, 1 + random.nextInt(TestSetDefinitions.YEARS));
+    }
+
+    private static void equip(ServerPlayer player, EquipmentSlot slot, ItemStack stack) {
+        ItemStack old = player.getItemBySlot(slot).copy();
+        player.setItemSlot(slot, stack);
+        // What LivingEntity#tick reports for a real player; mock players are never ticked
+        NeoForge.EVENT_BUS.post(new LivingEquipmentChangeEvent(player, slot, old, stack));
+    }
+
+    // ─── Ticking ─────────────────────────────────────────────────────────
+
+    /** One server tick for all players; returns the nanoseconds spent in Zauberei. */
+    long tick() {
+        long allocated = allocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < players.size(); i++) {
+            ServerPlayer player = players.get(i);
+            if (++player.tickCount % ArmorEffects.INTERVAL == 0) evaluations++;
+            ArmorEffects.onPlayerTick(events.get(i));
+        }
+        long elapsed = System.nanoTime() - start;
+        allocatedBytes += allocatedBytes() - allocated;
+        return elapsed;
+    }
+
+    /** Ticks a full interval, so every player is evaluated exactly once. */
+    void runInterval() {
+        for (int i = 0; i < ArmorEffects.INTERVAL; i++) tick();
+    }
+
+    void resetCounters() {
+        evaluations = 0;
+        allocatedBytes = 0;
+    }
+
+    long evaluations() { return evaluations; }
+
+    /** Bytes allocated in Zauberei's tick work since the last reset, or -1 if the JVM cannot tell. */
+    long allocatedBytesTotal() { return threads == null ? -1 : allocatedBytes; }
+
+    int playerCount() { return players.size(); }
+
+    private long allocatedBytes() {
+        return threads == null ? 0 : threads.getCurrentThreadAllocatedBytes();
+    }
+
+    // ─── Checks ──────────────────────────────────────────────────────────
+
+    /**
+     * Fails the test unless every player has exactly the expected Zauberei
+     * modifiers and set effects. Effects are only checked for presence, so
+     * call {@link #clearEffects} before the interval that is checked.
+     */
+    void verify(String phase) {
+        for (int i = 0; i < players.size(); i++) {
+            ServerPlayer player = players.get(i);
+            String major = PlayerDataHelper.getMajor(player);
+            int year = PlayerDataHelper.getYear(player);
+            TestSetDefinitions.Expected expected = TestSetDefinitions.expected(definitions, major, year, player);
+
+            for (Holder<Attribute> attribute : TestSetDefinitions.ATTRIBUTES) {
+                AttributeInstance instance = player.getAttribute(attribute);
+                Map<AttributeModifier.Operation, Double> actual = new EnumMap<>(AttributeModifier.Operation.class);
+                if (instance != null) {
+                    for (AttributeModifier modifier : instance.getModifiers()) {
+                        if (!Zauberei.MODID.equals(modifier.id().getNamespace())) continue;
+                        if (actual.put(modifier.operation(), modifier.amount()) != null) {
+                            fail(phase, i, "more than one modifier for " + attribute.getRegisteredName()
+                                    + " " + modifier.operation().getSerializedName());
+                        }
+                    }
+                }
+                for (AttributeModifier.Operation operation : AttributeModifier.Operation.values()) {
+                    Double want = expected.attributes().get(new SetBonusAggregate.AttributeKey(attribute, operation));
+                    Double got = actual.get(operation);
+                    if (want == null ? got != null : got == null || Math.abs(want - got) > TOLERANCE) {
+                        fail(phase, i, attribute.getRegisteredName() + " " + operation.getSerializedName()
+                                + ": expected " + want + ", was " + got);
+                    }
+                }
+            }
+
+            for (Holder<MobEffect> effect : TestSetDefinitions.EFFECTS) {
+                MobEffectInstance instance = player.getEffect(effect);
+                Integer want = expected.effects().get(effect);
+                Integer got = instance == null ? null : instance.getAmplifier();
+                if (!Objects.equals(want, got)) {
+                    fail(phase, i, effect.getRegisteredName() + ": expected amplifier " + want + ", was " + got);
+                }
+            }
+        }
+    }
+
+    private void fail(String phase, int index, String problem) {
+        ServerPlayer player = players.get(index);
+        List<String> worn = new ArrayList<>();
+        for (EquipmentSlot slot : SLOTS) {
+            ItemStack stack = player.getItemBySlot(slot);
+            worn.add(stack.isEmpty() ? "-" : BuiltInRegistries.ITEM.getKey(stack.getItem()).getPath());
+        }
+        helper.fail(phase + ": player #" + index + " (" + PlayerDataHelper.getMajor(player) + "/"
+                + PlayerDataHelper.getYear(player) + ", wearing " + worn + "): " + problem);
+    }
+
+    @Override
+    public void close() {
+        for (ServerPlayer player : players) {
+            player.server.getPlayerList().remove(player);
+        }
+        players.clear();
+        events.clear();
+        // Back to the sets from the config folder and the last datapack load
+        ZaubereiReloadListener.loadAllEffects();
+    }
+}
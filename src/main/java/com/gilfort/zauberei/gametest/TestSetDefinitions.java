@@ -0,0 +1,166 @@
+package com.gilfort.zauberei.gametest;
+
+import com.gilfort.zauberei.item.armor.SetBonusAggregate;
+import com.gilfort.zauberei.item.armorbonus.ArmorSetData;
+import com.gilfort.zauberei.item.armorbonus.ArmorSetDataRegistry;
+import com.gilfort.zauberei.item.armorbonus.SetDelta;
+import net.minecraft.core.Holder;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.tags.TagKey;
+import net.minecraft.world.effect.MobEffect;
+import net.minecraft.world.effect.MobEffects;
+import net.minecraft.world.entity.LivingEntity;
+import net.minecraft.world.entity.ai.attributes.Attribute;
+import net.minecraft.world.entity.ai.attributes.AttributeModifier;
+import net.minecraft.world.entity.ai.attributes.Attributes;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The set definitions the set engine GameTests publish, and a separate
+ * model of what they should give an entity. The model picks the part by
+ * threshold and walks the wildcard fallback on its own, so the tests do not
+ * check {@code ArmorEffects} against itself.
+ *
+ * <p>The tags exist in every pack: the mod's magiccloth armor, gold armor
+ * through {@code piglin_loved} and all boots through {@code foot_armor}, so
+ * single pieces count for more than one set. A {@code revision} is a
+ * changed config after a reload. Amounts scale with it, and the boots set
+ * exists only in even revisions.</p>
+ */
+final class TestSetDefinitions {
+
+    static final String ALPHA = "gametest_alpha";
+    static final String BETA = "gametest_beta";
+    static final String[] MAJORS = {ALPHA, BETA};
+    static final int YEARS = 3;
+
+    static final TagKey<Item> MAGICCLOTH = tag("zauberei", "magiccloth_armor");
+    static final TagKey<Item> GOLD = tag("minecraft", "piglin_loved");
+    static final TagKey<Item> BOOTS = tag("minecraft", "foot_armor");
+
+    /** Everything the definitions touch; the tests check these and nothing else. */
+    static final List<Holder<Attribute>> ATTRIBUTES =
+            List.of(Attributes.ARMOR, Attributes.MAX_HEALTH, Attributes.MOVEMENT_SPEED);
+    static final List<Holder<MobEffect>> EFFECTS = List.of(MobEffects.NIGHT_VISION, MobEffects.DIG_SPEED);
+
+    record Bonus(Holder<Attribute> attribute, AttributeModifier.Operation operation, double amount) {}
+
+    record Part(int threshold, List<Bonus> attributes, Map<Holder<MobEffect>, Integer> effects) {}
+
+    record Definition(String major, int year, TagKey<Item> tag, List<Part> parts) {}
+
+    record Expected(Map<SetBonusAggregate.AttributeKey, Double> attributes,
+                    Map<Holder<MobEffect>, Integer> effects) {}
+
+    private TestSetDefinitions() {}
+
+    static List<Definition> definitions(int revision) {
+        double f = revision + 1;
+        String any = ArmorSetDataRegistry.WILDCARD_MAJOR;
+        List<Definition> defs = new ArrayList<>();
+
+        // Magiccloth: exact per year for alpha, all_majors for year 2, universal for the rest
+        for (int year = 1; year <= YEARS; year++) {
+            defs.add(new Definition(ALPHA, year, MAGICCLOTH, List.of(
+                    part(2, Map.of(), add(Attributes.ARMOR, (1 + year) * f)),
+                    part(4, Map.of(MobEffects.NIGHT_VISION, year - 1), add(Attributes.ARMOR, (4 + year) * f)))));
+        }
+        defs.add(new Definition(any, 2, MAGICCLOTH, List.of(
+                part(2, Map.of(), add(Attributes.ARMOR, 20 * f)))));
+        defs.add(new Definition(any, ArmorSetDataRegistry.WILDCARD_YEAR, MAGICCLOTH, List.of(
+                part(1, Map.of(), add(Attributes.ARMOR, 0.5 * f)))));
+
+        // Gold: universal, adds to the same armor modifier as magiccloth at four pieces
+        defs.add(new Definition(any, ArmorSetDataRegistry.WILDCARD_YEAR, GOLD, List.of(
+                part(2, Map.of(), add(Attributes.MAX_HEALTH, 2 * f)),
+                part(4, Map.of(MobEffects.DIG_SPEED, 1),
+                        add(Attributes.MAX_HEALTH, 4 * f), add(Attributes.ARMOR, f)))));
+
+        // Boots: year 1 only, and gone after every other reload
+        if (revision % 2 == 0) {
+            defs.add(new Definition(any, 1, BOOTS, List.of(
+                    part(1, Map.of(), new Bonus(Attributes.MOVEMENT_SPEED,
+                            AttributeModifier.Operation.ADD_MULTIPLIED_BASE, 0.05 * f)))));
+        }
+        return defs;
+    }
+
+    /** The definitions as registry entries, built through the same deltas the set editor sends. */
+    static List<ArmorSetDataRegistry.SetEntry> entries(List<Definition> defs) {
+        List<ArmorSetDataRegistry.SetEntry> entries = new ArrayList<>();
+        for (Definition def : defs) {
+            ArmorSetData data = new ArmorSetData();
+            for (Part part : def.parts()) {
+                for (Bonus bonus : part.attributes()) {
+                    SetDelta.putAttribute(part.threshold(), bonus.attribute().getRegisteredName(), bonus.amount(),
+                            bonus.operation() == AttributeModifier.Operation.ADD_VALUE ? "addition" : "multiply_base")
+                            .applyTo(data);
+                }
+                part.effects().forEach((effect, amplifier) ->
+                        SetDelta.putEffect(part.threshold(), effect.getRegisteredName(), amplifier).applyTo(data));
+            }
+            entries.add(new ArmorSetDataRegistry.SetEntry(def.major(), def.year(),
+                    def.tag().location().toString(), data));
+        }
+        return entries;
+    }
+
+    /** What {@code entity} should have with this major and year while wearing what it wears now. */
+    static Expected expected(List<Definition> defs, String major, int year, LivingEntity entity) {
+        Map<String, Definition> byKey = new HashMap<>();
+        for (Definition def : defs) byKey.put(key(def.major(), def.year(), def.tag()), def);
+
+        Map<SetBonusAggregate.AttributeKey, Double> attributes = new HashMap<>();
+        Map<Holder<MobEffect>, Integer> effects = new HashMap<>();
+        for (TagKey<Item> tag : List.of(MAGICCLOTH, GOLD, BOOTS)) {
+            Definition def = byKey.get(key(major, year, tag));
+            if (def == null) def = byKey.get(key(ArmorSetDataRegistry.WILDCARD_MAJOR, year, tag));
+            if (def == null) {
+                def = byKey.get(key(ArmorSetDataRegistry.WILDCARD_MAJOR, ArmorSetDataRegistry.WILDCARD_YEAR, tag));
+            }
+            if (def == null) continue;
+
+            int worn = 0;
+            for (ItemStack stack : entity.getArmorSlots()) {
+                if (!stack.isEmpty() && stack.is(tag)) worn++;
+            }
+            Part active = null;
+            for (Part part : def.parts()) {
+                if (part.threshold() <= worn && (active == null || part.threshold() > active.threshold())) {
+                    active = part;
+                }
+            }
+            if (active == null) continue;
+
+            for (Bonus bonus : active.attributes()) {
+                attributes.merge(new SetBonusAggregate.AttributeKey(bonus.attribute(), bonus.operation()),
+                        bonus.amount(), Double::sum);
+            }
+            active.effects().forEach((effect, amplifier) -> effects.merge(effect, amplifier, Math::max));
+        }
+        return new Expected(attributes, effects);
+    }
+
+    private static Part part(int threshold, Map<Holder<MobEffect>, Integer> effects, Bonus... attributes) {
+        return new Part(threshold, List.of(attributes), effects);
+    }
+
+    private static Bonus add(Holder<Attribute> attribute, double amount) {
+        return new Bonus(attribute, AttributeModifier.Operation.ADD_VALUE, amount);
+    }
+
+    private static String key(String major, int year, TagKey<Item> tag) {
+        return major + ":" + year + ":" + tag.location();
+    }
+
+    private static TagKey<Item> tag(String namespace, String path) {
+        return TagKey.create(Registries.ITEM, ResourceLocation.fromNamespaceAndPath(namespace, path));
+    }
+}
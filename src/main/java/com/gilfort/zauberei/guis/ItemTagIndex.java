@@ -0,0 +1,187 @@
+package com.gilfort.zauberei.guis;
+
+import com.gilfort.zauberei.Zauberei;
+import net.minecraft.Util;
+import net.minecraft.core.Holder;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.network.chat.Component;
+import net.minecraft.tags.TagKey;
+import net.minecraft.world.item.Item;
+import net.neoforged.api.distmarker.Dist;
+import net.neoforged.api.distmarker.OnlyIn;
+import net.neoforged.neoforge.common.NeoForge;
+import net.neoforged.neoforge.event.TagsUpdatedEvent;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Client-side index of all item tags, shared by the tag browser of
+ * {@link SetsManagerScreen} and the tag selector of {@link SetWizardScreen}.
+ *
+ * <p>Built once per tag sync on a background thread (started from
+ * {@link TagsUpdatedEvent}), so opening and filtering the screens never walks
+ * the item registry. Each sync bumps a generation counter; a build that was
+ * overtaken by a newer sync is discarded.</p>
+ *
+ * <p>Every snapshot is immutable and can be kept by a screen while a newer
+ * one is built. Nothing here waits for a build: until the first one is done
+ * {@link #get} returns an empty index and {@link #isReady} is false, so
+ * screens show a loading state and pick up the index once it is there. A
+ * failed build leaves an empty index.</p>
+ */
+@OnlyIn(Dist.CLIENT)
+public final class ItemTagIndex {
+
+    /**
+     * One build of the index.
+     *
+     * @param tags        all item tags, sorted by id
+     * @param searchKeys  lowercased {@code namespace:path} per tag, same order as {@code tags}
+     * @param byNamespace tags per namespace, sorted
+     * @param items       items per tag, in registry tag order
+     */
+    public record Snapshot(int generation, List<TagKey<Item>> tags, String[] searchKeys,
+                           Map<String, List<TagKey<Item>>> byNamespace,
+                           Map<TagKey<Item>, List<Item>> items) {
+
+        /** Items in a tag; empty for unknown tags. */
+        public List<Item> itemsOf(TagKey<Item> tag) {
+            return items.getOrDefault(tag, List.of());
+        }
+
+        /**
+         * Tags whose id contains {@code query} (case-insensitive). A query that
+         * is exactly {@code namespace:} lists that namespace's bucket directly.
+         */
+        public List<TagKey<Item>> filter(String query) {
+            String lower = query.toLowerCase().trim();
+            if (lower.isEmpty()) {
+                return tags;
+            }
+            if (lower.endsWith(":") && lower.indexOf(':') == lower.length() - 1) {
+                List<TagKey<Item>> bucket = byNamespace.get(lower.substring(0, lower.length() - 1));
+                if (bucket != null) return bucket;
+            }
+            List<TagKey<Item>> result = new ArrayList<>();
+            for (int i = 0; i < searchKeys.length; i++) {
+                if (searchKeys[i].contains(lower)) {
+                    result.add(tags.get(i));
+                }
+            }
+            return result;
+        }
+    }
+
+    private static final AtomicInteger GENERATION = new AtomicInteger();
+    private static volatile Snapshot current;
+    private static volatile CompletableFuture<Snapshot> pending;
+    /** Selector entries for {@link SearchableListPopup}, built on first use per snapshot. */
+    private static volatile List<SearchableListPopup.Entry<String>> popupEntries;
+    private static volatile int popupEntriesGeneration = -1;
+
+    private ItemTagIndex() {}
+
+    /** Call from {@code ClientModEvents.onClientSetup()}. */
+    public static void register() {
+        NeoForge.EVENT_BUS.addListener(ItemTagIndex::onTagsUpdated);
+    }
+
+    private static void onTagsUpdated(TagsUpdatedEvent event) {
+        if (event.getUpdateCause() == TagsUpdatedEvent.UpdateCause.CLIENT_PACKET_RECEIVED) {
+            rebuild();
+        }
+    }
+
+    /** Starts a background build for the current tag state. */
+    public static synchronized void rebuild() {
+        int generation = GENERATION.incrementAndGet();
+        CompletableFuture<Snapshot> future = CompletableFuture
+                .supplyAsync(() -> build(generation), Util.backgroundExecutor());
+        pending = future;
+        future.whenComplete((snapshot, e) -> {
+            if (e != null) {
+                Zauberei.LOGGER.error("[Zauberei] Building the item tag index failed", e);
+            }
+            // A newer sync may have started a build in the meantime
+            if (generation == GENERATION.get()) {
+                current = e != null ? empty(generation) : snapshot;
+            }
+        });
+    }
+
+    /** True once the build for the latest tag sync has finished. */
+    public static boolean isReady() {
+        Snapshot snapshot = current;
+        return snapshot != null && snapshot.generation() == GENERATION.get();
+    }
+
+    /**
+     * The latest finished index; never waits for a build. While the first
+     * build runs (screen opened right after joining) this is an empty index,
+     * check {@link #isReady} to tell it from a pack without tags.
+     */
+    public static Snapshot get() {
+        if (pending == null) {
+            rebuild();
+        }
+        Snapshot snapshot = current;
+        return snapshot != null ? snapshot : empty(-1);
+    }
+
+    /** Popup entries for all tags, shared until the next tag sync. */
+    public static List<SearchableListPopup.Entry<String>> popupEntries() {
+        Snapshot snapshot = get();
+        List<SearchableListPopup.Entry<String>> entries = popupEntries;
+        if (entries != null && popupEntriesGeneration == snapshot.generation()) {
+            return entries;
+        }
+        List<SearchableListPopup.Entry<String>> built = new ArrayList<>(snapshot.tags().size());
+        for (int i = 0; i < snapshot.tags().size(); i++) {
+            String loc = snapshot.tags().get(i).location().toString();
+            built.add(new SearchableListPopup.Entry<>(loc, Component.literal(loc), snapshot.searchKeys()[i]));
+        }
+        entries = Collections.unmodifiableList(built);
+        popupEntries = entries;
+        popupEntriesGeneration = snapshot.generation();
+        return entries;
+    }
+
+    // ─── Building ────────────────────────────────────────────────────────
+
+    private static Snapshot empty(int generation) {
+        return new Snapshot(generation, List.of(), new String[0], Map.of(), Map.of());
+    }
+
+    private static Snapshot build(int generation) {
+        long start = System.nanoTime();
+        List<TagKey<Item>> tags = BuiltInRegistries.ITEM.getTagNames()
+                .sorted(Comparator.comparing(t -> t.location().toString()))
+                .toList();
+
+        String[] searchKeys = new String[tags.size()];
+        Map<String, List<TagKey<Item>>> byNamespace = new LinkedHashMap<>();
+        Map<TagKey<Item>, List<Item>> items = new HashMap<>(tags.size() * 2);
+        for (int i = 0; i < tags.size(); i++) {
+            TagKey<Item> tag = tags.get(i);
+            searchKeys[i] = tag.location().toString().toLowerCase();
+            byNamespace.computeIfAbsent(tag.location().getNamespace(), ns -> new ArrayList<>()).add(tag);
+            items.put(tag, BuiltInRegistries.ITEM.getTag(tag)
+                    .map(set -> set.stream().map(Holder::value).toList())
+                    .orElse(List.of()));
+        }
+        byNamespace.replaceAll((ns, list) -> List.copyOf(list));
+
+        Zauberei.LOGGER.debug("[Zauberei] Indexed {} item tag(s) in {} ms",
+                tags.size(), (System.nanoTime() - start) / 1_000_000);
+        return new Snapshot(generation, tags, searchKeys, Collections.unmodifiableMap(byNamespace),
+                Collections.unmodifiableMap(items));
+    }
+}
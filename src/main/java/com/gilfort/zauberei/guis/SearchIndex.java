@@ -0,0 +1,247 @@
+package com.gilfort.zauberei.guis;
+
+import net.neoforged.api.distmarker.Dist;
+import net.neoforged.api.distmarker.OnlyIn;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Substring search over a fixed list of lowercased keys, used by
+ * {@link SearchableListPopup}.
+ *
+ * <p>Queries of three or more characters only look at the entries that
+ * contain all of the query's trigrams. A {@link Cursor} remembers its last
+ * result, so a query that extends the previous one (typing) only narrows
+ * that result. Results are ranked: prefix matches first, then matches at a
+ * word start (after {@code : _ / . -} or a space), then any other substring;
+ * within a rank the original order is kept.</p>
+ *
+ * <p>Indexes are cached by the identity of the entry list they were built
+ * from, so sources that reuse their list (registries, tag index) only pay
+ * for the index once.</p>
+ */
+@OnlyIn(Dist.CLIENT)
+public final class SearchIndex {
+
+    private static final int CACHE_SIZE = 8;
+    private static final int[] EMPTY = new int[0];
+
+    private record Cached(WeakReference<List<?>> source, int size, SearchIndex index) {}
+
+    private static final LinkedList<Cached> CACHE = new LinkedList<>();
+
+    private final String[] keys;
+    private final Map<Long, int[]> trigrams;
+    private final Set<String> exact;
+
+    private SearchIndex(String[] keys) {
+        this.keys = keys;
+        this.exact = new HashSet<>(Arrays.asList(keys));
+
+        Map<Long, IntList> postings = new HashMap<>();
+        for (int i = 0; i < keys.length; i++) {
+            String key = keys[i];
+            for (int p = 0; p + 3 <= key.length(); p++) {
+                IntList list = postings.computeIfAbsent(trigram(key, p), t -> new IntList());
+                list.addOnce(i);
+            }
+        }
+        Map<Long, int[]> compact = new HashMap<>(postings.size() * 2);
+        postings.forEach((t, list) -> compact.put(t, list.toArray()));
+        this.trigrams = compact;
+    }
+
+    /** Index over the search texts of popup entries, cached per entry list. */
+    public static SearchIndex forEntries(List<? extends SearchableListPopup.Entry<?>> entries) {
+        synchronized (CACHE) {
+            Iterator<Cached> it = CACHE.iterator();
+            while (it.hasNext()) {
+                Cached cached = it.next();
+                List<?> source = cached.source().get();
+                if (source == null) {
+                    it.remove();
+                } else if (source == entries && cached.size() == entries.size()) {
+                    it.remove();
+                    CACHE.addFirst(cached); // most recently used first
+                    return cached.index();
+                }
+            }
+        }
+
+        String[] keys = new String[entries.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = entries.get(i).searchableText();
+        }
+        SearchIndex index = new SearchIndex(keys);
+        synchronized (CACHE) {
+            CACHE.addFirst(new Cached(new WeakReference<>(entries), entries.size(), index));
+            while (CACHE.size() > CACHE_SIZE) CACHE.removeLast();
+        }
+        return index;
+    }
+
+    public int size() {
+        return keys.length;
+    }
+
+    /** True if some key equals {@code query} (lowercased, trimmed). */
+    public boolean containsExact(String query) {
+        return exact.contains(query.toLowerCase().trim());
+    }
+
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    /** Search state of one input field. */
+    public final class Cursor {
+        private String lastQuery;
+        private int[] lastMatches;
+
+        private Cursor() {}
+
+        /**
+         * Indices of the keys containing {@code query} (lowercased, trimmed),
+         * ranked. An empty query returns every index in order.
+         */
+        public int[] search(String query) {
+            String q = query.toLowerCase().trim();
+            if (q.isEmpty()) {
+                lastQuery = null;
+                lastMatches = null;
+                int[] all = new int[keys.length];
+                for (int i = 0; i < all.length; i++) all[i] = i;
+                return all;
+            }
+
+            int[] matches;
+            if (lastQuery != null && q.contains(lastQuery)) {
+                // Typing on: every new match was a match before
+                matches = verify(lastMatches, q);
+            } else if (q.length() >= 3) {
+                matches = verify(candidates(q), q);
+            } else {
+                matches = scan(q);
+            }
+            lastQuery = q;
+            lastMatches = matches;
+            return rank(matches, q);
+        }
+    }
+
+    // ─── Matching ────────────────────────────────────────────────────────
+
+    /** Entries containing every trigram of {@code q}, ascending. */
+    private int[] candidates(String q) {
+        List<int[]> lists = new ArrayList<>();
+        for (int p = 0; p + 3 <= q.length(); p++) {
+            int[] list = trigrams.get(trigram(q, p));
+            if (list == null) return EMPTY;
+            lists.add(list);
+        }
+        lists.sort((a, b) -> Integer.compare(a.length, b.length));
+        int[] result = lists.get(0);
+        for (int l = 1; l < lists.size() && result.length > 0; l++) {
+            result = intersect(result, lists.get(l));
+        }
+        return result;
+    }
+
+    private int[] verify(int[] candidates, String q) {
+        IntList out = new IntList();
+        for (int i : candidates) {
+            if (keys[i].contains(q)) out.add(i);
+        }
+        return out.toArray();
+    }
+
+    private int[] scan(String q) {
+        IntList out = new IntList();
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i].contains(q)) out.add(i);
+        }
+        return out.toArray();
+    }
+
+    /** Prefix, then word start, then substring; stable within each rank. */
+    private int[] rank(int[] matches, String q) {
+        IntList prefix = new IntList();
+        IntList wordStart = new IntList();
+        IntList substring = new IntList();
+        for (int i : matches) {
+            String key = keys[i];
+            if (key.startsWith(q)) {
+                prefix.add(i);
+            } else if (matchesAtWordStart(key, q)) {
+                wordStart.add(i);
+            } else {
+                substring.add(i);
+            }
+        }
+        int[] ranked = new int[matches.length];
+        int n = prefix.copyTo(ranked, 0);
+        n = wordStart.copyTo(ranked, n);
+        substring.copyTo(ranked, n);
+        return ranked;
+    }
+
+    private static boolean matchesAtWordStart(String key, String q) {
+        for (int idx = key.indexOf(q); idx > 0; idx = key.indexOf(q, idx + 1)) {
+            if (!Character.isLetterOrDigit(key.charAt(idx - 1))) return true;
+        }
+        return false;
+    }
+
+    private static int[] intersect(int[] a, int[] b) {
+        int[] out = new int[Math.min(a.length, b.length)];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) i++;
+            else if (a[i] > b[j]) j++;
+            else {
+                out[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    private static long trigram(String s, int p) {
+        return ((long) s.charAt(p) << 32) | ((long) s.charAt(p + 1) << 16) | s.charAt(p + 2);
+    }
+
+    /** Minimal growable int array, to avoid boxing in postings and results. */
+    private static final class IntList {
+        private int[] data = new int[8];
+        private int size;
+
+        void add(int value) {
+            if (size == data.length) data = Arrays.copyOf(data, size * 2);
+            data[size++] = value;
+        }
+
+        /** Adds {@code value} unless it is already the last element (values arrive in ascending order). */
+        void addOnce(int value) {
+            if (size == 0 || data[size - 1] != value) add(value);
+        }
+
+        int copyTo(int[] target, int offset) {
+            System.arraycopy(data, 0, target, offset, size);
+            return offset + size;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(data, size);
+        }
+    }
+}
@@ -49,6 +49,9 @@ public class SearchableListPopup<T> extends Screen {
     private final Screen parentScreen;
     private final List<Entry<T>> allEntries;
     private final List<Entry<T>> filteredEntries;
+    /** Shared index over {@code allEntries}, cached per entry list across openings. */
+    private final SearchIndex.Cursor search;
+    private final SearchIndex searchIndex;
     private final Consumer<T> onSelect;
     private final boolean allowCustomEntry;
     private final Component popupTitle;
@@ -112,6 +115,8 @@ public class SearchableListPopup<T> extends Screen {
         this.filteredEntries = new ArrayList<>(entries);
         this.onSelect = onSelect;
         this.allowCustomEntry = false;
+        this.searchIndex = SearchIndex.forEntries(entries);
+        this.search = searchIndex.cursor();
     }
     /**
      * Creates a SearchableListPopup with optional custom-entry support.
@@ -129,6 +134,8 @@ public class SearchableListPopup<T> extends Screen {
         this.filteredEntries = new ArrayList<>(entries);
         this.onSelect      = onSelect;
         this.allowCustomEntry = allowCustomEntry;
+        this.searchIndex   = SearchIndex.forEntries(entries);
+        this.search        = searchIndex.cursor();
     }
     // ════════════════════════════════════════════════════════════════════
     //  Init
@@ -283,17 +290,11 @@ public class SearchableListPopup<T> extends Screen {
     // ════════════════════════════════════════════════════════════════════
 
     private void onSearchChanged(String filter) {
-        String lower = filter.toLowerCase().trim();
         filteredEntries.clear();
 
-        if (lower.isEmpty()) {
-            filteredEntries.addAll(allEntries);
-        } else {
-            for (Entry<T> entry : allEntries) {
-                if (entry.searchableText().contains(lower)) {
-                    filteredEntries.add(entry);
-                }
-            }
+        // Ranked: prefix > word start > substring; narrows the previous result while typing
+        for (int index : search.search(filter)) {
+            filteredEntries.add(allEntries.get(index));
         }
 
         // Custom-entry: show "✎ Use 'xyz' (new)" at top if:
@@ -302,9 +303,7 @@ public class SearchableListPopup<T> extends Screen {
         // - no entry matches EXACTLY (case-insensitive)
         if (allowCustomEntry && !filter.trim().isEmpty()) {
             String trimmed = filter.trim();
-            boolean exactMatch = allEntries.stream()
-                    .anyMatch(e -> e.searchableText().equalsIgnoreCase(trimmed));
-            if (!exactMatch) {
+            if (!searchIndex.containsExact(trimmed)) {
                 @SuppressWarnings("unchecked")
                 Entry<T> customEntry = (Entry<T>) new Entry<>(
                         trimmed,
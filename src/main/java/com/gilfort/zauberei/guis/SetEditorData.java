@@ -75,9 +75,15 @@ public class SetEditorData {
     public static class PartConfig {
         private final List<EffectEntry> effects = new ArrayList<>();
         private final List<AttributeEntry> attributes = new ArrayList<>();
+        /** Procs and conditions are not edited in the GUI; they are carried through so saving keeps them. */
+        private final List<ArmorSetData.ProcData> procs = new ArrayList<>();
+        private ArmorSetData.ConditionData conditions;
 
         public List<EffectEntry> getEffects() { return effects; }
         public List<AttributeEntry> getAttributes() { return attributes; }
+        public List<ArmorSetData.ProcData> getProcs() { return procs; }
+        public ArmorSetData.ConditionData getConditions() { return conditions; }
+        public void setConditions(ArmorSetData.ConditionData conditions) { this.conditions = conditions; }
 
         /**
          * Creates a deep copy of this PartConfig.
@@ -314,6 +320,8 @@ public class SetEditorData {
             partsEnabled[i] = false;
             partConfigs.get(i).getEffects().clear();
             partConfigs.get(i).getAttributes().clear();
+            partConfigs.get(i).getProcs().clear();
+            partConfigs.get(i).setConditions(null);
         }
 
         // Load parts from ArmorSetData
@@ -352,6 +360,11 @@ public class SetEditorData {
                                         ae.getValue().getValue()));
                     }
                 }
+
+                if (pd.getProcs() != null) {
+                    config.getProcs().addAll(pd.getProcs());
+                }
+                config.setConditions(pd.getConditions());
             }
         }
 
@@ -382,8 +395,9 @@ public class SetEditorData {
 
             PartConfig config = partConfigs.get(i);
 
-            // Skip parts with no effects and no attributes
-            if (config.getEffects().isEmpty() && config.getAttributes().isEmpty()) continue;
+            // Skip parts with no effects, attributes or procs
+            if (config.getEffects().isEmpty() && config.getAttributes().isEmpty()
+                    && config.getProcs().isEmpty()) continue;
 
             ArmorSetData.PartData pd = new ArmorSetData.PartData();
 
@@ -411,6 +425,11 @@ public class SetEditorData {
                 pd.setAttributes(attrMap);
             }
 
+            if (!config.getProcs().isEmpty()) {
+                pd.setProcs(new ArrayList<>(config.getProcs()));
+            }
+            pd.setConditions(config.getConditions());
+
             String partKey = (i + 1) + "Part"; // 1Part, 2Part, 3Part, 4Part
             parts.put(partKey, pd);
         }
@@ -485,12 +504,12 @@ public class SetEditorData {
             errors.add("At least one Part must be enabled.");
         }
 
-        // Check that enabled parts have at least one effect or attribute
+        // Check that enabled parts have at least one effect, attribute or proc
         for (int i = 0; i < 4; i++) {
             if (!partsEnabled[i]) continue;
             PartConfig config = partConfigs.get(i);
-            if (config.getEffects().isEmpty() && config.getAttributes().isEmpty()) {
-                errors.add("Part " + (i + 1) + " is enabled but has no effects or attributes.");
+            if (config.getEffects().isEmpty() && config.getAttributes().isEmpty() && config.getProcs().isEmpty()) {
+                errors.add("Part " + (i + 1) + " is enabled but has no effects, attributes or procs.");
             }
 
             // Check for incomplete entries
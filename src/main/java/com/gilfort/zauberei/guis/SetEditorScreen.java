@@ -4,9 +4,15 @@ import com.gilfort.zauberei.item.armorbonus.ArmorSetData;
 import com.gilfort.zauberei.item.armorbonus.ArmorSetData.AttributeData;
 import com.gilfort.zauberei.item.armorbonus.ArmorSetData.EffectData;
 import com.gilfort.zauberei.item.armorbonus.ArmorSetData.PartData;
+import com.gilfort.zauberei.item.armorbonus.ArmorSetData.ProcData;
+import com.gilfort.zauberei.item.armorbonus.ArmorSetDataRegistry;
+import com.gilfort.zauberei.item.armorbonus.SetDelta;
+import com.gilfort.zauberei.network.SetEditPayload;
+import com.gilfort.zauberei.util.ZaubereiIO;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import net.minecraft.ChatFormatting;
+import net.minecraft.client.Minecraft;
 import net.minecraft.client.gui.GuiGraphics;
 import net.minecraft.client.gui.components.Button;
 import net.minecraft.client.gui.components.EditBox;
@@ -14,9 +20,8 @@ import net.minecraft.client.gui.screens.Screen;
 import net.minecraft.network.chat.Component;
 import net.neoforged.api.distmarker.Dist;
 import net.neoforged.api.distmarker.OnlyIn;
+import net.neoforged.neoforge.network.PacketDistributor;
 
-import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
 
@@ -31,7 +36,12 @@ import java.util.*;
  *   <li>Bottom: Save + Cancel buttons</li>
  * </ul>
  *
- * <p>Saves directly to {@code config/zauberei/set-effects/<setId>.json}.
+ * <p>Sets opened through the wizard are saved on the server: the screen sends
+ * only the effects and attributes that differ from the last saved state
+ * ({@link SetDelta}), and the server writes the file and broadcasts the
+ * change to every client. Without a server that speaks the protocol, and in
+ * the legacy modes, it saves directly to
+ * {@code config/zauberei/set_armor/<setId>.json}.
  *
  * @see ArmorSetData
  * @see SetsManagerScreen
@@ -59,6 +69,10 @@ public class SetEditorScreen extends Screen {
     private static final int SECTION_TITLE_H= 12;
     private static final int PARTS          = 4; // 1Part … 4Part
 
+    // ──── Popup entries (built once, see effectEntries()) ────────────────
+    private static List<SearchableListPopup.Entry<String>> effectEntries;
+    private static List<SearchableListPopup.Entry<String>> attributeEntries;
+
     // ── Inline-Editing State ──────────────────────────────────────────
     private enum InlineEditTarget { NONE, EFFECT_AMP, ATTR_VALUE, ATTR_MODIFIER }
     private InlineEditTarget inlineEditTarget = InlineEditTarget.NONE;
@@ -84,7 +98,7 @@ public class SetEditorScreen extends Screen {
     // ──── Data ──────────────────────────────────────────────────────────
     private final Screen parentScreen;
     private final String setId;
-    private final String displayName;
+    private String displayName;
     private final SetEditorData editorData;
 
     /**
@@ -94,10 +108,21 @@ public class SetEditorScreen extends Screen {
     private final List<EffectData>[]              partEffects;
     private final Map<String, AttributeData>[]    partAttributes;
 
+    /** Last saved state the deltas are computed against; {@code sent*} is the state awaiting the server's answer. */
+    private List<EffectData>[]           baseEffects;
+    private Map<String, AttributeData>[] baseAttributes;
+    private String                       baseDisplayName;
+    private List<EffectData>[]           sentEffects;
+    private Map<String, AttributeData>[] sentAttributes;
+
     // ──── UI State ───────────────────────────────────────────────────────
     private int activeTab = 0;  // 0 = 1Part, 1 = 2Part, …
-    private int effectScrollOffset   = 0;
-    private int attributeScrollOffset= 0;
+    private final VirtualList effectList    = new VirtualList();
+    private final VirtualList attributeList = new VirtualList();
+    /** Attribute entries of the active tab in display order; rebuilt by {@link #refreshRows()}. */
+    private List<Map.Entry<String, AttributeData>> attributeRows = List.of();
+    /** Truncated attribute names per column width; recreated in init(). */
+    private TextLayoutCache layoutCache;
     private int selectedEffectIndex   = -1;
     private int selectedAttributeIndex= -1;
 
@@ -107,7 +132,6 @@ public class SetEditorScreen extends Screen {
     private int leftPanelX, leftPanelW;
     private int rightPanelX, rightPanelW;
     private int panelListTop, panelListH;
-    private int maxEffectVisible, maxAttrVisible;
     // ──── Attribute column layout (computed in init) ───────────────────
     private int attrModColW, attrValColW, attrNameColW;
 
@@ -136,6 +160,7 @@ public class SetEditorScreen extends Screen {
             partEffects[i]    = new ArrayList<>();
             partAttributes[i] = new LinkedHashMap<>();
         }
+        resetBaseline(null);
     }
 
     /**
@@ -171,6 +196,7 @@ public class SetEditorScreen extends Screen {
                 }
             }
         }
+        resetBaseline(existing);
     }
 
     /**
@@ -218,6 +244,11 @@ public class SetEditorScreen extends Screen {
                 partAttributes[i].put(ae.getAttributeId(), ad);
             }
         }
+
+        // Baseline für Deltas: der Stand im Registry, nicht der des Wizards (deaktivierte Parts → remove)
+        resetBaseline(editorData.isExistingSet()
+                ? ArmorSetDataRegistry.getExact(editorData.getMajor(), editorData.getYear(), editorData.getTag())
+                : null);
     }
 
 
@@ -245,8 +276,10 @@ public class SetEditorScreen extends Screen {
         // List area inside each panel (below section title + add button)
         panelListTop   = contentTop + PADDING + SECTION_TITLE_H + 4 + 20 + 4;
         panelListH     = contentBottom - panelListTop - PADDING;
-        maxEffectVisible = panelListH / ITEM_HEIGHT;
-        maxAttrVisible   = panelListH / ITEM_HEIGHT;
+        effectList.setBounds(leftPanelX + PADDING, panelListTop, leftPanelW - 2 * PADDING, panelListH, ITEM_HEIGHT);
+        attributeList.setBounds(rightPanelX + PADDING, panelListTop, rightPanelW - 2 * PADDING, panelListH, ITEM_HEIGHT);
+        layoutCache = new TextLayoutCache(this.font);
+        refreshRows();
         // Attribute column widths (fixed, so click zones don't jump)
         attrModColW = this.font.width("multiply_total") + 8;
         attrValColW = this.font.width("+00000.00") + 8;
@@ -323,7 +356,7 @@ public class SetEditorScreen extends Screen {
         // Overlay over the right 45px of the effect row
         int ampZoneW = 45;
         overlayX = panelX + panelW - ampZoneW;
-        overlayY = panelListTop + (index - effectScrollOffset) * ITEM_HEIGHT;
+        overlayY = effectList.rowY(index);
         overlayW = ampZoneW;
 
         // Left half: old value | Right half: EditBox
@@ -342,11 +375,9 @@ public class SetEditorScreen extends Screen {
 
     private void startInlineEditAttrValue(int index, int colX, int colW) {
         cancelInlineEdit();
-        List<Map.Entry<String, AttributeData>> entries =
-                new ArrayList<>(partAttributes[activeTab].entrySet());
-        if (index < 0 || index >= entries.size()) return;
+        if (index < 0 || index >= attributeRows.size()) return;
 
-        AttributeData ad = entries.get(index).getValue();
+        AttributeData ad = attributeRows.get(index).getValue();
         inlineEditTarget = InlineEditTarget.ATTR_VALUE;
         inlineEditIndex = index;
         String sign = ad.getValue() >= 0 ? "+" : "";
@@ -354,7 +385,7 @@ public class SetEditorScreen extends Screen {
 
         // Overlay spans BOTH value + modifier columns
         overlayX = colX;
-        overlayY = panelListTop + (index - attributeScrollOffset) * ITEM_HEIGHT;
+        overlayY = attributeList.rowY(index);
         overlayW = colW + attrModColW;  // both columns
 
         // Left half: old value | Right half: EditBox
@@ -373,11 +404,9 @@ public class SetEditorScreen extends Screen {
 
     private void startInlineEditAttrModifier(int index, int colX, int colW) {
         cancelInlineEdit();
-        List<Map.Entry<String, AttributeData>> entries =
-                new ArrayList<>(partAttributes[activeTab].entrySet());
-        if (index < 0 || index >= entries.size()) return;
+        if (index < 0 || index >= attributeRows.size()) return;
 
-        AttributeData ad = entries.get(index).getValue();
+        AttributeData ad = attributeRows.get(index).getValue();
         String mod = ad.getModifier() == null ? "addition" : ad.getModifier();
         inlineEditTarget = InlineEditTarget.ATTR_MODIFIER;
         inlineEditIndex = index;
@@ -386,7 +415,7 @@ public class SetEditorScreen extends Screen {
         // Overlay spans BOTH value + modifier columns (same as value edit)
         int valColX = colX - attrValColW;
         overlayX = valColX;
-        overlayY = panelListTop + (index - attributeScrollOffset) * ITEM_HEIGHT;
+        overlayY = attributeList.rowY(index);
         overlayW = attrValColW + colW;  // both columns
 
         // Left half: old value | Right half: clickable box
@@ -419,10 +448,8 @@ public class SetEditorScreen extends Screen {
                 case ATTR_VALUE -> {
                     try {
                         double val = Double.parseDouble(text);
-                        List<Map.Entry<String, AttributeData>> entries =
-                                new ArrayList<>(partAttributes[activeTab].entrySet());
-                        if (inlineEditIndex < entries.size()) {
-                            entries.get(inlineEditIndex).getValue().setValue(val);
+                        if (inlineEditIndex < attributeRows.size()) {
+                            attributeRows.get(inlineEditIndex).getValue().setValue(val);
                             setStatus("\u2714 Value \u2192 " + val, false);
                         }
                     } catch (NumberFormatException e) {
@@ -446,11 +473,9 @@ public class SetEditorScreen extends Screen {
     }
 
     private void cycleAttributeModifier(int index) {
-        List<Map.Entry<String, AttributeData>> entries =
-                new ArrayList<>(partAttributes[activeTab].entrySet());
-        if (index < 0 || index >= entries.size()) return;
+        if (index < 0 || index >= attributeRows.size()) return;
 
-        AttributeData ad = entries.get(index).getValue();
+        AttributeData ad = attributeRows.get(index).getValue();
         String current = ad.getModifier() == null ? "addition" : ad.getModifier().toLowerCase();
         String next = switch (current) {
             case "addition" -> "multiply_base";
@@ -595,10 +620,8 @@ public class SetEditorScreen extends Screen {
 
         // ── Right half: for ATTR_MODIFIER draw clickable box ──
         if (inlineEditTarget == InlineEditTarget.ATTR_MODIFIER) {
-            List<Map.Entry<String, AttributeData>> entries =
-                    new ArrayList<>(partAttributes[activeTab].entrySet());
-            if (inlineEditIndex < entries.size()) {
-                AttributeData ad = entries.get(inlineEditIndex).getValue();
+            if (inlineEditIndex < attributeRows.size()) {
+                AttributeData ad = attributeRows.get(inlineEditIndex).getValue();
                 String currentMod = ad.getModifier() == null ? "add" : ad.getModifier();
 
                 int boxX = editBoxX;
@@ -623,101 +646,84 @@ public class SetEditorScreen extends Screen {
 
     private void renderEffectList(GuiGraphics g, int mouseX, int mouseY) {
         List<EffectData> effects = partEffects[activeTab];
-        int lx = leftPanelX + PADDING;
-        int ly = panelListTop;
-        int lw = leftPanelW - 2 * PADDING;
-
-        g.enableScissor(lx, ly, lx + lw, ly + panelListH);
 
         if (effects.isEmpty()) {
             g.drawString(this.font,
                     Component.literal("No effects.").withStyle(ChatFormatting.ITALIC),
-                    lx + 2, ly + 3, COLOR_GRAY, false);
-        } else {
-            int visEnd = Math.min(effects.size(), effectScrollOffset + maxEffectVisible);
-            for (int i = effectScrollOffset; i < visEnd; i++) {
-                int ey = ly + (i - effectScrollOffset) * ITEM_HEIGHT;
-                EffectData ed = effects.get(i);
-
-                if (i == selectedEffectIndex) {
-                    g.fill(lx, ey, lx + lw, ey + ITEM_HEIGHT, COLOR_SELECTED);
-                } else if (mouseX >= lx && mouseX <= lx + lw && mouseY >= ey && mouseY < ey + ITEM_HEIGHT) {
-                    g.fill(lx, ey, lx + lw, ey + ITEM_HEIGHT, COLOR_HOVER);
-                }
+                    effectList.x() + 2, effectList.y() + 3, COLOR_GRAY, false);
+            return;
+        }
 
-                // Format: "minecraft:speed  Amp: 1"
-                String effectName = shortName(ed.getEffect());
-                String ampStr = "Amp: " + ed.getAmplifier();
-                g.drawString(this.font, effectName, lx + 3, ey + 3, COLOR_TEXT, false);
-                int ampX = lx + lw - this.font.width(ampStr) - 3;
-                g.drawString(this.font, ampStr, ampX, ey + 3, COLOR_GRAY, false);
+        effectList.render(g, mouseX, mouseY, (gg, i, lx, ey, lw, hovered) -> {
+            EffectData ed = effects.get(i);
+
+            if (i == selectedEffectIndex) {
+                gg.fill(lx, ey, lx + lw, ey + ITEM_HEIGHT, COLOR_SELECTED);
+            } else if (hovered) {
+                gg.fill(lx, ey, lx + lw, ey + ITEM_HEIGHT, COLOR_HOVER);
             }
-        }
 
-        g.disableScissor();
+            // Format: "minecraft:speed  Amp: 1"
+            String effectName = shortName(ed.getEffect());
+            String ampStr = "Amp: " + ed.getAmplifier();
+            gg.drawString(this.font, effectName, lx + 3, ey + 3, COLOR_TEXT, false);
+            int ampX = lx + lw - this.font.width(ampStr) - 3;
+            gg.drawString(this.font, ampStr, ampX, ey + 3, COLOR_GRAY, false);
+        });
     }
 
     private void renderAttributeList(GuiGraphics g, int mouseX, int mouseY) {
-        Map<String, AttributeData> attrs = partAttributes[activeTab];
-        List<Map.Entry<String, AttributeData>> entries = new ArrayList<>(attrs.entrySet());
-        int lx = rightPanelX + PADDING;
-        int ly = panelListTop;
-        int lw = rightPanelW - 2 * PADDING;
-
         int modColW = attrModColW;
         int valColW = attrValColW;
         int nameColW = attrNameColW;
 
-
-        g.enableScissor(lx, ly, lx + lw, ly + panelListH);
-
-        if (entries.isEmpty()) {
+        if (attributeRows.isEmpty()) {
             g.drawString(this.font,
                     Component.literal("No attributes.").withStyle(ChatFormatting.ITALIC),
-                    lx + 2, ly + 3, COLOR_GRAY, false);
-        } else {
-            int visEnd = Math.min(entries.size(), attributeScrollOffset + maxAttrVisible);
-            for (int i = attributeScrollOffset; i < visEnd; i++) {
-                int ay = ly + (i - attributeScrollOffset) * ITEM_HEIGHT;
-                Map.Entry<String, AttributeData> entry = entries.get(i);
-                AttributeData ad = entry.getValue();
-
-                if (i == selectedAttributeIndex) {
-                    g.fill(lx, ay, lx + lw, ay + ITEM_HEIGHT, COLOR_SELECTED);
-                } else if (mouseX >= lx && mouseX <= lx + lw && mouseY >= ay && mouseY < ay + ITEM_HEIGHT) {
-                    g.fill(lx, ay, lx + lw, ay + ITEM_HEIGHT, COLOR_HOVER);
-                }
+                    attributeList.x() + 2, attributeList.y() + 3, COLOR_GRAY, false);
+            return;
+        }
 
-                // Column 1: Name (left-aligned)
-                String attrName = shortName(entry.getKey());
-                int maxNameW = nameColW - 6;
-                if (this.font.width(attrName) > maxNameW) {
-                    while (this.font.width(attrName + "..") > maxNameW && attrName.length() > 3) {
-                        attrName = attrName.substring(0, attrName.length() - 1);
-                    }
-                    attrName += "..";
-                }
-                g.drawString(this.font, attrName, lx + 3, ay + 3, COLOR_TEXT, false);
-
-                // Column 2: Value (right-aligned in its column)
-                String sign = ad.getValue() >= 0 ? "+" : "";
-                String valText = sign + String.format("%.2f", ad.getValue());
-                int valColX = lx + nameColW;
-                int valTextX = valColX + valColW - this.font.width(valText) - 4;
-                g.drawString(this.font, valText, valTextX, ay + 3, COLOR_GRAY, false);
-
-                // Column 3: Modifier (left-aligned in its column)
-                String modText = ad.getModifier() == null ? "add" : ad.getModifier();
-                int modColX = lx + nameColW + valColW;
-                g.drawString(this.font, modText, modColX + 3, ay + 3, 0xFF887744, false);
-
-                // Subtle column dividers
-                g.fill(valColX, ay + 1, valColX + 1, ay + ITEM_HEIGHT - 1, 0x22000000);
-                g.fill(modColX, ay + 1, modColX + 1, ay + ITEM_HEIGHT - 1, 0x22000000);
+        attributeList.render(g, mouseX, mouseY, (gg, i, lx, ay, lw, hovered) -> {
+            Map.Entry<String, AttributeData> entry = attributeRows.get(i);
+            AttributeData ad = entry.getValue();
+
+            if (i == selectedAttributeIndex) {
+                gg.fill(lx, ay, lx + lw, ay + ITEM_HEIGHT, COLOR_SELECTED);
+            } else if (hovered) {
+                gg.fill(lx, ay, lx + lw, ay + ITEM_HEIGHT, COLOR_HOVER);
             }
-        }
 
-        g.disableScissor();
+            // Column 1: Name (left-aligned, truncated once per width)
+            String attrName = layoutCache.truncate(entry.getKey(), shortName(entry.getKey()), nameColW - 6, "..");
+            gg.drawString(this.font, attrName, lx + 3, ay + 3, COLOR_TEXT, false);
+
+            // Column 2: Value (right-aligned in its column)
+            String sign = ad.getValue() >= 0 ? "+" : "";
+            String valText = sign + String.format("%.2f", ad.getValue());
+            int valColX = lx + nameColW;
+            int valTextX = valColX + valColW - this.font.width(valText) - 4;
+            gg.drawString(this.font, valText, valTextX, ay + 3, COLOR_GRAY, false);
+
+            // Column 3: Modifier (left-aligned in its column)
+            String modText = ad.getModifier() == null ? "add" : ad.getModifier();
+            int modColX = lx + nameColW + valColW;
+            gg.drawString(this.font, modText, modColX + 3, ay + 3, 0xFF887744, false);
+
+            // Subtle column dividers
+            gg.fill(valColX, ay + 1, valColX + 1, ay + ITEM_HEIGHT - 1, 0x22000000);
+            gg.fill(modColX, ay + 1, modColX + 1, ay + ITEM_HEIGHT - 1, 0x22000000);
+        });
+    }
+
+    /**
+     * Re-syncs both lists with the active tab after its effects or
+     * attributes were added, removed or replaced.
+     */
+    private void refreshRows() {
+        attributeRows = new ArrayList<>(partAttributes[activeTab].entrySet());
+        effectList.setRowCount(partEffects[activeTab].size());
+        attributeList.setRowCount(attributeRows.size());
     }
 
 
@@ -765,19 +771,19 @@ public class SetEditorScreen extends Screen {
                 activeTab = i;
                 selectedEffectIndex = -1;
                 selectedAttributeIndex = -1;
-                effectScrollOffset = 0;
-                attributeScrollOffset = 0;
+                effectList.setScroll(0);
+                attributeList.setScroll(0);
+                refreshRows();
                 return true;
             }
         }
 
         // ── Effect list click ──
-        int lx = leftPanelX + PADDING;
-        int lw = leftPanelW - 2 * PADDING;
-        if (mouseX >= lx && mouseX <= lx + lw
-                && mouseY >= panelListTop && mouseY <= panelListTop + panelListH) {
-            int idx = (int) ((mouseY - panelListTop) / ITEM_HEIGHT) + effectScrollOffset;
-            if (idx >= 0 && idx < partEffects[activeTab].size()) {
+        int lx = effectList.x();
+        int lw = effectList.width();
+        if (effectList.isMouseOver(mouseX, mouseY)) {
+            int idx = effectList.indexAt(mouseX, mouseY);
+            if (idx >= 0) {
                 if (mouseX >= lx + lw - 45) {
                     startInlineEditEffectAmp(idx, lx, lw);
                 } else {
@@ -789,14 +795,10 @@ public class SetEditorScreen extends Screen {
         }
 
         // ── Attribute list click — fixed column zones ──
-        int rx = rightPanelX + PADDING;
-        int rw = rightPanelW - 2 * PADDING;
-        if (mouseX >= rx && mouseX <= rx + rw
-                && mouseY >= panelListTop && mouseY <= panelListTop + panelListH) {
-            List<Map.Entry<String, AttributeData>> entries =
-                    new ArrayList<>(partAttributes[activeTab].entrySet());
-            int idx = (int) ((mouseY - panelListTop) / ITEM_HEIGHT) + attributeScrollOffset;
-            if (idx >= 0 && idx < entries.size()) {
+        int rx = attributeList.x();
+        if (attributeList.isMouseOver(mouseX, mouseY)) {
+            int idx = attributeList.indexAt(mouseX, mouseY);
+            if (idx >= 0) {
                 int valColX = rx + attrNameColW;
                 int modColX = rx + attrNameColW + attrValColW;
 
@@ -819,26 +821,13 @@ public class SetEditorScreen extends Screen {
 
     @Override
     public boolean mouseScrolled(double mouseX, double mouseY, double scrollX, double scrollY) {
-        int lx = leftPanelX + PADDING;
-        int lw = leftPanelW - 2 * PADDING;
-        if (mouseX >= lx && mouseX <= lx + lw
-                && mouseY >= panelListTop && mouseY <= panelListTop + panelListH) {
-            if (scrollY > 0) effectScrollOffset = Math.max(0, effectScrollOffset - 1);
-            else effectScrollOffset = Math.min(
-                    Math.max(0, partEffects[activeTab].size() - maxEffectVisible),
-                    effectScrollOffset + 1);
+        int step = scrollY > 0 ? -1 : 1;
+        if (effectList.isMouseOver(mouseX, mouseY)) {
+            effectList.scrollBy(step);
             return true;
         }
-        int rx = rightPanelX + PADDING;
-        int rw = rightPanelW - 2 * PADDING;
-        if (mouseX >= rx && mouseX <= rx + rw
-                && mouseY >= panelListTop && mouseY <= panelListTop + panelListH) {
-            List<Map.Entry<String, AttributeData>> entries =
-                    new ArrayList<>(partAttributes[activeTab].entrySet());
-            if (scrollY > 0) attributeScrollOffset = Math.max(0, attributeScrollOffset - 1);
-            else attributeScrollOffset = Math.min(
-                    Math.max(0, entries.size() - maxAttrVisible),
-                    attributeScrollOffset + 1);
+        if (attributeList.isMouseOver(mouseX, mouseY)) {
+            attributeList.scrollBy(step);
             return true;
         }
         return super.mouseScrolled(mouseX, mouseY, scrollX, scrollY);
@@ -868,26 +857,35 @@ public class SetEditorScreen extends Screen {
      * Step 2: Enter amplifier via a small inline EditBox popup.
      */
     private void openAddEffectPopup() {
-        // Build effect entries from Minecraft's built-in registry
-        List<SearchableListPopup.Entry<String>> effectEntries = new ArrayList<>();
-        net.minecraft.core.registries.BuiltInRegistries.MOB_EFFECT.forEach(effect -> {
-            net.minecraft.resources.ResourceLocation rl =
-                    net.minecraft.core.registries.BuiltInRegistries.MOB_EFFECT.getKey(effect);
-            if (rl != null) {
-                effectEntries.add(new SearchableListPopup.Entry<>(
-                        rl.toString(),
-                        Component.literal(rl.getPath().replace("_", " ")),
-                        rl.toString()));
-            }
-        });
-        effectEntries.sort(Comparator.comparing(e -> e.displayName().getString()));
-
         this.minecraft.setScreen(new SearchableListPopup<>(
                 Component.literal("Select Effect"),
-                this, effectEntries,
+                this, effectEntries(),
                 effectId -> openAmplifierPopup(effectId)));
     }
 
+    /**
+     * Effect entries from Minecraft's built-in registry. The registry does not change
+     * after startup, so the list (and with it the popup's search index) is built once.
+     */
+    private static List<SearchableListPopup.Entry<String>> effectEntries() {
+        if (effectEntries == null) {
+            List<SearchableListPopup.Entry<String>> entries = new ArrayList<>();
+            net.minecraft.core.registries.BuiltInRegistries.MOB_EFFECT.forEach(effect -> {
+                net.minecraft.resources.ResourceLocation rl =
+                        net.minecraft.core.registries.BuiltInRegistries.MOB_EFFECT.getKey(effect);
+                if (rl != null) {
+                    entries.add(new SearchableListPopup.Entry<>(
+                            rl.toString(),
+                            Component.literal(rl.getPath().replace("_", " ")),
+                            rl.toString()));
+                }
+            });
+            entries.sort(Comparator.comparing(e -> e.displayName().getString()));
+            effectEntries = List.copyOf(entries);
+        }
+        return effectEntries;
+    }
+
     /**
      * Step 2: Ask for amplifier value (0–9).
      */
@@ -897,6 +895,7 @@ public class SetEditorScreen extends Screen {
             ed.setEffect(effectId);
             ed.setAmplifier(amplifier);
             partEffects[activeTab].add(ed);
+            refreshRows();
             setStatus("Effect added!", false);
         }));
     }
@@ -906,31 +905,39 @@ public class SetEditorScreen extends Screen {
     // ════════════════════════════════════════════════════════════════════
 
     private void openAddAttributePopup() {
-        List<SearchableListPopup.Entry<String>> attrEntries = new ArrayList<>();
-        net.minecraft.core.registries.BuiltInRegistries.ATTRIBUTE.forEach(attr -> {
-            net.minecraft.resources.ResourceLocation rl =
-                    net.minecraft.core.registries.BuiltInRegistries.ATTRIBUTE.getKey(attr);
-            if (rl != null) {
-                attrEntries.add(new SearchableListPopup.Entry<>(
-                        rl.toString(),
-                        Component.literal(rl.getPath().replace("_", " ")),
-                        rl.toString()));
-            }
-        });
-        attrEntries.sort(Comparator.comparing(e -> e.displayName().getString()));
-
         this.minecraft.setScreen(new SearchableListPopup<>(
                 Component.literal("Select Attribute"),
-                this, attrEntries,
+                this, attributeEntries(),
                 attrId -> openAttributeValuePopup(attrId)));
     }
 
+    /** Attribute entries, built once like {@link #effectEntries()}. */
+    private static List<SearchableListPopup.Entry<String>> attributeEntries() {
+        if (attributeEntries == null) {
+            List<SearchableListPopup.Entry<String>> entries = new ArrayList<>();
+            net.minecraft.core.registries.BuiltInRegistries.ATTRIBUTE.forEach(attr -> {
+                net.minecraft.resources.ResourceLocation rl =
+                        net.minecraft.core.registries.BuiltInRegistries.ATTRIBUTE.getKey(attr);
+                if (rl != null) {
+                    entries.add(new SearchableListPopup.Entry<>(
+                            rl.toString(),
+                            Component.literal(rl.getPath().replace("_", " ")),
+                            rl.toString()));
+                }
+            });
+            entries.sort(Comparator.comparing(e -> e.displayName().getString()));
+            attributeEntries = List.copyOf(entries);
+        }
+        return attributeEntries;
+    }
+
     private void openAttributeValuePopup(String attrId) {
         this.minecraft.setScreen(new AttributeValueScreen(this, attrId, (value, modifier) -> {
             AttributeData ad = new AttributeData();
             ad.setValue(value);
             ad.setModifier(modifier);
             partAttributes[activeTab].put(attrId, ad);
+            refreshRows();
             setStatus("Attribute added!", false);
         }));
     }
@@ -990,8 +997,9 @@ public class SetEditorScreen extends Screen {
         // Reset selection
         selectedEffectIndex = -1;
         selectedAttributeIndex = -1;
-        effectScrollOffset = 0;
-        attributeScrollOffset = 0;
+        effectList.setScroll(0);
+        attributeList.setScroll(0);
+        refreshRows();
 
         setStatus("✔ Copied from " + (source + 1) + " Part → " + (target + 1) + " Part", false);
     }
@@ -1005,6 +1013,7 @@ public class SetEditorScreen extends Screen {
         if (selectedEffectIndex >= 0 && selectedEffectIndex < partEffects[activeTab].size()) {
             partEffects[activeTab].remove(selectedEffectIndex);
             selectedEffectIndex = -1;
+            refreshRows();
             setStatus("Effect removed.", false);
         }
     }
@@ -1014,6 +1023,7 @@ public class SetEditorScreen extends Screen {
         if (selectedAttributeIndex >= 0 && selectedAttributeIndex < keys.size()) {
             partAttributes[activeTab].remove(keys.get(selectedAttributeIndex));
             selectedAttributeIndex = -1;
+            refreshRows();
             setStatus("Attribute removed.", false);
         }
     }
@@ -1023,6 +1033,16 @@ public class SetEditorScreen extends Screen {
     // ════════════════════════════════════════════════════════════════════
 
     private void saveToJson() {
+        // The registry holds the resolved form of such sets; saving it would flatten the file
+        if (editorData != null && ArmorSetDataRegistry.isDerived(
+                editorData.getMajor(), editorData.getYear(), editorData.getTag())) {
+            setStatus("✘ This set uses 'extends' or yearScaling – edit its JSON file instead", true);
+            return;
+        }
+        if (editorData != null && serverAcceptsEdits()) {
+            sendEditToServer();
+            return;
+        }
         try {
             ArmorSetData data = new ArmorSetData();
             data.setDisplayName(displayName);
@@ -1031,10 +1051,14 @@ public class SetEditorScreen extends Screen {
             for (int i = 0; i < PARTS; i++) {
                 List<EffectData> effects = partEffects[i];
                 Map<String, AttributeData> attrs = partAttributes[i];
-                if (!effects.isEmpty() || !attrs.isEmpty()) {
+                // Procs and conditions have no editor UI; keep the ones the set was opened with
+                List<ProcData> procs = editorData != null ? editorData.getPartConfig(i).getProcs() : List.of();
+                if (!effects.isEmpty() || !attrs.isEmpty() || !procs.isEmpty()) {
                     PartData pd = new PartData();
                     pd.setEffects(new ArrayList<>(effects));
                     pd.setAttributes(new LinkedHashMap<>(attrs));
+                    if (!procs.isEmpty()) pd.setProcs(new ArrayList<>(procs));
+                    if (editorData != null) pd.setConditions(editorData.getPartConfig(i).getConditions());
                     partsMap.put((i + 1) + "Part", pd);
                 }
             }
@@ -1055,19 +1079,179 @@ public class SetEditorScreen extends Screen {
                 file = baseDir.resolve(setId + ".json");
             }
 
-            // Übergeordnete Verzeichnisse erstellen (inkl. major/year Unterordner)
-            Files.createDirectories(file.getParent());
-
+            // Schreiben läuft im Hintergrund (inkl. major/year Unterordner),
+            // Status wird danach auf dem Render-Thread gesetzt
             String json = GSON.toJson(data);
-            Files.writeString(file, json);
-
-            setStatus("✔ Saved to " + baseDir.relativize(file), false);
-        } catch (IOException e) {
+            Path shown = baseDir.relativize(file);
+            setStatus("… Saving " + shown, false);
+            ZaubereiIO.writeAtomic(file, json).whenCompleteAsync((v, e) -> {
+                if (e == null) {
+                    setStatus("✔ Saved to " + shown, false);
+                } else {
+                    setStatus("✘ Save failed: " + ZaubereiIO.describe(e), true);
+                }
+            }, Minecraft.getInstance());
+        } catch (RuntimeException e) {
             setStatus("✘ Save failed: " + e.getMessage(), true);
         }
     }
 
 
+    // ════════════════════════════════════════════════════════════════════
+    //  Server edits
+    // ════════════════════════════════════════════════════════════════════
+
+    private boolean serverAcceptsEdits() {
+        return minecraft != null && minecraft.getConnection() != null
+                && minecraft.getConnection().hasChannel(SetEditPayload.TYPE);
+    }
+
+    /** Sends what changed since the last save; the server answers with {@link #onEditResult}. */
+    private void sendEditToServer() {
+        if (sentEffects != null) {
+            setStatus("… Still saving, please wait", false);
+            return;
+        }
+        List<SetDelta> deltas = new ArrayList<>();
+        if (!Objects.equals(displayName, baseDisplayName)) {
+            deltas.add(SetDelta.displayName(displayName));
+        }
+        for (int i = 0; i < PARTS; i++) {
+            deltas.addAll(SetDelta.diffPart(i + 1, baseEffects[i], baseAttributes[i],
+                    partEffects[i], partAttributes[i]));
+        }
+        if (deltas.isEmpty()) {
+            setStatus("Nothing changed.", false);
+            return;
+        }
+        if (deltas.size() > SetEditPayload.MAX_DELTAS) {
+            setStatus("✘ Too many changes at once (" + deltas.size() + ")", true);
+            return;
+        }
+
+        sentEffects    = copyEffects(partEffects);
+        sentAttributes = copyAttributes(partAttributes);
+        PacketDistributor.sendToServer(new SetEditPayload(
+                editorData.getMajor(), editorData.getYear(), editorData.getTag(), deltas));
+        setStatus("… Saving on server (" + deltas.size() + " change(s))", false);
+    }
+
+    /**
+     * Answer to our own edit. Returns {@code false} if it is not for the set
+     * this screen edits.
+     */
+    public boolean onEditResult(String major, int year, String tag, boolean success, String message) {
+        if (!isEditing(major, year, tag)) return false;
+        if (success && sentEffects != null) {
+            baseEffects     = sentEffects;
+            baseAttributes  = sentAttributes;
+            baseDisplayName = displayName;
+        }
+        sentEffects    = null;
+        sentAttributes = null;
+        setStatus((success ? "✔ " : "✘ ") + message, !success);
+        return true;
+    }
+
+    /**
+     * A saved edit broadcast by the server, ours or another admin's. Applied
+     * to the working copy and the baseline alike, so it is neither lost nor
+     * sent back as a change of our own.
+     */
+    public boolean onRemoteDelta(String major, int year, String tag, List<SetDelta> deltas, String author) {
+        if (!isEditing(major, year, tag)) return false;
+        for (SetDelta delta : deltas) {
+            if (delta.op() == SetDelta.Op.DISPLAY_NAME) {
+                String name = delta.id().isBlank() ? editorData.getTag() : delta.id();
+                // Eigene, noch nicht gespeicherte Umbenennung gewinnt – sonst übernehmen
+                if (Objects.equals(displayName, baseDisplayName)) displayName = name;
+                baseDisplayName = name;
+                continue;
+            }
+            int i = delta.part() - 1;
+            if (i < 0 || i >= PARTS) continue;
+            delta.applyToPart(partEffects[i], partAttributes[i]);
+            delta.applyToPart(baseEffects[i], baseAttributes[i]);
+            if (sentEffects != null) delta.applyToPart(sentEffects[i], sentAttributes[i]);
+        }
+
+        if (inlineEditTarget != InlineEditTarget.NONE) cancelInlineEdit();
+        if (selectedEffectIndex >= partEffects[activeTab].size()) selectedEffectIndex = -1;
+        if (selectedAttributeIndex >= partAttributes[activeTab].size()) selectedAttributeIndex = -1;
+        refreshRows();
+
+        if (minecraft != null && minecraft.player != null
+                && !author.equals(minecraft.player.getGameProfile().getName())) {
+            setStatus("Updated by " + author, false);
+        }
+        return true;
+    }
+
+    private boolean isEditing(String major, int year, String tag) {
+        return editorData != null && editorData.getMajor().equals(major)
+                && editorData.getYear() == year && editorData.getTag().equals(tag);
+    }
+
+    /** Takes the saved definition (or none, for a new set) as the state deltas are computed against. */
+    private void resetBaseline(ArmorSetData saved) {
+        List<EffectData>[] effects = emptyEffects();
+        Map<String, AttributeData>[] attributes = emptyAttributes();
+        if (saved != null && saved.getParts() != null) {
+            for (int i = 0; i < PARTS; i++) {
+                PartData pd = saved.getParts().get((i + 1) + "Part");
+                if (pd == null) continue;
+                if (pd.getEffects() != null) effects[i].addAll(pd.getEffects());
+                if (pd.getAttributes() != null) attributes[i].putAll(pd.getAttributes());
+            }
+        }
+        baseEffects     = copyEffects(effects);
+        baseAttributes  = copyAttributes(attributes);
+        baseDisplayName = saved == null ? null
+                : saved.getDisplayName() != null ? saved.getDisplayName() : displayName;
+    }
+
+    // Inline-Edits ändern EffectData/AttributeData direkt → Baseline braucht eigene Objekte
+    @SuppressWarnings("unchecked")
+    private static List<EffectData>[] emptyEffects() {
+        List<EffectData>[] lists = new ArrayList[PARTS];
+        for (int i = 0; i < PARTS; i++) lists[i] = new ArrayList<>();
+        return lists;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, AttributeData>[] emptyAttributes() {
+        Map<String, AttributeData>[] maps = new LinkedHashMap[PARTS];
+        for (int i = 0; i < PARTS; i++) maps[i] = new LinkedHashMap<>();
+        return maps;
+    }
+
+    private static List<EffectData>[] copyEffects(List<EffectData>[] source) {
+        List<EffectData>[] copy = emptyEffects();
+        for (int i = 0; i < PARTS; i++) {
+            for (EffectData ed : source[i]) {
+                EffectData c = new EffectData();
+                c.setEffect(ed.getEffect());
+                c.setAmplifier(ed.getAmplifier());
+                copy[i].add(c);
+            }
+        }
+        return copy;
+    }
+
+    private static Map<String, AttributeData>[] copyAttributes(Map<String, AttributeData>[] source) {
+        Map<String, AttributeData>[] copy = emptyAttributes();
+        for (int i = 0; i < PARTS; i++) {
+            for (Map.Entry<String, AttributeData> e : source[i].entrySet()) {
+                AttributeData c = new AttributeData();
+                c.setValue(e.getValue().getValue());
+                c.setModifier(e.getValue().getModifier());
+                copy[i].put(e.getKey(), c);
+            }
+        }
+        return copy;
+    }
+
+
     // ════════════════════════════════════════════════════════════════════
     //  Helpers
     // ════════════════════════════════════════════════════════════════════
@@ -7,7 +7,6 @@ import net.minecraft.client.gui.GuiGraphics;
 import net.minecraft.client.gui.components.Button;
 import net.minecraft.client.gui.components.EditBox;
 import net.minecraft.client.gui.screens.Screen;
-import net.minecraft.core.registries.BuiltInRegistries;
 import net.minecraft.network.chat.Component;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.tags.TagKey;
@@ -16,7 +15,6 @@ import net.neoforged.api.distmarker.Dist;
 import net.neoforged.api.distmarker.OnlyIn;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * Set Wizard — Step 1: Tag & Scope selection.
@@ -234,17 +232,12 @@ public class SetWizardScreen extends Screen {
      * Opens a SearchableListPopup with all registered item tags.
      */
     private void onSelectTag() {
-        List<SearchableListPopup.Entry<String>> entries =
-                BuiltInRegistries.ITEM.getTagNames()
-                        .sorted(Comparator.comparing(t -> t.location().toString()))
-                        .map(tagKey -> {
-                            String loc = tagKey.location().toString();
-                            return new SearchableListPopup.Entry<>(
-                                    loc,
-                                    Component.literal(loc),
-                                    loc);
-                        })
-                        .collect(Collectors.toList());
+        if (!ItemTagIndex.isReady()) {
+            setStatus("Item tags are still loading, try again in a moment.", COLOR_INFO);
+            return;
+        }
+        // Prebuilt after tag sync and shared until the next one
+        List<SearchableListPopup.Entry<String>> entries = ItemTagIndex.popupEntries();
 
         this.minecraft.setScreen(new SearchableListPopup<>(
                 Component.literal("Select Item Tag"),
@@ -353,7 +346,11 @@ public class SetWizardScreen extends Screen {
         editorData.setYear(selectedYear);
 
         // ---- 3. Existence check (exact match only) ----
-        ArmorSetData existing = findExactMatch(selectedTag, selectedMajor, selectedYear);
+        if (ArmorSetDataRegistry.isPending(selectedMajor)) {
+            setStatus("The sets of this major are still loading, try again in a moment.", COLOR_INFO);
+            return;
+        }
+        ArmorSetData existing = ArmorSetDataRegistry.getExact(selectedMajor, selectedYear, selectedTag);
 
         if (existing != null) {
             // Load existing data into editor
@@ -383,28 +380,6 @@ public class SetWizardScreen extends Screen {
         this.minecraft.setScreen(new SetEditorScreen(this, editorData));
     }
 
-    // ══════════════════════════════════════════════════════════════════
-    //  Existence check — exact match against registry
-    // ══════════════════════════════════════════════════════════════════
-
-    /**
-     * Checks for an EXACT match in the registry (no fallback to wildcards).
-     * This is different from {@link ArmorSetDataRegistry#getData} which does
-     * priority-based fallback.
-     *
-     * @return the existing ArmorSetData, or null if no exact match
-     */
-    private static ArmorSetData findExactMatch(String tag, String major, int year) {
-        for (ArmorSetDataRegistry.SetEntry entry : ArmorSetDataRegistry.getAllEntries()) {
-            if (entry.tag().equals(tag)
-                    && entry.major().equals(major)
-                    && entry.year() == year) {
-                return entry.data();
-            }
-        }
-        return null;
-    }
-
     // ══════════════════════════════════════════════════════════════════
     //  Helper: panel drawing (matches SetsManagerScreen)
     // ══════════════════════════════════════════════════════════════════
@@ -4,11 +4,11 @@ import com.gilfort.zauberei.item.armorbonus.ZaubereiReloadListener;
 import com.gilfort.zauberei.item.armorbonus.ArmorSetData;
 import com.gilfort.zauberei.item.armorbonus.ArmorSetDataRegistry;
 import net.minecraft.ChatFormatting;
+import net.minecraft.client.Minecraft;
 import net.minecraft.client.gui.GuiGraphics;
 import net.minecraft.client.gui.components.Button;
 import net.minecraft.client.gui.components.EditBox;
 import net.minecraft.client.gui.screens.Screen;
-import net.minecraft.core.Holder;
 import net.minecraft.core.registries.BuiltInRegistries;
 import net.minecraft.network.chat.Component;
 import net.minecraft.resources.ResourceLocation;
@@ -34,6 +34,10 @@ import java.util.stream.Collectors;
  * <p>Left page: scrollable list of all loaded set definitions.
  * Right page: detail view of the currently selected set.</p>
  *
+ * <p>All lists are {@link VirtualList}s, so only the rows in view are laid
+ * out and drawn; wrapped and truncated text is kept in a
+ * {@link TextLayoutCache} until the data changes or the screen is resized.</p>
+ *
  * @see ArmorSetDataRegistry
  * @see ZaubereiReloadListener
  */
@@ -57,12 +61,14 @@ public class SetsManagerScreen extends Screen {
     // ─── Tag Browser state ───────────────────────────────────────────────
     private boolean showingTagBrowser = false;
     private EditBox tagSearchBox;
-    private List<TagKey<Item>> allTags = new ArrayList<>();
-    private List<TagKey<Item>> filteredTags = new ArrayList<>();
+    /** Shared, prebuilt tag index; filtered lists are views on it and must not be modified. */
+    private ItemTagIndex.Snapshot tagIndex;
+    private List<TagKey<Item>> filteredTags = List.of();
     private int tagSelectedIndex = -1;
-    private int tagLeftScrollOffset = 0;
-    private int tagRightScrollOffset = 0;
-    private List<Item> selectedTagItems = new ArrayList<>();
+    private List<Item> selectedTagItems = List.of();
+    private final VirtualList tagList = new VirtualList();
+    private final VirtualList tagItemList = new VirtualList();
+    private final List<int[]> tagIconPositions = new ArrayList<>(); // [x, y, itemIndex]
 
 
     // Text colors — alles schwarz
@@ -86,13 +92,18 @@ public class SetsManagerScreen extends Screen {
     private int leftX, leftY, leftW, leftH;
     private int rightX, rightY, rightW, rightH;
     private int lineHeight;
-    private int maxLinesLeft, maxLinesRight;
 
     // ─── Data ────────────────────────────────────────────────────────────
     private List<ListEntry> listEntries = new ArrayList<>();
     private int selectedIndex = -1;
-    private int leftScrollOffset = 0;
-    private int rightScrollOffset = 0;
+
+    // ─── Virtualized lists (only visible rows are laid out and drawn) ────
+    private final VirtualList setList = new VirtualList();
+    private final VirtualList detailList = new VirtualList();
+    /** Lines shown on the right page: set details or validation results. */
+    private List<DetailLine> detailLines = List.of();
+    /** Wrapped/truncated text and detail layouts; cleared on resize and data change. */
+    private TextLayoutCache layoutCache;
 
     // ─── Validation state ────────────────────────────────────────────────
     private boolean showingValidation = false;
@@ -202,8 +213,13 @@ public class SetsManagerScreen extends Screen {
         this.panelH      = contentH;
 
         lineHeight = Math.max(10, this.height / 40);
-        maxLinesLeft  = leftH  / lineHeight;
-        maxLinesRight = rightH / lineHeight;
+        setList.setBounds(leftX, leftY, leftW, leftH, lineHeight);
+        detailList.setBounds(rightX, rightY, rightW, rightH, lineHeight);
+        tagList.setBounds(leftX, leftY + 18, leftW, leftH - 18, lineHeight); // unter der SearchBox
+        tagItemList.setBounds(rightX, rightY, rightW, rightH, lineHeight);
+
+        // Widths changed → all cached layouts are stale
+        layoutCache = new TextLayoutCache(this.font);
 
         buildListEntries();
 
@@ -237,26 +253,42 @@ public class SetsManagerScreen extends Screen {
         tagSearchBox.setVisible(false);
         addRenderableWidget(tagSearchBox);
 
-// ── Tag-Daten vorladen ───────────────────────────────────────────
-        allTags = BuiltInRegistries.ITEM.getTagNames()
-                .sorted(Comparator.comparing(t -> t.location().toString()))
-                .collect(Collectors.toCollection(ArrayList::new));
-        filteredTags = new ArrayList<>(allTags);
+// ── Tag-Daten: built in the background after tag sync ────────────
+        tagIndex = ItemTagIndex.get();
+        onTagFilterChanged("");
 
     }
 
+    @Override
+    public void tick() {
+        super.tick();
+        // Pick up the tag index once its background build is done
+        ItemTagIndex.Snapshot latest = ItemTagIndex.get();
+        if (latest != tagIndex) {
+            tagIndex = latest;
+            onTagFilterChanged(tagSearchBox.getValue());
+        }
+    }
+
 
     // ─── Data building ───────────────────────────────────────────────────
 
     private void buildListEntries() {
         listEntries.clear();
         selectedIndex = -1;
-        leftScrollOffset = 0;
-        rightScrollOffset = 0;
+        setList.setScroll(0);
+        detailList.setScroll(0);
         showingValidation = false;
         validationResults = null;
+        layoutCache.clear();
 
         List<ArmorSetDataRegistry.SetEntry> allEntries = ArmorSetDataRegistry.getAllEntries();
+        // Sets of lazily loaded majors that are not read yet are added once they are in
+        if (ArmorSetDataRegistry.hasUnloadedSets()) {
+            ArmorSetDataRegistry.loadAllDeferred().thenRunAsync(() -> {
+                if (this.minecraft != null && this.minecraft.screen == this) onRegistryChanged();
+            }, Minecraft.getInstance());
+        }
 
         // Group by tag, then sort entries within each group
         Map<String, List<ArmorSetDataRegistry.SetEntry>> grouped = allEntries.stream()
@@ -292,6 +324,26 @@ public class SetsManagerScreen extends Screen {
                 break;
             }
         }
+
+        setList.setRowCount(listEntries.size());
+        refreshDetailLines();
+    }
+
+    /**
+     * Recomputes the right page lines after the selection, the validation
+     * state or the data changed. Set details are cached per entry, so
+     * re-selecting an entry does not rebuild or re-wrap its lines.
+     */
+    private void refreshDetailLines() {
+        if (showingValidation && validationResults != null) {
+            detailLines = buildValidationLines();
+        } else if (selectedIndex >= 0 && selectedIndex < listEntries.size()
+                && listEntries.get(selectedIndex).data() != null) {
+            detailLines = layoutCache.value(listEntries.get(selectedIndex), this::buildDetailLines);
+        } else {
+            detailLines = List.of();
+        }
+        detailList.setRowCount(detailLines.size());
     }
 
     private static int scopePriority(ArmorSetDataRegistry.SetEntry e) {
@@ -310,13 +362,13 @@ public class SetsManagerScreen extends Screen {
 
         if (showingTagBrowser) {
             renderTagList(graphics, mouseX, mouseY);
-            renderTagItems(graphics);
+            renderTagItems(graphics, mouseX, mouseY);
         } else {
             renderLeftPage(graphics, mouseX, mouseY);
             if (showingValidation && validationResults != null) {
-                renderValidationPage(graphics);
+                renderDetailLines(graphics, mouseX, mouseY);
             } else {
-                renderRightPage(graphics);
+                renderRightPage(graphics, mouseX, mouseY);
             }
         }
     }
@@ -329,70 +381,42 @@ public class SetsManagerScreen extends Screen {
     // ─── Tag Browser: left panel (tag list) ──────────────────────────────
 
     private void renderTagList(GuiGraphics graphics, int mouseX, int mouseY) {
-        // Bereich unterhalb der SearchBox
-        int listY = leftY + 18; // SearchBox ist 14px hoch + 4px Abstand
-        int listH = leftH - 18;
-        int maxLines = listH / lineHeight;
-
-        graphics.enableScissor(leftX, listY, leftX + leftW, listY + listH);
-
         if (filteredTags.isEmpty()) {
+            String message = ItemTagIndex.isReady() ? "No tags found." : "Loading tags...";
             graphics.drawString(this.font,
-                    Component.literal("No tags found.").withStyle(ChatFormatting.ITALIC),
-                    leftX + 3, listY + 3, COLOR_GRAY, false);
-            graphics.disableScissor();
+                    Component.literal(message).withStyle(ChatFormatting.ITALIC),
+                    leftX + 3, tagList.y() + 3, COLOR_GRAY, false);
             return;
         }
 
-        int visibleEnd = Math.min(filteredTags.size(), tagLeftScrollOffset + maxLines);
-        for (int i = tagLeftScrollOffset; i < visibleEnd; i++) {
-            int entryY = listY + (i - tagLeftScrollOffset) * lineHeight;
+        tagList.render(graphics, mouseX, mouseY, (g, i, x, entryY, w, hovered) -> {
             TagKey<Item> tag = filteredTags.get(i);
 
             // Selection / Hover highlight
             if (i == tagSelectedIndex) {
-                graphics.fill(leftX, entryY - 1, leftX + leftW, entryY + lineHeight - 1, COLOR_SELECTED);
-            } else if (mouseX >= leftX && mouseX <= leftX + leftW
-                    && mouseY >= entryY && mouseY < entryY + lineHeight) {
-                graphics.fill(leftX, entryY - 1, leftX + leftW, entryY + lineHeight - 1, COLOR_HOVER);
+                g.fill(x, entryY - 1, x + w, entryY + lineHeight - 1, COLOR_SELECTED);
+            } else if (hovered) {
+                g.fill(x, entryY - 1, x + w, entryY + lineHeight - 1, COLOR_HOVER);
             }
 
             // Tag name: namespace in grau, path in schwarz
-            String ns = tag.location().getNamespace();
-            String path = tag.location().getPath();
-
-            graphics.drawString(this.font, ns + ":", leftX + 3, entryY, COLOR_GRAY, false);
-            int nsWidth = this.font.width(ns + ":");
-
-            String displayPath = path;
-            if (this.font.width(displayPath) > leftW - nsWidth - 10) {
-                while (this.font.width(displayPath + "...") > leftW - nsWidth - 10 && displayPath.length() > 3) {
-                    displayPath = displayPath.substring(0, displayPath.length() - 1);
-                }
-                displayPath += "...";
-            }
-            graphics.drawString(this.font, displayPath, leftX + 3 + nsWidth, entryY, COLOR_TEXT, false);
-        }
+            String ns = tag.location().getNamespace() + ":";
+            g.drawString(this.font, ns, x + 3, entryY, COLOR_GRAY, false);
+            int nsWidth = this.font.width(ns);
 
-        // Scrollbar
-        if (filteredTags.size() > maxLines) {
-            int scrollBarX = leftX + leftW - 3;
-            float ratio = (float) tagLeftScrollOffset / Math.max(1, filteredTags.size() - maxLines);
-            int thumbHeight = Math.max(10, listH * maxLines / filteredTags.size());
-            int thumbY = listY + (int) ((listH - thumbHeight) * ratio);
-            graphics.fill(scrollBarX, listY, scrollBarX + 2, listY + listH, 0x33000000);
-            graphics.fill(scrollBarX, thumbY, scrollBarX + 2, thumbY + thumbHeight, 0xAA553300);
-        }
-
-        graphics.disableScissor();
+            String displayPath = layoutCache.truncate(tag, tag.location().getPath(), w - nsWidth - 10, "...");
+            g.drawString(this.font, displayPath, x + 3 + nsWidth, entryY, COLOR_TEXT, false);
+        });
     }
 
 // ─── Tag Browser: right panel (items in tag) ─────────────────────────
 
-    private void renderTagItems(GuiGraphics graphics) {
-        graphics.enableScissor(rightX, rightY, rightX + rightW, rightY + rightH);
+    /** Header rows above the item rows: title, count, blank line. */
+    private static final int TAG_ITEM_HEADER_ROWS = 3;
 
+    private void renderTagItems(GuiGraphics graphics, int mouseX, int mouseY) {
         if (tagSelectedIndex < 0 || tagSelectedIndex >= filteredTags.size()) {
+            graphics.enableScissor(rightX, rightY, rightX + rightW, rightY + rightH);
             graphics.drawString(this.font,
                     Component.literal("Select a tag on the left.").withStyle(ChatFormatting.ITALIC),
                     rightX + 5, rightY + 5, COLOR_GRAY, false);
@@ -402,79 +426,44 @@ public class SetsManagerScreen extends Screen {
 
         TagKey<Item> tag = filteredTags.get(tagSelectedIndex);
 
-        // Header
-        int y = rightY - tagRightScrollOffset * lineHeight;
-
-        // Title
-        if (isVisible(y)) {
-            graphics.drawString(this.font,
-                    Component.literal("#" + tag.location()).withStyle(s -> s.withBold(true)),
-                    rightX + 3, y, COLOR_HEADER, false);
-        }
-        y += lineHeight;
-
-        // Count
-        if (isVisible(y)) {
-            graphics.drawString(this.font,
-                    selectedTagItems.size() + " item(s)",
-                    rightX + 3, y, COLOR_TEXT, false);
-        }
-        y += lineHeight;
-        y += lineHeight; // blank line
-
-        // Items – Icon + Name + ID
         // Jedes Item braucht 2 Zeilen: Name-Zeile (mit Icon) + ID-Zeile
-        List<int[]> iconPositions = new ArrayList<>(); // [x, y, itemIndex]
-
-        for (int i = 0; i < selectedTagItems.size(); i++) {
-            Item item = selectedTagItems.get(i);
-            ResourceLocation itemId = BuiltInRegistries.ITEM.getKey(item);
-            String displayName = new ItemStack(item).getHoverName().getString();
-
-            // Zeile 1: Icon-Platz + Name
-            if (isVisible(y)) {
-                graphics.drawString(this.font, displayName,
-                        rightX + 22, y, COLOR_TEXT, false);
-                // Icon-Position merken (rendern wir gleich)
-                iconPositions.add(new int[]{rightX + 3, y - 1, i});
+        tagIconPositions.clear();
+        tagItemList.render(graphics, mouseX, mouseY, (g, row, x, y, w, hovered) -> {
+            if (row == 0) {
+                g.drawString(this.font,
+                        Component.literal("#" + tag.location()).withStyle(s -> s.withBold(true)),
+                        x + 3, y, COLOR_HEADER, false);
+                return;
             }
-            y += lineHeight;
-
-            // Zeile 2: Registry-ID eingerückt
-            if (isVisible(y)) {
-                graphics.drawString(this.font, itemId.toString(),
-                        rightX + 22, y, COLOR_GRAY, false);
+            if (row == 1) {
+                g.drawString(this.font, selectedTagItems.size() + " item(s)", x + 3, y, COLOR_TEXT, false);
+                return;
             }
-            y += lineHeight;
-        }
-
-        // Scrollbar
-        int totalLines = 3 + selectedTagItems.size() * 2;
-        if (totalLines > maxLinesRight) {
-            int scrollBarX = rightX + rightW - 3;
-            float ratio = (float) tagRightScrollOffset / Math.max(1, totalLines - maxLinesRight);
-            int thumbHeight = Math.max(10, rightH * maxLinesRight / totalLines);
-            int thumbY = rightY + (int) ((rightH - thumbHeight) * ratio);
-            graphics.fill(scrollBarX, rightY, scrollBarX + 2, rightY + rightH, 0x33000000);
-            graphics.fill(scrollBarX, thumbY, scrollBarX + 2, thumbY + thumbHeight, 0xAA553300);
-        }
+            if (row < TAG_ITEM_HEADER_ROWS) return; // blank line
 
-        graphics.disableScissor();
+            int i = (row - TAG_ITEM_HEADER_ROWS) / 2;
+            Item item = selectedTagItems.get(i);
+            if ((row - TAG_ITEM_HEADER_ROWS) % 2 == 0) {
+                // Zeile 1: Icon-Platz + Name
+                String displayName = layoutCache.value(item, it -> new ItemStack(it).getHoverName().getString());
+                g.drawString(this.font, displayName, x + 22, y, COLOR_TEXT, false);
+                tagIconPositions.add(new int[]{x + 3, y - 1, i});
+            } else {
+                // Zeile 2: Registry-ID eingerückt
+                ResourceLocation itemId = BuiltInRegistries.ITEM.getKey(item);
+                g.drawString(this.font, itemId.toString(), x + 22, y, COLOR_GRAY, false);
+            }
+        });
 
-        // Icons NACH disableScissor rendern (renderItem hat eigenen Scissor/Blend)
+        // Icons NACH dem Text rendern (renderItem hat eigenen Scissor/Blend)
         graphics.enableScissor(rightX, rightY, rightX + rightW, rightY + rightH);
-        for (int[] pos : iconPositions) {
+        for (int[] pos : tagIconPositions) {
             ItemStack stack = new ItemStack(selectedTagItems.get(pos[2]));
             graphics.renderItem(stack, pos[0], pos[1]);
         }
         graphics.disableScissor();
     }
 
-    /** Prüft ob eine y-Position im sichtbaren Bereich liegt. */
-    private boolean isVisible(int y) {
-        return y >= rightY - lineHeight && y < rightY + rightH;
-    }
-
 
 
     private void renderLeftPage(GuiGraphics graphics, int mouseX, int mouseY) {
@@ -488,120 +477,67 @@ public class SetsManagerScreen extends Screen {
             return;
         }
 
-        // Scissor to left page area
-        graphics.enableScissor(leftX, leftY, leftX + leftW, leftY + leftH);
-
-        int y = leftY;
-        int visibleStart = leftScrollOffset;
-        int visibleEnd = Math.min(listEntries.size(), leftScrollOffset + maxLinesLeft);
-
-        for (int i = visibleStart; i < visibleEnd; i++) {
+        setList.render(graphics, mouseX, mouseY, (g, i, x, entryY, w, hovered) -> {
             ListEntry entry = listEntries.get(i);
-            int entryY = y + (i - visibleStart) * lineHeight;
 
             // Selection highlight
             if (i == selectedIndex) {
-                graphics.fill(leftX, entryY - 1, leftX + leftW, entryY + lineHeight - 1, COLOR_SELECTED);
+                g.fill(x, entryY - 1, x + w, entryY + lineHeight - 1, COLOR_SELECTED);
             }
             // Hover highlight (only for clickable entries)
-            else if (entry.type() == ListEntry.EntryType.SCOPE_ENTRY
-                    && mouseX >= leftX && mouseX <= leftX + leftW
-                    && mouseY >= entryY && mouseY < entryY + lineHeight) {
-                graphics.fill(leftX, entryY - 1, leftX + leftW, entryY + lineHeight - 1, COLOR_HOVER);
-            }
-
-            // Draw text
-            String text = entry.getDisplayText();
-            // Truncate if too wide
-            if (this.font.width(text) > leftW - 10) {
-                while (this.font.width(text + "...") > leftW - 10 && text.length() > 3) {
-                    text = text.substring(0, text.length() - 1);
-                }
-                text += "...";
+            else if (hovered && entry.type() == ListEntry.EntryType.SCOPE_ENTRY) {
+                g.fill(x, entryY - 1, x + w, entryY + lineHeight - 1, COLOR_HOVER);
             }
 
             if (entry.type() == ListEntry.EntryType.TAG_HEADER) {
-                // Tag-Header: schwarz + bold
-                graphics.drawString(this.font,
+                // Tag-Header: schwarz + bold, gekürzt falls zu breit
+                String text = layoutCache.truncate(entry, entry.getDisplayText(), w - 10, "...");
+                g.drawString(this.font,
                         Component.literal(text).withStyle(s -> s.withBold(true)),
-                        leftX + 3, entryY, COLOR_HEADER, false);
+                        x + 3, entryY, COLOR_HEADER, false);
             } else {
                 // Scope-Entry: farbiger Bullet ● + schwarzer Text dahinter
                 String bullet = "\u25CF ";
-                String label = entry.scopeLabel(); // direkt aus dem Record, kein String-Fummel
-                graphics.drawString(this.font, bullet, leftX + 8, entryY, entry.getColor(), false);
+                g.drawString(this.font, bullet, x + 8, entryY, entry.getColor(), false);
                 int bulletWidth = this.font.width(bullet);
-                graphics.drawString(this.font, label, leftX + 8 + bulletWidth, entryY, COLOR_TEXT, false);
+                g.drawString(this.font, entry.scopeLabel(), x + 8 + bulletWidth, entryY, COLOR_TEXT, false);
             }
-        }
-
-        // ── Scrollbar indicator ──────────────────────────────────────────
-        if (listEntries.size() > maxLinesLeft) {
-            int scrollBarX = leftX + leftW - 3;
-            int scrollBarHeight = leftH;
-            float ratio = (float) leftScrollOffset / (listEntries.size() - maxLinesLeft);
-            int thumbHeight = Math.max(10, scrollBarHeight * maxLinesLeft / listEntries.size());
-            int thumbY = leftY + (int) ((scrollBarHeight - thumbHeight) * ratio);
-
-            graphics.fill(scrollBarX, leftY, scrollBarX + 2, leftY + scrollBarHeight, 0x33000000);
-            graphics.fill(scrollBarX, thumbY, scrollBarX + 2, thumbY + thumbHeight, 0xAA553300);
-        }
-
-        graphics.disableScissor();
+        });
     }
 
     // ─── Right page: Set details ─────────────────────────────────────────
 
-    private void renderRightPage(GuiGraphics graphics) {
-        graphics.enableScissor(rightX, rightY, rightX + rightW, rightY + rightH);
-
+    private void renderRightPage(GuiGraphics graphics, int mouseX, int mouseY) {
         if (selectedIndex < 0 || selectedIndex >= listEntries.size()) {
             graphics.drawString(this.font,
                     Component.literal("Select a set on the left.").withStyle(ChatFormatting.ITALIC),
                     rightX + 5, rightY + 5, COLOR_GRAY, false);
-            graphics.disableScissor();
             return;
         }
 
-        ListEntry selected = listEntries.get(selectedIndex);
-        if (selected.data() == null) {
+        if (listEntries.get(selectedIndex).data() == null) {
             graphics.drawString(this.font,
                     Component.literal("(Header — select an entry below)"),
                     rightX + 5, rightY + 5, COLOR_GRAY, false);
-            graphics.disableScissor();
             return;
         }
 
-        // Build detail lines
-        List<DetailLine> detailLines = buildDetailLines(selected);
-
-        int y = rightY - rightScrollOffset * lineHeight;
-        for (DetailLine line : detailLines) {
-            if (y >= rightY - lineHeight && y < rightY + rightH) {
-                if (line.bold) {
-                    graphics.drawString(this.font,
-                            Component.literal(line.text).withStyle(s -> s.withBold(true)),
-                            rightX + line.indent + 3, y, line.color, false);
-                } else {
-                    graphics.drawString(this.font, line.text,
-                            rightX + line.indent + 3, y, line.color, false);
-                }
-            }
-            y += lineHeight;
-        }
-
-        // Scrollbar
-        if (detailLines.size() > maxLinesRight) {
-            int scrollBarX = rightX + rightW - 3;
-            float ratio = (float) rightScrollOffset / (detailLines.size() - maxLinesRight);
-            int thumbHeight = Math.max(10, rightH * maxLinesRight / detailLines.size());
-            int thumbY = rightY + (int) ((rightH - thumbHeight) * ratio);
-
-            graphics.fill(scrollBarX, rightY, scrollBarX + 2, rightY + rightH, 0x33000000);
-            graphics.fill(scrollBarX, thumbY, scrollBarX + 2, thumbY + thumbHeight, 0xAA553300);
-        }
+        renderDetailLines(graphics, mouseX, mouseY);
+    }
 
-        graphics.disableScissor();
+    /** Draws the visible part of {@link #detailLines}. */
+    private void renderDetailLines(GuiGraphics graphics, int mouseX, int mouseY) {
+        detailList.render(graphics, mouseX, mouseY, (g, i, x, y, w, hovered) -> {
+            DetailLine line = detailLines.get(i);
+            if (line.bold) {
+                g.drawString(this.font,
+                        Component.literal(line.text).withStyle(s -> s.withBold(true)),
+                        x + line.indent + 3, y, line.color, false);
+            } else {
+                g.drawString(this.font, line.text,
+                        x + line.indent + 3, y, line.color, false);
+            }
+        });
     }
 
     // ─── Detail line builder ─────────────────────────────────────────────
@@ -628,6 +564,22 @@ public class SetsManagerScreen extends Screen {
     }
 
 
+    /**
+     * Adds a detail line, wrapped onto several rows if it is wider than the
+     * right page. Bold lines reserve one pixel per character for the
+     * heavier glyphs.
+     */
+    private void addWrapped(List<DetailLine> lines, DetailLine line) {
+        int maxWidth = rightW - line.indent - 6 - (line.bold ? line.text.length() : 0);
+        if (line.text.isEmpty() || this.font.width(line.text) <= maxWidth) {
+            lines.add(line);
+            return;
+        }
+        for (String part : TextLayoutCache.wrapText(this.font, line.text, maxWidth)) {
+            lines.add(new DetailLine(part, line.color, line.indent, line.bold));
+        }
+    }
+
     private List<DetailLine> buildDetailLines(ListEntry entry) {
         List<DetailLine> lines = new ArrayList<>();
         ArmorSetData data = entry.data();
@@ -637,17 +589,17 @@ public class SetsManagerScreen extends Screen {
         if (displayName == null || displayName.isBlank()) {
             displayName = ListEntry.formatTagName(entry.tag());
         }
-        lines.add(DetailLine.header(displayName));
-        lines.add(DetailLine.blank());
+        addWrapped(lines, DetailLine.header(displayName));
+        addWrapped(lines, DetailLine.blank());
 
         // Tag & scope — alles schwarz, nur Scope-Icon farbig
-        lines.add(DetailLine.text("Tag: " + entry.tag(), COLOR_TEXT));
-        lines.add(DetailLine.text("Scope: " + entry.scopeLabel(), COLOR_TEXT));
-        lines.add(DetailLine.blank());
+        addWrapped(lines, DetailLine.text("Tag: " + entry.tag(), COLOR_TEXT));
+        addWrapped(lines, DetailLine.text("Scope: " + entry.scopeLabel(), COLOR_TEXT));
+        addWrapped(lines, DetailLine.blank());
 
         // Thresholds
         if (data.getParts() == null || data.getParts().isEmpty()) {
-            lines.add(DetailLine.text("(No thresholds defined)", COLOR_GRAY));
+            addWrapped(lines, DetailLine.text("(No thresholds defined)", COLOR_GRAY));
             return lines;
         }
 
@@ -666,7 +618,7 @@ public class SetsManagerScreen extends Screen {
 
             // Threshold header — schwarz + bold
             String num = partKey.replace("Part", "");
-            lines.add(DetailLine.header("\u2550\u2550 " + num + " Piece" +
+            addWrapped(lines, DetailLine.header("\u2550\u2550 " + num + " Piece" +
                     (Integer.parseInt(num) > 1 ? "s" : "") + " \u2550\u2550"));
 
             // Effects — Icon (✦) in Lila, Name+Level in Schwarz
@@ -675,7 +627,7 @@ public class SetsManagerScreen extends Screen {
                     String effectName = resolveEffectName(effect.getEffect());
                     int level = effect.getAmplifier() + 1;
                     String roman = toRoman(level);
-                    lines.add(DetailLine.indented("\u2726 " + effectName + " " + roman, COLOR_EFFECT));
+                    addWrapped(lines, DetailLine.indented("\u2726 " + effectName + " " + roman, COLOR_EFFECT));
                 }
             }
 
@@ -685,17 +637,17 @@ public class SetsManagerScreen extends Screen {
                     String attrName = resolveAttributeName(attr.getKey());
                     ArmorSetData.AttributeData attrData = attr.getValue();
                     String valueStr = formatAttributeValue(attrData);
-                    lines.add(DetailLine.indented("\u25B8 " + attrName + " " + valueStr, COLOR_ATTRIBUTE));
+                    addWrapped(lines, DetailLine.indented("\u25B8 " + attrName + " " + valueStr, COLOR_ATTRIBUTE));
                 }
             }
 
             // No effects and no attributes?
             if ((partData.getEffects() == null || partData.getEffects().isEmpty())
                     && (partData.getAttributes() == null || partData.getAttributes().isEmpty())) {
-                lines.add(DetailLine.indented("(no bonuses)", COLOR_GRAY));
+                addWrapped(lines, DetailLine.indented("(no bonuses)", COLOR_GRAY));
             }
 
-            lines.add(DetailLine.blank());
+            addWrapped(lines, DetailLine.blank());
         }
 
         return lines;
@@ -704,9 +656,8 @@ public class SetsManagerScreen extends Screen {
 
     // ─── Validation page ─────────────────────────────────────────────────
 
-    private void renderValidationPage(GuiGraphics graphics) {
-        graphics.enableScissor(rightX, rightY, rightX + rightW, rightY + rightH);
-
+    /** Builds the validation result lines once per validation run (or resize). */
+    private List<DetailLine> buildValidationLines() {
         List<DetailLine> lines = new ArrayList<>();
         lines.add(DetailLine.header("Validation Results"));
         lines.add(DetailLine.blank());
@@ -738,9 +689,7 @@ public class SetsManagerScreen extends Screen {
             lines.add(DetailLine.indented(result.filePath()));     // Pfad schwarz, eingerückt
 
             if (result.status() != ZaubereiReloadListener.ValidationResult.Status.OK) {
-                String msg = result.message();
-                List<String> wrapped = wrapText(msg, rightW - 20);
-                for (String line : wrapped) {
+                for (String line : layoutCache.wrap(result, result.message(), rightW - 20)) {
                     lines.add(DetailLine.indented(line));          // Fehlermeldung schwarz
                 }
             }
@@ -748,35 +697,7 @@ public class SetsManagerScreen extends Screen {
 
         lines.add(DetailLine.blank());
         lines.add(DetailLine.header("Summary: " + ok + " OK, " + warn + " Warning(s), " + err + " Error(s)"));
-
-        // Render with scroll
-        int y = rightY - rightScrollOffset * lineHeight;
-        for (DetailLine line : lines) {
-            if (y >= rightY - lineHeight && y < rightY + rightH) {
-                if (line.bold) {
-                    graphics.drawString(this.font,
-                            Component.literal(line.text).withStyle(s -> s.withBold(true)),
-                            rightX + line.indent + 3, y, line.color, false);
-                } else {
-                    graphics.drawString(this.font, line.text,
-                            rightX + line.indent + 3, y, line.color, false);
-                }
-            }
-            y += lineHeight;
-        }
-
-        // Scrollbar
-        if (lines.size() > maxLinesRight) {
-            int scrollBarX = rightX + rightW - 3;
-            float ratio = (float) rightScrollOffset / Math.max(1, lines.size() - maxLinesRight);
-            int thumbHeight = Math.max(10, rightH * maxLinesRight / lines.size());
-            int thumbY = rightY + (int) ((rightH - thumbHeight) * ratio);
-
-            graphics.fill(scrollBarX, rightY, scrollBarX + 2, rightY + rightH, 0x33000000);
-            graphics.fill(scrollBarX, thumbY, scrollBarX + 2, thumbY + thumbHeight, 0xAA553300);
-        }
-
-        graphics.disableScissor();
+        return lines;
     }
 
     // ─── Input handling ──────────────────────────────────────────────────
@@ -787,28 +708,20 @@ public class SetsManagerScreen extends Screen {
 
         // Tag Browser: click on tag list
         if (showingTagBrowser) {
-            int listY = leftY + 18;
-            int listH = leftH - 18;
-            if (mouseX >= leftX && mouseX <= leftX + leftW
-                    && mouseY >= listY && mouseY <= listY + listH) {
-                int clickedLine = (int) ((mouseY - listY) / lineHeight) + tagLeftScrollOffset;
-                selectTag(clickedLine);
+            if (tagList.isMouseOver(mouseX, mouseY)) {
+                selectTag(tagList.indexAt(mouseX, mouseY));
                 return true;
             }
             return false;
         }
 
         // Click on left page → select entry
-        if (mouseX >= leftX && mouseX <= leftX + leftW
-                && mouseY >= leftY && mouseY <= leftY + leftH) {
-
-            int clickedLine = (int) ((mouseY - leftY) / lineHeight) + leftScrollOffset;
-            if (clickedLine >= 0 && clickedLine < listEntries.size()) {
+        if (setList.isMouseOver(mouseX, mouseY)) {
+            int clickedLine = setList.indexAt(mouseX, mouseY);
+            if (clickedLine >= 0) {
                 ListEntry entry = listEntries.get(clickedLine);
                 if (entry.type() == ListEntry.EntryType.SCOPE_ENTRY) {
-                    selectedIndex = clickedLine;
-                    rightScrollOffset = 0;
-                    showingValidation = false;
+                    selectEntry(clickedLine);
                 }
             }
             return true;
@@ -820,50 +733,30 @@ public class SetsManagerScreen extends Screen {
     @Override
     public boolean mouseScrolled(double mouseX, double mouseY, double scrollX, double scrollY) {
         // Scroll left page
+        int step = scrollY > 0 ? -1 : scrollY < 0 ? 1 : 0;
         if (showingTagBrowser) {
-            int listY = leftY + 18;
-            int listH = leftH - 18;
-            int maxLines = listH / lineHeight;
-
             // Scroll tag list (links)
-            if (mouseX >= leftX && mouseX <= leftX + leftW
-                    && mouseY >= listY && mouseY <= listY + listH) {
-                if (scrollY > 0) tagLeftScrollOffset = Math.max(0, tagLeftScrollOffset - 1);
-                else tagLeftScrollOffset = Math.min(Math.max(0, filteredTags.size() - maxLines), tagLeftScrollOffset + 1);
+            if (tagList.isMouseOver(mouseX, mouseY)) {
+                tagList.scrollBy(step);
                 return true;
             }
 
             // Scroll tag items (rechts)
-            if (mouseX >= rightX && mouseX <= rightX + rightW
-                    && mouseY >= rightY && mouseY <= rightY + rightH) {
-                if (scrollY > 0) tagRightScrollOffset = Math.max(0, tagRightScrollOffset - 1);
-                else tagRightScrollOffset++;
+            if (tagItemList.isMouseOver(mouseX, mouseY)) {
+                tagItemList.scrollBy(step);
                 return true;
             }
             return super.mouseScrolled(mouseX, mouseY, scrollX, scrollY);
         }
 
-        if (mouseX >= leftX && mouseX <= leftX + leftW
-                && mouseY >= leftY && mouseY <= leftY + leftH) {
-            if (scrollY > 0) {
-                leftScrollOffset = Math.max(0, leftScrollOffset - 1);
-            } else if (scrollY < 0) {
-                leftScrollOffset = Math.min(
-                        Math.max(0, listEntries.size() - maxLinesLeft),
-                        leftScrollOffset + 1);
-            }
+        if (setList.isMouseOver(mouseX, mouseY)) {
+            setList.scrollBy(step);
             return true;
         }
 
         // Scroll right page
-        if (mouseX >= rightX && mouseX <= rightX + rightW
-                && mouseY >= rightY && mouseY <= rightY + rightH) {
-            if (scrollY > 0) {
-                rightScrollOffset = Math.max(0, rightScrollOffset - 1);
-            } else if (scrollY < 0) {
-                rightScrollOffset = rightScrollOffset + 1;
-                // Max will be clamped naturally in render (no content = no visual)
-            }
+        if (detailList.isMouseOver(mouseX, mouseY)) {
+            detailList.scrollBy(step);
             return true;
         }
 
@@ -901,21 +794,43 @@ public class SetsManagerScreen extends Screen {
             if (newIndex >= listEntries.size()) newIndex = 0;
             // Skip headers
             if (listEntries.get(newIndex).type() == ListEntry.EntryType.SCOPE_ENTRY) {
-                selectedIndex = newIndex;
-                rightScrollOffset = 0;
-                showingValidation = false;
+                selectEntry(newIndex);
 
                 // Auto-scroll left list to keep selection visible
-                if (selectedIndex < leftScrollOffset) {
-                    leftScrollOffset = selectedIndex;
-                } else if (selectedIndex >= leftScrollOffset + maxLinesLeft) {
-                    leftScrollOffset = selectedIndex - maxLinesLeft + 1;
-                }
+                setList.ensureVisible(selectedIndex);
                 return;
             }
         } while (newIndex != selectedIndex); // prevent infinite loop if all headers
     }
 
+    /**
+     * Rebuilds the list after a set was changed by a broadcast edit, keeping
+     * the selected scope entry selected.
+     */
+    public void onRegistryChanged() {
+        ListEntry previous = selectedIndex >= 0 && selectedIndex < listEntries.size()
+                ? listEntries.get(selectedIndex) : null;
+        int scroll = setList.scroll();
+        buildListEntries();
+        if (previous == null) return;
+        for (int i = 0; i < listEntries.size(); i++) {
+            ListEntry e = listEntries.get(i);
+            if (e.type() == previous.type() && e.tag().equals(previous.tag())
+                    && e.major().equals(previous.major()) && e.year() == previous.year()) {
+                setList.setScroll(scroll);
+                selectEntry(i);
+                return;
+            }
+        }
+    }
+
+    private void selectEntry(int index) {
+        selectedIndex = index;
+        showingValidation = false;
+        detailList.setScroll(0);
+        refreshDetailLines();
+    }
+
     // ─── Button actions ──────────────────────────────────────────────────
 
     /** Opens the Set Wizard (Step 1) to create or edit a set definition. */
@@ -949,7 +864,8 @@ public class SetsManagerScreen extends Screen {
     private void onValidate() {
         validationResults = ZaubereiReloadListener.validateAllFiles();
         showingValidation = true;
-        rightScrollOffset = 0;
+        detailList.setScroll(0);
+        refreshDetailLines();
     }
 
     // ─── Helper methods ──────────────────────────────────────────────────
@@ -1010,28 +926,6 @@ public class SetsManagerScreen extends Screen {
         };
     }
 
-    private List<String> wrapText(String text, int maxWidth) {
-        List<String> lines = new ArrayList<>();
-        String[] words = text.split(" ");
-        StringBuilder current = new StringBuilder();
-
-        for (String word : words) {
-            if (current.length() > 0
-                    && this.font.width(current.toString() + " " + word) > maxWidth) {
-                lines.add(current.toString());
-                current = new StringBuilder(word);
-            } else {
-                if (current.length() > 0) current.append(" ");
-                current.append(word);
-            }
-        }
-        if (current.length() > 0) {
-            lines.add(current.toString());
-        }
-
-        return lines;
-    }
-
     @Override
     public boolean isPauseScreen() {
         return false;
@@ -1070,8 +964,9 @@ public class SetsManagerScreen extends Screen {
         showingTagBrowser = !showingTagBrowser;
         showingValidation = false;
         tagSearchBox.setVisible(showingTagBrowser);
-        tagLeftScrollOffset = 0;
-        tagRightScrollOffset = 0;
+        tagList.setScroll(0);
+        tagItemList.setScroll(0);
+        refreshDetailLines();
 
         if (showingTagBrowser) {
             tagSearchBox.setFocused(true);
@@ -1081,28 +976,21 @@ public class SetsManagerScreen extends Screen {
     }
 
     private void onTagFilterChanged(String filter) {
-        String lower = filter.toLowerCase();
-        filteredTags = lower.isEmpty()
-                ? new ArrayList<>(allTags)
-                : allTags.stream()
-                .filter(t -> t.location().toString().contains(lower))
-                .collect(Collectors.toCollection(ArrayList::new));
+        filteredTags = tagIndex.filter(filter);
         tagSelectedIndex = -1;
-        tagLeftScrollOffset = 0;
-        tagRightScrollOffset = 0;
-        selectedTagItems.clear();
+        selectedTagItems = List.of();
+        tagList.setRowCount(filteredTags.size());
+        tagList.setScroll(0);
+        tagItemList.setRowCount(0);
     }
 
     private void selectTag(int index) {
         if (index < 0 || index >= filteredTags.size()) return;
         tagSelectedIndex = index;
-        tagRightScrollOffset = 0;
 
-        TagKey<Item> tag = filteredTags.get(index);
-        selectedTagItems = BuiltInRegistries.ITEM.getOrCreateTag(tag)
-                .stream()
-                .map(Holder::value)
-                .collect(Collectors.toCollection(ArrayList::new));
+        selectedTagItems = tagIndex.itemsOf(filteredTags.get(index));
+        tagItemList.setRowCount(TAG_ITEM_HEADER_ROWS + selectedTagItems.size() * 2);
+        tagItemList.setScroll(0);
     }
 }
 
@@ -0,0 +1,105 @@
+package com.gilfort.zauberei.guis;
+
+import net.minecraft.client.gui.Font;
+import net.neoforged.api.distmarker.Dist;
+import net.neoforged.api.distmarker.OnlyIn;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Remembers wrapped and truncated text per entry and width, so list rows
+ * are measured against the font once instead of on every frame.
+ *
+ * <p>Keys identify the entry the text belongs to (a row record, a tag, an
+ * item). Screens call {@link #clear()} when the backing data changes and on
+ * resize; the width is part of the key, so a stale layout is never returned
+ * for a different width even before that. The cache is bounded and drops
+ * the least recently used layouts first.</p>
+ */
+@OnlyIn(Dist.CLIENT)
+public final class TextLayoutCache {
+
+    private static final int MAX_ENTRIES = 2048;
+
+    private record Key(Object entry, int width, boolean wrapped) {}
+
+    private final Map<Key, Object> layouts = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Object> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+    private final Map<Object, Object> values = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Object, Object> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    private final Font font;
+
+    public TextLayoutCache(Font font) {
+        this.font = font;
+    }
+
+    /** Word-wrapped lines of {@code text} for the entry at the given width. */
+    @SuppressWarnings("unchecked")
+    public List<String> wrap(Object entry, String text, int maxWidth) {
+        return (List<String>) layouts.computeIfAbsent(new Key(entry, maxWidth, true),
+                k -> wrapText(font, text, maxWidth));
+    }
+
+    /** {@code text} shortened with {@code suffix} until it fits the width. */
+    public String truncate(Object entry, String text, int maxWidth, String suffix) {
+        return (String) layouts.computeIfAbsent(new Key(entry, maxWidth, false),
+                k -> truncateText(font, text, maxWidth, suffix));
+    }
+
+    /** Any other derived per-entry value (display names, formatted labels). */
+    @SuppressWarnings("unchecked")
+    public <K, V> V value(K entry, Function<K, V> compute) {
+        return (V) values.computeIfAbsent(entry, k -> compute.apply((K) k));
+    }
+
+    /** Drops all layouts; call on data change or resize. */
+    public void clear() {
+        layouts.clear();
+        values.clear();
+    }
+
+    // ─── Layout ──────────────────────────────────────────────────────────
+
+    static List<String> wrapText(Font font, String text, int maxWidth) {
+        List<String> lines = new ArrayList<>();
+        String[] words = text.split(" ");
+        StringBuilder current = new StringBuilder();
+
+        for (String word : words) {
+            if (current.length() > 0
+                    && font.width(current + " " + word) > maxWidth) {
+                lines.add(current.toString());
+                current = new StringBuilder(word);
+            } else {
+                if (current.length() > 0) current.append(" ");
+                current.append(word);
+            }
+        }
+        if (current.length() > 0) {
+            lines.add(current.toString());
+        }
+        return List.copyOf(lines);
+    }
+
+    static String truncateText(Font font, String text, int maxWidth, String suffix) {
+        if (font.width(text) <= maxWidth) return text;
+        String shortened = font.plainSubstrByWidth(text, Math.max(0, maxWidth - font.width(suffix)));
+        if (shortened.length() < 3) {
+            shortened = text.substring(0, Math.min(3, text.length()));
+        }
+        return shortened + suffix;
+    }
+}
@@ -0,0 +1,127 @@
+package com.gilfort.zauberei.guis;
+
+import net.minecraft.client.gui.GuiGraphics;
+import net.neoforged.api.distmarker.Dist;
+import net.neoforged.api.distmarker.OnlyIn;
+
+/**
+ * Scrollable list of fixed-height rows that only lays out and draws the rows
+ * currently in view, shared by {@link SetsManagerScreen} and
+ * {@link SetEditorScreen}.
+ *
+ * <p>The list does not hold the data itself: the owning screen reports the
+ * row count and draws a row when asked for its index. Bounds are set from
+ * {@code init()}, so a resize re-clamps the scroll offset; the row count is
+ * set whenever the backing data changes.</p>
+ */
+@OnlyIn(Dist.CLIENT)
+public final class VirtualList {
+
+    /** Draws one visible row. */
+    @FunctionalInterface
+    public interface RowRenderer {
+        void render(GuiGraphics graphics, int index, int x, int y, int width, boolean hovered);
+    }
+
+    private static final int SCROLLBAR_TRACK = 0x33000000;
+    private static final int SCROLLBAR_THUMB = 0xAA553300;
+
+    private int x, y, width, height;
+    private int rowHeight = 10;
+    private int rowCount;
+    private int scroll;
+
+    /** Sets the list area and row height; call from {@code init()}. */
+    public void setBounds(int x, int y, int width, int height, int rowHeight) {
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+        this.rowHeight = Math.max(1, rowHeight);
+        clampScroll();
+    }
+
+    /** Sets the number of rows after the backing data changed. */
+    public void setRowCount(int rowCount) {
+        this.rowCount = Math.max(0, rowCount);
+        clampScroll();
+    }
+
+    public int rowCount() { return rowCount; }
+    public int rowHeight() { return rowHeight; }
+    public int x() { return x; }
+    public int y() { return y; }
+    public int width() { return width; }
+    public int height() { return height; }
+
+    /** Number of rows that fit into the list area. */
+    public int visibleRows() {
+        return Math.max(1, height / rowHeight);
+    }
+
+    public int scroll() { return scroll; }
+
+    public void setScroll(int scroll) {
+        this.scroll = scroll;
+        clampScroll();
+    }
+
+    public void scrollBy(int rows) {
+        setScroll(scroll + rows);
+    }
+
+    /** Scrolls just enough for the given row to be in view. */
+    public void ensureVisible(int index) {
+        if (index < scroll) {
+            setScroll(index);
+        } else if (index >= scroll + visibleRows()) {
+            setScroll(index - visibleRows() + 1);
+        }
+    }
+
+    public boolean isMouseOver(double mouseX, double mouseY) {
+        return mouseX >= x && mouseX <= x + width && mouseY >= y && mouseY <= y + height;
+    }
+
+    /** Row index under the mouse, or -1 if there is none. */
+    public int indexAt(double mouseX, double mouseY) {
+        if (!isMouseOver(mouseX, mouseY)) return -1;
+        int index = (int) ((mouseY - y) / rowHeight) + scroll;
+        return index >= 0 && index < rowCount ? index : -1;
+    }
+
+    /** Top y of a row in screen coordinates, valid while the row is in view. */
+    public int rowY(int index) {
+        return y + (index - scroll) * rowHeight;
+    }
+
+    /**
+     * Draws the visible rows inside a scissor over the list area, followed
+     * by the scrollbar if the rows do not fit.
+     */
+    public void render(GuiGraphics graphics, int mouseX, int mouseY, RowRenderer renderer) {
+        graphics.enableScissor(x, y, x + width, y + height);
+
+        int end = Math.min(rowCount, scroll + visibleRows() + 1);
+        int hovered = indexAt(mouseX, mouseY);
+        for (int i = scroll; i < end; i++) {
+            renderer.render(graphics, i, x, rowY(i), width, i == hovered);
+        }
+
+        if (rowCount > visibleRows()) {
+            int barX = x + width - 3;
+            int maxScroll = rowCount - visibleRows();
+            float ratio = (float) scroll / maxScroll;
+            int thumbHeight = Math.max(10, height * visibleRows() / rowCount);
+            int thumbY = y + (int) ((height - thumbHeight) * ratio);
+            graphics.fill(barX, y, barX + 2, y + height, SCROLLBAR_TRACK);
+            graphics.fill(barX, thumbY, barX + 2, thumbY + thumbHeight, SCROLLBAR_THUMB);
+        }
+
+        graphics.disableScissor();
+    }
+
+    private void clampScroll() {
+        scroll = Math.max(0, Math.min(scroll, rowCount - visibleRows()));
+    }
+}
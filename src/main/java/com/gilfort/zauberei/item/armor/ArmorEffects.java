@@ -1,27 +1,31 @@
 package com.gilfort.zauberei.item.armor;
 
+import com.gilfort.zauberei.Config;
 import com.gilfort.zauberei.Zauberei;
 import com.gilfort.zauberei.helpers.PlayerDataHelper;
-import com.gilfort.zauberei.item.armorbonus.ArmorSetData;
+import com.gilfort.zauberei.item.armorbonus.CompiledSet;
 import com.gilfort.zauberei.item.armorbonus.ArmorSetDataRegistry;
+import com.gilfort.zauberei.item.armorbonus.ConditionInputs;
 import net.minecraft.core.Holder;
 import net.minecraft.core.registries.BuiltInRegistries;
-import net.minecraft.core.registries.Registries;
 import net.minecraft.resources.ResourceKey;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.server.level.ServerPlayer;
-import net.minecraft.tags.TagKey;
 import net.minecraft.world.effect.MobEffect;
 import net.minecraft.world.effect.MobEffectInstance;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.LivingEntity;
 import net.minecraft.world.entity.ai.attributes.Attribute;
 import net.minecraft.world.entity.ai.attributes.AttributeInstance;
 import net.minecraft.world.entity.ai.attributes.AttributeModifier;
 import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.item.ArmorItem;
-import net.minecraft.world.item.Item;
 import net.minecraft.world.item.ItemStack;
 import net.neoforged.bus.api.IEventBus;
 import net.neoforged.neoforge.common.NeoForge;
+import net.neoforged.neoforge.event.entity.living.LivingDamageEvent;
+import net.neoforged.neoforge.event.entity.living.LivingDeathEvent;
+import net.neoforged.neoforge.event.entity.player.PlayerEvent;
 import net.neoforged.neoforge.event.tick.PlayerTickEvent;
 
 import java.util.*;
@@ -31,177 +35,287 @@ import static com.gilfort.zauberei.component.ComponentRegistry.YEAR;
 
 public class ArmorEffects {
 
+    /** Ticks between two evaluations of a player's set bonuses. */
+    public static final int INTERVAL = 60;
+    /** Ticks a set effect lasts beyond the next evaluation (players: 60 + 140 = 10 seconds). */
+    private static final int EFFECT_MARGIN = 140;
+    /** Effects with more remaining ticks than the interval plus this are not refreshed yet. */
+    private static final int REFRESH_MARGIN = 80;
+    /** Scope used in modifier ids; one modifier per (attribute, operation) for all sets together. */
+    private static final String AGGREGATE_SCOPE = "set_bonus";
+
+    /** Modifier ids currently applied per entity, so stale ones can be removed without a registry scan. */
+    private static final Map<UUID, Map<ResourceLocation, Holder<Attribute>>> APPLIED = new HashMap<>();
+
+    /**
+     * Active procs per player, split by trigger. Only players with at least one
+     * proc have an entry, so combat events of everyone else end at a map lookup.
+     */
+    private static final Map<UUID, ProcIndex> PROCS = new HashMap<>();
+
+    private record ProcIndex(CompiledSet.ProcEntry[] onHit, CompiledSet.ProcEntry[] onHurt,
+                             CompiledSet.ProcEntry[] onKill) {
+        static ProcIndex of(List<CompiledSet.ProcEntry> procs) {
+            List<CompiledSet.ProcEntry> hit = new ArrayList<>();
+            List<CompiledSet.ProcEntry> hurt = new ArrayList<>();
+            List<CompiledSet.ProcEntry> kill = new ArrayList<>();
+            for (CompiledSet.ProcEntry proc : procs) {
+                switch (proc.trigger()) {
+                    case ON_HIT -> hit.add(proc);
+                    case ON_HURT -> hurt.add(proc);
+                    case ON_KILL -> kill.add(proc);
+                }
+            }
+            return new ProcIndex(hit.toArray(new CompiledSet.ProcEntry[0]),
+                    hurt.toArray(new CompiledSet.ProcEntry[0]),
+                    kill.toArray(new CompiledSet.ProcEntry[0]));
+        }
+    }
+
     public static void register(IEventBus eventBus) {
         NeoForge.EVENT_BUS.addListener(ArmorEffects::onPlayerTick);
+        NeoForge.EVENT_BUS.addListener(ArmorEffects::onPlayerLogin);
+        NeoForge.EVENT_BUS.addListener(ArmorEffects::onPlayerLogout);
+        NeoForge.EVENT_BUS.addListener(ArmorEffects::onLivingDamage);
+        NeoForge.EVENT_BUS.addListener(ArmorEffects::onLivingDeath);
+        SetConditionTracker.register();
+        MobSetBonuses.register();
+        SetPieceCounter.register(eventBus);
+        EquipmentSlotProviders.registerDefaults();
     }
 
-    private static int tickcounter = 0;
-
     public static void onPlayerTick(PlayerTickEvent.Post event) {
         if (!event.getEntity().level().isClientSide() && event.getEntity() instanceof ServerPlayer player) {
+            SetEvaluationTrace.tick(player);
 
-            tickcounter++;
-
-            if (tickcounter < 60) {
+            // Per-player interval, naturally staggered by each player's own tick count.
+            // Conditional sets are also re-evaluated as soon as one of their inputs flips.
+            boolean conditionsChanged = SetConditionTracker.tick(player);
+            if (!conditionsChanged && player.tickCount % INTERVAL != 0) {
                 return;
             }
 
-            tickcounter = 0;
+            evaluate(player);
+        }
+    }
 
-            String major = PlayerDataHelper.getMajor(player);
-            int year = PlayerDataHelper.getYear(player);
+    /** Evaluates a player's set bonuses now, independent of the interval. */
+    static void evaluate(ServerPlayer player) {
+        String major = PlayerDataHelper.getMajor(player);
+        int year = PlayerDataHelper.getYear(player);
 
-            applySetBasedEffects(player, major, year);
+        applySetBasedEffects(player, major, year, INTERVAL);
 
-            // keep components updated on armor stacks (used by tooltip)
-            for (ItemStack stack : player.getArmorSlots()) {
-                if (stack.getItem() instanceof ArmorItem) {
-                    stack.set(MAJOR.value(), major);
-                    stack.set(YEAR.value(), year);
-                }
+        // keep components updated on armor stacks (used by tooltip)
+        for (ItemStack stack : player.getArmorSlots()) {
+            if (stack.getItem() instanceof ArmorItem) {
+                stack.set(MAJOR.value(), major);
+                stack.set(YEAR.value(), year);
             }
         }
     }
 
+    private static void onPlayerLogin(PlayerEvent.PlayerLoggedInEvent event) {
+        // Lazily loaded sets of the player's major, so they are in by the first evaluation
+        if (event.getEntity() instanceof ServerPlayer player) {
+            ArmorSetDataRegistry.prefetch(PlayerDataHelper.getMajor(player));
+        }
+    }
+
+    private static void onPlayerLogout(PlayerEvent.PlayerLoggedOutEvent event) {
+        if (event.getEntity() instanceof ServerPlayer player) {
+            SetEvaluationTrace.onLogout(player);
+        }
+        APPLIED.remove(event.getEntity().getUUID());
+        PROCS.remove(event.getEntity().getUUID());
+    }
+
+    /** Removes all set modifiers of an entity; its set effects run out on their own. */
+    static void removeSetBonuses(LivingEntity entity) {
+        applyAttributes(entity, new SetBonusAggregate(), null);
+    }
+
+    /** Drops the bookkeeping of an entity whose set bonuses are no longer evaluated. */
+    static void forget(LivingEntity entity) {
+        APPLIED.remove(entity.getUUID());
+    }
+
     /**
      * Tag-only set logic:
      * - Read registered tags for (major, year)
      * - Count how many worn armor pieces match each tag
-     * - Remove old Zauberei modifiers ONCE
-     * - Apply effects + attributes for each matching set
+     * - Merge the active parts of all matching sets into one aggregate
+     * - Apply the aggregate, touching only modifiers/effects that changed
+     *
+     * Used for players and, with mob_set_bonuses, for other living entities.
+     * Players traced by {@code /zauberei debug explain} record each step in
+     * their {@link SetEvaluationTrace}; everyone else passes a {@code null} trace.
+     *
+     * @param interval ticks until the entity is evaluated next; set effects last that long plus a margin
+     * @return true if any bonus is active afterwards
      */
-    private static void applySetBasedEffects(Player player, String major, int year) {
-        // Early skip: no armor worn at all
-        boolean anyArmor = false;
-        for (ItemStack stack : player.getArmorSlots()) {
-            if (!stack.isEmpty() && stack.getItem() instanceof ArmorItem) {
-                anyArmor = true;
-                break;
-            }
+    static boolean applySetBasedEffects(LivingEntity entity, String major, int year, int interval) {
+        SetEvaluationTrace trace = SetEvaluationTrace.of(entity);
+        if (trace != null) trace.begin(major.toLowerCase(), year);
+
+        SetBonusAggregate aggregate = new SetBonusAggregate();
+        int watched = collectActiveParts(entity, major.toLowerCase(), year, aggregate, trace);
+        if (entity instanceof Player player) {
+            SetConditionTracker.watch(player, watched);
         }
-        if (!anyArmor) {
-            removeOldZaubereiModifiers(player);
-            return;
+        if (trace != null) trace.lap(SetEvaluationTrace.Phase.COLLECT);
+        if (Config.SILENT_SET_EFFECTS.get()) {
+            List<? extends String> silent = Config.SILENT_SET_EFFECT_IDS.get();
+            List<Holder<MobEffect>> converted = aggregate.convertEffectsToAttributes(
+                    effect -> silent.contains(effect.getRegisteredName()));
+            removeSetEffectInstances(entity, converted, interval);
+            if (trace != null) trace.silenced(converted);
         }
-
-        Set<String> registeredTags = ArmorSetDataRegistry.getRegisteredTags(major.toLowerCase(), year);
-        if (registeredTags.isEmpty()) {
-            removeOldZaubereiModifiers(player);
-            return;
+        applyAttributes(entity, aggregate, trace);
+        if (trace != null) trace.lap(SetEvaluationTrace.Phase.ATTRIBUTES);
+        applySetEffects(entity, aggregate, interval, trace);
+        if (trace != null) trace.lap(SetEvaluationTrace.Phase.EFFECTS);
+        if (entity instanceof Player player) {
+            // Procs are only fired for players
+            updateProcs(player, aggregate);
         }
+        if (trace != null) trace.end(aggregate.procs().size());
+        return !aggregate.isEmpty();
+    }
 
-        Map<String, Integer> tagCounts = new HashMap<>();
-
-        // Count worn pieces per tag
-        for (String tagString : registeredTags) {
-            ResourceLocation tagLoc;
-            try {
-                tagLoc = ResourceLocation.parse(tagString);
-            } catch (Exception e) {
-                // Should not happen if validated in reload listener
-                continue;
-            }
-
-            TagKey<Item> tagKey = TagKey.create(Registries.ITEM, tagLoc);
-
-            int count = 0;
-            for (ItemStack stack : player.getArmorSlots()) {
-                if (!stack.isEmpty() && stack.is(tagKey)) {
-                    count++;
-                }
-            }
-
-            if (count > 0) {
-                tagCounts.put(tagString, count);
-            }
+    /** @return the condition inputs read by the worn sets, see {@link CompiledSet#conditionInputs()} */
+    private static int collectActiveParts(LivingEntity entity, String major, int year, SetBonusAggregate aggregate,
+                                          SetEvaluationTrace trace) {
+        // Worn pieces per tag over all enabled slot providers; recounted only after a slot change
+        Map<String, Integer> counts = SetPieceCounter.counts(entity, major, year);
+        if (counts.isEmpty()) {
+            return 0;
         }
 
-        if (tagCounts.isEmpty()) {
-            removeOldZaubereiModifiers(player);
-            return;
-        }
-
-        // Remove old modifiers ONCE, then apply all sets (stacking allowed)
-        removeOldZaubereiModifiers(player);
-
-        for (Map.Entry<String, Integer> entry : tagCounts.entrySet()) {
+        ConditionInputs inputs = null;
+        int watched = 0;
+        for (Map.Entry<String, Integer> entry : counts.entrySet()) {
             String tagString = entry.getKey();
             int count = entry.getValue();
 
-            ArmorSetData data = ArmorSetDataRegistry.getData(major.toLowerCase(), year, tagString);
-            if (data == null || data.getParts() == null) {
+            CompiledSet data = ArmorSetDataRegistry.getCompiled(major, year, tagString);
+            if (data == null) {
+                if (trace != null) trace.tag(tagString, count, null, null);
                 continue;
             }
 
-            ArmorSetData.PartData partData = data.getActivePartData(count);
-            if (partData == null) {
+            CompiledSet.Part part;
+            if (data.conditionInputs() == 0) {
+                part = data.activePart(count);
+            } else {
+                // Sampled once per evaluation, and only if a conditional set is worn
+                if (inputs == null) inputs = SetConditionTracker.sample(entity);
+                watched |= data.conditionInputs();
+                part = data.activePart(count, inputs);
+            }
+            if (trace != null) trace.tag(tagString, count, data, part);
+            if (part == null) {
                 // Player hasn't reached the first threshold yet
                 continue;
             }
 
-
-            applySetEffects(player, partData);
-            applyAttributes(player, partData, tagString);
-            ;
+            mergePart(part, aggregate);
         }
+        return watched;
     }
 
-    private static void applyAttributes(Player player, ArmorSetData.PartData partData, String tagString) {
-        if (partData.getAttributes() == null) {
-            return;
+    private static void mergePart(CompiledSet.Part part, SetBonusAggregate aggregate) {
+        // Holders are resolved at compile time, nothing to look up here
+        for (CompiledSet.AttributeEntry attribute : part.attributes()) {
+            aggregate.addAttribute(attribute.attribute(), attribute.operation(), attribute.value());
+        }
+        for (CompiledSet.EffectEntry effect : part.effects()) {
+            aggregate.addEffect(effect.effect(), effect.amplifier());
+        }
+        for (CompiledSet.ProcEntry proc : part.procs()) {
+            aggregate.addProc(proc);
         }
+    }
 
-        for (Map.Entry<String, ArmorSetData.AttributeData> entry : partData.getAttributes().entrySet()) {
-            String attributeName = entry.getKey();
-            ArmorSetData.AttributeData value = entry.getValue();
+    private static String operationName(AttributeModifier.Operation operation) {
+        return switch (operation) {
+            case ADD_VALUE -> "addition";
+            case ADD_MULTIPLIED_BASE -> "multiply_base";
+            case ADD_MULTIPLIED_TOTAL -> "multiply_total";
+        };
+    }
 
-            Holder.Reference<Attribute> attributeHolder = getAttributeHolder(attributeName);
-            if (attributeHolder == null) {
-                continue;
+    /**
+     * Brings the player's Zauberei modifiers in line with the aggregate:
+     * changed amounts are replaced, unchanged ones are left alone (no attribute
+     * recompute), and modifiers that are no longer wanted are removed.
+     */
+    private static void applyAttributes(LivingEntity entity, SetBonusAggregate aggregate, SetEvaluationTrace trace) {
+        Map<ResourceLocation, Holder<Attribute>> previous = APPLIED.get(entity.getUUID());
+        if (previous == null) {
+            // First evaluation for this player: clear anything left from older ids.
+            // Mobs never had set modifiers before this mode existed, so they skip the registry scan.
+            if (entity instanceof Player player) {
+                removeOldZaubereiModifiers(player);
             }
+            previous = Map.of();
+        }
+        if (aggregate.attributes().isEmpty() && previous.isEmpty()) {
+            APPLIED.put(entity.getUUID(), Map.of());
+            return;
+        }
 
-            AttributeModifier.Operation operation;
-            switch (value.getModifier().toLowerCase()) {
-                case "addition":
-                    operation = AttributeModifier.Operation.ADD_VALUE;
-                    break;
-                case "multiply":
-                case "multiply_base":
-                    operation = AttributeModifier.Operation.ADD_MULTIPLIED_BASE;
-                    break;
-                case "multiply_total":
-                    operation = AttributeModifier.Operation.ADD_MULTIPLIED_TOTAL;
-                    break;
-                default:
-                    // invalid modifier type -> skip
-                    continue;
-            }
+        Map<ResourceLocation, Holder<Attribute>> current = new HashMap<>();
+        for (Map.Entry<SetBonusAggregate.AttributeKey, Double> entry : aggregate.attributes().entrySet()) {
+            Holder<Attribute> attributeHolder = entry.getKey().attribute();
+            AttributeModifier.Operation operation = entry.getKey().operation();
 
-            AttributeInstance attributeInstance = player.getAttribute(attributeHolder);
+            AttributeInstance attributeInstance = entity.getAttribute(attributeHolder);
             if (attributeInstance == null) {
+                if (trace != null) trace.missingAttribute(attributeHolder, operation, entry.getValue());
                 continue;
             }
 
-            ResourceLocation modifierId = makeModifierId(attributeName, value.getModifier().toLowerCase(), tagString);
+            ResourceLocation modifierId = makeModifierId(attributeHolder.getRegisteredName(),
+                    operationName(operation), AGGREGATE_SCOPE);
             if (modifierId == null) {
                 continue;
             }
+            current.put(modifierId, attributeHolder);
 
-            AttributeModifier modifier = new AttributeModifier(
-                    modifierId,
-                    value.getValue(),
-                    operation
-            );
-
-            AttributeModifier existing = attributeInstance.getModifier(modifier.id());
+            AttributeModifier existing = attributeInstance.getModifier(modifierId);
+            double amount = entry.getValue();
             if (existing == null) {
-                attributeInstance.addTransientModifier(modifier);
-            } else if (existing.amount() != modifier.amount()
-                    || existing.operation() != modifier.operation()) {
-                attributeInstance.removeModifier(modifier.id());
-                attributeInstance.addTransientModifier(modifier);
+                AttributeModifier added = new AttributeModifier(modifierId, amount, operation);
+                attributeInstance.addTransientModifier(added);
+                if (trace != null) {
+                    trace.modifier(SetEvaluationTrace.Change.ADDED, modifierId, attributeHolder, null, added);
+                }
+            } else if (existing.amount() != amount || existing.operation() != operation) {
+                AttributeModifier replaced = new AttributeModifier(modifierId, amount, operation);
+                attributeInstance.removeModifier(modifierId);
+                attributeInstance.addTransientModifier(replaced);
+                if (trace != null) {
+                    trace.modifier(SetEvaluationTrace.Change.REPLACED, modifierId, attributeHolder, existing, replaced);
+                }
+            } else if (trace != null) {
+                trace.modifier(SetEvaluationTrace.Change.UNCHANGED, modifierId, attributeHolder, existing, existing);
             }
         }
+
+        for (Map.Entry<ResourceLocation, Holder<Attribute>> old : previous.entrySet()) {
+            if (current.containsKey(old.getKey())) continue;
+            AttributeInstance attributeInstance = entity.getAttribute(old.getValue());
+            if (attributeInstance != null) {
+                if (trace != null) {
+                    trace.modifier(SetEvaluationTrace.Change.REMOVED, old.getKey(), old.getValue(),
+                            attributeInstance.getModifier(old.getKey()), null);
+                }
+                attributeInstance.removeModifier(old.getKey());
+            }
+        }
+
+        APPLIED.put(entity.getUUID(), current.isEmpty() ? Map.of() : current);
     }
 
     private static void removeOldZaubereiModifiers(Player player) {
@@ -228,19 +342,6 @@ public class ArmorEffects {
         }
     }
 
-    private static Holder.Reference<Attribute> getAttributeHolder(String attributeName) {
-        ResourceLocation loc = tryMakeResourceLocation(attributeName);
-        if (loc == null) return null;
-
-        Attribute attribute = BuiltInRegistries.ATTRIBUTE.get(loc);
-        if (attribute == null) return null;
-
-        Optional<ResourceKey<Attribute>> optionalKey = BuiltInRegistries.ATTRIBUTE.getResourceKey(attribute);
-        if (optionalKey.isEmpty()) return null;
-
-        return BuiltInRegistries.ATTRIBUTE.getHolderOrThrow(optionalKey.get());
-    }
-
     public static ResourceLocation makeModifierId(String attributeName, String operation, String setScope) {
         int index = attributeName.indexOf(":");
         if (index == -1) {
@@ -261,42 +362,110 @@ public class ArmorEffects {
     }
 
 
-    private static void applySetEffects(Player player, ArmorSetData.PartData partData) {
-        if (partData.getEffects() == null) {
-            return;
-        }
-
-        for (ArmorSetData.EffectData effectData : partData.getEffects()) {
-            ResourceLocation effectLoc = tryMakeResourceLocation(effectData.getEffect());
-            if (effectLoc == null) {
+    /**
+     * Applies the strongest instance of each effect once. An effect is only
+     * re-sent when it is missing, weaker, or about to run out before the
+     * next evaluation. With {@code silent_set_effects}, eligible effects
+     * have already been moved into the attribute modifiers at this point.
+     */
+    private static void applySetEffects(LivingEntity entity, SetBonusAggregate aggregate, int interval,
+                                        SetEvaluationTrace trace) {
+        int duration = effectDuration(interval);
+        for (Map.Entry<Holder<MobEffect>, Integer> entry : aggregate.effects().entrySet()) {
+            int amplifier = entry.getValue();
+            MobEffectInstance active = entity.getEffect(entry.getKey());
+            if (active != null && active.getAmplifier() == amplifier
+                    && active.getDuration() > interval + REFRESH_MARGIN) {
+                if (trace != null) trace.effect(entry.getKey(), amplifier, active, false);
                 continue;
             }
+            if (trace != null) trace.effect(entry.getKey(), amplifier, active, true);
+            entity.addEffect(new MobEffectInstance(entry.getKey(), duration, amplifier, false, false, true));
+        }
+    }
 
-            MobEffect mobEffect = BuiltInRegistries.MOB_EFFECT.get(effectLoc);
-            if (mobEffect == null) {
-                continue;
+    /** Long enough to last until the next evaluation, which may be delayed a little. */
+    private static int effectDuration(int interval) {
+        return interval + EFFECT_MARGIN;
+    }
+
+    /**
+     * Removes instances of converted effects that an earlier, non-silent
+     * evaluation applied, so the bonus is not doubled until they run out.
+     * Only instances that look like ours (hidden particles, at most our
+     * duration) are touched; potions and beacons are left alone.
+     */
+    private static void removeSetEffectInstances(LivingEntity entity, List<Holder<MobEffect>> effects, int interval) {
+        for (Holder<MobEffect> effect : effects) {
+            MobEffectInstance active = entity.getEffect(effect);
+            if (active != null && !active.isAmbient() && !active.isVisible()
+                    && active.getDuration() <= effectDuration(interval)) {
+                entity.removeEffect(effect);
             }
+        }
+    }
 
-            int duration = 200; // 10 seconds
-            int amplifier = effectData.getAmplifier();
+    // ─── Procs ───────────────────────────────────────────────────────────
 
-            Optional<ResourceKey<MobEffect>> optionalKey = BuiltInRegistries.MOB_EFFECT.getResourceKey(mobEffect);
-            if (optionalKey.isEmpty()) {
-                continue;
+    private static void updateProcs(Player player, SetBonusAggregate aggregate) {
+        if (aggregate.procs().isEmpty()) {
+            PROCS.remove(player.getUUID());
+        } else {
+            PROCS.put(player.getUUID(), ProcIndex.of(aggregate.procs()));
+        }
+    }
+
+    /** on_hit for the attacking player, on_hurt for the damaged player. */
+    private static void onLivingDamage(LivingDamageEvent.Post event) {
+        if (PROCS.isEmpty() || event.getNewDamage() <= 0) {
+            return;
+        }
+        LivingEntity victim = event.getEntity();
+        if (victim.level().isClientSide()) {
+            return;
+        }
+        Entity attacker = event.getSource().getEntity();
+
+        if (attacker instanceof ServerPlayer player && attacker != victim) {
+            ProcIndex index = PROCS.get(player.getUUID());
+            if (index != null) {
+                fireProcs(index.onHit(), player, victim);
             }
-            Holder.Reference<MobEffect> effectHolder = BuiltInRegistries.MOB_EFFECT.getHolderOrThrow(optionalKey.get());
+        }
+        if (victim instanceof ServerPlayer player) {
+            ProcIndex index = PROCS.get(player.getUUID());
+            if (index != null) {
+                fireProcs(index.onHurt(), player, attacker instanceof LivingEntity living ? living : null);
+            }
+        }
+    }
 
-            player.addEffect(new MobEffectInstance(effectHolder, duration, amplifier, false, false, true));
+    private static void onLivingDeath(LivingDeathEvent event) {
+        if (PROCS.isEmpty() || event.getEntity().level().isClientSide()) {
+            return;
+        }
+        if (event.getSource().getEntity() instanceof ServerPlayer player && player != event.getEntity()) {
+            ProcIndex index = PROCS.get(player.getUUID());
+            if (index != null) {
+                fireProcs(index.onKill(), player, event.getEntity());
+            }
         }
     }
 
-    private static ResourceLocation tryMakeResourceLocation(String name) {
-        if (name == null) return null;
-        String s = name.contains(":") ? name : "minecraft:" + name;
-        try {
-            return ResourceLocation.parse(s);
-        } catch (Exception e) {
-            return null;
+    private static void fireProcs(CompiledSet.ProcEntry[] procs, ServerPlayer player, LivingEntity other) {
+        for (CompiledSet.ProcEntry proc : procs) {
+            if (proc.chance() < 1 && player.getRandom().nextFloat() >= proc.chance()) {
+                continue;
+            }
+            if (proc.effect() != null) {
+                LivingEntity target = proc.targetSelf() ? player : other;
+                if (target != null && target.isAlive()) {
+                    target.addEffect(new MobEffectInstance(proc.effect(), proc.duration(), proc.amplifier()), player);
+                }
+            }
+            if (proc.heal() > 0 && player.isAlive()) {
+                player.heal(proc.heal());
+            }
         }
     }
 }
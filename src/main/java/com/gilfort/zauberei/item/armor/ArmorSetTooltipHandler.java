@@ -1,19 +1,18 @@
 package com.gilfort.zauberei.item.armor;
 
 import com.gilfort.zauberei.component.ComponentRegistry;
-import com.gilfort.zauberei.item.armorbonus.ArmorSetData;
 import com.gilfort.zauberei.item.armorbonus.ArmorSetDataRegistry;
+import com.gilfort.zauberei.item.armorbonus.CompiledSet;
 import net.minecraft.ChatFormatting;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.gui.screens.Screen;
 import net.minecraft.client.gui.screens.inventory.AbstractContainerScreen;
-import net.minecraft.core.registries.BuiltInRegistries;
 import net.minecraft.core.registries.Registries;
 import net.minecraft.network.chat.Component;
+import net.minecraft.network.chat.MutableComponent;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.tags.TagKey;
-import net.minecraft.world.effect.MobEffect;
-import net.minecraft.world.entity.ai.attributes.Attribute;
+import net.minecraft.world.entity.ai.attributes.AttributeModifier;
 import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.item.ArmorItem;
 import net.minecraft.world.item.Item;
@@ -26,7 +25,6 @@ import net.neoforged.neoforge.event.entity.player.ItemTooltipEvent;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 
 /**
@@ -128,8 +126,8 @@ public static void onMouseScroll(ScreenEvent.MouseScrolled.Pre event) {
     public static void onItemTooltip(ItemTooltipEvent event) {
         ItemStack stack = event.getItemStack();
 
-        // Guard 1: Only ArmorItems
-        if (!(stack.getItem() instanceof ArmorItem)) return;
+        // Guard 1: Only ArmorItems, unless other slots (offhand, curios) count as well
+        if (!(stack.getItem() instanceof ArmorItem) && !EquipmentSlotProviders.hasExtraSlots()) return;
 
         // Guard 2: Does this item belong to ANY registered set tag?
         if (!ArmorSetDataRegistry.isItemInAnyRegisteredTag(stack)) return;
@@ -240,24 +238,15 @@ public static void onMouseScroll(ScreenEvent.MouseScrolled.Pre event) {
         TagKey<Item> tagKey = TagKey.create(Registries.ITEM, tagLoc);
 
         // Count worn pieces for this tag
-        int wornParts = 0;
-        for (ItemStack armorStack : player.getArmorSlots()) {
-            if (!armorStack.isEmpty() && armorStack.is(tagKey)) {
-                wornParts++;
-            }
-        }
+        int wornParts = EquipmentSlotProviders.countMatching(player, tagKey);
 
-        ArmorSetData data = ArmorSetDataRegistry.getData(major.toLowerCase(), year, tagString);
-        if (data == null || data.getParts() == null) return;
+        // Shared compiled form: this runs every frame while the tooltip is shown, so nothing is copied
+        CompiledSet data = ArmorSetDataRegistry.getCompiled(major.toLowerCase(), year, tagString);
+        if (data == null || data.parts().length == 0) return;
 
-        // Determine the maximum part threshold defined in the set
-        int maxParts = data.getParts().keySet().stream()
-                .map(k -> k.replace("Part", ""))
-                .mapToInt(s -> {
-                    try { return Integer.parseInt(s); } catch (NumberFormatException e) { return 0; }
-                })
-                .max()
-                .orElse(0);
+        // Parts are sorted by threshold, the last one is the maximum
+        CompiledSet.Part[] parts = data.parts();
+        int maxParts = parts[parts.length - 1].threshold();
 
         // ── Header line ──────────────────────────────────────────────────
         // Single set:    [Set Bonus 2/4]
@@ -276,18 +265,12 @@ public static void onMouseScroll(ScreenEvent.MouseScrolled.Pre event) {
 
 
         // ── Part data: highest threshold ≤ worn pieces ───────────────────
-        ArmorSetData.PartData partData = data.getActivePartData(wornParts);
+        CompiledSet.Part partData = data.activePart(wornParts);
 
         if (partData == null) {
             // Player hasn't reached ANY threshold yet → show hint for first one
-            int firstThreshold = data.getParts().keySet().stream()
-                    .map(k -> k.replace("Part", ""))
-                    .mapToInt(s -> {
-                        try { return Integer.parseInt(s); } catch (NumberFormatException e) { return Integer.MAX_VALUE; }
-                    })
-                    .min()
-                    .orElse(0);
-            if (firstThreshold > 0 && firstThreshold != Integer.MAX_VALUE) {
+            int firstThreshold = parts[0].threshold();
+            if (firstThreshold > 0) {
                 event.getToolTip().add(Component.literal(
                                 "  Equip " + (firstThreshold - wornParts) + " more piece(s) for a bonus")
                         .withStyle(ChatFormatting.GRAY));
@@ -295,69 +278,39 @@ public static void onMouseScroll(ScreenEvent.MouseScrolled.Pre event) {
             return;
         }
 
-        // ── Optional: Show next upgrade hint ─────────────────────────────
-        // If there's a higher threshold the player hasn't reached yet, hint at it.
-        int nextThreshold = -1;
-        for (String key : data.getParts().keySet()) {
-            String numStr = key.replace("Part", "");
-            try {
-                int t = Integer.parseInt(numStr);
-                if (t > wornParts && (nextThreshold == -1 || t < nextThreshold)) {
-                    nextThreshold = t;
-                }
-            } catch (NumberFormatException e) { /* skip */ }
-        }
 
+        // --- Render Conditions ---
+        CompiledSet.Conditions conditions = partData.conditions();
+        if (conditions != null) {
+            event.getToolTip().add(Component.literal("Requires: " + describeConditions(conditions))
+                    .withStyle(ChatFormatting.GRAY));
+        }
 
         // --- Render Effects ---
-        if (partData.getEffects() != null && !partData.getEffects().isEmpty()) {
-            for (ArmorSetData.EffectData effect : partData.getEffects()) {
-                ResourceLocation effectLoc;
-                try {
-                    effectLoc = ResourceLocation.parse(effect.getEffect());
-                } catch (Exception e) {
-                    continue;
-                }
-
-                MobEffect mobEffect = BuiltInRegistries.MOB_EFFECT.get(effectLoc);
-                if (mobEffect == null) continue;
-
-                Component effectName = mobEffect.getDisplayName();
-                int level = effect.getAmplifier() + 1;
-                Component levelRoman = Component.translatable("enchantment.level." + level);
-
-                event.getToolTip().add(Component.literal("- ")
-                        .append(effectName)
-                        .append(" ")
-                        .append(levelRoman)
-                        .withStyle(ChatFormatting.DARK_PURPLE));
-            }
+        // Compiled entries carry resolved holders; unknown ids were dropped when the set was loaded
+        for (CompiledSet.EffectEntry effect : partData.effects()) {
+            Component effectName = effect.effect().value().getDisplayName();
+            int level = effect.amplifier() + 1;
+            Component levelRoman = Component.translatable("enchantment.level." + level);
+
+            event.getToolTip().add(Component.literal("- ")
+                    .append(effectName)
+                    .append(" ")
+                    .append(levelRoman)
+                    .withStyle(ChatFormatting.DARK_PURPLE));
         }
 
         // --- Render Attributes ---
-        if (partData.getAttributes() != null && !partData.getAttributes().isEmpty()) {
+        if (partData.attributes().length > 0) {
             event.getToolTip().add(Component.literal("[Bonus Attributes]")
                     .withStyle(ChatFormatting.AQUA));
 
-            for (Map.Entry<String, ArmorSetData.AttributeData> attr : partData.getAttributes().entrySet()) {
-                ResourceLocation attrLoc;
-                try {
-                    attrLoc = ResourceLocation.parse(attr.getKey());
-                } catch (Exception e) {
-                    continue;
-                }
-
-                Attribute attribute = BuiltInRegistries.ATTRIBUTE.get(attrLoc);
-                if (attribute == null) continue;
-
-                Component attributeName = Component.translatable(attribute.getDescriptionId());
-                double rawValue = attr.getValue().getValue();
-                String modifier = attr.getValue().getModifier();
+            for (CompiledSet.AttributeEntry attr : partData.attributes()) {
+                Component attributeName = Component.translatable(attr.attribute().value().getDescriptionId());
+                double rawValue = attr.value();
 
                 String displayValue;
-                if (modifier != null && (modifier.equalsIgnoreCase("multiply")
-                        || modifier.equalsIgnoreCase("multiply_base")
-                        || modifier.equalsIgnoreCase("multiply_total"))) {
+                if (attr.operation() != AttributeModifier.Operation.ADD_VALUE) {
                     displayValue = String.format("+%.0f%%", rawValue * 100);
                 } else {
                     displayValue = (rawValue == (long) rawValue)
@@ -371,16 +324,69 @@ public static void onMouseScroll(ScreenEvent.MouseScrolled.Pre event) {
                         .withStyle(ChatFormatting.GREEN));
             }
         }
+
+        // --- Render Procs ---
+        if (partData.procs().length > 0) {
+            event.getToolTip().add(Component.literal("[Procs]")
+                    .withStyle(ChatFormatting.AQUA));
+
+            for (CompiledSet.ProcEntry proc : partData.procs()) {
+                MutableComponent line = Component.literal(
+                        String.format("%.0f%% %s: ", proc.chance() * 100, proc.trigger().id().replace('_', ' ')));
+                boolean first = true;
+                if (proc.effect() != null) {
+                    line.append(proc.effect().value().getDisplayName())
+                            .append(" ")
+                            .append(Component.translatable("enchantment.level." + (proc.amplifier() + 1)))
+                            .append(String.format(" (%.1fs)", proc.duration() / 20.0));
+                    if (!proc.targetSelf()) {
+                        line.append(" \u2192 target");
+                    }
+                    first = false;
+                }
+                if (proc.heal() > 0) {
+                    line.append((first ? "" : ", ") + String.format("heal %.1f", proc.heal()));
+                }
+                event.getToolTip().add(line.withStyle(ChatFormatting.YELLOW));
+            }
+        }
+    }
+
+    /** e.g. {@code "minecraft:overworld, night, in water"} */
+    private static String describeConditions(CompiledSet.Conditions conditions) {
+        List<String> parts = new ArrayList<>();
+        if (conditions.dimensions() != null) {
+            parts.add(anyOf(conditions.dimensions().stream().map(k -> k.location().toString()).toList()));
+        }
+        if (conditions.biomes() != null || conditions.biomeTags() != null) {
+            List<String> biomes = new ArrayList<>();
+            if (conditions.biomes() != null) conditions.biomes().forEach(k -> biomes.add(k.location().toString()));
+            if (conditions.biomeTags() != null) conditions.biomeTags().forEach(t -> biomes.add("#" + t.location()));
+            parts.add(anyOf(biomes));
+        }
+        if (conditions.night() != null) {
+            parts.add(conditions.night() ? "night" : "day");
+        } else if (conditions.time() != null) {
+            parts.add("invalid time '" + conditions.time() + "'");
+        }
+        if (conditions.inWater() != null) parts.add(conditions.inWater() ? "in water" : "out of water");
+        String described = String.join(", ", parts);
+        return conditions.never() ? described + " (never met)" : described;
+    }
+
+    /** An empty list is a condition without a valid value. */
+    private static String anyOf(List<String> ids) {
+        return ids.isEmpty() ? "no valid id" : String.join(" or ", ids);
     }
 
     // ─── Set Name Resolution ─────────────────────────────────────────────
 
     /**
-     * Resolves a human-readable set name from an {@link ArmorSetData} and its tag.
+     * Resolves a human-readable set name from a {@link CompiledSet} and its tag.
      *
      * <p>Resolution order:</p>
      * <ol>
-     *   <li>{@code data.getDisplayName()} — explicit name from JSON (e.g. "Magiccloth Robes")</li>
+     *   <li>{@code data.displayName()} — explicit name from JSON (e.g. "Magiccloth Robes")</li>
      *   <li>Fallback: derive from tag path — strips common suffixes like {@code _armor},
      *       replaces underscores with spaces, and title-cases each word.
      *       Example: {@code "zauberei:magiccloth_armor"} → {@code "Magiccloth"}</li>
@@ -390,10 +396,10 @@ public static void onMouseScroll(ScreenEvent.MouseScrolled.Pre event) {
      * @param tagString the full tag string, e.g. "zauberei:magiccloth_armor"
      * @return a formatted display name, never null
      */
-    private static String resolveSetName(ArmorSetData data, String tagString) {
+    private static String resolveSetName(CompiledSet data, String tagString) {
         // Priority 1: explicit displayName from JSON
-        if (data != null && data.getDisplayName() != null && !data.getDisplayName().isBlank()) {
-            return data.getDisplayName();
+        if (data != null && data.displayName() != null && !data.displayName().isBlank()) {
+            return data.displayName();
         }
 
         // Priority 2: derive from tag path
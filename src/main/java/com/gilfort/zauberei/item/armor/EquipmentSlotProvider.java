@@ -0,0 +1,33 @@
+package com.gilfort.zauberei.item.armor;
+
+import net.minecraft.world.entity.LivingEntity;
+import net.minecraft.world.item.ItemStack;
+
+import java.util.function.Consumer;
+
+/**
+ * A group of equipment slots whose stacks count towards armor sets.
+ *
+ * <p>Register implementations with {@link EquipmentSlotProviders#register};
+ * which providers are active is chosen in the config
+ * ({@code set_slot_providers}).</p>
+ *
+ * <p>Set piece counts are cached per entity and only recounted after a
+ * provider reported a change, so providers must report every change of the
+ * stacks they expose through {@link #listen}, typically from an equipment
+ * change event of the owning mod.</p>
+ */
+public interface EquipmentSlotProvider {
+
+    /** Config id, e.g. {@code "armor"} or {@code "curios"}. */
+    String id();
+
+    /** Passes every stack in this provider's slots; empty stacks may be included. */
+    void forEachStack(LivingEntity entity, Consumer<ItemStack> action);
+
+    /**
+     * Called once on registration. {@code onChange} must be invoked with the
+     * entity whenever the stacks this provider exposes for it may have changed.
+     */
+    void listen(Consumer<LivingEntity> onChange);
+}
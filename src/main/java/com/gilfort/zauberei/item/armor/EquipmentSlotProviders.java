@@ -0,0 +1,118 @@
+package com.gilfort.zauberei.item.armor;
+
+import com.gilfort.zauberei.Config;
+import com.gilfort.zauberei.Zauberei;
+import net.minecraft.tags.TagKey;
+import net.minecraft.world.entity.EquipmentSlot;
+import net.minecraft.world.entity.LivingEntity;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.neoforged.neoforge.common.NeoForge;
+import net.neoforged.neoforge.event.entity.living.LivingEquipmentChangeEvent;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Registry of {@link EquipmentSlotProvider}s and the entry point for
+ * everything that counts worn set pieces.
+ *
+ * <p>Built in are {@code armor} (the four armor slots, enabled by default)
+ * and {@code offhand}. Compat providers, like Curios, are registered from
+ * the mod constructor when their mod is loaded.</p>
+ */
+public final class EquipmentSlotProviders {
+
+    public static final String ARMOR = "armor";
+    public static final String OFFHAND = "offhand";
+
+    private static final Map<String, EquipmentSlotProvider> PROVIDERS = new ConcurrentHashMap<>();
+
+    private EquipmentSlotProviders() {}
+
+    /** Registers the built-in providers; called once from {@link ArmorEffects#register}. */
+    static void registerDefaults() {
+        register(new EquipmentSlotProvider() {
+            @Override public String id() { return ARMOR; }
+
+            @Override
+            public void forEachStack(LivingEntity entity, Consumer<ItemStack> action) {
+                for (ItemStack stack : entity.getArmorSlots()) {
+                    action.accept(stack);
+                }
+            }
+
+            @Override
+            public void listen(Consumer<LivingEntity> onChange) {
+                NeoForge.EVENT_BUS.addListener(LivingEquipmentChangeEvent.class, event -> {
+                    if (event.getSlot().getType() == EquipmentSlot.Type.HUMANOID_ARMOR) {
+                        onChange.accept(event.getEntity());
+                    }
+                });
+            }
+        });
+        register(new EquipmentSlotProvider() {
+            @Override public String id() { return OFFHAND; }
+
+            @Override
+            public void forEachStack(LivingEntity entity, Consumer<ItemStack> action) {
+                action.accept(entity.getOffhandItem());
+            }
+
+            @Override
+            public void listen(Consumer<LivingEntity> onChange) {
+                NeoForge.EVENT_BUS.addListener(LivingEquipmentChangeEvent.class, event -> {
+                    if (event.getSlot() == EquipmentSlot.OFFHAND) {
+                        onChange.accept(event.getEntity());
+                    }
+                });
+            }
+        });
+    }
+
+    public static void register(EquipmentSlotProvider provider) {
+        if (PROVIDERS.putIfAbsent(provider.id(), provider) != null) {
+            Zauberei.LOGGER.warn("[Zauberei] Equipment slot provider '{}' is already registered", provider.id());
+            return;
+        }
+        provider.listen(entity -> onChange(provider.id(), entity));
+        Zauberei.LOGGER.info("[Zauberei] Registered equipment slot provider '{}'", provider.id());
+    }
+
+    private static void onChange(String id, LivingEntity entity) {
+        SetPieceCounter.invalidate(entity);
+        if (Config.SET_SLOT_PROVIDERS.get().contains(id)) {
+            MobSetBonuses.onSlotChange(entity);
+        }
+    }
+
+    /** Passes the stacks of every enabled provider. */
+    public static void forEachStack(LivingEntity entity, Consumer<ItemStack> action) {
+        List<? extends String> enabled = Config.SET_SLOT_PROVIDERS.get();
+        for (String id : enabled) {
+            EquipmentSlotProvider provider = PROVIDERS.get(id);
+            if (provider != null) {
+                provider.forEachStack(entity, action);
+            }
+        }
+    }
+
+    /** Number of stacks in enabled slots that belong to {@code tag}. */
+    public static int countMatching(LivingEntity entity, TagKey<Item> tag) {
+        int[] count = {0};
+        forEachStack(entity, stack -> {
+            if (!stack.isEmpty() && stack.is(tag)) count[0]++;
+        });
+        return count[0];
+    }
+
+    /** True if a provider other than {@code armor} is enabled, so set pieces need not be armor items. */
+    public static boolean hasExtraSlots() {
+        for (String id : Config.SET_SLOT_PROVIDERS.get()) {
+            if (!ARMOR.equals(id)) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,201 @@
+package com.gilfort.zauberei.item.armor;
+
+import com.gilfort.zauberei.Config;
+import com.gilfort.zauberei.item.armorbonus.ArmorSetDataRegistry;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.entity.LivingEntity;
+import net.minecraft.world.entity.player.Player;
+import net.neoforged.neoforge.common.NeoForge;
+import net.neoforged.neoforge.event.entity.EntityLeaveLevelEvent;
+import net.neoforged.neoforge.event.server.ServerStoppedEvent;
+import net.neoforged.neoforge.event.tick.ServerTickEvent;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+
+/**
+ * Set bonuses for non-player entities (opt-in, {@code mob_set_bonuses}).
+ *
+ * <p>Mobs are not polled. An entity is only tracked after a slot of one of
+ * the enabled {@link EquipmentSlotProviders} changed and it wears an item of
+ * a registered set tag (this also fires for entities loaded from disk with
+ * armor on), and it is dropped again once it wears no set piece any more or
+ * leaves the level.</p>
+ *
+ * <p>Tracked entities sit in a queue ordered by their next due tick. The
+ * interval depends on the distance to the nearest player: mobs close to a
+ * player are evaluated about as often as players, distant ones rarely.
+ * Entities in chunks that are not entity-ticking are postponed without
+ * being evaluated. At most {@link #MAX_EVALUATIONS_PER_TICK} entities are
+ * evaluated per server tick; the rest stay due for the next tick. Set
+ * effects are applied for the entity's interval plus a margin, so they do
+ * not run out between two evaluations.</p>
+ */
+final class MobSetBonuses {
+
+    private static final int MAX_EVALUATIONS_PER_TICK = 64;
+
+    // Distance tiers (squared blocks) and their intervals in ticks
+    private static final double NEAR_SQR = 32 * 32;
+    private static final double MID_SQR = 96 * 96;
+    private static final double FAR = 192;
+    private static final int NEAR_INTERVAL = 60;
+    private static final int MID_INTERVAL = 200;
+    private static final int FAR_INTERVAL = 600;
+    private static final int NO_PLAYER_INTERVAL = 1200;
+    /** Retry delay for entities in chunks that are not ticking. */
+    private static final int NOT_TICKING_INTERVAL = 200;
+
+    private static final class Tracked {
+        final LivingEntity entity;
+        long due;
+
+        Tracked(LivingEntity entity, long due) {
+            this.entity = entity;
+            this.due = due;
+        }
+    }
+
+    /** Queue entry; stale when {@code due} no longer matches the tracked entity's due tick. */
+    private record Scheduled(long due, Tracked tracked) {}
+
+    private static final Map<UUID, Tracked> TRACKED = new HashMap<>();
+    private static final PriorityQueue<Scheduled> QUEUE =
+            new PriorityQueue<>(Comparator.comparingLong(Scheduled::due));
+
+    private MobSetBonuses() {}
+
+    static void register() {
+        NeoForge.EVENT_BUS.addListener(MobSetBonuses::onLeaveLevel);
+        NeoForge.EVENT_BUS.addListener(MobSetBonuses::onServerTick);
+        NeoForge.EVENT_BUS.addListener(MobSetBonuses::onServerStopped);
+    }
+
+    // ─── Events ──────────────────────────────────────────────────────────
+
+    /** A slot of an enabled provider changed; called by {@link EquipmentSlotProviders}. */
+    static void onSlotChange(LivingEntity entity) {
+        if (entity instanceof Player || !(entity.level() instanceof ServerLevel level)
+                || !Config.MOB_SET_BONUSES.get()) {
+            return;
+        }
+
+        long now = level.getServer().getTickCount();
+        Tracked tracked = TRACKED.get(entity.getUUID());
+        if (tracked == null) {
+            if (!wearsSetPiece(entity)) {
+                return;
+            }
+            tracked = new Tracked(entity, now);
+            TRACKED.put(entity.getUUID(), tracked);
+        } else if (tracked.due <= now) {
+            return; // already due
+        }
+        // Evaluate on the next server tick; several slot changes in one tick collapse into one evaluation
+        schedule(tracked, now);
+    }
+
+    private static void onLeaveLevel(EntityLeaveLevelEvent event) {
+        if (!TRACKED.isEmpty() && event.getEntity() instanceof LivingEntity entity
+                && TRACKED.remove(entity.getUUID()) != null) {
+            // Modifiers are transient; a reloaded entity starts fresh through its equipment event
+            ArmorEffects.forget(entity);
+        }
+    }
+
+    private static void onServerStopped(ServerStoppedEvent event) {
+        TRACKED.clear();
+        QUEUE.clear();
+    }
+
+    private static void onServerTick(ServerTickEvent.Post event) {
+        if (QUEUE.isEmpty()) {
+            return;
+        }
+        MinecraftServer server = event.getServer();
+        if (!Config.MOB_SET_BONUSES.get()) {
+            disableAll();
+            return;
+        }
+
+        long now = server.getTickCount();
+        int year = Config.MOB_SET_YEAR.get();
+        int evaluated = 0;
+        while (!QUEUE.isEmpty() && QUEUE.peek().due() <= now && evaluated < MAX_EVALUATIONS_PER_TICK) {
+            Scheduled next = QUEUE.poll();
+            Tracked tracked = next.tracked();
+            if (tracked.due != next.due() || TRACKED.get(tracked.entity.getUUID()) != tracked) {
+                continue; // rescheduled or untracked since
+            }
+            LivingEntity entity = tracked.entity;
+            if (entity.isRemoved() || !(entity.level() instanceof ServerLevel level)) {
+                untrack(entity);
+                continue;
+            }
+            if (!level.isPositionEntityTicking(entity.blockPosition())) {
+                schedule(tracked, now + NOT_TICKING_INTERVAL);
+                continue;
+            }
+
+            evaluated++;
+            int interval = intervalFor(entity, level);
+            boolean active = ArmorEffects.applySetBasedEffects(entity, ArmorSetDataRegistry.WILDCARD_MAJOR, year,
+                    interval);
+            if (active || wearsSetPiece(entity)) {
+                // Set pieces without an active bonus stay tracked: more pieces or conditions may activate it
+                schedule(tracked, now + interval);
+            } else {
+                // No set armor left; the next armor change tracks it again
+                untrack(entity);
+            }
+        }
+    }
+
+    // ─── Scheduling ──────────────────────────────────────────────────────
+
+    private static void schedule(Tracked tracked, long due) {
+        tracked.due = due;
+        QUEUE.add(new Scheduled(due, tracked));
+    }
+
+    private static int intervalFor(LivingEntity entity, ServerLevel level) {
+        Player nearest = level.getNearestPlayer(entity.getX(), entity.getY(), entity.getZ(), FAR, false);
+        if (nearest == null) return NO_PLAYER_INTERVAL;
+        double distanceSqr = nearest.distanceToSqr(entity);
+        if (distanceSqr <= NEAR_SQR) return NEAR_INTERVAL;
+        if (distanceSqr <= MID_SQR) return MID_INTERVAL;
+        return FAR_INTERVAL;
+    }
+
+    private static boolean wearsSetPiece(LivingEntity entity) {
+        boolean[] found = {false};
+        EquipmentSlotProviders.forEachStack(entity, stack -> {
+            if (!found[0] && !stack.isEmpty() && ArmorSetDataRegistry.isItemInAnyRegisteredTag(stack)) found[0] = true;
+        });
+        return found[0];
+    }
+
+    private static void untrack(LivingEntity entity) {
+        TRACKED.remove(entity.getUUID());
+        ArmorEffects.forget(entity);
+    }
+
+    /** The option was switched off: remove the bonuses of every tracked entity. */
+    private static void disableAll() {
+        List<Tracked> all = new ArrayList<>(TRACKED.values());
+        TRACKED.clear();
+        QUEUE.clear();
+        for (Tracked tracked : all) {
+            if (!tracked.entity.isRemoved()) {
+                ArmorEffects.removeSetBonuses(tracked.entity);
+            }
+            ArmorEffects.forget(tracked.entity);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.gilfort.zauberei.item.armor;
+
+import com.gilfort.zauberei.item.armorbonus.CompiledSet;
+import net.minecraft.core.Holder;
+import net.minecraft.world.effect.MobEffect;
+import net.minecraft.world.entity.ai.attributes.Attribute;
+import net.minecraft.world.entity.ai.attributes.AttributeModifier;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * The combined output of all active set parts of one entity.
+ *
+ * <p>Every (attribute, operation) pair collapses into a single amount and
+ * every effect into its strongest amplifier, so the number of modifiers and
+ * effect updates depends on the distinct outputs, not on how many sets
+ * overlap.</p>
+ *
+ * <p>Combining follows vanilla's own math, so the final attribute value is
+ * the same as with one modifier per set:</p>
+ * <ul>
+ *   <li>{@code ADD_VALUE}, {@code ADD_MULTIPLIED_BASE}: amounts are summed</li>
+ *   <li>{@code ADD_MULTIPLIED_TOTAL}: factors multiply, {@code (1+a)(1+b) - 1}</li>
+ * </ul>
+ *
+ * <p>Procs are not combined; every active proc rolls on its own.</p>
+ */
+public class SetBonusAggregate {
+
+    public record AttributeKey(Holder<Attribute> attribute, AttributeModifier.Operation operation) {}
+
+    private final Map<AttributeKey, Double> attributes = new HashMap<>();
+    private final Map<Holder<MobEffect>, Integer> effects = new HashMap<>();
+    private final List<CompiledSet.ProcEntry> procs = new ArrayList<>();
+
+    public void addAttribute(Holder<Attribute> attribute, AttributeModifier.Operation operation, double amount) {
+        attributes.merge(new AttributeKey(attribute, operation), amount,
+                operation == AttributeModifier.Operation.ADD_MULTIPLIED_TOTAL
+                        ? (a, b) -> (1 + a) * (1 + b) - 1
+                        : Double::sum);
+    }
+
+    public void addEffect(Holder<MobEffect> effect, int amplifier) {
+        effects.merge(effect, amplifier, Math::max);
+    }
+
+    /**
+     * Replaces the effects accepted by {@code eligible} with the attribute
+     * modifiers the effect itself applies at that amplifier (e.g. speed →
+     * {@code movement_speed}), merged like any other attribute.
+     *
+     * @return the effects that were converted
+     */
+    public List<Holder<MobEffect>> convertEffectsToAttributes(Predicate<Holder<MobEffect>> eligible) {
+        List<Holder<MobEffect>> converted = new ArrayList<>();
+        Iterator<Map.Entry<Holder<MobEffect>, Integer>> it = effects.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Holder<MobEffect>, Integer> entry = it.next();
+            if (!eligible.test(entry.getKey())) continue;
+            entry.getKey().value().createModifiers(entry.getValue(),
+                    (attribute, modifier) -> addAttribute(attribute, modifier.operation(), modifier.amount()));
+            converted.add(entry.getKey());
+            it.remove();
+        }
+        return converted;
+    }
+
+    public void addProc(CompiledSet.ProcEntry proc) {
+        procs.add(proc);
+    }
+
+    public Map<AttributeKey, Double> attributes() {
+        return attributes;
+    }
+
+    public Map<Holder<MobEffect>, Integer> effects() {
+        return effects;
+    }
+
+    public List<CompiledSet.ProcEntry> procs() {
+        return procs;
+    }
+
+    public boolean isEmpty() {
+        return attributes.isEmpty() && effects.isEmpty() && procs.isEmpty();
+    }
+}
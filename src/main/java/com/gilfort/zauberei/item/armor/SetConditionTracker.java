@@ -0,0 +1,159 @@
+package com.gilfort.zauberei.item.armor;
+
+import com.gilfort.zauberei.item.armorbonus.CompiledSet;
+import com.gilfort.zauberei.item.armorbonus.ConditionInputs;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Holder;
+import net.minecraft.core.SectionPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.world.entity.LivingEntity;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.biome.Biome;
+import net.neoforged.neoforge.common.NeoForge;
+import net.neoforged.neoforge.event.entity.player.PlayerEvent;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Cached condition inputs (dimension, biome, day/night, in water) per player.
+ *
+ * <p>The inputs only change on transitions, so they are kept here and tested
+ * against instead of being queried per evaluation. Each tick only the inputs
+ * read by the conditional sets the player currently wears are checked, and
+ * only cheaply: the biome is looked up again only after the player crossed
+ * into another chunk section. Dimension changes and respawns arrive as
+ * events. A change reported by {@link #tick} triggers an immediate
+ * re-evaluation of the player's set bonuses; players without conditional
+ * sets cost one map lookup per tick.</p>
+ */
+final class SetConditionTracker {
+
+    private static final int ALL_INPUTS = CompiledSet.INPUT_DIMENSION | CompiledSet.INPUT_BIOME
+            | CompiledSet.INPUT_TIME | CompiledSet.INPUT_WATER;
+
+    private static final Map<UUID, State> STATES = new HashMap<>();
+
+    /** Last known inputs of one player. */
+    static final class State implements ConditionInputs {
+        private ResourceKey<Level> dimension;
+        private Holder<Biome> biome;
+        private long section = Long.MIN_VALUE;
+        private boolean night;
+        private boolean inWater;
+        /** Inputs read by the conditional sets the player wore at the last evaluation. */
+        private int watched;
+        /** Set by events; forces a full resample and a re-evaluation. */
+        private boolean dirty;
+
+        @Override public ResourceKey<Level> dimension() { return dimension; }
+        @Override public Holder<Biome> biome() { return biome; }
+        @Override public boolean night() { return night; }
+        @Override public boolean inWater() { return inWater; }
+    }
+
+    private SetConditionTracker() {}
+
+    static void register() {
+        NeoForge.EVENT_BUS.addListener(SetConditionTracker::onChangedDimension);
+        NeoForge.EVENT_BUS.addListener(SetConditionTracker::onRespawn);
+        NeoForge.EVENT_BUS.addListener(SetConditionTracker::onLogout);
+    }
+
+    /**
+     * Checks the watched inputs of a player.
+     *
+     * @return true if one of them changed and the set bonuses should be re-evaluated now
+     */
+    static boolean tick(Player player) {
+        State state = STATES.get(player.getUUID());
+        if (state == null || state.watched == 0) {
+            return false;
+        }
+        if (state.dirty) {
+            refresh(player, state, ALL_INPUTS);
+            state.dirty = false;
+            return true;
+        }
+        return refresh(player, state, state.watched);
+    }
+
+    /**
+     * Up-to-date inputs for an evaluation. Only players keep their state between
+     * evaluations; other entities get a one-off sample.
+     */
+    static State sample(LivingEntity entity) {
+        if (!(entity instanceof Player player)) {
+            State state = new State();
+            refresh(entity, state, ALL_INPUTS);
+            return state;
+        }
+        State state = STATES.computeIfAbsent(player.getUUID(), id -> new State());
+        refresh(player, state, ALL_INPUTS);
+        state.dirty = false;
+        return state;
+    }
+
+    /** Records which inputs the player's conditional sets read, see {@link CompiledSet#conditionInputs()}. */
+    static void watch(Player player, int inputs) {
+        State state = STATES.get(player.getUUID());
+        if (state != null) {
+            state.watched = inputs;
+        }
+    }
+
+    private static boolean refresh(LivingEntity entity, State state, int inputs) {
+        Level level = entity.level();
+        boolean changed = false;
+        if ((inputs & CompiledSet.INPUT_DIMENSION) != 0 && level.dimension() != state.dimension) {
+            state.dimension = level.dimension();
+            changed = true;
+        }
+        if ((inputs & CompiledSet.INPUT_BIOME) != 0) {
+            BlockPos pos = entity.blockPosition();
+            long section = SectionPos.asLong(pos);
+            if (section != state.section) {
+                state.section = section;
+                Holder<Biome> biome = level.getBiome(pos);
+                if (!biome.equals(state.biome)) {
+                    state.biome = biome;
+                    changed = true;
+                }
+            }
+        }
+        if ((inputs & CompiledSet.INPUT_TIME) != 0 && level.isNight() != state.night) {
+            state.night = !state.night;
+            changed = true;
+        }
+        if ((inputs & CompiledSet.INPUT_WATER) != 0 && entity.isInWater() != state.inWater) {
+            state.inWater = !state.inWater;
+            changed = true;
+        }
+        return changed;
+    }
+
+    // ─── Events ──────────────────────────────────────────────────────────
+
+    private static void onChangedDimension(PlayerEvent.PlayerChangedDimensionEvent event) {
+        invalidate(event.getEntity());
+    }
+
+    private static void onRespawn(PlayerEvent.PlayerRespawnEvent event) {
+        invalidate(event.getEntity());
+    }
+
+    private static void onLogout(PlayerEvent.PlayerLoggedOutEvent event) {
+        STATES.remove(event.getEntity().getUUID());
+    }
+
+    private static void invalidate(Player player) {
+        State state = STATES.get(player.getUUID());
+        if (state != null) {
+            // Section coordinates repeat across dimensions, so the biome must be looked up again
+            state.section = Long.MIN_VALUE;
+            state.dirty = true;
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package com.gilfort.zauberei.item.armor;
+
+import com.gilfort.zauberei.item.armorbonus.ArmorSetDataRegistry;
+import com.gilfort.zauberei.item.armorbonus.CompiledSet;
+import net.minecraft.core.Holder;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.effect.MobEffect;
+import net.minecraft.world.effect.MobEffectInstance;
+import net.minecraft.world.entity.LivingEntity;
+import net.minecraft.world.entity.ai.attributes.Attribute;
+import net.minecraft.world.entity.ai.attributes.AttributeModifier;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Opt-in record of how the set bonuses of one player are evaluated, for
+ * {@code /zauberei debug explain}. Each traced evaluation keeps which scope
+ * every worn tag resolved to through the wildcard fallback, the worn piece
+ * counts, the part (threshold) that was chosen, the modifier diff, which
+ * effects were refreshed, and how long each step took.
+ *
+ * <p>A trace covers one forced evaluation, or every evaluation during the
+ * next N ticks. While no trace runs, {@link ArmorEffects} pays a static
+ * field read per tick and per evaluation and nothing else: every hook sits
+ * behind a {@code null} trace. Server thread only.</p>
+ *
+ * <p>Timings are taken with the tracer attached, so they include its own
+ * bookkeeping and are an upper bound for an untraced evaluation.</p>
+ */
+public final class SetEvaluationTrace {
+
+    /** Longest trace, so a forgotten one ends on its own (5 minutes). */
+    public static final int MAX_TICKS = 20 * 60 * 5;
+    /** Evaluations recorded per trace; later ones are only counted. */
+    private static final int MAX_EVALUATIONS = 64;
+
+    private static final Map<UUID, SetEvaluationTrace> TRACES = new HashMap<>();
+    /** {@code !TRACES.isEmpty()}; the only thing read while nothing is traced. */
+    private static boolean active;
+
+    public enum Phase { COLLECT, ATTRIBUTES, EFFECTS }
+
+    public enum Change { ADDED, REPLACED, UNCHANGED, REMOVED, NO_ATTRIBUTE }
+
+    public enum EffectAction { APPLIED, CHANGED, REFRESHED, KEPT }
+
+    /**
+     * One registered or worn tag.
+     *
+     * @param scope          {@code major/year}, {@code all_majors/year} or
+     *                       {@code all_majors_all_years}; {@code null} if no definition matched
+     * @param origin         file or datapack the winning definition came from, if known
+     * @param part           chosen part, {@code null} below the first threshold
+     * @param firstThreshold pieces needed for the lowest part
+     * @param blockedPart    higher part the piece count reaches but whose conditions failed
+     */
+    public record TagStep(String tag, int worn, String scope, String origin, String part, int threshold,
+                          int firstThreshold, String blockedPart) {}
+
+    /** {@code before}/{@code after} are modifier amounts; {@code null} where there is none. */
+    public record ModifierChange(String modifier, String attribute, String operation, Change change,
+                                 Double before, Double after) {}
+
+    /** {@code remaining} is the duration the effect had left before, 0 if it was absent. */
+    public record EffectChange(String effect, int amplifier, EffectAction action, int remaining) {}
+
+    public record Evaluation(int tick, String major, int year, List<TagStep> tags, List<String> silenced,
+                             List<ModifierChange> modifiers, List<EffectChange> effects, int procs,
+                             long collectNanos, long attributeNanos, long effectNanos, long totalNanos) {}
+
+    /** What is written to the trace file. */
+    public record Report(String player, UUID uuid, String started, int ticks, String endedBy,
+                         int evaluationsSeen, List<Evaluation> evaluations) {}
+
+    private final ServerPlayer player;
+    private final int ticks;
+    private final int endTick;
+    private final Instant started = Instant.now();
+    private final Consumer<SetEvaluationTrace> onFinish;
+    private final List<Evaluation> evaluations = new ArrayList<>();
+    private int evaluationsSeen;
+    private String endedBy;
+
+    // State of the evaluation in progress
+    private String major;
+    private int year;
+    private List<TagStep> tags;
+    private List<String> silenced;
+    private List<ModifierChange> modifiers;
+    private List<EffectChange> effects;
+    private final long[] nanos = new long[Phase.values().length];
+    private long start;
+    private long lap;
+
+    private SetEvaluationTrace(ServerPlayer player, int ticks, Consumer<SetEvaluationTrace> onFinish) {
+        this.player = player;
+        this.ticks = ticks;
+        this.endTick = player.server.getTickCount() + ticks;
+        this.onFinish = onFinish;
+    }
+
+    /**
+     * Traces {@code player}: evaluates their set bonuses right away, then
+     * keeps recording for {@code ticks} more ticks ({@code 0}: just this
+     * evaluation). {@code onFinish} gets the trace when it ends, also when
+     * the player logs out or a new trace replaces it.
+     */
+    public static SetEvaluationTrace start(ServerPlayer player, int ticks, Consumer<SetEvaluationTrace> onFinish) {
+        SetEvaluationTrace previous = TRACES.get(player.getUUID());
+        if (previous != null) previous.finish("replaced by a new trace");
+
+        SetEvaluationTrace trace = new SetEvaluationTrace(player, Math.clamp(ticks, 0, MAX_TICKS), onFinish);
+        TRACES.put(player.getUUID(), trace);
+        active = true;
+        ArmorEffects.evaluate(player);
+        if (trace.ticks == 0) trace.finish("single evaluation");
+        return trace;
+    }
+
+    /** The running trace of {@code entity}, or {@code null}; the check every hook sits behind. */
+    static SetEvaluationTrace of(LivingEntity entity) {
+        return active ? TRACES.get(entity.getUUID()) : null;
+    }
+
+    /** Ends the trace of {@code player} once its ticks have passed. */
+    static void tick(ServerPlayer player) {
+        if (!active) return;
+        SetEvaluationTrace trace = TRACES.get(player.getUUID());
+        if (trace != null && player.server.getTickCount() >= trace.endTick) {
+            trace.finish(trace.ticks + " ticks elapsed");
+        }
+    }
+
+    static void onLogout(ServerPlayer player) {
+        if (!active) return;
+        SetEvaluationTrace trace = TRACES.get(player.getUUID());
+        if (trace != null) trace.finish("player logged out");
+    }
+
+    private void finish(String reason) {
+        if (endedBy != null) return;
+        endedBy = reason;
+        TRACES.remove(player.getUUID(), this);
+        active = !TRACES.isEmpty();
+        onFinish.accept(this);
+    }
+
+    // ─── Hooks, called from ArmorEffects ─────────────────────────────────
+
+    void begin(String major, int year) {
+        this.major = major;
+        this.year = year;
+        tags = new ArrayList<>();
+        silenced = List.of();
+        modifiers = new ArrayList<>();
+        effects = new ArrayList<>();
+        Arrays.fill(nanos, 0);
+        start = System.nanoTime();
+        lap = start;
+    }
+
+    /** Ends a step of the evaluation; its time runs from the previous lap. */
+    void lap(Phase phase) {
+        long now = System.nanoTime();
+        nanos[phase.ordinal()] += now - lap;
+        lap = now;
+    }
+
+    void tag(String tag, int worn, CompiledSet data, CompiledSet.Part part) {
+        if (data == null) {
+            tags.add(new TagStep(tag, worn, null, null, null, 0, 0, null));
+            return;
+        }
+        String scope = ArmorSetDataRegistry.resolveScope(major, year, tag);
+        String origin = null;
+        if (scope != null) {
+            int colon = scope.lastIndexOf(':');
+            String scopeMajor = scope.substring(0, colon);
+            int scopeYear = Integer.parseInt(scope.substring(colon + 1));
+            origin = ArmorSetDataRegistry.getOrigin(scopeMajor, scopeYear, tag);
+            scope = scopeLabel(scopeMajor, scopeYear);
+        }
+        CompiledSet.Part reachable = data.activePart(worn);
+        String blocked = reachable != null && reachable != part ? reachable.key() : null;
+        int first = data.parts().length == 0 ? 0 : data.parts()[0].threshold();
+        tags.add(new TagStep(tag, worn, scope, origin, part == null ? null : part.key(),
+                part == null ? 0 : part.threshold(), first, blocked));
+    }
+
+    void silenced(List<Holder<MobEffect>> converted) {
+        silenced = converted.stream().map(Holder::getRegisteredName).toList();
+    }
+
+    void modifier(Change change, ResourceLocation id, Holder<Attribute> attribute,
+                  AttributeModifier before, AttributeModifier after) {
+        AttributeModifier any = after != null ? after : before;
+        modifiers.add(new ModifierChange(String.valueOf(id), attribute.getRegisteredName(),
+                any == null ? null : any.operation().getSerializedName(), change,
+                before == null ? null : before.amount(), after == null ? null : after.amount()));
+    }
+
+    void missingAttribute(Holder<Attribute> attribute, AttributeModifier.Operation operation, double amount) {
+        modifiers.add(new ModifierChange(null, attribute.getRegisteredName(), operation.getSerializedName(),
+                Change.NO_ATTRIBUTE, null, amount));
+    }
+
+    /** {@code applied} is false if the running instance was kept as it is. */
+    void effect(Holder<MobEffect> effect, int amplifier, MobEffectInstance before, boolean applied) {
+        EffectAction action = !applied ? EffectAction.KEPT
+                : before == null ? EffectAction.APPLIED
+                : before.getAmplifier() != amplifier ? EffectAction.CHANGED
+                : EffectAction.REFRESHED;
+        effects.add(new EffectChange(effect.getRegisteredName(), amplifier, action,
+                before == null ? 0 : before.getDuration()));
+    }
+
+    void end(int procs) {
+        long total = System.nanoTime() - start;
+        evaluationsSeen++;
+        if (evaluations.size() >= MAX_EVALUATIONS) return;
+
+        // Registered tags without worn pieces, so a missing bonus shows up as "worn 0"
+        Set<String> seen = new HashSet<>();
+        for (TagStep step : tags) seen.add(step.tag());
+        for (String tag : ArmorSetDataRegistry.getRegisteredTags(major, year)) {
+            if (!seen.contains(tag)) tag(tag, 0, ArmorSetDataRegistry.getCompiled(major, year, tag), null);
+        }
+        evaluations.add(new Evaluation(player.tickCount, major, year, List.copyOf(tags), silenced,
+                List.copyOf(modifiers), List.copyOf(effects), procs,
+                nanos[Phase.COLLECT.ordinal()], nanos[Phase.ATTRIBUTES.ordinal()],
+                nanos[Phase.EFFECTS.ordinal()], total));
+    }
+
+    // ─── Results ─────────────────────────────────────────────────────────
+
+    public ServerPlayer player() { return player; }
+
+    public List<Evaluation> evaluations() { return evaluations; }
+
+    /** Evaluations that ran during the trace, including those past the recording limit. */
+    public int evaluationsSeen() { return evaluationsSeen; }
+
+    public String endedBy() { return endedBy; }
+
+    public Instant started() { return started; }
+
+    public Report report() {
+        return new Report(player.getGameProfile().getName(), player.getUUID(), started.toString(), ticks,
+                endedBy, evaluationsSeen, List.copyOf(evaluations));
+    }
+
+    private static String scopeLabel(String major, int year) {
+        if (!ArmorSetDataRegistry.WILDCARD_MAJOR.equals(major)) return major + "/" + year;
+        return year == ArmorSetDataRegistry.WILDCARD_YEAR ? "all_majors_all_years" : "all_majors/" + year;
+    }
+}
@@ -0,0 +1,118 @@
+package com.gilfort.zauberei.item.armor;
+
+import com.gilfort.zauberei.Zauberei;
+import com.gilfort.zauberei.item.armorbonus.ArmorSetDataRegistry;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.tags.TagKey;
+import net.minecraft.world.entity.LivingEntity;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.neoforged.bus.api.IEventBus;
+import net.neoforged.fml.event.config.ModConfigEvent;
+import net.neoforged.neoforge.common.NeoForge;
+import net.neoforged.neoforge.event.entity.EntityLeaveLevelEvent;
+import net.neoforged.neoforge.event.entity.player.PlayerEvent;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cached count of worn pieces per set tag, per entity.
+ *
+ * <p>Counting means matching every enabled slot against every registered
+ * tag. The result only changes when a slot provider reports a change, the
+ * registry is reloaded, the config is reloaded (a changed
+ * {@code set_slot_providers} list) or the entity's major/year changes, so it
+ * is kept until one of these happens instead of being recounted per
+ * evaluation.</p>
+ */
+final class SetPieceCounter {
+
+    private record Counts(int generation, int configGeneration, String major, int year,
+                          Map<String, Integer> byTag) {}
+
+    private static final Map<UUID, Counts> CACHE = new ConcurrentHashMap<>();
+
+    /**
+     * Bumped on every config reload. Reloads arrive on the config watcher
+     * thread, so a count that started before one is recognized by its stale
+     * value instead of surviving the clear.
+     */
+    private static volatile int configGeneration;
+
+    private SetPieceCounter() {}
+
+    static void register(IEventBus modEventBus) {
+        NeoForge.EVENT_BUS.addListener(SetPieceCounter::onLogout);
+        NeoForge.EVENT_BUS.addListener(SetPieceCounter::onLeaveLevel);
+        modEventBus.addListener(SetPieceCounter::onConfigReload);
+    }
+
+    private static void onConfigReload(ModConfigEvent.Reloading event) {
+        if (!Zauberei.MODID.equals(event.getConfig().getModId())) return;
+        configGeneration++;
+        CACHE.clear();
+    }
+
+    private static void onLogout(PlayerEvent.PlayerLoggedOutEvent event) {
+        CACHE.remove(event.getEntity().getUUID());
+    }
+
+    private static void onLeaveLevel(EntityLeaveLevelEvent event) {
+        if (!CACHE.isEmpty()) CACHE.remove(event.getEntity().getUUID());
+    }
+
+    static void invalidate(LivingEntity entity) {
+        if (!CACHE.isEmpty()) CACHE.remove(entity.getUUID());
+    }
+
+    /** Worn pieces per registered tag; only tags with at least one piece are included. */
+    static Map<String, Integer> counts(LivingEntity entity, String major, int year) {
+        int generation = ArmorSetDataRegistry.getGeneration();
+        int config = configGeneration;
+        Counts cached = CACHE.get(entity.getUUID());
+        if (cached != null && cached.generation() == generation && cached.configGeneration() == config
+                && cached.year() == year && cached.major().equals(major)) {
+            return cached.byTag();
+        }
+
+        Map<String, Integer> byTag = count(entity, major, year);
+        CACHE.put(entity.getUUID(), new Counts(generation, config, major, year, byTag));
+        return byTag;
+    }
+
+    private static Map<String, Integer> count(LivingEntity entity, String major, int year) {
+        List<ItemStack> stacks = new ArrayList<>();
+        EquipmentSlotProviders.forEachStack(entity, stack -> {
+            if (!stack.isEmpty()) stacks.add(stack);
+        });
+        if (stacks.isEmpty()) {
+            return Map.of();
+        }
+
+        Set<String> registeredTags = ArmorSetDataRegistry.getRegisteredTags(major, year);
+        Map<String, Integer> byTag = new LinkedHashMap<>();
+        for (String tagString : registeredTags) {
+            ResourceLocation tagLoc = ResourceLocation.tryParse(tagString);
+            if (tagLoc == null) {
+                // Should not happen if validated in reload listener
+                continue;
+            }
+            TagKey<Item> tagKey = TagKey.create(Registries.ITEM, tagLoc);
+            int count = 0;
+            for (ItemStack stack : stacks) {
+                if (stack.is(tagKey)) count++;
+            }
+            if (count > 0) {
+                byTag.put(tagString, count);
+            }
+        }
+        return byTag.isEmpty() ? Map.of() : Map.copyOf(byTag);
+    }
+}
@@ -1,5 +1,6 @@
 package com.gilfort.zauberei.item.armorbonus;
 
+import com.google.gson.annotations.SerializedName;
 import org.w3c.dom.Attr;
 
 import java.util.List;
@@ -10,6 +11,13 @@ public class ArmorSetData {
     private String displayName;  // ← NEU: optional, z.B. "Magiccloth"
     private Map<String, PartData> parts;
 
+    /** Optional: set file this one builds on, relative to the set root (e.g. "all_majors/1/zauberei__robes.json"). */
+    @SerializedName("extends")
+    private String extendsPath;
+
+    /** Optional: per-year scaling of amplifiers and attribute values. */
+    private YearScaling yearScaling;
+
     public String getDisplayName() {
         return displayName;
     }
@@ -26,11 +34,66 @@ public class ArmorSetData {
         this.parts = parts;
     }
 
+    public String getExtends() {
+        return extendsPath;
+    }
+
+    public void setExtends(String extendsPath) {
+        this.extendsPath = extendsPath;
+    }
+
+    public YearScaling getYearScaling() {
+        return yearScaling;
+    }
+
+    public void setYearScaling(YearScaling yearScaling) {
+        this.yearScaling = yearScaling;
+    }
+
+    /**
+     * True if this definition still has to be resolved against a parent or
+     * its year, i.e. it is not the flat form the runtime uses.
+     */
+    public boolean isDerived() {
+        if (extendsPath != null || yearScaling != null) return true;
+        if (parts == null) return false;
+        for (PartData pd : parts.values()) {
+            if (pd.getEffects() != null) {
+                for (EffectData ed : pd.getEffects()) {
+                    if (ed.getScale() != null) return true;
+                }
+            }
+            if (pd.getAttributes() != null) {
+                for (AttributeData ad : pd.getAttributes().values()) {
+                    if (ad.getScale() != null) return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Expressions over {@code base} and {@code year} applied to every effect
+     * amplifier / attribute value of the set, e.g. {@code "base * year"}.
+     * Entries can override them with their own {@code Scale}/{@code scale}.
+     */
+    public static class YearScaling {
+        private String amplifier;
+        private String value;
+
+        public String getAmplifier() { return amplifier; }
+        public String getValue() { return value; }
+        public void setAmplifier(String amplifier) { this.amplifier = amplifier; }
+        public void setValue(String value) { this.value = value; }
+    }
+
     //Inner class for Effects and Attributes for each Equipment Part
     public static class PartData {
         // Gson wird diese Felder per Namen matchen:
         private List<EffectData> Effects;
         private Map<String, AttributeData> Attributes;
+        private List<ProcData> Procs;
+        private ConditionData Conditions;
 
         // Getter und Setter (oder public Felder, je nachdem was du bevorzugst)
         public List<EffectData> getEffects() {
@@ -48,11 +111,63 @@ public class ArmorSetData {
         public void setAttributes(Map<String, AttributeData> attributes) {
             Attributes = attributes;
         }
+
+        public List<ProcData> getProcs() {
+            return Procs;
+        }
+
+        public void setProcs(List<ProcData> procs) {
+            Procs = procs;
+        }
+
+        public ConditionData getConditions() {
+            return Conditions;
+        }
+
+        public void setConditions(ConditionData conditions) {
+            Conditions = conditions;
+        }
+    }
+
+    /**
+     * Optional requirements for a part to be active. Every field that is set
+     * must hold; a part whose conditions fail falls back to the next lower part.
+     *
+     * <p>{@code dimension} and {@code biome} hold ids; biome entries starting
+     * with {@code #} are biome tags. {@code time} is {@code day} or {@code night}.</p>
+     */
+    public static class ConditionData {
+        private List<String> dimension;
+        private List<String> biome;
+        private String time;
+        private Boolean inWater;
+
+        public List<String> getDimension() { return dimension; }
+        public List<String> getBiome() { return biome; }
+        public String getTime() { return time; }
+        public Boolean getInWater() { return inWater; }
+        public void setDimension(List<String> dimension) { this.dimension = dimension; }
+        public void setBiome(List<String> biome) { this.biome = biome; }
+        public void setTime(String time) { this.time = time; }
+        public void setInWater(Boolean inWater) { this.inWater = inWater; }
+
+        public boolean isEmpty() {
+            return dimension == null && biome == null && time == null && inWater == null;
+        }
     }
 
     public static class EffectData {
         private String Effect;
         private int Amplifier;
+        private String Scale;
+
+        public String getScale() {
+            return Scale;
+        }
+
+        public void setScale(String scale) {
+            Scale = scale;
+        }
 
         public int getAmplifier() {
             return Amplifier;
@@ -74,11 +189,47 @@ public class ArmorSetData {
     public static class AttributeData {
         private double value;
         private String modifier;
+        private String scale;
 
         public double getValue() { return value; }
         public String getModifier() { return modifier; }
+        public String getScale() { return scale; }
         public void setValue(double value) { this.value = value; }
         public void setModifier(String modifier) { this.modifier = modifier; }
+        public void setScale(String scale) { this.scale = scale; }
+    }
+
+    /**
+     * An effect or heal that fires on a combat event instead of being applied
+     * permanently, e.g. a 20% chance to slow the target on hit.
+     *
+     * <p>{@code trigger} is one of {@code on_hit}, {@code on_hurt}, {@code on_kill};
+     * {@code target} is {@code self} or {@code other} (the victim on hit/kill,
+     * the attacker when hurt).</p>
+     */
+    public static class ProcData {
+        private String trigger;
+        private double chance = 1.0;
+        private String effect;
+        private int amplifier;
+        private int duration = 100;
+        private String target;
+        private double heal;
+
+        public String getTrigger() { return trigger; }
+        public double getChance() { return chance; }
+        public String getEffect() { return effect; }
+        public int getAmplifier() { return amplifier; }
+        public int getDuration() { return duration; }
+        public String getTarget() { return target; }
+        public double getHeal() { return heal; }
+        public void setTrigger(String trigger) { this.trigger = trigger; }
+        public void setChance(double chance) { this.chance = chance; }
+        public void setEffect(String effect) { this.effect = effect; }
+        public void setAmplifier(int amplifier) { this.amplifier = amplifier; }
+        public void setDuration(int duration) { this.duration = duration; }
+        public void setTarget(String target) { this.target = target; }
+        public void setHeal(double heal) { this.heal = heal; }
     }
 
     /**
@@ -0,0 +1,592 @@
+package com.gilfort.zauberei.item.armorbonus;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.locale.Language;
+import net.minecraft.resources.ResourceLocation;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streaming reader/writer for set definition files.
+ *
+ * <p>Reads an {@link ArmorSetData} in a single pass over the token stream,
+ * without building a {@code JsonElement} tree or using reflection. Validation
+ * happens inline while reading:</p>
+ * <ul>
+ *   <li>effect and attribute ids are normalized (default namespace {@code minecraft})
+ *       and resolved against the registries — unknown ids are dropped</li>
+ *   <li>amplifiers without a roman numeral translation are clamped</li>
+ *   <li>attributes with an unknown modifier type are dropped</li>
+ *   <li>part keys are checked for the {@code NPart} format and the 1–4 range</li>
+ *   <li>{@code yearScaling} / {@code Scale} expressions are syntax-checked</li>
+ *   <li>procs need a known trigger and an effect or heal; chance is clamped to 0–1</li>
+ *   <li>condition ids must be valid resource locations, {@code time} day or night</li>
+ * </ul>
+ * {@code extends} and the scaling expressions are kept as written; they are
+ * resolved later by {@link SetInheritance}. Unknown fields are skipped
+ * silently, as they always were.
+ * Every finding is recorded as a {@link Problem} with the JSON path it was
+ * found at.
+ *
+ * <p>An adapter instance collects problems for one file; use {@link #read(Reader)}.</p>
+ */
+public class ArmorSetDataAdapter extends TypeAdapter<ArmorSetData> {
+
+    /** Highest amplifier used when a level has no roman numeral translation. */
+    private static final int CLAMPED_AMPLIFIER = 4;
+
+    public enum Severity { WARNING, ERROR }
+
+    /**
+     * @param path JSON path of the finding, e.g. {@code $.parts.2Part.Effects[0].Effect};
+     *             {@code null} for syntax errors, whose message already names line, column and path
+     */
+    public record Problem(Severity severity, String path, String message) {
+        /** e.g. {@code "$.parts.2Part.Effects[0].Effect: unknown effect 'foo'"} */
+        public String describe() {
+            return path == null ? message : path + ": " + message;
+        }
+    }
+
+    /**
+     * Result of reading one file.
+     *
+     * @param data     the validated data, or {@code null} if the file is unusable
+     * @param problems everything found while reading, in file order
+     */
+    public record Result(ArmorSetData data, List<Problem> problems) {
+        public boolean hasErrors() {
+            return data == null || problems.stream().anyMatch(p -> p.severity() == Severity.ERROR);
+        }
+    }
+
+    private final List<Problem> problems = new ArrayList<>();
+
+    /** Reads and validates one set definition. Never throws. */
+    public static Result read(Reader in) {
+        ArmorSetDataAdapter adapter = new ArmorSetDataAdapter();
+        JsonReader reader = new JsonReader(in);
+        reader.setLenient(true);
+        ArmorSetData data;
+        try {
+            data = adapter.read(reader);
+        } catch (IOException | IllegalStateException | NumberFormatException e) {
+            // Syntax errors and type mismatches (e.g. a string where a number belongs); Gson's
+            // message names the position, its second line only links to Gson's troubleshooting page
+            String message = e.getMessage() == null ? e.getClass().getSimpleName()
+                    : e.getMessage().lines().findFirst().orElse("");
+            adapter.problems.add(new Problem(Severity.ERROR, null, message));
+            data = null;
+        }
+        return new Result(data, List.copyOf(adapter.problems));
+    }
+
+    /**
+     * Deep copy through a write and a read, so the copy is exactly what a
+     * file with this content loads as.
+     */
+    static ArmorSetData copy(ArmorSetData data) {
+        ArmorSetDataAdapter adapter = new ArmorSetDataAdapter();
+        return adapter.fromJsonTree(adapter.toJsonTree(data));
+    }
+
+    public List<Problem> getProblems() {
+        return problems;
+    }
+
+    // ─── Reading ─────────────────────────────────────────────────────────
+
+    @Override
+    public ArmorSetData read(JsonReader in) throws IOException {
+        if (in.peek() != JsonToken.BEGIN_OBJECT) {
+            error(in, "Root element is not a JSON object");
+            return null;
+        }
+        ArmorSetData data = new ArmorSetData();
+        Map<String, ArmorSetData.PartData> parts = new LinkedHashMap<>();
+
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            switch (name) {
+                case "displayName" -> data.setDisplayName(nextStringOrNull(in));
+                case "extends" -> data.setExtends(nextStringOrNull(in));
+                case "yearScaling" -> {
+                    if (!skipNull(in)) data.setYearScaling(readYearScaling(in));
+                }
+                case "parts" -> {
+                    if (!skipNull(in)) readParts(in, parts);
+                }
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+
+        if (parts.isEmpty() && data.getExtends() == null) {
+            error(in, "Missing or empty 'parts' object");
+            return null;
+        }
+        data.setParts(parts);
+        return data;
+    }
+
+    private ArmorSetData.YearScaling readYearScaling(JsonReader in) throws IOException {
+        ArmorSetData.YearScaling scaling = new ArmorSetData.YearScaling();
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            switch (name) {
+                case "amplifier" -> scaling.setAmplifier(nextExpression(in));
+                case "value" -> scaling.setValue(nextExpression(in));
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        return scaling;
+    }
+
+    /** Reads a scaling expression; invalid ones are dropped with a warning. */
+    private String nextExpression(JsonReader in) throws IOException {
+        String path = in.getPath();
+        String text = nextStringOrNull(in);
+        if (text == null) return null;
+        try {
+            YearExpression.parse(text);
+            return text;
+        } catch (IllegalArgumentException e) {
+            problems.add(at(Severity.WARNING, path, "invalid expression '" + text + "': "
+                    + e.getMessage() + " – ignored"));
+            return null;
+        }
+    }
+    private void readParts(JsonReader in, Map<String, ArmorSetData.PartData> parts) throws IOException {
+        in.beginObject();
+        while (in.hasNext()) {
+            String partKey = in.nextName();
+            int threshold;
+            try {
+                threshold = Integer.parseInt(partKey.replace("Part", ""));
+            } catch (NumberFormatException e) {
+                error(in, "Invalid part key '" + partKey + "' (expected format: '2Part')");
+                in.skipValue();
+                continue;
+            }
+            if (threshold < 1 || threshold > 4) {
+                warn(in, partKey + ": threshold " + threshold + " outside range 1-4");
+            }
+            parts.put(partKey, readPart(in));
+        }
+        in.endObject();
+    }
+
+    private ArmorSetData.PartData readPart(JsonReader in) throws IOException {
+        ArmorSetData.PartData part = new ArmorSetData.PartData();
+        List<ArmorSetData.EffectData> effects = new ArrayList<>();
+        Map<String, ArmorSetData.AttributeData> attributes = new LinkedHashMap<>();
+        List<ArmorSetData.ProcData> procs = new ArrayList<>();
+
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            switch (name) {
+                case "Effects" -> {
+                    if (skipNull(in)) continue;
+                    in.beginArray();
+                    while (in.hasNext()) {
+                        ArmorSetData.EffectData ed = readEffect(in);
+                        if (ed != null) effects.add(ed);
+                    }
+                    in.endArray();
+                }
+                case "Attributes" -> {
+                    if (skipNull(in)) continue;
+                    in.beginObject();
+                    while (in.hasNext()) {
+                        String rawId = in.nextName();
+                        ArmorSetData.AttributeData ad = readAttribute(in, rawId);
+                        if (ad != null) {
+                            attributes.put(normalize(rawId).toString(), ad);
+                        }
+                    }
+                    in.endObject();
+                }
+                case "Conditions" -> {
+                    if (skipNull(in)) continue;
+                    ArmorSetData.ConditionData conditions = readConditions(in);
+                    if (!conditions.isEmpty()) part.setConditions(conditions);
+                }
+                case "Procs" -> {
+                    if (skipNull(in)) continue;
+                    in.beginArray();
+                    while (in.hasNext()) {
+                        ArmorSetData.ProcData proc = readProc(in);
+                        if (proc != null) procs.add(proc);
+                    }
+                    in.endArray();
+                }
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+
+        part.setEffects(effects);
+        part.setAttributes(attributes);
+        if (!procs.isEmpty()) part.setProcs(procs);
+        return part;
+    }
+
+    private ArmorSetData.ConditionData readConditions(JsonReader in) throws IOException {
+        ArmorSetData.ConditionData conditions = new ArmorSetData.ConditionData();
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            switch (name) {
+                case "dimension" -> conditions.setDimension(readIdList(in, false));
+                case "biome" -> conditions.setBiome(readIdList(in, true));
+                case "time" -> {
+                    String time = nextStringOrNull(in);
+                    if (time != null && !time.equalsIgnoreCase("day") && !time.equalsIgnoreCase("night")) {
+                        // Kept, so the part never applies instead of applying at any time
+                        warn(in, "time '" + time + "' invalid (use: day, night) – the part never applies");
+                    }
+                    conditions.setTime(time == null ? null : time.toLowerCase());
+                }
+                case "inWater" -> {
+                    if (!skipNull(in)) conditions.setInWater(in.nextBoolean());
+                }
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        return conditions;
+    }
+
+    /**
+     * A single id or an array of ids; invalid ones are dropped with a warning.
+     * Returns {@code null} for {@code null}, and an empty list if ids were
+     * given but none is valid, so the condition never matches instead of
+     * disappearing.
+     */
+    private List<String> readIdList(JsonReader in, boolean allowTags) throws IOException {
+        if (skipNull(in)) return null;
+        List<String> raw = new ArrayList<>();
+        if (in.peek() == JsonToken.BEGIN_ARRAY) {
+            in.beginArray();
+            while (in.hasNext()) {
+                String id = nextStringOrNull(in);
+                if (id != null) raw.add(id);
+            }
+            in.endArray();
+        } else {
+            String id = nextStringOrNull(in);
+            if (id != null) raw.add(id);
+        }
+
+        List<String> ids = new ArrayList<>();
+        for (String id : raw) {
+            boolean tag = allowTags && id.startsWith("#");
+            ResourceLocation loc = normalize(tag ? id.substring(1) : id);
+            if (loc == null) {
+                warn(in, "invalid id '" + id + "' – ignored");
+                continue;
+            }
+            ids.add((tag ? "#" : "") + loc);
+        }
+        if (ids.isEmpty()) warn(in, "no valid id left – the part never applies");
+        return ids;
+    }
+
+    private ArmorSetData.ProcData readProc(JsonReader in) throws IOException {
+        String path = in.getPath();
+        ArmorSetData.ProcData proc = new ArmorSetData.ProcData();
+
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            switch (name) {
+                case "trigger" -> proc.setTrigger(nextStringOrNull(in));
+                case "chance" -> proc.setChance(in.nextDouble());
+                case "effect" -> proc.setEffect(nextStringOrNull(in));
+                case "amplifier" -> proc.setAmplifier(in.nextInt());
+                case "duration" -> proc.setDuration(in.nextInt());
+                case "target" -> proc.setTarget(nextStringOrNull(in));
+                case "heal" -> proc.setHeal(in.nextDouble());
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+
+        if (CompiledSet.ProcTrigger.byId(proc.getTrigger()) == null) {
+            problems.add(at(Severity.WARNING, path, "proc without a valid 'trigger' "
+                    + "(use: on_hit, on_hurt, on_kill) – skipped"));
+            return null;
+        }
+        if (proc.getChance() < 0 || proc.getChance() > 1) {
+            problems.add(at(Severity.WARNING, path, "proc chance " + proc.getChance()
+                    + " outside 0-1, clamped"));
+            proc.setChance(Math.max(0, Math.min(1, proc.getChance())));
+        }
+        if (proc.getEffect() != null) {
+            ResourceLocation id = normalize(proc.getEffect());
+            if (id == null || !BuiltInRegistries.MOB_EFFECT.containsKey(id)) {
+                problems.add(at(Severity.WARNING, path, "unknown proc effect '" + proc.getEffect()
+                        + "' – ignored"));
+                proc.setEffect(null);
+            } else {
+                proc.setEffect(id.toString());
+                proc.setAmplifier(clampAmplifier(proc.getAmplifier()));
+            }
+        }
+        if (proc.getDuration() < 1) {
+            problems.add(at(Severity.WARNING, path, "proc duration must be at least 1 tick, set to 1"));
+            proc.setDuration(1);
+        }
+        if (proc.getTarget() != null && !proc.getTarget().equalsIgnoreCase("self")
+                && !proc.getTarget().equalsIgnoreCase("other")) {
+            problems.add(at(Severity.WARNING, path, "proc target '" + proc.getTarget()
+                    + "' invalid (use: self, other) – using default"));
+            proc.setTarget(null);
+        }
+        if (proc.getHeal() < 0) {
+            problems.add(at(Severity.WARNING, path, "negative proc heal ignored"));
+            proc.setHeal(0);
+        }
+        if (proc.getEffect() == null && proc.getHeal() <= 0) {
+            problems.add(at(Severity.WARNING, path, "proc has neither 'effect' nor 'heal' – skipped"));
+            return null;
+        }
+        return proc;
+    }
+
+    private ArmorSetData.EffectData readEffect(JsonReader in) throws IOException {
+        String rawId = null;
+        int amplifier = 0;
+        String scale = null;
+        String idPath = null;
+
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            switch (name) {
+                case "Effect" -> {
+                    idPath = in.getPath();
+                    rawId = nextStringOrNull(in);
+                }
+                case "Amplifier" -> amplifier = in.nextInt();
+                case "Scale" -> scale = nextExpression(in);
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+
+        if (rawId == null) {
+            warn(in, "Effect entry without 'Effect' id – skipped");
+            return null;
+        }
+        ResourceLocation id = normalize(rawId);
+        if (id == null || !BuiltInRegistries.MOB_EFFECT.containsKey(id)) {
+            problems.add(at(Severity.WARNING, idPath, "unknown effect '" + rawId + "' – skipped"));
+            return null;
+        }
+
+        // Amplifier must map to a roman numeral for tooltips
+        int clamped = clampAmplifier(amplifier);
+        if (clamped != amplifier) {
+            warn(in, "level " + (amplifier + 1) + " for effect '" + rawId + "' invalid, clamped to "
+                    + (clamped + 1));
+        }
+
+        ArmorSetData.EffectData ed = new ArmorSetData.EffectData();
+        ed.setEffect(id.toString());
+        ed.setAmplifier(clamped);
+        ed.setScale(scale);
+        return ed;
+    }
+
+    private ArmorSetData.AttributeData readAttribute(JsonReader in, String rawId) throws IOException {
+        String keyPath = in.getPath();
+        double value = 0;
+        String modifier = null;
+        String scale = null;
+
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            switch (name) {
+                case "value" -> value = in.nextDouble();
+                case "modifier" -> modifier = nextStringOrNull(in);
+                case "scale" -> scale = nextExpression(in);
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+
+        ResourceLocation id = normalize(rawId);
+        if (id == null || !BuiltInRegistries.ATTRIBUTE.containsKey(id)) {
+            problems.add(at(Severity.WARNING, keyPath, "unknown attribute '" + rawId + "' – skipped"));
+            return null;
+        }
+        if (!isValidModifier(modifier)) {
+            problems.add(at(Severity.WARNING, keyPath, "invalid modifier '" + modifier
+                    + "' (use: addition, multiply_base, multiply_total) – skipped"));
+            return null;
+        }
+
+        ArmorSetData.AttributeData ad = new ArmorSetData.AttributeData();
+        ad.setValue(value);
+        ad.setModifier(modifier.toLowerCase());
+        ad.setScale(scale);
+        return ad;
+    }
+
+    /** Amplifiers without a roman numeral translation become {@link #CLAMPED_AMPLIFIER}. */
+    static int clampAmplifier(int amplifier) {
+        return Language.getInstance().has("enchantment.level." + (amplifier + 1)) ? amplifier : CLAMPED_AMPLIFIER;
+    }
+
+    private static boolean isValidModifier(String mod) {
+        return mod != null && (mod.equalsIgnoreCase("addition")
+                || mod.equalsIgnoreCase("multiply_base")
+                || mod.equalsIgnoreCase("multiply")
+                || mod.equalsIgnoreCase("multiply_total"));
+    }
+
+    /** Consumes a JSON null; returns whether there was one. */
+    private static boolean skipNull(JsonReader in) throws IOException {
+        if (in.peek() != JsonToken.NULL) return false;
+        in.nextNull();
+        return true;
+    }
+
+    private static String nextStringOrNull(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return in.nextString();
+    }
+
+    /** Same defaulting as the loader always used: bare ids live in {@code minecraft}. */
+    static ResourceLocation normalize(String raw) {
+        if (raw == null) return null;
+        return ResourceLocation.tryParse(raw.contains(":") ? raw : "minecraft:" + raw);
+    }
+
+    // ─── Problem helpers ─────────────────────────────────────────────────
+
+    private void warn(JsonReader in, String message) {
+        problems.add(at(Severity.WARNING, in.getPath(), message));
+    }
+
+    private void error(JsonReader in, String message) {
+        problems.add(at(Severity.ERROR, in.getPath(), message));
+    }
+
+    private static Problem at(Severity severity, String path, String message) {
+        return new Problem(severity, path, message);
+    }
+
+    // ─── Writing ─────────────────────────────────────────────────────────
+
+    @Override
+    public void write(JsonWriter out, ArmorSetData data) throws IOException {
+        if (data == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        if (data.getDisplayName() != null) {
+            out.name("displayName").value(data.getDisplayName());
+        }
+        if (data.getExtends() != null) {
+            out.name("extends").value(data.getExtends());
+        }
+        if (data.getYearScaling() != null) {
+            out.name("yearScaling").beginObject();
+            if (data.getYearScaling().getAmplifier() != null) {
+                out.name("amplifier").value(data.getYearScaling().getAmplifier());
+            }
+            if (data.getYearScaling().getValue() != null) {
+                out.name("value").value(data.getYearScaling().getValue());
+            }
+            out.endObject();
+        }
+        out.name("parts").beginObject();
+        if (data.getParts() != null) {
+            for (Map.Entry<String, ArmorSetData.PartData> e : data.getParts().entrySet()) {
+                out.name(e.getKey()).beginObject();
+                ArmorSetData.PartData pd = e.getValue();
+                if (pd.getEffects() != null) {
+                    out.name("Effects").beginArray();
+                    for (ArmorSetData.EffectData ed : pd.getEffects()) {
+                        out.beginObject();
+                        out.name("Effect").value(ed.getEffect());
+                        out.name("Amplifier").value(ed.getAmplifier());
+                        if (ed.getScale() != null) out.name("Scale").value(ed.getScale());
+                        out.endObject();
+                    }
+                    out.endArray();
+                }
+                if (pd.getAttributes() != null) {
+                    out.name("Attributes").beginObject();
+                    for (Map.Entry<String, ArmorSetData.AttributeData> ae : pd.getAttributes().entrySet()) {
+                        out.name(ae.getKey()).beginObject();
+                        out.name("value").value(ae.getValue().getValue());
+                        out.name("modifier").value(ae.getValue().getModifier());
+                        if (ae.getValue().getScale() != null) out.name("scale").value(ae.getValue().getScale());
+                        out.endObject();
+                    }
+                    out.endObject();
+                }
+                if (pd.getConditions() != null && !pd.getConditions().isEmpty()) {
+                    ArmorSetData.ConditionData c = pd.getConditions();
+                    out.name("Conditions").beginObject();
+                    if (c.getDimension() != null) writeIdList(out.name("dimension"), c.getDimension());
+                    if (c.getBiome() != null) writeIdList(out.name("biome"), c.getBiome());
+                    if (c.getTime() != null) out.name("time").value(c.getTime());
+                    if (c.getInWater() != null) out.name("inWater").value(c.getInWater());
+                    out.endObject();
+                }
+                if (pd.getProcs() != null && !pd.getProcs().isEmpty()) {
+                    out.name("Procs").beginArray();
+                    for (ArmorSetData.ProcData proc : pd.getProcs()) {
+                        out.beginObject();
+                        out.name("trigger").value(proc.getTrigger());
+                        out.name("chance").value(proc.getChance());
+                        if (proc.getEffect() != null) {
+                            out.name("effect").value(proc.getEffect());
+                            out.name("amplifier").value(proc.getAmplifier());
+                            out.name("duration").value(proc.getDuration());
+                        }
+                        if (proc.getTarget() != null) out.name("target").value(proc.getTarget());
+                        if (proc.getHeal() > 0) out.name("heal").value(proc.getHeal());
+                        out.endObject();
+                    }
+                    out.endArray();
+                }
+                out.endObject();
+            }
+        }
+        out.endObject();
+        out.endObject();
+    }
+
+    private static void writeIdList(JsonWriter out, List<String> ids) throws IOException {
+        if (ids.size() == 1) {
+            out.value(ids.get(0));
+            return;
+        }
+        out.beginArray();
+        for (String id : ids) out.value(id);
+        out.endArray();
+    }
+}
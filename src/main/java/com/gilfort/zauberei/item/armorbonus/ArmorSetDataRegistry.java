@@ -6,22 +6,220 @@ import net.minecraft.tags.TagKey;
 import net.minecraft.world.item.Item;
 import net.minecraft.world.item.ItemStack;
 
+import java.io.File;
+
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 public class ArmorSetDataRegistry {
 
     // Key format: "major:year:namespace:tagpath"
     // Example:   "naturalist:3:zauberei:magiccloth_armor"
-    private static final Map<String, ArmorSetData> DATA_MAP = new HashMap<>();
 
-    public static void clear() {
-        DATA_MAP.clear();
+    /**
+     * Everything produced by one load: the set data, the file each entry came
+     * from and the diagnostics of every file that was looked at.
+     * Built by {@link #compile}, replaced as a whole by {@link #publish}, never modified (the lazy
+     * cache fills itself on demand, but belongs to this snapshot only).
+     */
+    private record Snapshot(Map<String, CompiledSet> data,
+                            Map<String, String> origins,
+                            Map<String, SetFileDiagnostics> diagnostics,
+                            LazySetCache lazy) {}
+
+    private static volatile Snapshot current = new Snapshot(Map.of(), Map.of(), Map.of(), LazySetCache.EMPTY);
+    /**
+     * Incremented on every publish and whenever a lazily loaded major comes in
+     * (on a background thread), so caches derived from the registry can tell they are stale.
+     */
+    private static final AtomicInteger GENERATION = new AtomicInteger();
+
+    /**
+     * A load result compiled by {@link #compile}, ready to be published.
+     * Opaque outside the registry.
+     */
+    public static final class Compiled {
+        private final Snapshot snapshot;
+
+        private Compiled(Snapshot snapshot) {
+            this.snapshot = snapshot;
+        }
+    }
+
+    /**
+     * Compiles a load result into shared {@link CompiledSet}s without touching
+     * the registry. Safe to call off the server thread, e.g. from the prepare
+     * phase of a resource reload.
+     *
+     * @param entries     all successfully loaded sets
+     * @param origins     source path per entry, in the same order as {@code entries}
+     * @param diagnostics per-file load results, keyed by relative path
+     * @param deferred    lazy mode: files not loaded yet, major → (key → file)
+     */
+    public static Compiled compile(List<SetEntry> entries, List<String> origins,
+                                   Map<String, SetFileDiagnostics> diagnostics,
+                                   Map<String, Map<String, File>> deferred) {
+        SetCompiler compiler = new SetCompiler();
+        Map<String, CompiledSet> data = new HashMap<>();
+        Map<String, String> originMap = new HashMap<>();
+        for (int i = 0; i < entries.size(); i++) {
+            SetEntry e = entries.get(i);
+            String key = makeKey(e.major(), e.year(), e.tag());
+            data.put(key, compiler.compile(e.data()));
+            originMap.put(key, origins.get(i));
+        }
+        compiler.logSummary();
+        return new Compiled(new Snapshot(Collections.unmodifiableMap(data),
+                Collections.unmodifiableMap(originMap),
+                Collections.unmodifiableMap(new LinkedHashMap<>(diagnostics)),
+                deferred.isEmpty() ? LazySetCache.EMPTY
+                        : new LazySetCache(Map.copyOf(deferred), GENERATION::incrementAndGet)));
     }
 
-    public static void put(String major, int year, String tag, ArmorSetData data) {
+    /** Atomically replaces the registry contents with a compiled load result. */
+    public static synchronized void publish(Compiled compiled) {
+        current = compiled.snapshot;
+        GENERATION.incrementAndGet();
+    }
+
+    /** {@link #compile} and {@link #publish} in one step, on the calling thread. */
+    public static void publish(List<SetEntry> entries, List<String> origins,
+                               Map<String, SetFileDiagnostics> diagnostics,
+                               Map<String, Map<String, File>> deferred) {
+        publish(compile(entries, origins, diagnostics, deferred));
+    }
+
+    /**
+     * Replaces (or adds) the one entry at exactly major/year/tag and keeps
+     * everything else, so an edit to one set does not need a full reload.
+     * For a lazily loaded major the entry is pinned in the lazy cache, so it
+     * wins over what the major's files say until the next full reload.
+     *
+     * @param origin new source path, or {@code null} to keep the current one
+     */
+    public static void replace(String major, int year, String tag,
+                               ArmorSetData data, String origin) {
+        List<String> origins = new ArrayList<>();
+        origins.add(origin);
+        replaceAll(List.of(new SetEntry(major, year, tag, data)), origins);
+    }
+
+    /**
+     * {@link #replace} for many entries in one update: readers see either
+     * none or all of them, and caches are invalidated once.
+     *
+     * @param origins new source path per entry (same order), {@code null} items keep the current one
+     */
+    public static synchronized void replaceAll(List<SetEntry> entries, List<String> origins) {
+        Snapshot snap = current;
+        SetCompiler compiler = new SetCompiler();
+        Map<String, CompiledSet> map = new HashMap<>(snap.data());
+        Map<String, String> originMap = new HashMap<>(snap.origins());
+        for (int i = 0; i < entries.size(); i++) {
+            SetEntry e = entries.get(i);
+            String key = makeKey(e.major(), e.year(), e.tag());
+            CompiledSet compiled = compiler.compile(e.data());
+            if (snap.lazy().covers(e.major())) {
+                snap.lazy().pin(e.major(), key, compiled);
+            } else {
+                map.put(key, compiled);
+            }
+            if (origins.get(i) != null) originMap.put(key, origins.get(i));
+        }
+        current = new Snapshot(Collections.unmodifiableMap(map), Collections.unmodifiableMap(originMap),
+                snap.diagnostics(), snap.lazy());
+        GENERATION.incrementAndGet();
+    }
+
+    /** Changes whenever the registry contents are replaced. */
+    public static int getGeneration() {
+        return GENERATION.get();
+    }
+
+    /**
+     * Per-file diagnostics from the last load, keyed by path relative to the
+     * config dir. Files of lazily loaded majors are included once their major
+     * has been read.
+     */
+    public static Map<String, SetFileDiagnostics> getDiagnostics() {
+        Snapshot snap = current;
+        Map<String, SetFileDiagnostics> lazy = snap.lazy().diagnostics();
+        if (lazy.isEmpty()) return snap.diagnostics();
+        Map<String, SetFileDiagnostics> all = new HashMap<>(snap.diagnostics());
+        all.putAll(lazy);
+        return Collections.unmodifiableMap(all);
+    }
+
+    /** Relative path of the file a set was loaded from, or {@code null}. */
+    public static String getOrigin(String major, int year, String tag) {
+        Snapshot snap = current;
+        String key = makeKey(major, year, tag);
+        String origin = snap.lazy().covers(major) ? snap.lazy().origin(major, key) : null;
+        return origin != null ? origin : snap.origins().get(key);
+    }
+
+    /**
+     * The entry at exactly major/year/tag, without wildcard fallback, as a
+     * fresh copy; {@code null} if there is none. The base for edits.
+     */
+    public static ArmorSetData getExact(String major, int year, String tag) {
+        Snapshot snap = current;
         String key = makeKey(major, year, tag);
-        DATA_MAP.put(key, data);
+        CompiledSet data = snap.lazy().covers(major) ? snap.lazy().data(major).get(key) : null;
+        if (data == null) data = snap.data().get(key);
+        return data == null ? null : data.toArmorSetData();
+    }
+
+    /**
+     * True if the set at exactly this major/year/tag was loaded from a file
+     * that uses {@code extends} or year scaling. Such entries are resolved
+     * copies; writing them back would flatten the file.
+     */
+    public static boolean isDerived(String major, int year, String tag) {
+        String origin = getOrigin(major, year, tag);
+        if (origin == null) return false;
+        Snapshot snap = current;
+        SetFileDiagnostics diag = snap.diagnostics().get(origin);
+        if (diag == null) diag = snap.lazy().diagnostics().get(origin);
+        return diag != null && diag.derived();
+    }
+
+    /**
+     * Starts loading the sets of a lazily loaded major in the background, so
+     * they are in by the time a player with that major is evaluated. Called
+     * on login and when a player's major changes; does nothing otherwise.
+     */
+    public static void prefetch(String major) {
+        if (major != null && !major.isEmpty()) current.lazy().prefetch(major);
+    }
+
+    /** Completes once every lazily loaded major is in; at once if nothing is deferred. */
+    public static CompletableFuture<Void> loadAllDeferred() {
+        return current.lazy().loadAll();
+    }
+
+    /** True if some lazily loaded major is not in memory; {@link #getAllEntries} lacks its sets. */
+    public static boolean hasUnloadedSets() {
+        return current.lazy().hasUnloaded();
+    }
+
+    /**
+     * True while the sets of a lazily loaded major are not in memory, so
+     * exact lookups cannot tell a missing set from one not read yet. Starts
+     * loading them; false for majors that are not deferred.
+     */
+    public static boolean isPending(String major) {
+        LazySetCache lazy = current.lazy();
+        if (!lazy.covers(major) || lazy.isLoaded(major)) return false;
+        lazy.prefetch(major);
+        return true;
+    }
+
+    /** Hit/load/eviction counters of the lazy loading cache. */
+    public static LazySetCache.Stats getLazyStats() {
+        return current.lazy().stats();
     }
 
     // ─── Sentinel values for wildcards ───────────────────────────────────
@@ -35,18 +233,57 @@ public class ArmorSetDataRegistry {
      *   <li>Wildcard major: {@code all_majors + year + tag}</li>
      *   <li>Wildcard both: {@code all_majors + all_years + tag}</li>
      * </ol>
+     * The returned object is a fresh copy and may be modified freely.
      */
     public static ArmorSetData getData(String major, int year, String tag) {
+        CompiledSet compiled = getCompiled(major, year, tag);
+        return compiled == null ? null : compiled.toArmorSetData();
+    }
+
+
+    /**
+     * Same lookup as {@link #getData}, returning the shared compiled form.
+     * Used on hot paths; the result must not be modified.
+     */
+    public static CompiledSet getCompiled(String major, int year, String tag) {
+        Snapshot snap = current;
+        Map<String, CompiledSet> map = snap.data();
+        String key = makeKey(major, year, tag);
+
         // Priority 1: exact match (e.g. naturalist/3/magiccloth_armor)
-        ArmorSetData data = DATA_MAP.get(makeKey(major, year, tag));
+        // Lazily loaded config sets go first, they override datapack sets
+        CompiledSet data = snap.lazy().covers(major) ? snap.lazy().data(major).get(key) : null;
+        if (data != null) return data;
+        data = map.get(key);
         if (data != null) return data;
 
         // Priority 2: all_majors for this year (e.g. all_majors/3/magiccloth_armor)
-        data = DATA_MAP.get(makeKey(WILDCARD_MAJOR, year, tag));
+        data = map.get(makeKey(WILDCARD_MAJOR, year, tag));
         if (data != null) return data;
 
         // Priority 3: all_majors_all_years (e.g. all_majors_all_years/magiccloth_armor)
-        return DATA_MAP.get(makeKey(WILDCARD_MAJOR, WILDCARD_YEAR, tag));
+        return map.get(makeKey(WILDCARD_MAJOR, WILDCARD_YEAR, tag));
+    }
+
+    /**
+     * The (major, year) scope whose entry {@link #getCompiled} returns for
+     * these arguments, as {@code major:year}, or {@code null} if none
+     * matches. Walks the same fallback; used by the evaluation tracer.
+     */
+    public static String resolveScope(String major, int year, String tag) {
+        Snapshot snap = current;
+        String key = makeKey(major, year, tag);
+        if ((snap.lazy().covers(major) && snap.lazy().data(major).containsKey(key))
+                || snap.data().containsKey(key)) {
+            return major + ":" + year;
+        }
+        if (snap.data().containsKey(makeKey(WILDCARD_MAJOR, year, tag))) {
+            return WILDCARD_MAJOR + ":" + year;
+        }
+        if (snap.data().containsKey(makeKey(WILDCARD_MAJOR, WILDCARD_YEAR, tag))) {
+            return WILDCARD_MAJOR + ":" + WILDCARD_YEAR;
+        }
+        return null;
     }
 
     /**
@@ -65,7 +302,14 @@ public class ArmorSetDataRegistry {
         // Priority 3: all_majors_all_years
         String wildcardBothPrefix = WILDCARD_MAJOR + ":" + WILDCARD_YEAR + ":";
 
-        for (String key : DATA_MAP.keySet()) {
+        Snapshot snap = current;
+        for (String key : snap.lazy().data(major).keySet()) {
+            if (key.startsWith(exactPrefix)) {
+                tagMap.putIfAbsent(key.substring(exactPrefix.length()), true);
+            }
+        }
+
+        for (String key : snap.data().keySet()) {
             String tag = null;
             if (key.startsWith(exactPrefix)) {
                 tag = key.substring(exactPrefix.length());
@@ -85,7 +329,12 @@ public class ArmorSetDataRegistry {
 
 
     public static boolean isItemInAnyRegisteredTag(ItemStack stack) {
-        for (String key : DATA_MAP.keySet()) {
+        Snapshot snap = current;
+        return anyKeyMatches(snap.data().keySet(), stack) || anyKeyMatches(snap.lazy().indexedKeys(), stack);
+    }
+
+    private static boolean anyKeyMatches(Set<String> keys, ItemStack stack) {
+        for (String key : keys) {
             // Key format: "major:year:namespace:tagpath"
             // Tag ist alles ab dem 3. Doppelpunkt
             String[] parts = key.split(":", 3);
@@ -107,12 +356,13 @@ public class ArmorSetDataRegistry {
      * auto-completion only suggests actual majors.
      */
     public static Set<String> getMajors() {
-        return Collections.unmodifiableSet(
-                DATA_MAP.keySet().stream()
-                        .map(key -> key.split(":", 2)[0])
-                        .filter(m -> !WILDCARD_MAJOR.equals(m))
-                        .collect(Collectors.toSet())
-        );
+        Snapshot snap = current;
+        Set<String> majors = snap.data().keySet().stream()
+                .map(key -> key.split(":", 2)[0])
+                .filter(m -> !WILDCARD_MAJOR.equals(m))
+                .collect(Collectors.toSet());
+        majors.addAll(snap.lazy().indexedMajors());
+        return Collections.unmodifiableSet(majors);
     }
 
     // ─── Record for structured iteration ─────────────────────────────────
@@ -139,17 +389,25 @@ public class ArmorSetDataRegistry {
     /**
      * Returns ALL loaded set entries as structured records.
      * Useful for listing, validation, and debug commands.
+     * Each entry carries its own copy of the data.
+     * Never waits: in lazy mode only the majors in memory are included
+     * ({@link #hasUnloadedSets}). To list everything, chain on
+     * {@link #loadAllDeferred} first.
      */
     public static List<SetEntry> getAllEntries() {
+        Snapshot snap = current;
+        Map<String, CompiledSet> all = new HashMap<>(snap.data());
+        all.putAll(snap.lazy().loadedData());
+
         List<SetEntry> entries = new ArrayList<>();
-        for (Map.Entry<String, ArmorSetData> e : DATA_MAP.entrySet()) {
+        for (Map.Entry<String, CompiledSet> e : all.entrySet()) {
             String[] parts = e.getKey().split(":", 3);
             if (parts.length < 3) continue;
             String major = parts[0];
             int year;
             try { year = Integer.parseInt(parts[1]); } catch (NumberFormatException ex) { continue; }
             String tag = parts[2];
-            entries.add(new SetEntry(major, year, tag, e.getValue()));
+            entries.add(new SetEntry(major, year, tag, e.getValue().toArmorSetData()));
         }
         return entries;
     }
@@ -159,8 +417,11 @@ public class ArmorSetDataRegistry {
      * Used for command auto-completion of tag arguments.
      */
     public static Set<String> getAllTags() {
+        Snapshot snap = current;
+        Set<String> keys = new HashSet<>(snap.data().keySet());
+        keys.addAll(snap.lazy().indexedKeys());
         return Collections.unmodifiableSet(
-                DATA_MAP.keySet().stream()
+                keys.stream()
                         .map(key -> {
                             String[] parts = key.split(":", 3);
                             return parts.length >= 3 ? parts[2] : null;
@@ -172,7 +433,7 @@ public class ArmorSetDataRegistry {
 
 
 
-    private static String makeKey(String major, int year, String tag) {
+    static String makeKey(String major, int year, String tag) {
         return major + ":" + year + ":" + tag;
     }
 }
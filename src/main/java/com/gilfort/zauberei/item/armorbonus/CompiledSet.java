@@ -0,0 +1,268 @@
+package com.gilfort.zauberei.item.armorbonus;
+
+import net.minecraft.core.Holder;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.tags.TagKey;
+import net.minecraft.world.effect.MobEffect;
+import net.minecraft.world.entity.ai.attributes.Attribute;
+import net.minecraft.world.entity.ai.attributes.AttributeModifier;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.biome.Biome;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Immutable, registry-resolved form of an {@link ArmorSetData}.
+ *
+ * <p>This is what {@link ArmorSetDataRegistry} stores. Parts are sorted by
+ * threshold and held in plain arrays; effects and attributes carry their
+ * resolved registry holders. All types have structural
+ * {@code equals}/{@code hashCode}, so {@link SetCompiler} can share identical
+ * instances between the many near-copies of a set found in large packs.</p>
+ *
+ * <p>Never hand these arrays out for modification. Code that needs the
+ * mutable authoring model uses {@link #toArmorSetData()}.</p>
+ */
+public final class CompiledSet {
+
+    public record EffectEntry(Holder<MobEffect> effect, String id, int amplifier) {}
+
+    public record AttributeEntry(Holder<Attribute> attribute, String id,
+                                 AttributeModifier.Operation operation, String modifier, double value) {}
+
+    public enum ProcTrigger {
+        ON_HIT("on_hit"), ON_HURT("on_hurt"), ON_KILL("on_kill");
+
+        private final String id;
+
+        ProcTrigger(String id) {
+            this.id = id;
+        }
+
+        public String id() { return id; }
+
+        /** Trigger for a JSON id, or {@code null}. */
+        public static ProcTrigger byId(String id) {
+            for (ProcTrigger trigger : values()) {
+                if (trigger.id.equalsIgnoreCase(id)) return trigger;
+            }
+            return null;
+        }
+    }
+
+    /**
+     * @param effect    effect to apply, or {@code null} for heal-only procs
+     * @param targetSelf apply the effect to the wearer instead of the other entity
+     */
+    public record ProcEntry(ProcTrigger trigger, float chance, Holder<MobEffect> effect, String effectId,
+                            int amplifier, int duration, boolean targetSelf, float heal) {}
+
+    /** Bits of {@link Conditions#inputs()}: which world state a condition reads. */
+    public static final int INPUT_DIMENSION = 1;
+    public static final int INPUT_BIOME = 2;
+    public static final int INPUT_TIME = 4;
+    public static final int INPUT_WATER = 8;
+
+    /**
+     * Compiled part conditions; {@code null} components are not checked.
+     *
+     * @param time   the {@code time} value as written; {@code night} is its meaning if it is valid
+     * @param never  a component has no valid value (an empty id list or an unknown time), so the
+     *               conditions never hold; the components still describe what was written
+     * @param inputs bit set of the {@code INPUT_*} values this condition reads; 0 if {@code never}
+     */
+    public record Conditions(List<ResourceKey<Level>> dimensions, List<ResourceKey<Biome>> biomes,
+                             List<TagKey<Biome>> biomeTags, String time, Boolean night, Boolean inWater,
+                             boolean never, int inputs) {
+
+        public boolean test(ConditionInputs in) {
+            if (never) return false;
+            if (dimensions != null && !dimensions.contains(in.dimension())) return false;
+            if (biomes != null || biomeTags != null) {
+                Holder<Biome> biome = in.biome();
+                if (biome == null || !matchesBiome(biome)) return false;
+            }
+            if (night != null && night != in.night()) return false;
+            return inWater == null || inWater == in.inWater();
+        }
+
+        private boolean matchesBiome(Holder<Biome> biome) {
+            if (biomes != null) {
+                for (ResourceKey<Biome> key : biomes) {
+                    if (biome.is(key)) return true;
+                }
+            }
+            if (biomeTags != null) {
+                for (TagKey<Biome> tag : biomeTags) {
+                    if (biome.is(tag)) return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    public static final class Part {
+        private final String key;
+        private final int threshold;
+        private final EffectEntry[] effects;
+        private final AttributeEntry[] attributes;
+        private final ProcEntry[] procs;
+        private final Conditions conditions;
+        private final int hash;
+
+        Part(String key, int threshold, EffectEntry[] effects, AttributeEntry[] attributes, ProcEntry[] procs,
+             Conditions conditions) {
+            this.key = key;
+            this.threshold = threshold;
+            this.effects = effects;
+            this.attributes = attributes;
+            this.procs = procs;
+            this.conditions = conditions;
+            this.hash = Objects.hash(key, threshold, Arrays.hashCode(effects), Arrays.hashCode(attributes),
+                    Arrays.hashCode(procs), conditions);
+        }
+
+        public String key() { return key; }
+        public int threshold() { return threshold; }
+        public EffectEntry[] effects() { return effects; }
+        public AttributeEntry[] attributes() { return attributes; }
+        public ProcEntry[] procs() { return procs; }
+        /** {@code null} if the part is always active. */
+        public Conditions conditions() { return conditions; }
+
+        @Override
+        public boolean equals(Object o) {
+            return this == o || (o instanceof Part p && hash == p.hash && threshold == p.threshold
+                    && key.equals(p.key) && Arrays.equals(effects, p.effects)
+                    && Arrays.equals(attributes, p.attributes) && Arrays.equals(procs, p.procs)
+                    && Objects.equals(conditions, p.conditions));
+        }
+
+        @Override
+        public int hashCode() { return hash; }
+    }
+
+    private final String displayName;
+    /** Sorted by ascending threshold. */
+    private final Part[] parts;
+    /** Union of the condition inputs of all parts; 0 for sets without conditions. */
+    private final int conditionInputs;
+    private final int hash;
+
+    CompiledSet(String displayName, Part[] parts) {
+        this.displayName = displayName;
+        this.parts = parts;
+        int inputs = 0;
+        for (Part part : parts) {
+            if (part.conditions != null) inputs |= part.conditions.inputs();
+        }
+        this.conditionInputs = inputs;
+        this.hash = Objects.hash(displayName, Arrays.hashCode(parts));
+    }
+
+    public String displayName() { return displayName; }
+
+    public Part[] parts() { return parts; }
+
+    public int conditionInputs() { return conditionInputs; }
+
+    /** Highest part whose threshold does not exceed {@code wornParts}, ignoring conditions, or {@code null}. */
+    public Part activePart(int wornParts) {
+        for (int i = parts.length - 1; i >= 0; i--) {
+            if (parts[i].threshold <= wornParts) return parts[i];
+        }
+        return null;
+    }
+
+    /**
+     * Highest part whose threshold does not exceed {@code wornParts} and whose
+     * conditions hold, or {@code null}. A part with failing conditions falls
+     * back to the next lower one.
+     */
+    public Part activePart(int wornParts, ConditionInputs inputs) {
+        for (int i = parts.length - 1; i >= 0; i--) {
+            Part part = parts[i];
+            if (part.threshold <= wornParts && (part.conditions == null || part.conditions.test(inputs))) {
+                return part;
+            }
+        }
+        return null;
+    }
+
+    /** Builds a fresh, independent authoring model of this set. */
+    public ArmorSetData toArmorSetData() {
+        ArmorSetData data = new ArmorSetData();
+        data.setDisplayName(displayName);
+        Map<String, ArmorSetData.PartData> partMap = new LinkedHashMap<>();
+        for (Part part : parts) {
+            ArmorSetData.PartData pd = new ArmorSetData.PartData();
+            List<ArmorSetData.EffectData> effects = new ArrayList<>(part.effects.length);
+            for (EffectEntry e : part.effects) {
+                ArmorSetData.EffectData ed = new ArmorSetData.EffectData();
+                ed.setEffect(e.id());
+                ed.setAmplifier(e.amplifier());
+                effects.add(ed);
+            }
+            Map<String, ArmorSetData.AttributeData> attributes = new LinkedHashMap<>();
+            for (AttributeEntry a : part.attributes) {
+                ArmorSetData.AttributeData ad = new ArmorSetData.AttributeData();
+                ad.setValue(a.value());
+                ad.setModifier(a.modifier());
+                attributes.put(a.id(), ad);
+            }
+            pd.setEffects(effects);
+            pd.setAttributes(attributes);
+            if (part.conditions != null) {
+                pd.setConditions(toConditionData(part.conditions));
+            }
+            if (part.procs.length > 0) {
+                List<ArmorSetData.ProcData> procs = new ArrayList<>(part.procs.length);
+                for (ProcEntry p : part.procs) {
+                    ArmorSetData.ProcData proc = new ArmorSetData.ProcData();
+                    proc.setTrigger(p.trigger().id());
+                    proc.setChance(p.chance());
+                    proc.setEffect(p.effectId());
+                    proc.setAmplifier(p.amplifier());
+                    proc.setDuration(p.duration());
+                    proc.setTarget(p.targetSelf() ? "self" : "other");
+                    proc.setHeal(p.heal());
+                    procs.add(proc);
+                }
+                pd.setProcs(procs);
+            }
+            partMap.put(part.key, pd);
+        }
+        data.setParts(partMap);
+        return data;
+    }
+
+    private static ArmorSetData.ConditionData toConditionData(Conditions c) {
+        ArmorSetData.ConditionData data = new ArmorSetData.ConditionData();
+        if (c.dimensions() != null) {
+            data.setDimension(c.dimensions().stream().map(k -> k.location().toString()).toList());
+        }
+        if (c.biomes() != null || c.biomeTags() != null) {
+            List<String> biomes = new ArrayList<>();
+            if (c.biomes() != null) c.biomes().forEach(k -> biomes.add(k.location().toString()));
+            if (c.biomeTags() != null) c.biomeTags().forEach(t -> biomes.add("#" + t.location()));
+            data.setBiome(biomes);
+        }
+        data.setTime(c.time());
+        data.setInWater(c.inWater());
+        return data;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof CompiledSet c && hash == c.hash
+                && Objects.equals(displayName, c.displayName) && Arrays.equals(parts, c.parts));
+    }
+
+    @Override
+    public int hashCode() { return hash; }
+}
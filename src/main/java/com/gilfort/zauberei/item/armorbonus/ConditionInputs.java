@@ -0,0 +1,22 @@
+package com.gilfort.zauberei.item.armorbonus;
+
+import net.minecraft.core.Holder;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.biome.Biome;
+
+/**
+ * The world state part conditions are tested against. Implementations keep
+ * these values cached and only refresh them when they change, so testing a
+ * condition never queries the level.
+ */
+public interface ConditionInputs {
+
+    ResourceKey<Level> dimension();
+
+    Holder<Biome> biome();
+
+    boolean night();
+
+    boolean inWater();
+}
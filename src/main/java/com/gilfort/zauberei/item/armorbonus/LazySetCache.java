@@ -0,0 +1,267 @@
+package com.gilfort.zauberei.item.armorbonus;
+
+import com.gilfort.zauberei.Config;
+import com.gilfort.zauberei.Zauberei;
+import net.minecraft.Util;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * On-demand storage for the config sets of specific majors (lazy loading mode).
+ *
+ * <p>At load time only the directory index is built: registry key → file,
+ * grouped by major; no file is read. The sets of a major are read, checked
+ * and compiled on a background thread, when a player with that major logs in
+ * or gets it, or else the first time one of its sets is looked up. Lookups
+ * never wait for that: until the major is loaded it has no sets of its own,
+ * so the wildcard fallback applies. Loaded majors are dropped again once
+ * nobody has looked at them for {@link Config#LAZY_SET_IDLE_MINUTES}.
+ * Wildcard folders and datapack sets are never deferred.</p>
+ *
+ * <p>The problems of a major's files are logged the first time it is read
+ * and kept as its {@link #diagnostics}; {@code /zauberei sets validate}
+ * reads files that no load has checked yet.</p>
+ *
+ * <p>One instance belongs to one registry snapshot, so a reload starts with
+ * an empty cache and fresh counters.</p>
+ */
+public class LazySetCache {
+
+    /** Minimum time between two idle sweeps. */
+    private static final long SWEEP_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    public static final LazySetCache EMPTY = new LazySetCache(Map.of(), () -> {});
+
+    /** Sets of one loaded major, keyed like the registry ({@code major:year:tag}). */
+    private static final class LoadedMajor {
+        final Map<String, CompiledSet> data;
+        volatile long lastAccess;
+
+        LoadedMajor(Map<String, CompiledSet> data) {
+            this.data = data;
+            this.lastAccess = System.currentTimeMillis();
+        }
+    }
+
+    /** major → (registry key → file) */
+    private final Map<String, Map<String, File>> index;
+    private final Set<String> indexedKeys;
+    private final Map<String, LoadedMajor> loaded = new ConcurrentHashMap<>();
+    /** Majors being read in the background. */
+    private final Map<String, CompletableFuture<Void>> loading = new ConcurrentHashMap<>();
+    /** Called once a major is loaded or evicted, so caches built from the old state are dropped. */
+    private final Runnable onLoad;
+    /** Entries replaced in memory by an edit; they win over the files until the next full reload. */
+    private final Map<String, Map<String, CompiledSet>> pinned = new ConcurrentHashMap<>();
+    /** Diagnostics of the files read so far, by path relative to set_armor; kept across evictions. */
+    private final Map<String, SetFileDiagnostics> diagnostics = new ConcurrentHashMap<>();
+    /** Majors whose files were logged already, so a major read again after eviction stays quiet. */
+    private final Set<String> reported = ConcurrentHashMap.newKeySet();
+    private volatile long lastSweep = System.currentTimeMillis();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong loadNanos = new AtomicLong();
+
+    public LazySetCache(Map<String, Map<String, File>> index, Runnable onLoad) {
+        this.index = index;
+        this.onLoad = onLoad;
+        Set<String> keys = new HashSet<>();
+        for (Map<String, File> files : index.values()) {
+            keys.addAll(files.keySet());
+        }
+        this.indexedKeys = Collections.unmodifiableSet(keys);
+    }
+
+    public boolean isEmpty() {
+        return index.isEmpty();
+    }
+
+    /** True if sets for this major are deferred (loaded or not). */
+    public boolean covers(String major) {
+        return index.containsKey(major);
+    }
+
+    /** True if the sets of this major are in memory right now. */
+    public boolean isLoaded(String major) {
+        return loaded.containsKey(major);
+    }
+
+    /** True if some indexed major is not in memory right now. */
+    public boolean hasUnloaded() {
+        for (String major : index.keySet()) {
+            if (!loaded.containsKey(major)) return true;
+        }
+        return false;
+    }
+
+    /** All registry keys in the index, without loading anything. */
+    public Set<String> indexedKeys() {
+        return indexedKeys;
+    }
+
+    public Set<String> indexedMajors() {
+        return Collections.unmodifiableSet(index.keySet());
+    }
+
+    /**
+     * Compiled sets of a major. Never waits: a major that is not loaded yet
+     * starts loading and has no sets until it is in. Returns an empty map
+     * for majors that are not in the index.
+     */
+    public Map<String, CompiledSet> data(String major) {
+        LoadedMajor m = get(major);
+        return m == null ? Map.of() : m.data;
+    }
+
+    /** File of an indexed set, relative to set_armor; known without loading the major. */
+    public String origin(String major, String key) {
+        Map<String, File> files = index.get(major);
+        File file = files == null ? null : files.get(key);
+        return file == null ? null : ZaubereiReloadListener.configRelativePath(file);
+    }
+
+    /** Starts loading a major in the background, unless it is loaded, loading or not indexed. */
+    public void prefetch(String major) {
+        if (index.containsKey(major) && !loaded.containsKey(major)) load(major);
+    }
+
+    /** Loads every indexed major in the background; completes once all are in. */
+    public CompletableFuture<Void> loadAll() {
+        return CompletableFuture.allOf(index.keySet().stream()
+                .map(major -> loaded.containsKey(major) ? CompletableFuture.<Void>completedFuture(null) : load(major))
+                .toArray(CompletableFuture[]::new));
+    }
+
+    /**
+     * Replaces one entry of a major, loaded or not. The entry is kept when
+     * the major is evicted and read again, so an edit that only exists in
+     * memory (a client applying a broadcast edit) is not undone by files.
+     */
+    public void pin(String major, String key, CompiledSet set) {
+        pinned.computeIfAbsent(major, k -> new ConcurrentHashMap<>()).put(key, set);
+        loaded.computeIfPresent(major, (k, m) -> {
+            Map<String, CompiledSet> data = new HashMap<>(m.data);
+            data.put(key, set);
+            return new LoadedMajor(Map.copyOf(data));
+        });
+    }
+
+    /** Diagnostics of every file read so far; files of majors never loaded are missing. */
+    public Map<String, SetFileDiagnostics> diagnostics() {
+        return Collections.unmodifiableMap(diagnostics);
+    }
+
+    /** Currently loaded entries of all majors, keyed like the registry. */
+    public Map<String, CompiledSet> loadedData() {
+        Map<String, CompiledSet> all = new HashMap<>();
+        for (LoadedMajor m : loaded.values()) {
+            all.putAll(m.data);
+        }
+        return all;
+    }
+
+    private LoadedMajor get(String major) {
+        if (!index.containsKey(major)) return null;
+
+        sweepIfDue();
+        LoadedMajor m = loaded.get(major);
+        if (m == null) {
+            load(major);
+            return null;
+        }
+        hits.incrementAndGet();
+        m.lastAccess = System.currentTimeMillis();
+        return m;
+    }
+
+    /** Reads a major on a background thread; a major already being read is not read twice. */
+    private CompletableFuture<Void> load(String major) {
+        CompletableFuture<Void> running = loading.get(major);
+        if (running != null) return running;
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        running = loading.putIfAbsent(major, future);
+        if (running != null) return running;
+
+        Util.backgroundExecutor().execute(() -> {
+            try {
+                Map<String, CompiledSet> data = read(major, index.get(major));
+                // compute() serializes with pin(): an edit made while reading is not lost
+                loaded.compute(major, (k, old) -> {
+                    Map<String, CompiledSet> merged = new HashMap<>(data);
+                    merged.putAll(pinned.getOrDefault(major, Map.of()));
+                    return new LoadedMajor(Map.copyOf(merged));
+                });
+                onLoad.run();
+                future.complete(null);
+            } catch (Throwable t) {
+                Zauberei.LOGGER.error("[Zauberei] Failed to load the set definitions of major '{}'", major, t);
+                future.completeExceptionally(t);
+            } finally {
+                loading.remove(major, future);
+            }
+        });
+        return future;
+    }
+
+    private Map<String, CompiledSet> read(String major, Map<String, File> files) {
+        long start = System.nanoTime();
+        ZaubereiReloadListener.LoadResult result =
+                ZaubereiReloadListener.readFiles(files.values(), reported.add(major));
+        diagnostics.putAll(result.diagnostics());
+
+        SetCompiler compiler = new SetCompiler();
+        Map<String, CompiledSet> data = new HashMap<>();
+        for (ArmorSetDataRegistry.SetEntry e : result.entries()) {
+            data.put(ArmorSetDataRegistry.makeKey(e.major(), e.year(), e.tag()), compiler.compile(e.data()));
+        }
+
+        long nanos = System.nanoTime() - start;
+        loads.incrementAndGet();
+        loadNanos.addAndGet(nanos);
+        Zauberei.LOGGER.info("[Zauberei] Lazily loaded {} set(s) for major '{}' in {} ms",
+                data.size(), major, nanos / 1_000_000);
+        return data;
+    }
+
+    // ─── Eviction ────────────────────────────────────────────────────────
+
+    /** Runs at most once per minute, piggybacking on lookups. */
+    private void sweepIfDue() {
+        long now = System.currentTimeMillis();
+        if (now - lastSweep < SWEEP_INTERVAL_MILLIS) return;
+        lastSweep = now;
+
+        int idleMinutes = Config.LAZY_SET_IDLE_MINUTES.get();
+        if (idleMinutes <= 0) return;
+        long cutoff = now - TimeUnit.MINUTES.toMillis(idleMinutes);
+        boolean evicted = loaded.entrySet().removeIf(e -> {
+            if (e.getValue().lastAccess >= cutoff) return false;
+            evictions.incrementAndGet();
+            Zauberei.LOGGER.debug("[Zauberei] Evicted idle set definitions of major '{}'", e.getKey());
+            return true;
+        });
+        if (evicted) onLoad.run();
+    }
+
+    // ─── Metrics ─────────────────────────────────────────────────────────
+
+    public record Stats(int indexedMajors, int indexedFiles, List<String> loadedMajors,
+                        long hits, long loads, long evictions, long loadMillis) {}
+
+    public Stats stats() {
+        return new Stats(index.size(), indexedKeys.size(), loaded.keySet().stream().sorted().toList(),
+                hits.get(), loads.get(), evictions.get(), loadNanos.get() / 1_000_000);
+    }
+}
@@ -0,0 +1,392 @@
+package com.gilfort.zauberei.item.armorbonus;
+
+import com.gilfort.zauberei.util.ZaubereiIO;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import net.minecraft.Util;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.resources.ResourceLocation;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Bulk changes over many set definitions at once, for
+ * {@code /zauberei sets bulk}: scale attribute values, replace an effect id
+ * or clamp amplifiers, across the sets picked by a {@link Filter}.
+ *
+ * <p>A bulk edit is {@link #plan planned} first: once every lazily loaded
+ * major is in, the selected sets are transformed in parallel in the
+ * background into per-set {@link SetDelta}s and a readable diff, and the
+ * deltas are applied to each set's file as it is on disk, so entries the
+ * loader skipped survive; nothing is written. {@link #write} then writes all changed
+ * files as one batch ({@link ZaubereiIO#writeAllAtomic}), and
+ * {@link #publish} puts all of them into the registry in one update. Sets
+ * from datapacks, sets using {@code extends} or {@code yearScaling}, and sets
+ * with an editor save in flight are skipped and reported.</p>
+ */
+public final class SetBulkEdit {
+
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    private static final Pattern PART_KEY = Pattern.compile("(\\d+)Part");
+
+    private SetBulkEdit() {}
+
+    // ─── Actions ─────────────────────────────────────────────────────────
+
+    public enum Operation { SCALE, REPLACE_EFFECT, CLAMP }
+
+    /** What to do with each selected set. */
+    public record Action(Operation op, double factor, String from, String to, int min, int max) {
+
+        public static Action scale(double factor) {
+            return new Action(Operation.SCALE, factor, null, null, 0, 0);
+        }
+
+        public static Action replaceEffect(String from, String to) {
+            return new Action(Operation.REPLACE_EFFECT, 0, from, to, 0, 0);
+        }
+
+        public static Action clamp(int min, int max) {
+            return new Action(Operation.CLAMP, 0, null, null, min, max);
+        }
+
+        public String describe() {
+            return switch (op) {
+                case SCALE -> "scale attributes ×" + factor;
+                case REPLACE_EFFECT -> "replace effect " + from + " → " + to;
+                case CLAMP -> "clamp amplifiers to " + min + ".." + max;
+            };
+        }
+    }
+
+    /**
+     * Which sets a bulk edit touches, parsed from {@code key=value} words:
+     * {@code major=}, {@code year=} ({@code all} for the wildcards),
+     * {@code tag=} (with {@code *} as wildcard) and {@code attribute=}.
+     * {@code attribute} also limits scaling to that attribute.
+     */
+    public record Filter(String major, Integer year, Pattern tag, String attribute) {
+
+        public static final Filter ALL = new Filter(null, null, null, null);
+
+        /** @throws IllegalArgumentException with a message for the player */
+        public static Filter parse(String text) {
+            String major = null;
+            Integer year = null;
+            Pattern tag = null;
+            String attribute = null;
+            for (String word : text.trim().split("\\s+")) {
+                if (word.isEmpty()) continue;
+                int eq = word.indexOf('=');
+                if (eq <= 0 || eq == word.length() - 1) {
+                    throw new IllegalArgumentException("Expected key=value, got '" + word + "'");
+                }
+                String key = word.substring(0, eq).toLowerCase(Locale.ROOT);
+                String value = word.substring(eq + 1).toLowerCase(Locale.ROOT);
+                switch (key) {
+                    case "major" -> major = value.equals("all") ? ArmorSetDataRegistry.WILDCARD_MAJOR : value;
+                    case "year" -> {
+                        if (value.equals("all")) {
+                            year = ArmorSetDataRegistry.WILDCARD_YEAR;
+                        } else {
+                            try {
+                                year = Integer.parseInt(value);
+                            } catch (NumberFormatException e) {
+                                throw new IllegalArgumentException("Invalid year '" + value + "'");
+                            }
+                        }
+                    }
+                    case "tag" -> tag = glob(value);
+                    case "attribute" -> {
+                        if (ResourceLocation.tryParse(value) == null) {
+                            throw new IllegalArgumentException("Invalid attribute '" + value + "'");
+                        }
+                        attribute = value.contains(":") ? value : "minecraft:" + value;
+                    }
+                    default -> throw new IllegalArgumentException(
+                            "Unknown filter '" + key + "' (use major, year, tag or attribute)");
+                }
+            }
+            return new Filter(major, year, tag, attribute);
+        }
+
+        boolean matches(ArmorSetDataRegistry.SetEntry entry) {
+            if (major != null && !major.equals(entry.major())) return false;
+            if (year != null && year != entry.year()) return false;
+            if (tag != null && !tag.matcher(entry.tag()).matches()) return false;
+            return attribute == null || hasAttribute(entry.data(), attribute);
+        }
+
+        public String describe() {
+            List<String> parts = new ArrayList<>();
+            if (major != null) parts.add("major=" + major);
+            if (year != null) parts.add("year=" + (year == ArmorSetDataRegistry.WILDCARD_YEAR ? "all" : year));
+            if (tag != null) parts.add("tag=" + tag.pattern());
+            if (attribute != null) parts.add("attribute=" + attribute);
+            return parts.isEmpty() ? "all sets" : String.join(" ", parts);
+        }
+
+        private static Pattern glob(String glob) {
+            StringBuilder regex = new StringBuilder();
+            for (String literal : glob.split("\\*", -1)) {
+                if (!regex.isEmpty()) regex.append(".*");
+                if (!literal.isEmpty()) regex.append(Pattern.quote(literal));
+            }
+            return Pattern.compile(regex.toString());
+        }
+    }
+
+    // ─── Plan ────────────────────────────────────────────────────────────
+
+    /**
+     * One set that changes: the deltas, the result and where it is written.
+     * {@code problem} says why it cannot be written; {@code result},
+     * {@code json} and possibly {@code file} are {@code null} then.
+     * {@code generation} is the set's edit generation when it was read.
+     */
+    public record SetChange(ArmorSetDataRegistry.SetEntry entry, List<SetDelta> deltas, List<String> diff,
+                            ArmorSetData result, String json, File file, long generation, String problem) {
+
+        public String relativePath() {
+            return file == null ? entry.tag() : ZaubereiReloadListener.configRelativePath(file);
+        }
+
+        String key() {
+            return ArmorSetDataRegistry.makeKey(entry.major(), entry.year(), entry.tag());
+        }
+    }
+
+    /** A set the filter selected and the action would change, but that is left alone. */
+    public record Skipped(ArmorSetDataRegistry.SetEntry entry, String where, String reason) {}
+
+    public record Plan(Action action, Filter filter, int selected, List<SetChange> changes, List<Skipped> skipped) {}
+
+    /**
+     * Works out what the action changes, without writing anything. Waits
+     * for lazily loaded majors and transforms the selected sets in the
+     * background; the checks that touch editor state run afterwards on
+     * {@code server}, where the returned future completes.
+     *
+     * @throws IllegalArgumentException if the action itself is invalid
+     */
+    public static CompletableFuture<Plan> plan(Action action, Filter filter, Executor server) {
+        check(action);
+        record Candidates(int selected, List<SetChange> changes) {}
+        return ArmorSetDataRegistry.loadAllDeferred()
+                .thenApplyAsync(v -> {
+                    List<ArmorSetDataRegistry.SetEntry> selected = ArmorSetDataRegistry.getAllEntries().stream()
+                            .filter(filter::matches)
+                            .sorted(Comparator.comparing(ArmorSetDataRegistry.SetEntry::tag)
+                                    .thenComparing(ArmorSetDataRegistry.SetEntry::major)
+                                    .thenComparingInt(ArmorSetDataRegistry.SetEntry::year))
+                            .toList();
+                    List<SetChange> changes = selected.parallelStream()
+                            .map(entry -> transform(action, filter, entry))
+                            .filter(change -> change != null)
+                            .toList();
+                    return new Candidates(selected.size(), changes);
+                }, Util.backgroundExecutor())
+                .thenApplyAsync(candidates -> check(action, filter, candidates.selected(), candidates.changes()),
+                        server);
+    }
+
+    private static Plan check(Action action, Filter filter, int selected, List<SetChange> candidates) {
+        List<SetChange> changes = new ArrayList<>();
+        List<Skipped> skipped = new ArrayList<>();
+        for (SetChange change : candidates) {
+            ArmorSetDataRegistry.SetEntry e = change.entry();
+            String origin = ArmorSetDataRegistry.getOrigin(e.major(), e.year(), e.tag());
+            String reason = null;
+            if (origin != null && ZaubereiReloadListener.isDatapackOrigin(origin)) {
+                reason = "from a datapack";
+            } else if (ArmorSetDataRegistry.isDerived(e.major(), e.year(), e.tag())) {
+                reason = "uses extends or yearScaling";
+            } else if (change.problem() != null) {
+                reason = change.problem();
+            } else if (SetEdits.isInFlight(change.key())) {
+                reason = "an edit is being saved";
+            } else if (SetEdits.generation(change.key()) != change.generation()) {
+                // An editor save went through after the file was read; writing would undo it
+                reason = "edited while the change was planned";
+            } else if (change.deltas().size() > SetDelta.MAX_PER_EDIT) {
+                reason = "too many changes (" + change.deltas().size() + ")";
+            }
+            if (reason != null) {
+                skipped.add(new Skipped(e, origin != null ? origin : e.tag(), reason));
+            } else {
+                changes.add(change);
+            }
+        }
+        return new Plan(action, filter, selected, List.copyOf(changes), List.copyOf(skipped));
+    }
+
+    /** Writes every change of the plan as one batch; completes on an I/O thread. */
+    public static CompletableFuture<Void> write(Plan plan) {
+        Map<Path, String> files = new LinkedHashMap<>();
+        for (SetChange change : plan.changes()) {
+            files.put(change.file().toPath(), change.json());
+            SetEdits.hold(change.key(), change.json());
+        }
+        return ZaubereiIO.writeAllAtomic(files);
+    }
+
+    /** Puts a written plan into the registry in one update. Call on the server thread. */
+    public static void publish(Plan plan) {
+        List<ArmorSetDataRegistry.SetEntry> entries = new ArrayList<>();
+        List<String> origins = new ArrayList<>();
+        for (SetChange change : plan.changes()) {
+            ArmorSetDataRegistry.SetEntry e = change.entry();
+            entries.add(new ArmorSetDataRegistry.SetEntry(e.major(), e.year(), e.tag(), change.result()));
+            origins.add(change.relativePath());
+        }
+        ArmorSetDataRegistry.replaceAll(entries, origins);
+        forget(plan);
+    }
+
+    /** Drops the in-flight state of a plan that failed to write. */
+    public static void forget(Plan plan) {
+        for (SetChange change : plan.changes()) {
+            SetEdits.release(change.key(), change.json());
+        }
+    }
+
+    // ─── Transformation ──────────────────────────────────────────────────
+
+    private static void check(Action action) {
+        switch (action.op()) {
+            case SCALE -> {
+                if (!Double.isFinite(action.factor()) || action.factor() <= 0) {
+                    throw new IllegalArgumentException("Invalid factor " + action.factor());
+                }
+            }
+            case REPLACE_EFFECT -> {
+                ResourceLocation to = ResourceLocation.tryParse(action.to());
+                if (to == null || !BuiltInRegistries.MOB_EFFECT.containsKey(to)) {
+                    throw new IllegalArgumentException("Unknown effect '" + action.to() + "'");
+                }
+                if (action.from().equals(action.to())) {
+                    throw new IllegalArgumentException("Both effects are the same");
+                }
+            }
+            case CLAMP -> {
+                if (action.min() < 0 || action.max() > 255 || action.min() > action.max()) {
+                    throw new IllegalArgumentException("Invalid range " + action.min() + ".." + action.max());
+                }
+            }
+        }
+    }
+
+    /**
+     * The change for one set, or {@code null} if the action does not affect
+     * it. Thread-safe; reads the set's file.
+     */
+    private static SetChange transform(Action action, Filter filter, ArmorSetDataRegistry.SetEntry entry) {
+        // Taken before the set and its file are read, so check() sees any edit that started or ended since
+        long generation = SetEdits.generation(
+                ArmorSetDataRegistry.makeKey(entry.major(), entry.year(), entry.tag()));
+        ArmorSetData data = ArmorSetDataRegistry.getExact(entry.major(), entry.year(), entry.tag());
+        if (data == null || data.getParts() == null) return null;
+
+        List<SetDelta> deltas = new ArrayList<>();
+        List<String> diff = new ArrayList<>();
+        for (Map.Entry<String, ArmorSetData.PartData> p : data.getParts().entrySet()) {
+            Matcher m = PART_KEY.matcher(p.getKey());
+            if (!m.matches()) continue;
+            int part = Integer.parseInt(m.group(1));
+            if (part < 1 || part > SetDelta.MAX_PART) continue;
+            ArmorSetData.PartData pd = p.getValue();
+
+            switch (action.op()) {
+                case SCALE -> {
+                    if (pd.getAttributes() == null) break;
+                    pd.getAttributes().forEach((id, ad) -> {
+                        if (filter.attribute() != null && !filter.attribute().equals(id)) return;
+                        double value = round(ad.getValue() * action.factor());
+                        if (Double.compare(value, ad.getValue()) == 0) return;
+                        deltas.add(SetDelta.putAttribute(part, id, value, ad.getModifier()));
+                        diff.add(p.getKey() + "  " + id + "  " + ad.getValue() + " → " + value);
+                    });
+                }
+                case REPLACE_EFFECT -> {
+                    if (pd.getEffects() == null) break;
+                    int fromAmp = -1, toAmp = -1;
+                    for (ArmorSetData.EffectData ed : pd.getEffects()) {
+                        if (action.from().equals(ed.getEffect())) fromAmp = ed.getAmplifier();
+                        if (action.to().equals(ed.getEffect())) toAmp = ed.getAmplifier();
+                    }
+                    if (fromAmp < 0) break;
+                    // Ist das Ziel-Effekt schon da, gewinnt der höhere Amplifier
+                    deltas.add(SetDelta.removeEffect(part, action.from()));
+                    deltas.add(SetDelta.putEffect(part, action.to(), Math.max(fromAmp, toAmp)));
+                    diff.add(p.getKey() + "  " + action.from() + " → " + action.to()
+                            + " (amplifier " + Math.max(fromAmp, toAmp) + ")");
+                }
+                case CLAMP -> {
+                    if (pd.getEffects() == null) break;
+                    for (ArmorSetData.EffectData ed : pd.getEffects()) {
+                        int amp = Math.max(action.min(), Math.min(action.max(), ed.getAmplifier()));
+                        if (amp == ed.getAmplifier()) continue;
+                        deltas.add(SetDelta.putEffect(part, ed.getEffect(), amp));
+                        diff.add(p.getKey() + "  " + ed.getEffect() + "  amplifier "
+                                + ed.getAmplifier() + " → " + amp);
+                    }
+                }
+            }
+        }
+        if (deltas.isEmpty()) return null;
+
+        List<SetDelta> list = List.copyOf(deltas);
+        List<String> lines = List.copyOf(diff);
+        File file;
+        try {
+            file = ZaubereiReloadListener.configFileFor(entry.major(), entry.year(), entry.tag());
+        } catch (IllegalArgumentException e) {
+            return new SetChange(entry, list, lines, null, null, null, generation, "file would lie outside the config folder");
+        }
+
+        // Deltas go onto the file as it is on disk, like editor saves; the loaded set lacks skipped entries
+        JsonObject root;
+        try {
+            root = SetEdits.read(entry.major(), entry.year(), entry.tag(), file);
+        } catch (IOException | JsonParseException e) {
+            return new SetChange(entry, list, lines, null, null, file, generation, "could not read the file: " + e.getMessage());
+        }
+        for (SetDelta delta : list) {
+            delta.applyTo(root);
+        }
+        String json = GSON.toJson(root);
+        ArmorSetDataAdapter.Result read = ArmorSetDataAdapter.read(new StringReader(json));
+        if (read.hasErrors()) {
+            return new SetChange(entry, list, lines, null, null, file, generation, "the result would not load");
+        }
+        return new SetChange(entry, list, lines, read.data(), json, file, generation, null);
+    }
+
+    private static boolean hasAttribute(ArmorSetData data, String attribute) {
+        if (data.getParts() == null) return false;
+        for (ArmorSetData.PartData pd : data.getParts().values()) {
+            if (pd.getAttributes() != null && pd.getAttributes().containsKey(attribute)) return true;
+        }
+        return false;
+    }
+
+    /** Four decimals, so scaled values stay readable in the JSON files. */
+    private static double round(double value) {
+        return Math.round(value * 10_000d) / 10_000d;
+    }
+}
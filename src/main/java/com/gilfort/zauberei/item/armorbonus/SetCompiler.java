@@ -0,0 +1,289 @@
+package com.gilfort.zauberei.item.armorbonus;
+
+import com.gilfort.zauberei.Zauberei;
+import net.minecraft.core.Holder;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.tags.TagKey;
+import net.minecraft.world.effect.MobEffect;
+import net.minecraft.world.entity.ai.attributes.Attribute;
+import net.minecraft.world.entity.ai.attributes.AttributeModifier;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.biome.Biome;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Turns loaded {@link ArmorSetData} into shared {@link CompiledSet}s.
+ *
+ * <p>One compiler is used per registry publish. Strings, effect/attribute
+ * entries, parts and whole sets are interned by structural equality, so a set
+ * copied into many major/year folders is stored once (and a copy that only
+ * differs in one part shares all other parts).</p>
+ *
+ * <p>It also keeps a rough heap estimate of the loaded form versus the
+ * compiled form for the load log. The numbers use typical 64-bit
+ * compressed-oops object sizes; they are for comparison only.</p>
+ */
+public class SetCompiler {
+
+    // Rough object sizes in bytes (header + fields, 8-byte aligned)
+    private static final int OBJ = 16;
+    private static final int REF = 4;
+    private static final int HASHMAP = 48;
+    private static final int HASHMAP_NODE = 32;
+    private static final int ARRAYLIST = 24;
+    private static final int ARRAY = 16;
+
+    private final Map<Object, Object> pool = new HashMap<>();
+
+    private long loadedBytes;
+    private long compiledBytes;
+    private int setsIn;
+    private int setsShared;
+    private int partsIn;
+    private int partsShared;
+
+    public CompiledSet compile(ArmorSetData data) {
+        setsIn++;
+        loadedBytes += estimate(data);
+
+        List<CompiledSet.Part> parts = new ArrayList<>();
+        if (data.getParts() != null) {
+            for (Map.Entry<String, ArmorSetData.PartData> e : data.getParts().entrySet()) {
+                int threshold;
+                try {
+                    threshold = Integer.parseInt(e.getKey().replace("Part", ""));
+                } catch (NumberFormatException ex) {
+                    continue; // malformed keys were never active
+                }
+                parts.add(compilePart(e.getKey(), threshold, e.getValue()));
+            }
+        }
+        parts.sort(Comparator.comparingInt(CompiledSet.Part::threshold));
+
+        CompiledSet set = new CompiledSet(str(data.getDisplayName()), parts.toArray(new CompiledSet.Part[0]));
+        CompiledSet shared = intern(set);
+        if (shared != set) {
+            setsShared++;
+        } else {
+            compiledBytes += OBJ + 2 * REF + 4 + ARRAY + parts.size() * REF;
+        }
+        return shared;
+    }
+
+    private CompiledSet.Part compilePart(String key, int threshold, ArmorSetData.PartData pd) {
+        partsIn++;
+        List<CompiledSet.EffectEntry> effects = new ArrayList<>();
+        if (pd.getEffects() != null) {
+            for (ArmorSetData.EffectData ed : pd.getEffects()) {
+                ResourceLocation id = ArmorSetDataAdapter.normalize(ed.getEffect());
+                Optional<Holder.Reference<MobEffect>> holder = id == null ? Optional.empty()
+                        : BuiltInRegistries.MOB_EFFECT.getHolder(id);
+                if (holder.isEmpty()) continue;
+                CompiledSet.EffectEntry entry = new CompiledSet.EffectEntry(holder.get(), str(id.toString()),
+                        ed.getAmplifier());
+                effects.add(internCounted(entry, OBJ + 2 * REF + 4));
+            }
+        }
+
+        List<CompiledSet.AttributeEntry> attributes = new ArrayList<>();
+        if (pd.getAttributes() != null) {
+            for (Map.Entry<String, ArmorSetData.AttributeData> e : pd.getAttributes().entrySet()) {
+                ResourceLocation id = ArmorSetDataAdapter.normalize(e.getKey());
+                Optional<Holder.Reference<Attribute>> holder = id == null ? Optional.empty()
+                        : BuiltInRegistries.ATTRIBUTE.getHolder(id);
+                AttributeModifier.Operation operation = parseOperation(e.getValue().getModifier());
+                if (holder.isEmpty() || operation == null) continue;
+                CompiledSet.AttributeEntry entry = new CompiledSet.AttributeEntry(holder.get(), str(id.toString()),
+                        operation, str(e.getValue().getModifier().toLowerCase()), e.getValue().getValue());
+                attributes.add(internCounted(entry, OBJ + 4 * REF + 8));
+            }
+        }
+
+        List<CompiledSet.ProcEntry> procs = new ArrayList<>();
+        if (pd.getProcs() != null) {
+            for (ArmorSetData.ProcData proc : pd.getProcs()) {
+                CompiledSet.ProcEntry entry = compileProc(proc);
+                if (entry != null) procs.add(internCounted(entry, OBJ + 3 * REF + 4 * 4 + 1));
+            }
+        }
+
+        CompiledSet.Part part = new CompiledSet.Part(str(key), threshold,
+                effects.toArray(new CompiledSet.EffectEntry[0]),
+                attributes.toArray(new CompiledSet.AttributeEntry[0]),
+                procs.toArray(new CompiledSet.ProcEntry[0]),
+                pd.getConditions() == null ? null : intern(compileConditions(pd.getConditions())));
+        CompiledSet.Part shared = intern(part);
+        if (shared != part) {
+            partsShared++;
+        } else {
+            compiledBytes += OBJ + 4 * REF + 8 + 3 * ARRAY
+                    + (effects.size() + attributes.size() + procs.size()) * REF;
+        }
+        return shared;
+    }
+
+    private static CompiledSet.Conditions compileConditions(ArmorSetData.ConditionData data) {
+        int inputs = 0;
+        // A component without a valid value can never hold, so neither can the conditions
+        boolean never = false;
+        List<ResourceKey<Level>> dimensions = null;
+        if (data.getDimension() != null) {
+            dimensions = new ArrayList<>();
+            for (String id : data.getDimension()) {
+                ResourceLocation loc = ResourceLocation.tryParse(id);
+                if (loc != null) dimensions.add(ResourceKey.create(Registries.DIMENSION, loc));
+            }
+            if (dimensions.isEmpty()) never = true;
+            inputs |= CompiledSet.INPUT_DIMENSION;
+        }
+        List<ResourceKey<Biome>> biomes = null;
+        List<TagKey<Biome>> biomeTags = null;
+        if (data.getBiome() != null) {
+            for (String id : data.getBiome()) {
+                boolean tag = id.startsWith("#");
+                ResourceLocation loc = ResourceLocation.tryParse(tag ? id.substring(1) : id);
+                if (loc == null) continue;
+                if (tag) {
+                    if (biomeTags == null) biomeTags = new ArrayList<>();
+                    biomeTags.add(TagKey.create(Registries.BIOME, loc));
+                } else {
+                    if (biomes == null) biomes = new ArrayList<>();
+                    biomes.add(ResourceKey.create(Registries.BIOME, loc));
+                }
+            }
+            // Kept as an empty list, so the condition is still described and written back
+            if (biomes == null && biomeTags == null) {
+                biomes = List.of();
+                never = true;
+            }
+            inputs |= CompiledSet.INPUT_BIOME;
+        }
+        Boolean night = null;
+        if (data.getTime() != null) {
+            switch (data.getTime()) {
+                case "day" -> night = false;
+                case "night" -> night = true;
+                default -> never = true;
+            }
+            if (night != null) inputs |= CompiledSet.INPUT_TIME;
+        }
+        if (data.getInWater() != null) {
+            inputs |= CompiledSet.INPUT_WATER;
+        }
+        return new CompiledSet.Conditions(
+                dimensions == null ? null : List.copyOf(dimensions),
+                biomes == null ? null : List.copyOf(biomes),
+                biomeTags == null ? null : List.copyOf(biomeTags),
+                data.getTime(), night, data.getInWater(), never,
+                never ? 0 : inputs);
+    }
+
+    private CompiledSet.ProcEntry compileProc(ArmorSetData.ProcData proc) {
+        CompiledSet.ProcTrigger trigger = CompiledSet.ProcTrigger.byId(proc.getTrigger());
+        if (trigger == null) return null;
+        Holder<MobEffect> effect = null;
+        String effectId = null;
+        if (proc.getEffect() != null) {
+            ResourceLocation id = ArmorSetDataAdapter.normalize(proc.getEffect());
+            Optional<Holder.Reference<MobEffect>> holder = id == null ? Optional.empty()
+                    : BuiltInRegistries.MOB_EFFECT.getHolder(id);
+            if (holder.isPresent()) {
+                effect = holder.get();
+                effectId = str(id.toString());
+            }
+        }
+        if (effect == null && proc.getHeal() <= 0) return null;
+        boolean targetSelf = proc.getTarget() != null
+                ? "self".equalsIgnoreCase(proc.getTarget())
+                : trigger == CompiledSet.ProcTrigger.ON_KILL;
+        return new CompiledSet.ProcEntry(trigger, (float) proc.getChance(), effect, effectId,
+                proc.getAmplifier(), proc.getDuration(), targetSelf, (float) proc.getHeal());
+    }
+
+    /** Same mapping ArmorEffects has always used. */
+    public static AttributeModifier.Operation parseOperation(String modifier) {
+        if (modifier == null) return null;
+        return switch (modifier.toLowerCase()) {
+            case "addition" -> AttributeModifier.Operation.ADD_VALUE;
+            case "multiply", "multiply_base" -> AttributeModifier.Operation.ADD_MULTIPLIED_BASE;
+            case "multiply_total" -> AttributeModifier.Operation.ADD_MULTIPLIED_TOTAL;
+            default -> null;
+        };
+    }
+
+    // ─── Interning ───────────────────────────────────────────────────────
+
+    @SuppressWarnings("unchecked")
+    private <T> T intern(T value) {
+        return (T) pool.computeIfAbsent(value, v -> v);
+    }
+
+    private <T> T internCounted(T value, int size) {
+        T shared = intern(value);
+        if (shared == value) compiledBytes += size;
+        return shared;
+    }
+
+    private String str(String s) {
+        if (s == null) return null;
+        String shared = intern(s);
+        if (shared == s) compiledBytes += stringSize(s);
+        return shared;
+    }
+
+    // ─── Footprint estimate ──────────────────────────────────────────────
+
+    private static long estimate(ArmorSetData data) {
+        long bytes = OBJ + 2 * REF + stringSize(data.getDisplayName());
+        if (data.getParts() == null) return bytes;
+        bytes += mapSize(data.getParts().size());
+        for (Map.Entry<String, ArmorSetData.PartData> e : data.getParts().entrySet()) {
+            bytes += stringSize(e.getKey()) + OBJ + 2 * REF;
+            ArmorSetData.PartData pd = e.getValue();
+            if (pd.getEffects() != null) {
+                bytes += ARRAYLIST + ARRAY + pd.getEffects().size() * REF;
+                for (ArmorSetData.EffectData ed : pd.getEffects()) {
+                    bytes += OBJ + REF + 4 + stringSize(ed.getEffect());
+                }
+            }
+            if (pd.getAttributes() != null) {
+                bytes += mapSize(pd.getAttributes().size());
+                for (Map.Entry<String, ArmorSetData.AttributeData> ae : pd.getAttributes().entrySet()) {
+                    bytes += stringSize(ae.getKey()) + OBJ + 8 + REF + stringSize(ae.getValue().getModifier());
+                }
+            }
+            if (pd.getProcs() != null) {
+                bytes += ARRAYLIST + ARRAY + pd.getProcs().size() * REF;
+                for (ArmorSetData.ProcData proc : pd.getProcs()) {
+                    bytes += OBJ + 3 * REF + 8 + 4 + 4 + 8 + stringSize(proc.getTrigger())
+                            + stringSize(proc.getEffect()) + stringSize(proc.getTarget());
+                }
+            }
+        }
+        return bytes;
+    }
+
+    private static long mapSize(int entries) {
+        int table = Integer.highestOneBit(Math.max(1, (int) (entries / 0.75f)) * 2 - 1);
+        return HASHMAP + ARRAY + (long) table * REF + (long) entries * HASHMAP_NODE;
+    }
+
+    private static long stringSize(String s) {
+        return s == null ? 0 : OBJ + 8 + ARRAY + s.length();
+    }
+
+    public void logSummary() {
+        Zauberei.LOGGER.info("[Zauberei] Compiled {} set(s): {} shared with an identical set, {} of {} parts shared; "
+                        + "estimated heap ~{} KB as loaded, ~{} KB compiled",
+                setsIn, setsShared, partsShared, partsIn, loadedBytes / 1024, compiledBytes / 1024);
+    }
+}
@@ -0,0 +1,34 @@
+package com.gilfort.zauberei.item.armorbonus;
+
+import net.minecraft.server.packs.resources.ResourceManager;
+import net.minecraft.server.packs.resources.SimplePreparableReloadListener;
+import net.minecraft.util.profiling.ProfilerFiller;
+
+/**
+ * Loads set definitions as part of every server resource reload
+ * (world load and vanilla {@code /reload}).
+ *
+ * <p>All file reading, parsing and compiling — datapack
+ * {@code data/<ns>/zauberei_sets/} as well as {@code config/zauberei/set_armor/}
+ * — happens in {@link #prepare} on the reload executor. {@link #apply} on the
+ * server thread only swaps in the finished registry snapshot.</p>
+ */
+public class SetDefinitionReloadListener
+        extends SimplePreparableReloadListener<ZaubereiReloadListener.Prepared> {
+
+    @Override
+    protected ZaubereiReloadListener.Prepared prepare(ResourceManager resourceManager, ProfilerFiller profiler) {
+        profiler.push("zauberei_sets");
+        ZaubereiReloadListener.Prepared prepared = ZaubereiReloadListener.prepare(
+                ZaubereiReloadListener.readDatapackSets(resourceManager),
+                ZaubereiReloadListener.readConfigSets());
+        profiler.pop();
+        return prepared;
+    }
+
+    @Override
+    protected void apply(ZaubereiReloadListener.Prepared prepared, ResourceManager resourceManager,
+                         ProfilerFiller profiler) {
+        ZaubereiReloadListener.publish(prepared);
+    }
+}
@@ -0,0 +1,293 @@
+package com.gilfort.zauberei.item.armorbonus;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import io.netty.buffer.ByteBuf;
+import net.minecraft.network.codec.ByteBufCodecs;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.resources.ResourceLocation;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * One field-level change to a set definition, as sent between the set
+ * editor and the server: put or remove one effect or attribute of one part,
+ * or change the display name.
+ *
+ * <p>Adding and changing are the same "put" operation, so applying a delta
+ * twice gives the same result as applying it once; an editor that receives
+ * the broadcast of its own change is not affected by it. Procs and
+ * conditions are never touched, so edits keep them as they are in the file.</p>
+ */
+public record SetDelta(Op op, int part, String id, int amplifier, double value, String modifier) {
+
+    public enum Op { PUT_EFFECT, REMOVE_EFFECT, PUT_ATTRIBUTE, REMOVE_ATTRIBUTE, DISPLAY_NAME }
+
+    /** Highest part number ("16Part") an edit may address. */
+    public static final int MAX_PART = 16;
+    public static final int MAX_STRING = 256;
+    /** Most deltas one edit (one packet) may carry. */
+    public static final int MAX_PER_EDIT = 256;
+
+    private static final StreamCodec<ByteBuf, String> STRING = ByteBufCodecs.stringUtf8(MAX_STRING);
+
+    public static SetDelta putEffect(int part, String effect, int amplifier) {
+        return new SetDelta(Op.PUT_EFFECT, part, effect, amplifier, 0, null);
+    }
+
+    public static SetDelta removeEffect(int part, String effect) {
+        return new SetDelta(Op.REMOVE_EFFECT, part, effect, 0, 0, null);
+    }
+
+    public static SetDelta putAttribute(int part, String attribute, double value, String modifier) {
+        return new SetDelta(Op.PUT_ATTRIBUTE, part, attribute, 0, value, modifier);
+    }
+
+    public static SetDelta removeAttribute(int part, String attribute) {
+        return new SetDelta(Op.REMOVE_ATTRIBUTE, part, attribute, 0, 0, null);
+    }
+
+    public static SetDelta displayName(String name) {
+        return new SetDelta(Op.DISPLAY_NAME, 0, name == null ? "" : name, 0, 0, null);
+    }
+
+    /**
+     * Only the fields an operation uses are written: an effect put is the
+     * op, part, id and amplifier; a remove just op, part and id.
+     */
+    public static final StreamCodec<ByteBuf, SetDelta> STREAM_CODEC = StreamCodec.of(
+            (buf, delta) -> {
+                buf.writeByte(delta.op().ordinal());
+                STRING.encode(buf, delta.id());
+                if (delta.op() == Op.DISPLAY_NAME) return;
+                ByteBufCodecs.VAR_INT.encode(buf, delta.part());
+                switch (delta.op()) {
+                    case PUT_EFFECT -> ByteBufCodecs.VAR_INT.encode(buf, delta.amplifier());
+                    case PUT_ATTRIBUTE -> {
+                        buf.writeDouble(delta.value());
+                        STRING.encode(buf,
+                                delta.modifier() == null ? "" : delta.modifier());
+                    }
+                    default -> {}
+                }
+            },
+            buf -> {
+                Op[] ops = Op.values();
+                int ordinal = buf.readByte();
+                if (ordinal < 0 || ordinal >= ops.length) {
+                    throw new IllegalArgumentException("Unknown set delta op " + ordinal);
+                }
+                Op op = ops[ordinal];
+                String id = STRING.decode(buf);
+                if (op == Op.DISPLAY_NAME) return displayName(id);
+                int part = ByteBufCodecs.VAR_INT.decode(buf);
+                return switch (op) {
+                    case PUT_EFFECT -> putEffect(part, id, ByteBufCodecs.VAR_INT.decode(buf));
+                    case PUT_ATTRIBUTE -> {
+                        double value = buf.readDouble();
+                        String modifier = STRING.decode(buf);
+                        yield putAttribute(part, id, value, modifier.isEmpty() ? null : modifier);
+                    }
+                    case REMOVE_ATTRIBUTE -> removeAttribute(part, id);
+                    default -> removeEffect(part, id);
+                };
+            });
+
+    // ─── Applying ────────────────────────────────────────────────────────
+
+    /** Applies an effect or attribute change to one part's lists (the editor's working copy). */
+    public void applyToPart(List<ArmorSetData.EffectData> effects, Map<String, ArmorSetData.AttributeData> attributes) {
+        switch (op) {
+            case PUT_EFFECT -> {
+                for (ArmorSetData.EffectData ed : effects) {
+                    if (id.equals(ed.getEffect())) {
+                        ed.setAmplifier(amplifier);
+                        return;
+                    }
+                }
+                ArmorSetData.EffectData ed = new ArmorSetData.EffectData();
+                ed.setEffect(id);
+                ed.setAmplifier(amplifier);
+                effects.add(ed);
+            }
+            case REMOVE_EFFECT -> effects.removeIf(ed -> id.equals(ed.getEffect()));
+            case PUT_ATTRIBUTE -> {
+                ArmorSetData.AttributeData ad = attributes.computeIfAbsent(id, k -> new ArmorSetData.AttributeData());
+                ad.setValue(value);
+                ad.setModifier(modifier);
+            }
+            case REMOVE_ATTRIBUTE -> attributes.remove(id);
+            default -> {}
+        }
+    }
+
+    /**
+     * Applies this change to a whole definition. Parts are created by a put
+     * and dropped once they have no effects, attributes or procs left.
+     */
+    public void applyTo(ArmorSetData data) {
+        if (op == Op.DISPLAY_NAME) {
+            data.setDisplayName(id.isBlank() ? null : id);
+            return;
+        }
+
+        Map<String, ArmorSetData.PartData> parts = data.getParts() == null
+                ? new LinkedHashMap<>() : new LinkedHashMap<>(data.getParts());
+        String key = part + "Part";
+        ArmorSetData.PartData pd = parts.get(key);
+        if (pd == null) {
+            if (op == Op.REMOVE_EFFECT || op == Op.REMOVE_ATTRIBUTE) return;
+            pd = new ArmorSetData.PartData();
+            parts.put(key, pd);
+        }
+
+        List<ArmorSetData.EffectData> effects = pd.getEffects() == null
+                ? new ArrayList<>() : new ArrayList<>(pd.getEffects());
+        Map<String, ArmorSetData.AttributeData> attributes = pd.getAttributes() == null
+                ? new LinkedHashMap<>() : new LinkedHashMap<>(pd.getAttributes());
+        applyToPart(effects, attributes);
+        pd.setEffects(effects.isEmpty() ? null : effects);
+        pd.setAttributes(attributes.isEmpty() ? null : attributes);
+
+        if (effects.isEmpty() && attributes.isEmpty() && (pd.getProcs() == null || pd.getProcs().isEmpty())) {
+            parts.remove(key);
+        }
+        data.setParts(parts);
+    }
+
+    /**
+     * Applies this change to a set file as it was parsed, for saving. Only
+     * the entry the delta names is touched: ids that do not resolve, unknown
+     * fields, scaling expressions, conditions and procs stay exactly as they
+     * are in the file. Ids are matched the way the loader reads them, so
+     * {@code "speed"} in the file is the same effect as {@code "minecraft:speed"}.
+     */
+    public void applyTo(JsonObject root) {
+        if (op == Op.DISPLAY_NAME) {
+            if (id.isBlank()) root.remove("displayName");
+            else root.addProperty("displayName", id);
+            return;
+        }
+        boolean put = op == Op.PUT_EFFECT || op == Op.PUT_ATTRIBUTE;
+
+        JsonObject parts = child(root, "parts", put);
+        if (parts == null) return;
+        String key = part + "Part";
+        JsonObject pd = child(parts, key, put);
+        if (pd == null) return;
+
+        switch (op) {
+            case PUT_EFFECT, REMOVE_EFFECT -> {
+                JsonArray effects = pd.get("Effects") instanceof JsonArray a ? a : null;
+                if (effects == null) {
+                    if (!put) return;
+                    effects = new JsonArray();
+                    pd.add("Effects", effects);
+                }
+                boolean found = false;
+                for (Iterator<JsonElement> it = effects.iterator(); it.hasNext(); ) {
+                    if (!(it.next() instanceof JsonObject ed) || !sameId(ed.get("Effect"))) continue;
+                    if (put && !found) {
+                        ed.addProperty("Amplifier", amplifier);
+                        found = true;
+                    } else {
+                        it.remove();
+                    }
+                }
+                if (put && !found) {
+                    JsonObject ed = new JsonObject();
+                    ed.addProperty("Effect", id);
+                    ed.addProperty("Amplifier", amplifier);
+                    effects.add(ed);
+                }
+                if (effects.isEmpty()) pd.remove("Effects");
+            }
+            case PUT_ATTRIBUTE, REMOVE_ATTRIBUTE -> {
+                JsonObject attributes = child(pd, "Attributes", put);
+                if (attributes == null) return;
+                String existing = null;
+                for (String name : List.copyOf(attributes.keySet())) {
+                    if (!sameId(name)) continue;
+                    if (put && existing == null && attributes.get(name) instanceof JsonObject) existing = name;
+                    else attributes.remove(name);
+                }
+                if (put) {
+                    JsonObject ad = existing != null ? attributes.getAsJsonObject(existing) : new JsonObject();
+                    ad.addProperty("value", value);
+                    if (modifier != null) ad.addProperty("modifier", modifier);
+                    else ad.remove("modifier");
+                    if (existing == null) attributes.add(id, ad);
+                }
+                if (attributes.isEmpty()) pd.remove("Attributes");
+            }
+            default -> {}
+        }
+
+        if (!pd.has("Effects") && !pd.has("Attributes")
+                && !(pd.get("Procs") instanceof JsonArray procs && !procs.isEmpty())) {
+            parts.remove(key);
+        }
+    }
+
+    /** {@code parent.name} as an object; created if {@code create}, else {@code null} if absent. */
+    private static JsonObject child(JsonObject parent, String name, boolean create) {
+        if (parent.get(name) instanceof JsonObject o) return o;
+        if (!create) return null;
+        JsonObject o = new JsonObject();
+        parent.add(name, o);
+        return o;
+    }
+
+    private boolean sameId(JsonElement raw) {
+        return raw != null && raw.isJsonPrimitive() && sameId(raw.getAsString());
+    }
+
+    private boolean sameId(String raw) {
+        ResourceLocation loc = ArmorSetDataAdapter.normalize(raw);
+        return loc != null && loc.equals(ArmorSetDataAdapter.normalize(id));
+    }
+
+    // ─── Diffing ─────────────────────────────────────────────────────────
+
+    /**
+     * Changes that turn {@code base} into {@code current} for one part.
+     * Effects are matched by effect id, attributes by attribute id.
+     */
+    public static List<SetDelta> diffPart(int part,
+                                          List<ArmorSetData.EffectData> baseEffects,
+                                          Map<String, ArmorSetData.AttributeData> baseAttributes,
+                                          List<ArmorSetData.EffectData> effects,
+                                          Map<String, ArmorSetData.AttributeData> attributes) {
+        List<SetDelta> deltas = new ArrayList<>();
+
+        Map<String, Integer> before = new LinkedHashMap<>();
+        for (ArmorSetData.EffectData ed : baseEffects) before.put(ed.getEffect(), ed.getAmplifier());
+        Map<String, Integer> after = new LinkedHashMap<>();
+        for (ArmorSetData.EffectData ed : effects) after.put(ed.getEffect(), ed.getAmplifier());
+
+        for (String effect : before.keySet()) {
+            if (!after.containsKey(effect)) deltas.add(removeEffect(part, effect));
+        }
+        after.forEach((effect, amp) -> {
+            if (!amp.equals(before.get(effect))) deltas.add(putEffect(part, effect, amp));
+        });
+
+        for (String attribute : baseAttributes.keySet()) {
+            if (!attributes.containsKey(attribute)) deltas.add(removeAttribute(part, attribute));
+        }
+        attributes.forEach((attribute, ad) -> {
+            ArmorSetData.AttributeData old = baseAttributes.get(attribute);
+            if (old == null || Double.compare(old.getValue(), ad.getValue()) != 0
+                    || !Objects.equals(old.getModifier(), ad.getModifier())) {
+                deltas.add(putAttribute(part, attribute, ad.getValue(), ad.getModifier()));
+            }
+        });
+        return deltas;
+    }
+}
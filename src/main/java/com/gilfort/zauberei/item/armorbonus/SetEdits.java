@@ -0,0 +1,247 @@
+package com.gilfort.zauberei.item.armorbonus;
+
+import com.gilfort.zauberei.util.ZaubereiIO;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.resources.ResourceLocation;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Server side of the set editor protocol: checks the deltas a client sent,
+ * applies them to the set they target and saves the result to the config
+ * folder.
+ *
+ * <p>An edit is {@link #prepare prepared} on the server thread, written in
+ * the background and {@link #publish published} to the registry once the
+ * file is on disk. A second edit to the same set that arrives while the
+ * first one is still being written builds on the first one's result, not on
+ * the registry, so neither is lost. All methods run on the server thread,
+ * except {@link #read} and {@link #generation}.</p>
+ */
+public final class SetEdits {
+
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    /** Real majors become folder names, so they are restricted to a safe set of characters. */
+    private static final Pattern MAJOR = Pattern.compile("[a-z0-9_.-]+");
+    /** "." and ".." would point at set_armor itself or above it. */
+    private static final Pattern DOTS = Pattern.compile("\\.+");
+
+    /** JSON of edits written but not yet published, by registry key. */
+    private static final Map<String, String> IN_FLIGHT = new HashMap<>();
+    /**
+     * Counts, per registry key, every time an edit starts or ends. Lets
+     * code that read a set off-thread tell whether an edit got in between.
+     */
+    private static final Map<String, Long> GENERATIONS = new ConcurrentHashMap<>();
+
+    private SetEdits() {}
+
+    /**
+     * A checked edit: the new definition and where it is written, or an
+     * error message. {@code json} is exactly what goes to disk.
+     */
+    public record Prepared(String major, int year, String tag, ArmorSetData data, String json,
+                           File file, List<SetDelta> deltas, String error) {
+
+        static Prepared failed(String error) {
+            return new Prepared(null, 0, null, null, null, null, List.of(), error);
+        }
+
+        public String relativePath() {
+            return ZaubereiReloadListener.configRelativePath(file);
+        }
+    }
+
+    /** Checks scope and deltas and applies them to the set as it is in its file. */
+    public static Prepared prepare(String major, int year, String tag, List<SetDelta> deltas) {
+        String error = checkScope(major, year, tag);
+        if (error != null) return Prepared.failed(error);
+        if (deltas.isEmpty()) return Prepared.failed("Nothing to save");
+        if (ArmorSetDataRegistry.isDerived(major, year, tag)) {
+            return Prepared.failed("This set uses 'extends' or yearScaling – edit its JSON file instead");
+        }
+        for (SetDelta delta : deltas) {
+            error = check(delta);
+            if (error != null) return Prepared.failed(error);
+        }
+
+        File file;
+        try {
+            file = ZaubereiReloadListener.configFileFor(major, year, tag);
+        } catch (IllegalArgumentException e) {
+            return Prepared.failed("Invalid set location");
+        }
+        String key = ArmorSetDataRegistry.makeKey(major, year, tag);
+        JsonObject root;
+        try {
+            root = source(key, major, year, tag, file);
+        } catch (IOException | JsonParseException e) {
+            return Prepared.failed("Could not read " + ZaubereiReloadListener.configRelativePath(file)
+                    + ": " + e.getMessage());
+        }
+        for (SetDelta delta : deltas) {
+            delta.applyTo(root);
+        }
+
+        // Was gespeichert wird, muss der Loader auch so wieder lesen
+        String json = GSON.toJson(root);
+        ArmorSetDataAdapter.Result result = ArmorSetDataAdapter.read(new StringReader(json));
+        if (result.hasErrors()) {
+            return Prepared.failed(result.problems().stream()
+                    .filter(p -> p.severity() == ArmorSetDataAdapter.Severity.ERROR)
+                    .map(ArmorSetDataAdapter.Problem::message)
+                    .findFirst().orElse("The edited set is not valid"));
+        }
+        ArmorSetData data = result.data();
+        // Also catches files of a lazily loaded major nobody has read yet
+        if (data.isDerived()) {
+            return Prepared.failed("This set uses 'extends' or yearScaling – edit its JSON file instead");
+        }
+        if (data.getParts() == null || data.getParts().isEmpty()) {
+            return Prepared.failed("A set needs at least one part with an effect or attribute");
+        }
+
+        hold(key, json);
+        return new Prepared(major, year, tag, data, json, file, List.copyOf(deltas), null);
+    }
+
+    /**
+     * The JSON a change to a set starts from: an edit of it that is still
+     * being written, else {@link #read what is saved}.
+     */
+    static JsonObject source(String key, String major, int year, String tag, File file) throws IOException {
+        String pending = IN_FLIGHT.get(key);
+        return pending != null ? parse(pending) : read(major, year, tag, file);
+    }
+
+    /**
+     * The set's config file as it is on disk, so entries the loader skipped
+     * survive the save. A set that has no config file yet (a new one, or one
+     * from a datapack) starts from its loaded definition. Ignores edits in
+     * flight, so unlike {@link #source} it may run off the server thread.
+     */
+    static JsonObject read(String major, int year, String tag, File file) throws IOException {
+        if (!file.isFile()) {
+            ArmorSetData exact = ArmorSetDataRegistry.getExact(major, year, tag);
+            return exact == null ? new JsonObject() : new ArmorSetDataAdapter().toJsonTree(exact).getAsJsonObject();
+        }
+        return parse(Files.readString(file.toPath(), StandardCharsets.UTF_8));
+    }
+
+    private static JsonObject parse(String text) {
+        JsonElement root = JsonParser.parseString(text);
+        if (!root.isJsonObject()) throw new JsonParseException("root element is not a JSON object");
+        return root.getAsJsonObject();
+    }
+
+    /** Writes a prepared edit atomically; completes on an I/O thread. */
+    public static CompletableFuture<Void> write(Prepared edit) {
+        return ZaubereiIO.writeAtomic(edit.file().toPath(), edit.json());
+    }
+
+    /** Puts a written edit into the registry. Call on the server thread. */
+    public static void publish(Prepared edit) {
+        ArmorSetDataRegistry.replace(edit.major(), edit.year(), edit.tag(), edit.data(), edit.relativePath());
+        forget(edit);
+    }
+
+    /** Drops the in-flight state of an edit that failed to write. */
+    public static void forget(Prepared edit) {
+        release(ArmorSetDataRegistry.makeKey(edit.major(), edit.year(), edit.tag()), edit.json());
+    }
+
+    // ─── Shared with bulk edits ──────────────────────────────────────────
+
+    /** True while an edit of the set with this registry key is being written. */
+    static boolean isInFlight(String key) {
+        return IN_FLIGHT.containsKey(key);
+    }
+
+    /**
+     * The set's edit generation; it changes when an edit of the set is
+     * prepared and again when it is published or dropped. Safe to call off
+     * the server thread, before {@link #read}.
+     */
+    static long generation(String key) {
+        return GENERATIONS.getOrDefault(key, 0L);
+    }
+
+    /** Marks a set as being written by someone else, so edits build on {@code json}. */
+    static void hold(String key, String json) {
+        IN_FLIGHT.put(key, json);
+        GENERATIONS.merge(key, 1L, Long::sum);
+    }
+
+    static void release(String key, String json) {
+        if (IN_FLIGHT.remove(key, json)) GENERATIONS.merge(key, 1L, Long::sum);
+    }
+
+    // ─── Checks ──────────────────────────────────────────────────────────
+
+    static String checkScope(String major, int year, String tag) {
+        ResourceLocation id = ResourceLocation.tryParse(tag);
+        // Der Tag wird zum Dateinamen: keine Unterordner, kein ".."
+        if (id == null || !tag.contains(":") || id.getPath().contains("/") || id.getPath().contains("..")) {
+            return "Invalid tag '" + tag + "'";
+        }
+        boolean wildMajor = ArmorSetDataRegistry.WILDCARD_MAJOR.equals(major);
+        if (!wildMajor && (!MAJOR.matcher(major).matches() || DOTS.matcher(major).matches()
+                || major.equals("all_majors") || major.equals("all_majors_all_years"))) {
+            return "Invalid major '" + major + "'";
+        }
+        if (year == ArmorSetDataRegistry.WILDCARD_YEAR) {
+            if (!wildMajor) return "A specific major needs a specific year";
+        } else if (year < 1) {
+            return "Invalid year " + year;
+        }
+        return null;
+    }
+
+    static String check(SetDelta delta) {
+        if (delta.op() == SetDelta.Op.DISPLAY_NAME) return null;
+        if (delta.part() < 1 || delta.part() > SetDelta.MAX_PART) {
+            return "Invalid part " + delta.part();
+        }
+        ResourceLocation id = ResourceLocation.tryParse(delta.id());
+        switch (delta.op()) {
+            case PUT_EFFECT, REMOVE_EFFECT -> {
+                if (delta.op() == SetDelta.Op.PUT_EFFECT
+                        && (id == null || !BuiltInRegistries.MOB_EFFECT.containsKey(id))) {
+                    return "Unknown effect '" + delta.id() + "'";
+                }
+                if (delta.amplifier() < 0 || delta.amplifier() > 255) {
+                    return "Amplifier out of range: " + delta.amplifier();
+                }
+            }
+            case PUT_ATTRIBUTE -> {
+                if (id == null || !BuiltInRegistries.ATTRIBUTE.containsKey(id)) {
+                    return "Unknown attribute '" + delta.id() + "'";
+                }
+                if (!Double.isFinite(delta.value())) {
+                    return "Invalid value for " + delta.id();
+                }
+                if (delta.modifier() != null && SetCompiler.parseOperation(delta.modifier()) == null) {
+                    return "Invalid modifier '" + delta.modifier() + "'";
+                }
+            }
+            default -> {}
+        }
+        return null;
+    }
+}
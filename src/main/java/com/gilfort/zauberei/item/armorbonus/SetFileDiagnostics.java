@@ -0,0 +1,50 @@
+package com.gilfort.zauberei.item.armorbonus;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Load result of a single set definition file, kept with the registry
+ * snapshot so {@code /zauberei sets validate} does not have to re-read
+ * files that have not changed since the last load.
+ *
+ * @param path         path relative to the set_armor config directory
+ * @param status       worst finding in the file
+ * @param findings     findings in file order, each with its own severity
+ * @param lastModified file timestamp at load time
+ * @param size         file size at load time
+ * @param loadNanos    time spent reading and validating the file
+ * @param derived      the file uses {@code extends} or year scaling, so its
+ *                     registry entry is not a 1:1 copy of the file
+ */
+public record SetFileDiagnostics(String path,
+                                 ZaubereiReloadListener.ValidationResult.Status status,
+                                 List<Finding> findings,
+                                 long lastModified,
+                                 long size,
+                                 long loadNanos,
+                                 boolean derived) {
+
+    /** One finding; {@code message} names the JSON path where known. */
+    public record Finding(ZaubereiReloadListener.ValidationResult.Status severity, String message) {}
+
+    /** True if the file on disk still looks like the one that was loaded. */
+    public boolean isUpToDate(File file) {
+        return file.lastModified() == lastModified && file.length() == size;
+    }
+
+    /** Copy with one more finding; the status becomes the worse of both. */
+    public SetFileDiagnostics with(ZaubereiReloadListener.ValidationResult.Status severity, String message) {
+        List<Finding> all = new ArrayList<>(findings);
+        all.add(new Finding(severity, message));
+        ZaubereiReloadListener.ValidationResult.Status worst = severity.compareTo(status) > 0 ? severity : status;
+        return new SetFileDiagnostics(path, worst, List.copyOf(all), lastModified, size, loadNanos, derived);
+    }
+
+    public ZaubereiReloadListener.ValidationResult toValidationResult() {
+        String message = findings.isEmpty() ? "Valid"
+                : String.join("; ", findings.stream().map(Finding::message).toList());
+        return new ZaubereiReloadListener.ValidationResult(path, status, message);
+    }
+}
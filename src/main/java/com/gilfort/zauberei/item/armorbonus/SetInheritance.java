@@ -0,0 +1,157 @@
+package com.gilfort.zauberei.item.armorbonus;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resolves {@code extends} and year scaling into the flat definition the
+ * registry stores.
+ *
+ * <p>A set that extends another starts from the parent's resolved parts;
+ * its own parts replace the parent's parts with the same key, and its own
+ * {@code displayName} / {@code yearScaling} replace the parent's if present.
+ * Scaling is applied last, with the year of the folder the extending file
+ * lives in — so one base file with {@code "value": "base * year"} can serve
+ * every year folder through a one-line {@code extends} file.</p>
+ *
+ * <p>All of this happens once per load; the compiled result is identical to
+ * a hand-written flat file.</p>
+ */
+final class SetInheritance {
+
+    /** Longest allowed {@code extends} chain. */
+    private static final int MAX_DEPTH = 16;
+
+    /** A definition that cannot be resolved; the message ends up in the file diagnostics. */
+    static final class ResolveException extends Exception {
+        ResolveException(String message) {
+            super(message);
+        }
+    }
+
+    /** Where {@code extends} references point to, for one source (config folder or datapacks). */
+    interface Lookup {
+        /** Key of the definition {@code ref} refers to, as written in the file at {@code fromKey}. */
+        String keyOf(String fromKey, String ref) throws ResolveException;
+
+        /** Raw (unresolved) definition for a key, or {@code null} if there is none. */
+        ArmorSetData find(String key);
+    }
+
+    private SetInheritance() {}
+
+    /**
+     * @param data raw definition as read from the file
+     * @param key  lookup key of that file
+     * @param year year folder of the file, {@link ArmorSetDataRegistry#WILDCARD_YEAR} for none
+     */
+    static ArmorSetData resolve(ArmorSetData data, String key, int year, Lookup lookup) throws ResolveException {
+        return applyScaling(flatten(data, key, lookup, new ArrayList<>()), year);
+    }
+
+    /**
+     * Normalizes a path reference: forward slashes, no leading slash, {@code .json} appended.
+     * {@code .json.disabled} files can be referenced too, so shared bases need not be loaded on their own.
+     */
+    static String normalizeRef(String ref) throws ResolveException {
+        String r = ref.trim().replace('\\', '/');
+        while (r.startsWith("/")) r = r.substring(1);
+        if (!r.endsWith(".json") && !r.endsWith(".json.disabled")) r += ".json";
+        for (String segment : r.split("/")) {
+            if (segment.isEmpty() || segment.equals(".") || segment.equals("..")) {
+                throw new ResolveException("'extends' path '" + ref + "' must be relative to the set folder "
+                        + "and must not contain empty, '.' or '..' segments");
+            }
+        }
+        return r;
+    }
+
+    // ─── extends ─────────────────────────────────────────────────────────
+
+    private static ArmorSetData flatten(ArmorSetData data, String key, Lookup lookup, List<String> chain)
+            throws ResolveException {
+        if (data.getExtends() == null) return data;
+        if (chain.size() >= MAX_DEPTH) {
+            throw new ResolveException("'extends' chain longer than " + MAX_DEPTH + ": " + String.join(" → ", chain));
+        }
+        chain.add(key);
+
+        String parentKey = lookup.keyOf(key, data.getExtends());
+        if (chain.contains(parentKey)) {
+            throw new ResolveException("'extends' cycle: " + String.join(" → ", chain) + " → " + parentKey);
+        }
+        ArmorSetData parent = lookup.find(parentKey);
+        if (parent == null) {
+            throw new ResolveException("'extends' target '" + data.getExtends() + "' not found or not readable");
+        }
+        ArmorSetData base = flatten(parent, parentKey, lookup, chain);
+
+        ArmorSetData merged = new ArmorSetData();
+        merged.setDisplayName(data.getDisplayName() != null ? data.getDisplayName() : base.getDisplayName());
+        merged.setYearScaling(data.getYearScaling() != null ? data.getYearScaling() : base.getYearScaling());
+        Map<String, ArmorSetData.PartData> parts = new LinkedHashMap<>();
+        if (base.getParts() != null) parts.putAll(base.getParts());
+        if (data.getParts() != null) parts.putAll(data.getParts());
+        if (parts.isEmpty()) {
+            throw new ResolveException("no parts after resolving 'extends'");
+        }
+        merged.setParts(parts);
+        return merged;
+    }
+
+    // ─── Year scaling ────────────────────────────────────────────────────
+
+    /**
+     * Returns a new definition with all expressions evaluated, or {@code data} if there are none.
+     * Sets without a year (all_majors_all_years) keep their written values.
+     */
+    private static ArmorSetData applyScaling(ArmorSetData data, int year) throws ResolveException {
+        if (!data.isDerived()) return data;
+        // Without a year folder the written values are used as they are
+        boolean scale = year != ArmorSetDataRegistry.WILDCARD_YEAR;
+
+        ArmorSetData.YearScaling scaling = data.getYearScaling();
+        String ampDefault = scaling != null ? scaling.getAmplifier() : null;
+        String valueDefault = scaling != null ? scaling.getValue() : null;
+
+        // Deep copy, so procs, conditions and the raw definition are never shared with the result
+        ArmorSetData out = ArmorSetDataAdapter.copy(data);
+        out.setExtends(null);
+        out.setYearScaling(null);
+        for (ArmorSetData.PartData pd : out.getParts().values()) {
+            if (pd.getEffects() != null) {
+                for (ArmorSetData.EffectData ed : pd.getEffects()) {
+                    String expr = !scale ? null : ed.getScale() != null ? ed.getScale() : ampDefault;
+                    if (expr != null) {
+                        int amplifier = (int) Math.round(eval(expr, ed.getAmplifier(), year));
+                        ed.setAmplifier(ArmorSetDataAdapter.clampAmplifier(Math.max(0, amplifier)));
+                    }
+                    ed.setScale(null);
+                }
+            }
+            if (pd.getAttributes() != null) {
+                for (ArmorSetData.AttributeData ad : pd.getAttributes().values()) {
+                    String expr = !scale ? null : ad.getScale() != null ? ad.getScale() : valueDefault;
+                    if (expr != null) ad.setValue(eval(expr, ad.getValue(), year));
+                    ad.setScale(null);
+                }
+            }
+        }
+        return out;
+    }
+
+    private static double eval(String expr, double base, int year) throws ResolveException {
+        double result;
+        try {
+            result = YearExpression.parse(expr).eval(base, year);
+        } catch (IllegalArgumentException e) {
+            throw new ResolveException("invalid expression '" + expr + "': " + e.getMessage());
+        }
+        if (!Double.isFinite(result)) {
+            throw new ResolveException("expression '" + expr + "' has no finite result for year " + year);
+        }
+        return result;
+    }
+}
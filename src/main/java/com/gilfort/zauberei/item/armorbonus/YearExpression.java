@@ -0,0 +1,167 @@
+package com.gilfort.zauberei.item.armorbonus;
+
+/**
+ * A small arithmetic expression over {@code base} and {@code year}, used by
+ * {@code yearScaling} in set definitions.
+ *
+ * <p>Supports numbers, the two variables, {@code + - * /}, unary minus and
+ * parentheses, with the usual precedence. Examples:</p>
+ * <pre>
+ *   base * year
+ *   base + (year - 1) * 0.5
+ *   (base + 1) * year - 1
+ * </pre>
+ *
+ * <p>Expressions are parsed once and evaluated while sets are resolved at
+ * load time, never on the tick path.</p>
+ */
+public final class YearExpression {
+
+    /** Evaluation tree node. */
+    private interface Node {
+        double eval(double base, double year);
+    }
+
+    private final String source;
+    private final Node root;
+
+    private YearExpression(String source, Node root) {
+        this.source = source;
+        this.root = root;
+    }
+
+    /**
+     * Parses an expression.
+     *
+     * @throws IllegalArgumentException with the offending position if the text is not valid
+     */
+    public static YearExpression parse(String text) {
+        if (text == null || text.isBlank()) {
+            throw new IllegalArgumentException("empty expression");
+        }
+        Parser parser = new Parser(text);
+        Node root = parser.expression();
+        parser.skipSpaces();
+        if (parser.pos < text.length()) {
+            throw parser.error("unexpected '" + text.charAt(parser.pos) + "'");
+        }
+        return new YearExpression(text, root);
+    }
+
+    public double eval(double base, int year) {
+        return root.eval(base, year);
+    }
+
+    public String source() {
+        return source;
+    }
+
+    @Override
+    public String toString() {
+        return source;
+    }
+
+    // ─── Recursive descent parser ────────────────────────────────────────
+
+    private static final class Parser {
+        private final String text;
+        private int pos;
+
+        Parser(String text) {
+            this.text = text;
+        }
+
+        // expression := term (('+' | '-') term)*
+        Node expression() {
+            Node left = term();
+            while (true) {
+                if (eat('+')) {
+                    Node l = left, r = term();
+                    left = (b, y) -> l.eval(b, y) + r.eval(b, y);
+                } else if (eat('-')) {
+                    Node l = left, r = term();
+                    left = (b, y) -> l.eval(b, y) - r.eval(b, y);
+                } else {
+                    return left;
+                }
+            }
+        }
+
+        // term := factor (('*' | '/') factor)*
+        Node term() {
+            Node left = factor();
+            while (true) {
+                if (eat('*')) {
+                    Node l = left, r = factor();
+                    left = (b, y) -> l.eval(b, y) * r.eval(b, y);
+                } else if (eat('/')) {
+                    Node l = left, r = factor();
+                    left = (b, y) -> l.eval(b, y) / r.eval(b, y);
+                } else {
+                    return left;
+                }
+            }
+        }
+
+        // factor := '-' factor | '(' expression ')' | number | 'base' | 'year'
+        Node factor() {
+            if (eat('-')) {
+                Node inner = factor();
+                return (b, y) -> -inner.eval(b, y);
+            }
+            if (eat('(')) {
+                Node inner = expression();
+                if (!eat(')')) throw error("missing ')'");
+                return inner;
+            }
+            skipSpaces();
+            int start = pos;
+            if (pos < text.length() && (Character.isDigit(text.charAt(pos)) || text.charAt(pos) == '.')) {
+                while (pos < text.length() && (Character.isDigit(text.charAt(pos)) || text.charAt(pos) == '.')) {
+                    pos++;
+                }
+                double value;
+                try {
+                    value = Double.parseDouble(text.substring(start, pos));
+                } catch (NumberFormatException e) {
+                    pos = start;
+                    throw error("invalid number");
+                }
+                return (b, y) -> value;
+            }
+            while (pos < text.length() && Character.isLetter(text.charAt(pos))) {
+                pos++;
+            }
+            String word = text.substring(start, pos);
+            return switch (word) {
+                case "base" -> (b, y) -> b;
+                case "year" -> (b, y) -> y;
+                case "" -> throw error(pos < text.length()
+                        ? "unexpected '" + text.charAt(pos) + "'" : "unexpected end");
+                default -> {
+                    pos = start;
+                    throw error("unknown variable '" + word + "' (use base or year)");
+                }
+            };
+        }
+
+        boolean eat(char c) {
+            skipSpaces();
+            if (pos < text.length() && text.charAt(pos) == c) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        void skipSpaces() {
+            while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(message + " at position " + (pos + 1));
+        }
+    }
+}
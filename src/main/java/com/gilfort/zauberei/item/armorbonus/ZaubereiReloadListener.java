@@ -1,20 +1,27 @@
 package com.gilfort.zauberei.item.armorbonus;
 
+import com.gilfort.zauberei.Config;
 import com.gilfort.zauberei.Zauberei;
-import com.google.gson.*;
-import net.minecraft.core.registries.BuiltInRegistries;
-import net.minecraft.locale.Language;
+import com.gilfort.zauberei.util.ZaubereiIO;
 import net.minecraft.resources.ResourceLocation;
-import net.minecraft.world.effect.MobEffect;
-import net.minecraft.world.entity.ai.attributes.Attribute;
+import net.minecraft.server.packs.resources.Resource;
+import net.minecraft.server.packs.resources.ResourceManager;
 import net.neoforged.fml.loading.FMLPaths;
 
 import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * Loads all JSON files from config/zauberei/set_armor/.
@@ -30,6 +37,16 @@ import java.util.Map;
  *   "zauberei__magiccloth_armor" -> "zauberei:magiccloth_armor"
  *
  * Tag-only (no armor material compatibility).
+ *
+ * Datapacks can ship the same layout under data/{namespace}/zauberei_sets/;
+ * config files override datapack files for the same major/year/tag.
+ * See {@link SetDefinitionReloadListener} for when loading happens.
+ *
+ * A file can build on another one with "extends" and scale its values per
+ * year with "yearScaling"; both are resolved here, see {@link SetInheritance}.
+ *
+ * With lazy set loading enabled, {major}/{year}/ files are only indexed here
+ * and read on first use; see {@link LazySetCache}.
  */
 public class ZaubereiReloadListener {
 
@@ -38,9 +55,71 @@ public class ZaubereiReloadListener {
             "zauberei" + File.separator + "set_armor"
     );
 
-    private static final Gson GSON = new Gson();
+    /** Sub-directory of {@code data/<namespace>/} that datapacks ship set definitions in. */
+    public static final String DATAPACK_DIR = "zauberei_sets";
+    /** Origin prefix for entries that came from a datapack rather than the config folder. */
+    public static final String DATAPACK_ORIGIN_PREFIX = "datapack:";
+
+    /**
+     * Sets read by one source (config folder or datapacks).
+     * {@code origins} holds the source path of each entry, index-aligned with {@code entries}.
+     * {@code deferred} holds the files of lazily loaded majors (major → key → file).
+     */
+    public record LoadResult(List<ArmorSetDataRegistry.SetEntry> entries, List<String> origins,
+                             Map<String, SetFileDiagnostics> diagnostics,
+                             Map<String, Map<String, File>> deferred) {
+        public static final LoadResult EMPTY = new LoadResult(List.of(), List.of(), Map.of(), Map.of());
+    }
 
+    /** Datapack sets from the last resource reload, combined with every config reload. */
+    private static volatile LoadResult lastDatapackResult = LoadResult.EMPTY;
+
+    /**
+     * Datapack and config sets merged and compiled, ready to be published.
+     * Built off the server thread by {@link #prepare}.
+     */
+    public record Prepared(LoadResult datapack, LoadResult config, ArmorSetDataRegistry.Compiled sets) {}
+
+    /**
+     * Re-reads the config folder and publishes it together with the datapack
+     * sets from the last resource reload. Used by the reload command and GUI.
+     */
     public static void loadAllEffects() {
+        publish(prepare(lastDatapackResult, readConfigSets()));
+    }
+
+    /**
+     * Merges datapack and config sets and compiles them into one registry
+     * snapshot. Config entries override datapack entries with the same
+     * major/year/tag. Safe to call off the main thread.
+     */
+    public static Prepared prepare(LoadResult datapack, LoadResult config) {
+        List<ArmorSetDataRegistry.SetEntry> entries = new ArrayList<>(datapack.entries());
+        entries.addAll(config.entries());
+        List<String> origins = new ArrayList<>(datapack.origins());
+        origins.addAll(config.origins());
+        Map<String, SetFileDiagnostics> diagnostics = new LinkedHashMap<>(config.diagnostics());
+        diagnostics.putAll(datapack.diagnostics());
+
+        return new Prepared(datapack, config,
+                ArmorSetDataRegistry.compile(entries, origins, diagnostics, config.deferred()));
+    }
+
+    /** Swaps in a prepared snapshot; all compiling happened in {@link #prepare}. */
+    public static void publish(Prepared prepared) {
+        LoadResult datapack = prepared.datapack();
+        LoadResult config = prepared.config();
+        lastDatapackResult = datapack;
+        ArmorSetDataRegistry.publish(prepared.sets());
+
+        int deferredFiles = config.deferred().values().stream().mapToInt(Map::size).sum();
+        Zauberei.LOGGER.info("[Zauberei] Published {} set definition(s) ({} from config, {} from datapacks, "
+                        + "{} deferred for {} major(s))", datapack.entries().size() + config.entries().size(),
+                config.entries().size(), datapack.entries().size(), deferredFiles, config.deferred().size());
+    }
+
+    /** Reads all sets from config/zauberei/set_armor. Safe to call off the main thread. */
+    public static LoadResult readConfigSets() {
         boolean firstRun = !BASE_DIR.exists();
 
         if (firstRun) {
@@ -54,16 +133,260 @@ public class ZaubereiReloadListener {
             writeExampleFile();
             Zauberei.LOGGER.info("[Zauberei] Created config directory with documentation: {}",
                     BASE_DIR.getAbsolutePath());
-            return;
+            return LoadResult.EMPTY;
+        }
+
+        LoadCollector collector = new LoadCollector(CONFIG_LOOKUP, true);
+        boolean lazy = Config.LAZY_SET_LOADING.get();
+        long start = System.nanoTime();
+        walkDirectory(BASE_DIR, file -> {
+            // Deferred files are only indexed; they are read and reported when their major first loads
+            if (lazy && collector.defer(file)) return;
+            collector.accept(processFile(file));
+        });
+        int deferred = collector.deferred.values().stream().mapToInt(Map::size).sum();
+        Zauberei.LOGGER.info("[Zauberei] Read {} config set file(s) and indexed {} in {} ms",
+                collector.diagnostics.size(), deferred, (System.nanoTime() - start) / 1_000_000);
+        return collector.result();
+    }
+
+    /**
+     * Reads the given config files right away; used by {@link LazySetCache} to load one major.
+     * With {@code log}, their problems and sets are logged like at startup; the cache asks for
+     * that the first time a major is read, as nothing has reported these files before.
+     */
+    static LoadResult readFiles(Collection<File> files, boolean log) {
+        LoadCollector collector = new LoadCollector(CONFIG_LOOKUP, log);
+        for (File file : files) {
+            collector.accept(processFile(file));
+        }
+        return collector.result();
+    }
+
+    /**
+     * Reads all sets shipped in {@code data/<namespace>/zauberei_sets/}, using
+     * the same layout as the config folder. Safe to call off the main thread.
+     */
+    public static LoadResult readDatapackSets(ResourceManager resourceManager) {
+        LoadCollector collector = new LoadCollector(datapackLookup(resourceManager), true);
+        Map<ResourceLocation, Resource> resources = resourceManager.listResources(DATAPACK_DIR,
+                loc -> loc.getPath().endsWith(".json"));
+        for (Map.Entry<ResourceLocation, Resource> e : resources.entrySet()) {
+            ResourceLocation loc = e.getKey();
+            String relative = loc.getPath().substring(DATAPACK_DIR.length() + 1);
+            String origin = DATAPACK_ORIGIN_PREFIX + loc.getNamespace() + "/" + relative;
+            Resource resource = e.getValue();
+            collector.accept(processSource(origin, loc.getNamespace() + ":" + relative, relative.split("/"),
+                    resource::openAsReader, 0, -1));
+        }
+        return collector.result();
+    }
+
+    // ─── extends lookups ─────────────────────────────────────────────────
+
+    /** Config files: keys and references are paths relative to set_armor. */
+    private static final SetInheritance.Lookup CONFIG_LOOKUP = new SetInheritance.Lookup() {
+        @Override
+        public String keyOf(String fromKey, String ref) throws SetInheritance.ResolveException {
+            return SetInheritance.normalizeRef(ref);
+        }
+
+        @Override
+        public ArmorSetData find(String key) {
+            File file = new File(BASE_DIR, key);
+            return file.isFile() ? readRaw(() -> new FileReader(file, StandardCharsets.UTF_8)) : null;
+        }
+    };
+
+    /**
+     * Datapack files: keys are {@code namespace:path} below zauberei_sets;
+     * a reference without a namespace stays in the namespace of the referring file.
+     */
+    private static SetInheritance.Lookup datapackLookup(ResourceManager resourceManager) {
+        return new SetInheritance.Lookup() {
+            @Override
+            public String keyOf(String fromKey, String ref) throws SetInheritance.ResolveException {
+                int colon = ref.indexOf(':');
+                String namespace = colon >= 0 ? ref.substring(0, colon) : fromKey.substring(0, fromKey.indexOf(':'));
+                return namespace + ":" + SetInheritance.normalizeRef(colon >= 0 ? ref.substring(colon + 1) : ref);
+            }
+
+            @Override
+            public ArmorSetData find(String key) {
+                int colon = key.indexOf(':');
+                ResourceLocation loc = ResourceLocation.tryBuild(key.substring(0, colon),
+                        DATAPACK_DIR + "/" + key.substring(colon + 1));
+                if (loc == null) return null;
+                return resourceManager.getResource(loc)
+                        .map(resource -> readRaw(resource::openAsReader))
+                        .orElse(null);
+            }
+        };
+    }
+
+    /** Reads a definition as a parent for {@code extends}; unusable files count as missing. */
+    private static ArmorSetData readRaw(ReaderSource source) {
+        try (Reader reader = source.open()) {
+            ArmorSetDataAdapter.Result result = ArmorSetDataAdapter.read(reader);
+            return result.hasErrors() ? null : result.data();
+        } catch (IOException e) {
+            return null;
         }
+    }
 
-        ArmorSetDataRegistry.clear();
-        walkDirectory(BASE_DIR);
+    /**
+     * Config file a set at major/year/tag is written to: the file it was
+     * loaded from if that is a config file, otherwise the standard location
+     * for its scope ({@code {major}/{year}/}, {@code all_majors/{year}/} or
+     * {@code all_majors_all_years/}). A datapack set is overridden this way.
+     *
+     * @throws IllegalArgumentException if the file would lie outside set_armor
+     */
+    public static File configFileFor(String major, int year, String tag) {
+        String origin = ArmorSetDataRegistry.getOrigin(major, year, tag);
+        File file;
+        if (origin != null && !isDatapackOrigin(origin)) {
+            file = new File(BASE_DIR, origin);
+        } else {
+            String fileName = tag.replace(":", "__") + ".json";
+            boolean wildMajor = ArmorSetDataRegistry.WILDCARD_MAJOR.equals(major);
+            boolean wildYear = year == ArmorSetDataRegistry.WILDCARD_YEAR;
+            String folder = wildMajor && wildYear ? "all_majors_all_years"
+                    : wildMajor ? "all_majors" + File.separator + year
+                    : major + File.separator + year;
+            file = new File(new File(BASE_DIR, folder), fileName);
+        }
+        // Major und Tag kommen vom Client – nie außerhalb von set_armor schreiben
+        if (!file.toPath().normalize().startsWith(BASE_DIR.toPath().normalize())) {
+            throw new IllegalArgumentException("Set file outside the config folder: " + file);
+        }
+        return file;
+    }
+
+    /** Path of a config file relative to set_armor, in the form origins and diagnostics use. */
+    public static String configRelativePath(File file) {
+        return relativize(file);
+    }
+
+    public static boolean isDatapackOrigin(String origin) {
+        return origin != null && origin.startsWith(DATAPACK_ORIGIN_PREFIX);
+    }
+
+    /**
+     * Accumulates file outcomes into a {@link LoadResult}, resolving {@code extends}
+     * and year scaling and logging as it goes.
+     */
+    private static class LoadCollector {
+        final boolean log;
+        /** Raw definitions by lookup key: files read by this collector plus parents read on demand. */
+        final Map<String, ArmorSetData> raw = new HashMap<>();
+        final SetInheritance.Lookup lookup;
+        final List<ArmorSetDataRegistry.SetEntry> entries = new ArrayList<>();
+        final List<String> origins = new ArrayList<>();
+        final Map<String, SetFileDiagnostics> diagnostics = new LinkedHashMap<>();
+        final Map<String, Map<String, File>> deferred = new HashMap<>();
+
+        LoadCollector(SetInheritance.Lookup source, boolean log) {
+            this.log = log;
+            this.lookup = new SetInheritance.Lookup() {
+                @Override
+                public String keyOf(String fromKey, String ref) throws SetInheritance.ResolveException {
+                    return source.keyOf(fromKey, ref);
+                }
+
+                @Override
+                public ArmorSetData find(String key) {
+                    ArmorSetData data = raw.get(key);
+                    if (data == null) {
+                        data = source.find(key);
+                        if (data != null) raw.put(key, data);
+                    }
+                    return data;
+                }
+            };
+        }
+
+        /**
+         * Indexes a {major}/{year}/{namespace}__{tagpath}.json file instead of reading it.
+         * Returns false for wildcard folders and for paths that would fail anyway,
+         * so those are read (and reported) right away.
+         */
+        boolean defer(File file) {
+            java.nio.file.Path rel = BASE_DIR.toPath().relativize(file.toPath());
+            if (rel.getNameCount() != 3) return false;
+            String dirName = rel.getName(0).toString();
+            if ("all_majors".equalsIgnoreCase(dirName)) return false;
+            int year;
+            try {
+                year = Integer.parseInt(rel.getName(1).toString());
+            } catch (NumberFormatException e) {
+                return false;
+            }
+            String fileName = rel.getName(2).toString().replace(".json", "");
+            if (!fileName.contains("__")) return false;
+            String tagString = fileName.replaceFirst("__", ":");
+            if (ResourceLocation.tryParse(tagString) == null) return false;
+
+            String major = dirName.toLowerCase();
+            deferred.computeIfAbsent(major, k -> new HashMap<>())
+                    .put(ArmorSetDataRegistry.makeKey(major, year, tagString), file);
+            return true;
+        }
+
+        void accept(FileOutcome outcome) {
+            accept(outcome, true);
+        }
+
+        /** Records the diagnostics of a deferred file without keeping its set. */
+        void validate(FileOutcome outcome) {
+            accept(outcome, false);
+        }
+
+        private void accept(FileOutcome outcome, boolean keep) {
+            SetFileDiagnostics diag = outcome.diagnostics();
+            ArmorSetDataRegistry.SetEntry entry = outcome.entry();
+            if (entry != null) {
+                raw.put(outcome.refKey(), entry.data());
+                if (diag.derived()) {
+                    try {
+                        ArmorSetData resolved = SetInheritance.resolve(entry.data(), outcome.refKey(),
+                                entry.year(), lookup);
+                        entry = new ArmorSetDataRegistry.SetEntry(entry.major(), entry.year(), entry.tag(), resolved);
+                        if (entry.year() == ArmorSetDataRegistry.WILDCARD_YEAR && hasScaling(outcome.entry().data())) {
+                            diag = diag.with(ValidationResult.Status.WARNING,
+                                    "year scaling is not applied without a year folder");
+                        }
+                    } catch (SetInheritance.ResolveException e) {
+                        diag = diag.with(ValidationResult.Status.ERROR, e.getMessage());
+                        entry = null;
+                    }
+                }
+            }
+
+            diagnostics.put(diag.path(), diag);
+            if (log) logDiagnostics(diag);
+            if (entry != null && keep) {
+                entries.add(entry);
+                origins.add(diag.path());
+                if (log) logLoaded(entry);
+            }
+        }
+
+        /** Own scaling of a file (inherited scaling is not reported). */
+        private static boolean hasScaling(ArmorSetData data) {
+            return data.getExtends() == null ? data.isDerived() : data.getYearScaling() != null;
+        }
+
+        LoadResult result() {
+            Map<String, Map<String, File>> index = new HashMap<>();
+            deferred.forEach((major, files) -> index.put(major, Map.copyOf(files)));
+            return new LoadResult(List.copyOf(entries), List.copyOf(origins), Map.copyOf(diagnostics),
+                    Map.copyOf(index));
+        }
     }
 
     private static void writeHowToFile() {
         File howTo = new File(BASE_DIR, "HOW_TO_SET_EFFECTS.txt");
-        if (howTo.exists()) return;
 
         String content = """
             ╔══════════════════════════════════════════════════════════════════╗
@@ -140,6 +463,41 @@ public class ZaubereiReloadListener {
               "multiply_base"   → percentage of base (e.g. 0.1 = +10%)
               "multiply_total"  → percentage of total (after all additions)
 
+            ── PROCS ────────────────────────────────────────────────────────
+
+              A part can fire effects or heals on combat events:
+                "Procs": [
+                  { "trigger": "on_hit", "chance": 0.2, "effect": "minecraft:slowness",
+                    "amplifier": 0, "duration": 60 },
+                  { "trigger": "on_kill", "heal": 4.0 }
+                ]
+              trigger: on_hit | on_hurt | on_kill     target: other (default) | self
+
+            ── CONDITIONS ───────────────────────────────────────────────────
+
+              A part can require surroundings; if they do not hold, the next
+              lower part applies:
+                "Conditions": { "dimension": "minecraft:the_nether",
+                                "biome": ["minecraft:desert", "#minecraft:is_badlands"],
+                                "time": "night", "inWater": false }
+              dimension / biome: one id or a list, biome tags start with '#'
+              time: day | night
+
+            ── INHERITANCE & YEAR SCALING ───────────────────────────────────
+
+              "extends": path of another set file, relative to set_armor/.
+                The parent's parts are used; parts defined here replace the
+                parent's part with the same key. Chains are allowed, cycles not.
+                Parents can be kept as .json.disabled so they are not loaded alone.
+
+              "yearScaling": expressions using 'base' (the written value) and
+                'year' (the year folder), with + - * / and parentheses:
+                  "yearScaling": { "amplifier": "base + year - 1", "value": "base * year" }
+                Single entries can override with "Scale" (effects) / "scale" (attributes).
+
+              Example — all_majors/3/zauberei__magiccloth_armor.json:
+                { "extends": "all_majors/1/zauberei__magiccloth_armor.json" }
+
             ── EFFECT IDS ───────────────────────────────────────────────────
 
               Use Minecraft effect IDs. Common ones:
@@ -187,18 +545,13 @@ public class ZaubereiReloadListener {
             ══════════════════════════════════════════════════════════════════
             """;
 
-        try (var writer = new java.io.FileWriter(howTo)) {
-            writer.write(content);
-        } catch (Exception e) {
-            Zauberei.LOGGER.error("[Zauberei] Could not write HOW_TO file: {}", e.getMessage());
-        }
+        ZaubereiIO.writeIfAbsent(howTo.toPath(), content)
+                .whenComplete((written, e) -> ZaubereiIO.logFailure("Writing HOW_TO file", e));
     }
 
     private static void writeExampleFile() {
         File exampleDir = new File(BASE_DIR, "_example" + File.separator + "1");
-        exampleDir.mkdirs();
         File exampleFile = new File(exampleDir, "zauberei__example_armor.json.disabled");
-        if (exampleFile.exists()) return;
 
         String content = """
             {
@@ -226,11 +579,8 @@ public class ZaubereiReloadListener {
             }
             """;
 
-        try (var writer = new java.io.FileWriter(exampleFile)) {
-            writer.write(content);
-        } catch (Exception e) {
-            Zauberei.LOGGER.error("[Zauberei] Could not write example file: {}", e.getMessage());
-        }
+        ZaubereiIO.writeIfAbsent(exampleFile.toPath(), content)
+                .whenComplete((written, e) -> ZaubereiIO.logFailure("Writing example file", e));
     }
 
     // ─── Validation Results ──────────────────────────────────────────────
@@ -242,6 +592,11 @@ public class ZaubereiReloadListener {
     /**
      * Validates all JSON files in the set_armor directory WITHOUT loading them
      * into the registry. Returns structured results for chat display.
+     *
+     * <p>Files that are unchanged since the last load reuse the diagnostics
+     * stored with the registry snapshot; only new or modified files are read.
+     * Files using {@code extends} or year scaling are always read again, since
+     * their result also depends on the files they build on.</p>
      */
     public static List<ValidationResult> validateAllFiles() {
         List<ValidationResult> results = new ArrayList<>();
@@ -251,361 +606,181 @@ public class ZaubereiReloadListener {
                     "Config directory does not exist"));
             return results;
         }
-        collectValidationResults(BASE_DIR, results);
+
+        Map<String, SetFileDiagnostics> known = ArmorSetDataRegistry.getDiagnostics();
+        Set<String> seen = new HashSet<>();
+        // Shared, so a parent read for one derived file is not read again for the next
+        LoadCollector check = new LoadCollector(CONFIG_LOOKUP, false);
+        walkDirectory(BASE_DIR, file -> {
+            String relativePath = relativize(file);
+            seen.add(relativePath);
+            SetFileDiagnostics diag = known.get(relativePath);
+            // A derived file can break or heal through its parent while it stays unchanged itself
+            if (diag == null || diag.derived() || !diag.isUpToDate(file)) {
+                check.validate(processFile(file));
+                diag = check.diagnostics.get(relativePath);
+            }
+            results.add(diag.toValidationResult());
+        });
+
+        for (Map.Entry<String, SetFileDiagnostics> e : known.entrySet()) {
+            if (isDatapackOrigin(e.getKey())) {
+                // Datapack files only change with /reload
+                results.add(e.getValue().toValidationResult());
+            } else if (!seen.contains(e.getKey())) {
+                results.add(new ValidationResult(e.getKey(), ValidationResult.Status.WARNING,
+                        "File was removed since the last reload"));
+            }
+        }
         return results;
     }
 
-    private static void collectValidationResults(File dir, List<ValidationResult> results) {
+    /** Visits every {@code .json} file below {@code dir}; {@code .disabled} files are skipped. */
+    private static void walkDirectory(File dir, Consumer<File> visitor) {
         File[] files = dir.listFiles();
         if (files == null) return;
 
         for (File file : files) {
             if (file.isDirectory()) {
-                collectValidationResults(file, results);
+                walkDirectory(file, visitor);
             } else if (file.getName().endsWith(".json")) {
-                validateSingleFile(file, results);
+                visitor.accept(file);
             }
-            // .disabled files are silently skipped (intentional)
         }
     }
 
-    private static void validateSingleFile(File file, List<ValidationResult> results) {
-        // Relative path for readable output
-        String relativePath = BASE_DIR.toPath().relativize(file.toPath()).toString();
-
-        // ── Structure check: path depth ──────────────────────────────────
-        java.nio.file.Path relPath = BASE_DIR.toPath().relativize(file.toPath());
-        int segments = relPath.getNameCount();
-
-        if (segments == 3) {
-            String dirName = relPath.getName(0).toString();
-            String yearName = relPath.getName(1).toString();
-            if (!"all_majors".equalsIgnoreCase(dirName)) {
-                // Must be {major}/{year}/file.json — check year is numeric
-                try {
-                    Integer.parseInt(yearName);
-                } catch (NumberFormatException e) {
-                    results.add(new ValidationResult(relativePath,
-                            ValidationResult.Status.ERROR,
-                            "Year folder '" + yearName + "' is not a number"));
-                    return;
-                }
-            } else {
-                try {
-                    Integer.parseInt(yearName);
-                } catch (NumberFormatException e) {
-                    results.add(new ValidationResult(relativePath,
-                            ValidationResult.Status.ERROR,
-                            "Year folder '" + yearName + "' under all_majors is not a number"));
-                    return;
-                }
-            }
-        } else if (segments == 2) {
-            String dirName = relPath.getName(0).toString();
-            if (!"all_majors_all_years".equalsIgnoreCase(dirName) && !"_example".equalsIgnoreCase(dirName)) {
-                results.add(new ValidationResult(relativePath,
-                        ValidationResult.Status.ERROR,
-                        "2-level path must be in 'all_majors_all_years/' directory"));
-                return;
-            }
-        } else {
-            results.add(new ValidationResult(relativePath,
-                    ValidationResult.Status.ERROR,
-                    "Invalid directory depth (" + segments + " segments)"));
-            return;
-        }
-
-        // ── Filename check ───────────────────────────────────────────────
-        String fileName = file.getName().replace(".json", "");
-        if (!fileName.contains("__")) {
-            results.add(new ValidationResult(relativePath,
-                    ValidationResult.Status.ERROR,
-                    "Filename must contain '__' (e.g. namespace__tagpath.json)"));
-            return;
-        }
-
-        String tagString = fileName.replaceFirst("__", ":");
-        ResourceLocation tagLoc = ResourceLocation.tryParse(tagString);
-        if (tagLoc == null) {
-            results.add(new ValidationResult(relativePath,
-                    ValidationResult.Status.ERROR,
-                    "'" + tagString + "' is not a valid ResourceLocation"));
-            return;
-        }
-
-        // ── JSON parse check ─────────────────────────────────────────────
-        try (FileReader reader = new FileReader(file)) {
-            JsonElement json = JsonParser.parseReader(reader);
-
-            if (!json.isJsonObject()) {
-                results.add(new ValidationResult(relativePath,
-                        ValidationResult.Status.ERROR, "Root element is not a JSON object"));
-                return;
-            }
-
-            ArmorSetData rawData = GSON.fromJson(json, ArmorSetData.class);
-            if (rawData == null || rawData.getParts() == null || rawData.getParts().isEmpty()) {
-                results.add(new ValidationResult(relativePath,
-                        ValidationResult.Status.ERROR, "Missing or empty 'parts' object"));
-                return;
-            }
-
-            // ── Content validation (effects & attributes) ────────────────
-            List<String> warnings = new ArrayList<>();
-
-            for (Map.Entry<String, ArmorSetData.PartData> partEntry : rawData.getParts().entrySet()) {
-                String partKey = partEntry.getKey();
-
-                // Check part key format
-                String numStr = partKey.replace("Part", "");
-                try {
-                    int n = Integer.parseInt(numStr);
-                    if (n < 1 || n > 4) {
-                        warnings.add(partKey + ": threshold " + n + " outside range 1-4");
-                    }
-                } catch (NumberFormatException e) {
-                    results.add(new ValidationResult(relativePath,
-                            ValidationResult.Status.ERROR,
-                            "Invalid part key '" + partKey + "' (expected format: '2Part')"));
-                    return;
-                }
-
-                ArmorSetData.PartData pd = partEntry.getValue();
-
-                // Validate effects
-                if (pd.getEffects() != null) {
-                    for (ArmorSetData.EffectData ed : pd.getEffects()) {
-                        ResourceLocation eLoc = tryMakeResourceLocation(ed.getEffect());
-                        MobEffect mob = eLoc == null ? null : BuiltInRegistries.MOB_EFFECT.get(eLoc);
-                        if (mob == null) {
-                            warnings.add(partKey + ": unknown effect '" + ed.getEffect() + "'");
-                        }
-                    }
-                }
+    private static String relativize(File file) {
+        return BASE_DIR.toPath().relativize(file.toPath()).toString();
+    }
 
-                // Validate attributes
-                if (pd.getAttributes() != null) {
-                    for (Map.Entry<String, ArmorSetData.AttributeData> ae : pd.getAttributes().entrySet()) {
-                        ResourceLocation aLoc = tryMakeResourceLocation(ae.getKey());
-                        Attribute attr = aLoc == null ? null : BuiltInRegistries.ATTRIBUTE.get(aLoc);
-                        if (attr == null) {
-                            warnings.add(partKey + ": unknown attribute '" + ae.getKey() + "'");
-                        }
-                        // Check modifier type
-                        String mod = ae.getValue().getModifier();
-                        if (mod == null || (!mod.equalsIgnoreCase("addition")
-                                && !mod.equalsIgnoreCase("multiply_base")
-                                && !mod.equalsIgnoreCase("multiply")
-                                && !mod.equalsIgnoreCase("multiply_total"))) {
-                            warnings.add(partKey + ": invalid modifier '" + mod
-                                    + "' (use: addition, multiply_base, multiply_total)");
-                        }
-                    }
-                }
-            }
+    // ─── Per-file processing (shared by load and validate) ───────────────
 
-            if (!warnings.isEmpty()) {
-                results.add(new ValidationResult(relativePath,
-                        ValidationResult.Status.WARNING,
-                        String.join("; ", warnings)));
-            } else {
-                results.add(new ValidationResult(relativePath,
-                        ValidationResult.Status.OK, "Valid"));
-            }
+    /**
+     * Diagnostics for one file plus the loaded entry, if the file was usable.
+     * {@code refKey} is the key {@code extends} references resolve to for this file.
+     */
+    private record FileOutcome(SetFileDiagnostics diagnostics, ArmorSetDataRegistry.SetEntry entry,
+                               String refKey) {}
 
-        } catch (JsonSyntaxException e) {
-            results.add(new ValidationResult(relativePath,
-                    ValidationResult.Status.ERROR,
-                    "JSON syntax error: " + e.getMessage()));
-        } catch (IOException e) {
-            results.add(new ValidationResult(relativePath,
-                    ValidationResult.Status.ERROR,
-                    "Could not read file: " + e.getMessage()));
-        }
+    /** Opens the content of a set definition, wherever it lives. */
+    private interface ReaderSource {
+        Reader open() throws IOException;
     }
 
-
-    private static void walkDirectory(File dir) {
-        File[] files = dir.listFiles();
-        if (files == null) return;
-
-        for (File file : files) {
-            if (file.isDirectory()) {
-                walkDirectory(file);
-            } else if (file.getName().endsWith(".json")) {
-                try {
-                    handleJsonFile(file);
-                } catch (Exception e) {
-                    Zauberei.LOGGER.error("[Zauberei] Error loading file {}: {}",
-                            file.getAbsolutePath(), e.getMessage());
-                }
-            }
+    private static FileOutcome processFile(File file) {
+        java.nio.file.Path relPath = BASE_DIR.toPath().relativize(file.toPath());
+        String[] segments = new String[relPath.getNameCount()];
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = relPath.getName(i).toString();
         }
+        return processSource(relativize(file), String.join("/", segments), segments,
+                () -> new FileReader(file, StandardCharsets.UTF_8), file.lastModified(), file.length());
     }
 
-    private static void handleJsonFile(File file) throws IOException {
+    /**
+     * Checks the path layout, derives major/year/tag and reads the content.
+     *
+     * @param path     display path, also the diagnostics key
+     * @param refKey   key other files use to {@code extends} this one
+     * @param segments path below the set root, file name last
+     */
+    private static FileOutcome processSource(String path, String refKey, String[] segments, ReaderSource source,
+                                             long lastModified, long size) {
+        long start = System.nanoTime();
+        String relativePath = path;
+
         // ── Determine major & year from relative path depth ──────────────
         // 3 segments: {major}/{year}/file.json          → standard
+        //             all_majors/{year}/file.json       → wildcard major
         // 2 segments: all_majors_all_years/file.json    → universal wildcard
-        java.nio.file.Path relativePath = BASE_DIR.toPath().relativize(file.toPath());
-        int segmentCount = relativePath.getNameCount(); // includes filename
-
         String major;
         int year;
-
-        if (segmentCount == 3) {
-            // Standard:    {major}/{year}/file.json
-            // Or:          all_majors/{year}/file.json
-            String majorName = relativePath.getName(0).toString();
-            String yearName  = relativePath.getName(1).toString();
-
-            if ("all_majors".equalsIgnoreCase(majorName)) {
-                major = ArmorSetDataRegistry.WILDCARD_MAJOR;
-            } else {
-                major = majorName;
-            }
-
+        if (segments.length == 3) {
+            String dirName = segments[0];
+            String yearName = segments[1];
+            boolean allMajors = "all_majors".equalsIgnoreCase(dirName);
+            major = allMajors ? ArmorSetDataRegistry.WILDCARD_MAJOR : dirName.toLowerCase();
             try {
                 year = Integer.parseInt(yearName);
             } catch (NumberFormatException e) {
-                Zauberei.LOGGER.error(
-                        "[Zauberei] Invalid year folder '{}' in path: {}. Skipping.",
-                        yearName, file.getAbsolutePath());
-                return;
+                return failed(relativePath, refKey, lastModified, size, start, "Year folder '" + yearName + "'"
+                        + (allMajors ? " under all_majors" : "") + " is not a number");
             }
-
-        } else if (segmentCount == 2) {
-            // Universal:   all_majors_all_years/file.json
-            String dirName = relativePath.getName(0).toString();
+        } else if (segments.length == 2) {
+            String dirName = segments[0];
             if (!"all_majors_all_years".equalsIgnoreCase(dirName)) {
-                Zauberei.LOGGER.error(
-                        "[Zauberei] Unexpected 2-level path: {}. " +
-                                "Expected 'all_majors_all_years/' or '{major}/{year}/'. Skipping.",
-                        file.getAbsolutePath());
-                return;
+                return failed(relativePath, refKey, lastModified, size, start,
+                        "2-level path must be in 'all_majors_all_years/' directory");
             }
             major = ArmorSetDataRegistry.WILDCARD_MAJOR;
-            year  = ArmorSetDataRegistry.WILDCARD_YEAR;
-
+            year = ArmorSetDataRegistry.WILDCARD_YEAR;
         } else {
-            Zauberei.LOGGER.error(
-                    "[Zauberei] Invalid directory depth ({} segments) for file: {}. " +
-                            "Expected: {major}/{year}/file.json or all_majors_all_years/file.json",
-                    segmentCount, file.getAbsolutePath());
-            return;
+            return failed(relativePath, refKey, lastModified, size, start, "Invalid directory depth (" + segments.length
+                    + " segments), expected {major}/{year}/file.json or all_majors_all_years/file.json");
         }
 
         // ── Parse filename as tag ────────────────────────────────────────
-        String fileName = file.getName().replace(".json", "");
-
+        String fileName = segments[segments.length - 1].replace(".json", "");
         if (!fileName.contains("__")) {
-            Zauberei.LOGGER.error(
-                    "[Zauberei] Invalid filename '{}' – expected format: " +
-                            "namespace__tagpath.json (e.g. 'zauberei__magiccloth_armor.json'). Skipping.",
-                    file.getName());
-            return;
+            return failed(relativePath, refKey, lastModified, size, start,
+                    "Filename must contain '__' (e.g. namespace__tagpath.json)");
         }
-
         String tagString = fileName.replaceFirst("__", ":");
-        ResourceLocation tagLoc = ResourceLocation.tryParse(tagString);
-        if (tagLoc == null) {
-            Zauberei.LOGGER.error(
-                    "[Zauberei] '{}' is not a valid ResourceLocation (from file '{}'). Skipping.",
-                    tagString, file.getName());
-            return;
+        if (ResourceLocation.tryParse(tagString) == null) {
+            return failed(relativePath, refKey, lastModified, size, start,
+                    "'" + tagString + "' is not a valid ResourceLocation");
         }
 
-        // ── Parse & validate JSON ────────────────────────────────────────
-        try (FileReader reader = new FileReader(file)) {
-            JsonElement json = JsonParser.parseReader(reader);
-
-            if (!json.isJsonObject()) {
-                Zauberei.LOGGER.error("[Zauberei] Invalid JSON format in file: {}",
-                        file.getAbsolutePath());
-                return;
-            }
+        // ── Parse + content validation in one streaming pass ────────────
+        ArmorSetDataAdapter.Result result;
+        try (Reader reader = source.open()) {
+            result = ArmorSetDataAdapter.read(reader);
+        } catch (IOException e) {
+            return failed(relativePath, refKey, lastModified, size, start, "Could not read file: " + e.getMessage());
+        }
 
-            ArmorSetData rawData = GSON.fromJson(json, ArmorSetData.class);
-            if (rawData == null || rawData.getParts() == null || rawData.getParts().isEmpty()) {
-                Zauberei.LOGGER.error(
-                        "[Zauberei] No 'parts' found in file: {} (tag {}). Skipping.",
-                        file.getAbsolutePath(), tagString);
-                return;
-            }
+        ValidationResult.Status status = result.hasErrors() ? ValidationResult.Status.ERROR
+                : result.problems().isEmpty() ? ValidationResult.Status.OK
+                : ValidationResult.Status.WARNING;
+        List<SetFileDiagnostics.Finding> findings = result.problems().stream()
+                .map(p -> new SetFileDiagnostics.Finding(p.severity() == ArmorSetDataAdapter.Severity.ERROR
+                        ? ValidationResult.Status.ERROR : ValidationResult.Status.WARNING, p.describe()))
+                .toList();
+        SetFileDiagnostics diag = new SetFileDiagnostics(relativePath, status, findings,
+                lastModified, size, System.nanoTime() - start, result.data() != null && result.data().isDerived());
+        ArmorSetDataRegistry.SetEntry entry = result.data() == null ? null
+                : new ArmorSetDataRegistry.SetEntry(major, year, tagString, result.data());
+        return new FileOutcome(diag, entry, refKey);
+    }
 
-            ArmorSetData validatedData = validateData(rawData, file);
-            ArmorSetDataRegistry.put(major.toLowerCase(), year, tagString, validatedData);
+    private static FileOutcome failed(String path, String refKey, long lastModified, long size, long start,
+                                      String message) {
+        return new FileOutcome(new SetFileDiagnostics(path, ValidationResult.Status.ERROR,
+                List.of(new SetFileDiagnostics.Finding(ValidationResult.Status.ERROR, message)),
+                lastModified, size, System.nanoTime() - start, false), null, refKey);
+    }
 
-            // ── Descriptive log message ──────────────────────────────────
-            String scope;
-            if (ArmorSetDataRegistry.WILDCARD_MAJOR.equals(major)
-                    && year == ArmorSetDataRegistry.WILDCARD_YEAR) {
-                scope = "ALL majors, ALL years";
-            } else if (ArmorSetDataRegistry.WILDCARD_MAJOR.equals(major)) {
-                scope = "ALL majors, year=" + year;
+    /** Logs each finding at its own severity, not at the file's worst one. */
+    private static void logDiagnostics(SetFileDiagnostics diag) {
+        for (SetFileDiagnostics.Finding finding : diag.findings()) {
+            if (finding.severity() == ValidationResult.Status.ERROR) {
+                Zauberei.LOGGER.error("[Zauberei] {}: {}", diag.path(), finding.message());
             } else {
-                scope = "major=" + major + ", year=" + year;
+                Zauberei.LOGGER.warn("[Zauberei] {}: {}", diag.path(), finding.message());
             }
-            Zauberei.LOGGER.info("[Zauberei] Loaded set definition: {} → tag={}",
-                    scope, tagString);
         }
     }
 
-
-    private static ArmorSetData validateData(ArmorSetData data, File file) {
-        data.getParts().forEach((partName, partData) -> {
-
-            // Validate effects
-            if (partData.getEffects() != null) {
-                var it = partData.getEffects().iterator();
-                while (it.hasNext()) {
-                    ArmorSetData.EffectData ed = it.next();
-                    ResourceLocation id = tryMakeResourceLocation(ed.getEffect());
-                    MobEffect mob = id == null ? null : BuiltInRegistries.MOB_EFFECT.get(id);
-                    if (mob == null) {
-                        Zauberei.LOGGER.error("[Zauberei] Unknown effect '{}' in {} – skipped", ed.getEffect(), file);
-                        it.remove();
-                        continue;
-                    }
-
-                    // Clamp invalid roman level keys (existing behavior)
-                    int lvl = ed.getAmplifier() + 1;
-                    String key = "enchantment.level." + lvl;
-                    if (!Language.getInstance().has(key)) {
-                        int max = 5;
-                        Zauberei.LOGGER.warn("[Zauberei] Level {} for effect '{}' in {} invalid, clamped to {}",
-                                lvl, ed.getEffect(), file, max);
-                        ed.setAmplifier(max - 1);
-                    }
-                }
-            }
-
-            // Validate attributes
-            if (partData.getAttributes() != null) {
-                var attrIt = partData.getAttributes().entrySet().iterator();
-                while (attrIt.hasNext()) {
-                    var entry = attrIt.next();
-                    ResourceLocation aid = tryMakeResourceLocation(entry.getKey());
-                    Attribute attr = aid == null ? null : BuiltInRegistries.ATTRIBUTE.get(aid);
-                    if (attr == null) {
-                        Zauberei.LOGGER.error("[Zauberei] Unknown attribute '{}' in {} – removed",
-                                entry.getKey(), file);
-                        attrIt.remove();
-                    }
-                }
-            }
-        });
-
-        return data;
-    }
-
-    private static ResourceLocation tryMakeResourceLocation(String raw) {
-        String s = raw.contains(":") ? raw : "minecraft:" + raw;
-        try {
-            return ResourceLocation.tryParse(s);
-        } catch (Exception e) {
-            Zauberei.LOGGER.error("[Zauberei] Invalid ResourceLocation '{}' – {}", raw, e.getMessage());
-            return null;
+    private static void logLoaded(ArmorSetDataRegistry.SetEntry entry) {
+        String scope;
+        if (ArmorSetDataRegistry.WILDCARD_MAJOR.equals(entry.major())
+                && entry.year() == ArmorSetDataRegistry.WILDCARD_YEAR) {
+            scope = "ALL majors, ALL years";
+        } else if (ArmorSetDataRegistry.WILDCARD_MAJOR.equals(entry.major())) {
+            scope = "ALL majors, year=" + entry.year();
+        } else {
+            scope = "major=" + entry.major() + ", year=" + entry.year();
         }
+        Zauberei.LOGGER.info("[Zauberei] Loaded set definition: {} → tag={}", scope, entry.tag());
     }
 }
@@ -1,7 +1,13 @@
 package com.gilfort.zauberei.network;
 
+import com.gilfort.zauberei.guis.SetEditorScreen;
 import com.gilfort.zauberei.guis.SetsManagerScreen;
+import com.gilfort.zauberei.item.armorbonus.ArmorSetData;
+import com.gilfort.zauberei.item.armorbonus.ArmorSetDataRegistry;
+import com.gilfort.zauberei.item.armorbonus.SetDelta;
+import net.minecraft.ChatFormatting;
 import net.minecraft.client.Minecraft;
+import net.minecraft.network.chat.Component;
 import net.neoforged.neoforge.network.handling.IPayloadContext;
 
 /**
@@ -20,4 +26,50 @@ public class ClientPayloadHandler {
             Minecraft.getInstance().setScreen(new SetsManagerScreen());
         });
     }
+
+    /**
+     * Answer to an edit this client sent. Shown in the editor if it is still
+     * open, otherwise in the action bar.
+     */
+    public static void handleSetEditResult(final SetEditResultPayload payload,
+                                           final IPayloadContext context) {
+        context.enqueueWork(() -> {
+            Minecraft mc = Minecraft.getInstance();
+            if (mc.screen instanceof SetEditorScreen editor && editor.onEditResult(
+                    payload.major(), payload.year(), payload.tag(), payload.success(), payload.message())) {
+                return;
+            }
+            if (mc.player != null) {
+                mc.player.displayClientMessage(Component.literal(payload.message())
+                        .withStyle(payload.success() ? ChatFormatting.GREEN : ChatFormatting.RED), true);
+            }
+        });
+    }
+
+    /**
+     * A set edit the server saved. Applied to the local registry (except in
+     * singleplayer, where the integrated server already did so on the shared
+     * registry) and passed on to an open set screen.
+     */
+    public static void handleSetDelta(final SetDeltaPayload payload,
+                                      final IPayloadContext context) {
+        context.enqueueWork(() -> {
+            Minecraft mc = Minecraft.getInstance();
+            if (!mc.hasSingleplayerServer()) {
+                ArmorSetData data = ArmorSetDataRegistry.getExact(payload.major(), payload.year(), payload.tag());
+                if (data == null) data = new ArmorSetData();
+                for (SetDelta delta : payload.deltas()) {
+                    delta.applyTo(data);
+                }
+                ArmorSetDataRegistry.replace(payload.major(), payload.year(), payload.tag(), data, null);
+            }
+
+            if (mc.screen instanceof SetEditorScreen editor) {
+                editor.onRemoteDelta(payload.major(), payload.year(), payload.tag(),
+                        payload.deltas(), payload.author());
+            } else if (mc.screen instanceof SetsManagerScreen manager) {
+                manager.onRegistryChanged();
+            }
+        });
+    }
 }
@@ -1,7 +1,10 @@
 package com.gilfort.zauberei.network;
 
 import com.gilfort.zauberei.Config;
+import com.gilfort.zauberei.Zauberei;
 import com.gilfort.zauberei.item.ZaubereiItems;
+import com.gilfort.zauberei.item.armorbonus.SetEdits;
+import com.gilfort.zauberei.util.ZaubereiIO;
 import net.minecraft.core.registries.BuiltInRegistries;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.server.level.ServerPlayer;
@@ -10,6 +13,7 @@ import net.minecraft.sounds.SoundSource;
 import net.minecraft.world.InteractionHand;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.item.Items;
+import net.neoforged.neoforge.network.PacketDistributor;
 import net.neoforged.neoforge.network.handling.IPayloadContext;
 
 import java.util.List;
@@ -44,4 +48,45 @@ public class ServerPayloadHandler {
         player.level().playSound(null, player.blockPosition(), SoundEvents.PLAYER_LEVELUP, SoundSource.PLAYERS, 1.0F, 1.0F);
 
     }
+
+    /**
+     * Applies a set edit from the editor GUI: needs the same permission
+     * level as the /zauberei sets commands. The file is written first; only
+     * then is the registry updated and the change broadcast to all players.
+     */
+    public static void handleSetEdit(SetEditPayload payload, IPayloadContext context) {
+        ServerPlayer player = (ServerPlayer) context.player();
+        if (!player.hasPermissions(2)) {
+            Zauberei.LOGGER.warn("[Zauberei] {} tried to edit set {} without permission",
+                    player.getGameProfile().getName(), payload.tag());
+            replyToEdit(player, payload, false, "You need operator permission to edit sets");
+            return;
+        }
+
+        SetEdits.Prepared edit = SetEdits.prepare(payload.major(), payload.year(), payload.tag(), payload.deltas());
+        if (edit.error() != null) {
+            replyToEdit(player, payload, false, edit.error());
+            return;
+        }
+
+        SetEdits.write(edit).whenCompleteAsync((v, e) -> {
+            if (e != null) {
+                SetEdits.forget(edit);
+                ZaubereiIO.logFailure("Saving set " + edit.relativePath(), e);
+                replyToEdit(player, payload, false, "Save failed: " + ZaubereiIO.describe(e));
+                return;
+            }
+            SetEdits.publish(edit);
+            Zauberei.LOGGER.info("[Zauberei] {} edited {} ({} change(s))",
+                    player.getGameProfile().getName(), edit.relativePath(), edit.deltas().size());
+            replyToEdit(player, payload, true, "Saved to " + edit.relativePath());
+            PacketDistributor.sendToAllPlayers(new SetDeltaPayload(payload.major(), payload.year(),
+                    payload.tag(), edit.deltas(), player.getGameProfile().getName()));
+        }, player.server);
+    }
+
+    private static void replyToEdit(ServerPlayer player, SetEditPayload payload, boolean success, String message) {
+        PacketDistributor.sendToPlayer(player, new SetEditResultPayload(payload.major(), payload.year(),
+                payload.tag(), success, message));
+    }
 }
@@ -0,0 +1,37 @@
+package com.gilfort.zauberei.network;
+
+import com.gilfort.zauberei.Zauberei;
+import com.gilfort.zauberei.item.armorbonus.SetDelta;
+import io.netty.buffer.ByteBuf;
+import net.minecraft.network.codec.ByteBufCodecs;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.resources.ResourceLocation;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * Server → all clients: an edit that was applied and saved on the server.
+ * Clients apply the same deltas to their copy of the set, so open managers
+ * and editors stay current without the registry being sent again.
+ */
+public record SetDeltaPayload(String major, int year, String tag, List<SetDelta> deltas, String author)
+        implements CustomPacketPayload {
+
+    public static final Type<SetDeltaPayload> TYPE =
+            new Type<>(ResourceLocation.fromNamespaceAndPath(Zauberei.MODID, "set_delta"));
+
+    public static final StreamCodec<ByteBuf, SetDeltaPayload> STREAM_CODEC = StreamCodec.composite(
+            ByteBufCodecs.stringUtf8(SetDelta.MAX_STRING), SetDeltaPayload::major,
+            ByteBufCodecs.VAR_INT, SetDeltaPayload::year,
+            ByteBufCodecs.stringUtf8(SetDelta.MAX_STRING), SetDeltaPayload::tag,
+            SetDelta.STREAM_CODEC.apply(ByteBufCodecs.list(SetEditPayload.MAX_DELTAS)), SetDeltaPayload::deltas,
+            ByteBufCodecs.STRING_UTF8, SetDeltaPayload::author,
+            SetDeltaPayload::new);
+
+    @Override
+    public @NotNull Type<? extends CustomPacketPayload> type() {
+        return TYPE;
+    }
+}
@@ -0,0 +1,40 @@
+package com.gilfort.zauberei.network;
+
+import com.gilfort.zauberei.Zauberei;
+import com.gilfort.zauberei.item.armorbonus.SetDelta;
+import io.netty.buffer.ByteBuf;
+import net.minecraft.network.codec.ByteBufCodecs;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.resources.ResourceLocation;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * Client → server: changes made in the set editor to the set at
+ * major/year/tag. Only the changed effects and attributes are sent, see
+ * {@link SetDelta}. The server checks permissions, applies and saves them
+ * and answers with a {@link SetEditResultPayload}.
+ */
+public record SetEditPayload(String major, int year, String tag, List<SetDelta> deltas)
+        implements CustomPacketPayload {
+
+    /** Upper bound for one save; the editor never comes close. */
+    public static final int MAX_DELTAS = SetDelta.MAX_PER_EDIT;
+
+    public static final Type<SetEditPayload> TYPE =
+            new Type<>(ResourceLocation.fromNamespaceAndPath(Zauberei.MODID, "set_edit"));
+
+    public static final StreamCodec<ByteBuf, SetEditPayload> STREAM_CODEC = StreamCodec.composite(
+            ByteBufCodecs.stringUtf8(SetDelta.MAX_STRING), SetEditPayload::major,
+            ByteBufCodecs.VAR_INT, SetEditPayload::year,
+            ByteBufCodecs.stringUtf8(SetDelta.MAX_STRING), SetEditPayload::tag,
+            SetDelta.STREAM_CODEC.apply(ByteBufCodecs.list(MAX_DELTAS)), SetEditPayload::deltas,
+            SetEditPayload::new);
+
+    @Override
+    public @NotNull Type<? extends CustomPacketPayload> type() {
+        return TYPE;
+    }
+}
@@ -0,0 +1,34 @@
+package com.gilfort.zauberei.network;
+
+import com.gilfort.zauberei.Zauberei;
+import com.gilfort.zauberei.item.armorbonus.SetDelta;
+import io.netty.buffer.ByteBuf;
+import net.minecraft.network.codec.ByteBufCodecs;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.resources.ResourceLocation;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Server → editing client: whether a {@link SetEditPayload} was saved,
+ * with a message for the editor's status line.
+ */
+public record SetEditResultPayload(String major, int year, String tag, boolean success, String message)
+        implements CustomPacketPayload {
+
+    public static final Type<SetEditResultPayload> TYPE =
+            new Type<>(ResourceLocation.fromNamespaceAndPath(Zauberei.MODID, "set_edit_result"));
+
+    public static final StreamCodec<ByteBuf, SetEditResultPayload> STREAM_CODEC = StreamCodec.composite(
+            ByteBufCodecs.stringUtf8(SetDelta.MAX_STRING), SetEditResultPayload::major,
+            ByteBufCodecs.VAR_INT, SetEditResultPayload::year,
+            ByteBufCodecs.stringUtf8(SetDelta.MAX_STRING), SetEditResultPayload::tag,
+            ByteBufCodecs.BOOL, SetEditResultPayload::success,
+            ByteBufCodecs.STRING_UTF8, SetEditResultPayload::message,
+            SetEditResultPayload::new);
+
+    @Override
+    public @NotNull Type<? extends CustomPacketPayload> type() {
+        return TYPE;
+    }
+}
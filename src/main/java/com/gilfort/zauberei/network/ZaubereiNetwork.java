@@ -11,7 +11,7 @@ public class ZaubereiNetwork {
 
     @SubscribeEvent
     public static void registerPayload(final RegisterPayloadHandlersEvent event) {
-        final PayloadRegistrar registrar = event.registrar("1");
+        final PayloadRegistrar registrar = event.registrar("2");
 
         registrar.playToServer(
                 LetterButtonPayload.TYPE,
@@ -25,6 +25,25 @@ public class ZaubereiNetwork {
                 ClientPayloadHandler::handleOpenSetsGui
         );
 
+        // Set editor protocol: per-field deltas up, saved deltas broadcast down
+        registrar.playToServer(
+                SetEditPayload.TYPE,
+                SetEditPayload.STREAM_CODEC,
+                ServerPayloadHandler::handleSetEdit
+        );
+
+        registrar.playToClient(
+                SetEditResultPayload.TYPE,
+                SetEditResultPayload.STREAM_CODEC,
+                ClientPayloadHandler::handleSetEditResult
+        );
+
+        registrar.playToClient(
+                SetDeltaPayload.TYPE,
+                SetDeltaPayload.STREAM_CODEC,
+                ClientPayloadHandler::handleSetDelta
+        );
+
         System.out.println("ZaubereiNetwork: Registering payload handler for LetterButtonPayload");
 
     }
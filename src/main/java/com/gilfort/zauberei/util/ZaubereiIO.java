@@ -0,0 +1,269 @@
+package com.gilfort.zauberei.util;
+
+import com.gilfort.zauberei.Zauberei;
+import net.neoforged.fml.loading.FMLPaths;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Small file I/O service for Zauberei config files.
+ *
+ * <p>All work runs on virtual threads, so the render thread and the server
+ * thread never block on disk. Results are returned as {@link CompletableFuture}s;
+ * to get back onto the game thread, chain with {@code whenCompleteAsync(..., executor)}
+ * using {@code Minecraft.getInstance()} or the {@code MinecraftServer} as executor.</p>
+ *
+ * <p>Writes go to a temp file in {@code config/zauberei/.staging} and are
+ * then renamed over the target, so readers never see a half-written file and
+ * no temp file ever sits in a folder the set loader scans. Writes to the same
+ * path are applied in submission order.</p>
+ */
+public final class ZaubereiIO {
+
+    private static final ExecutorService EXECUTOR = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("zauberei-io-", 0).factory());
+
+    /** Last pending write per target path, used to keep same-file writes ordered. */
+    private static final Map<Path, CompletableFuture<?>> PENDING = new ConcurrentHashMap<>();
+
+    /**
+     * Where temp files and backups are staged. Next to the set folders, so
+     * it is normally on the same file system and renames stay atomic.
+     */
+    private static final Path STAGING_DIR = FMLPaths.CONFIGDIR.get().resolve("zauberei").resolve(".staging");
+
+    @FunctionalInterface
+    private interface FileTask<T> {
+        T run(Path target) throws IOException;
+    }
+
+    private ZaubereiIO() {}
+
+    /** Runs an arbitrary blocking task on a virtual thread. */
+    public static <T> CompletableFuture<T> supply(Supplier<T> task) {
+        return CompletableFuture.supplyAsync(task, EXECUTOR);
+    }
+
+    /** Reads a UTF-8 text file. */
+    public static CompletableFuture<String> readString(Path path) {
+        return supply(() -> {
+            try {
+                return Files.readString(path, StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /** Atomically replaces {@code target} with {@code content}, creating parent directories. */
+    public static CompletableFuture<Void> writeAtomic(Path target, String content) {
+        return enqueue(target, p -> {
+            writeAtomicBlocking(p, content);
+            return null;
+        });
+    }
+
+    /**
+     * Like {@link #writeAtomic} but only writes if nothing exists at the
+     * target yet; the check and the creation are one step on the file
+     * system, so a file created in between is never overwritten. Completes
+     * with {@code true} if the file was written, {@code false} if it existed.
+     */
+    public static CompletableFuture<Boolean> writeIfAbsent(Path target, String content) {
+        return enqueue(target, p -> createBlocking(p, content));
+    }
+
+    /** Runs {@code task} on a virtual thread once the earlier writes to {@code target} are done. */
+    private static <T> CompletableFuture<T> enqueue(Path target, FileTask<T> task) {
+        Path key = target.toAbsolutePath().normalize();
+        CompletableFuture<T> done = new CompletableFuture<>();
+        CompletableFuture<?> previous = PENDING.put(key, done);
+        CompletableFuture<?> start = previous == null
+                ? CompletableFuture.completedFuture(null)
+                : previous.exceptionally(e -> null);
+        start.thenApplyAsync(v -> {
+                    try {
+                        return task.run(key);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }, EXECUTOR)
+                .whenComplete((result, e) -> {
+                    if (e != null) done.completeExceptionally(e);
+                    else done.complete(result);
+                });
+        done.whenComplete((result, e) -> PENDING.remove(key, done));
+        return done;
+    }
+
+    /**
+     * Writes several files as one batch: all contents are staged to temp
+     * files first, and only if every one was written are they renamed over
+     * their targets. If a rename fails, the targets already replaced are
+     * restored, so the batch is applied completely or not at all. Ordered
+     * with other writes to the same paths like {@link #writeAtomic}.
+     */
+    public static CompletableFuture<Void> writeAllAtomic(Map<Path, String> files) {
+        Map<Path, String> byKey = new LinkedHashMap<>();
+        files.forEach((target, content) -> byKey.put(target.toAbsolutePath().normalize(), content));
+
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        List<CompletableFuture<?>> previous = new ArrayList<>();
+        for (Path key : byKey.keySet()) {
+            PENDING.compute(key, (p, prev) -> {
+                if (prev != null) previous.add(prev.exceptionally(e -> null));
+                return done;
+            });
+        }
+        CompletableFuture.allOf(previous.toArray(CompletableFuture[]::new))
+                .thenRunAsync(() -> {
+                    try {
+                        writeAllAtomicBlocking(byKey);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }, EXECUTOR)
+                .whenComplete((v, e) -> {
+                    if (e != null) done.completeExceptionally(e);
+                    else done.complete(null);
+                });
+        for (Path key : byKey.keySet()) {
+            done.whenComplete((v, e) -> PENDING.remove(key, done));
+        }
+        return done;
+    }
+
+    private static void writeAllAtomicBlocking(Map<Path, String> files) throws IOException {
+        Map<Path, Path> staged = new LinkedHashMap<>();
+        Map<Path, Path> backups = new LinkedHashMap<>();
+        try {
+            // 1. Stage new contents and copies of the old ones; no target is touched yet
+            for (Map.Entry<Path, String> e : files.entrySet()) {
+                Path target = e.getKey();
+                Files.createDirectories(target.getParent());
+                staged.put(target, stage(target, e.getValue()));
+                if (Files.exists(target)) {
+                    Path backup = Files.createTempFile(STAGING_DIR, target.getFileName() + "-", ".bak");
+                    backups.put(target, backup);
+                    Files.copy(target, backup, StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+
+            // 2. Rename batch, rolled back on the first failure
+            List<Path> replaced = new ArrayList<>();
+            try {
+                for (Map.Entry<Path, Path> e : staged.entrySet()) {
+                    move(e.getValue(), e.getKey());
+                    replaced.add(e.getKey());
+                }
+            } catch (IOException e) {
+                for (Path target : replaced) {
+                    try {
+                        Path backup = backups.get(target);
+                        if (backup != null) move(backup, target);
+                        else Files.deleteIfExists(target);
+                    } catch (IOException rollback) {
+                        e.addSuppressed(rollback);
+                    }
+                }
+                throw e;
+            }
+        } finally {
+            for (Path tmp : staged.values()) Files.deleteIfExists(tmp);
+            for (Path backup : backups.values()) Files.deleteIfExists(backup);
+        }
+    }
+
+    /** Same-thread version of the atomic write, for code that already runs off-thread. */
+    public static void writeAtomicBlocking(Path target, String content) throws IOException {
+        Files.createDirectories(target.toAbsolutePath().getParent());
+        Path tmp = stage(target, content);
+        try {
+            move(tmp, target);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * Creates {@code target} with {@code content} unless something exists
+     * there; {@code false} if it did. The staged file is hard-linked to the
+     * target, which fails atomically if the name is taken. Where hard links
+     * are not available, a move without {@code REPLACE_EXISTING} still
+     * refuses to replace an existing file.
+     */
+    private static boolean createBlocking(Path target, String content) throws IOException {
+        Files.createDirectories(target.getParent());
+        Path tmp = stage(target, content);
+        try {
+            try {
+                Files.createLink(target, tmp);
+            } catch (FileAlreadyExistsException e) {
+                throw e;
+            } catch (UnsupportedOperationException | FileSystemException e) {
+                Files.move(tmp, target);
+            }
+            return true;
+        } catch (FileAlreadyExistsException e) {
+            return false;
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /** Writes {@code content} to a new temp file in the staging folder. */
+    private static Path stage(Path target, String content) throws IOException {
+        Files.createDirectories(STAGING_DIR);
+        Path tmp = Files.createTempFile(STAGING_DIR, target.getFileName() + "-", ".tmp");
+        try {
+            Files.writeString(tmp, content, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+        return tmp;
+    }
+
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /** Unwraps the {@link CompletionException} layers around an I/O failure. */
+    public static String describe(Throwable error) {
+        Throwable t = error;
+        while ((t instanceof CompletionException || t instanceof UncheckedIOException)
+                && t.getCause() != null) {
+            t = t.getCause();
+        }
+        return t.getMessage() != null ? t.getMessage() : t.getClass().getSimpleName();
+    }
+
+    /** Logs a failed background write; for fire-and-forget writes. */
+    public static void logFailure(String what, Throwable error) {
+        if (error != null) {
+            Zauberei.LOGGER.error("[Zauberei] {} failed: {}", what, describe(error));
+        }
+    }
+}
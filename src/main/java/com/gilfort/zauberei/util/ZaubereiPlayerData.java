@@ -2,6 +2,8 @@ package com.gilfort.zauberei.util;
 
 import java.util.function.Supplier;
 import com.gilfort.zauberei.Zauberei;
+import com.gilfort.zauberei.commands.CommandsStateCodec;
+import com.gilfort.zauberei.commands.GwState;
 import net.minecraft.nbt.CompoundTag;
 import net.neoforged.neoforge.attachment.AttachmentType;
 import net.neoforged.neoforge.registries.DeferredHolder;
@@ -21,6 +23,14 @@ public class ZaubereiPlayerData {
                             .build()
             );
 
+    /** Gateway command state; encoded from the live state whenever the player is saved. */
+    public static final DeferredHolder<AttachmentType<?>, AttachmentType<GwState>> GATEWAY_STATE =
+            ATTACHMENT_TYPES.register("gateway_state", () ->
+                    AttachmentType.<GwState>builder((Supplier<GwState>) GwState::new)
+                            .serialize(CommandsStateCodec.SERIALIZER)
+                            .build()
+            );
+
 
 
 }